@@ -69,3 +69,113 @@ Create the name of the operator service account to use
 {{- define "kaap.serviceAccountName" -}}
 {{- default (include "kaap.fullname" .) .Values.serviceAccount.name }}
 {{- end }}
+
+{{/*
+Rules of the operator role in the namespaces of the Pulsar clusters
+*/}}
+{{- define "kaap.namespacedRules" -}}
+- apiGroups:
+    - apps
+  resources:
+    - deployments
+    - daemonsets
+    - replicasets
+    - statefulsets
+  verbs:
+    - "*"
+- apiGroups:
+    - ""
+  resources:
+    - pods
+    - configmaps
+    - services
+    - serviceaccounts
+    - secrets
+    - persistentvolumes
+    - persistentvolumeclaims
+  verbs:
+    - '*'
+- apiGroups:
+    - ""
+  resources:
+    - pods/exec
+  verbs:
+    - 'get' # java client uses GET before executing to a pod
+    - 'create'
+- apiGroups:
+    - "batch"
+  resources:
+    - jobs
+  verbs:
+    - '*'
+- apiGroups:
+    - policy
+  resources:
+    - poddisruptionbudgets
+  verbs:
+    - "*"
+- apiGroups:
+    - "apiextensions.k8s.io"
+  resources:
+      - customresourcedefinitions
+  verbs:
+      - '*'
+- apiGroups:
+    - "rbac.authorization.k8s.io"
+  resources:
+    - roles
+    - rolebindings
+  verbs:
+    - '*'
+- apiGroups:
+    - "metrics.k8s.io"
+  resources:
+      - pods
+  verbs:
+      - "*"
+- apiGroups:
+    - coordination.k8s.io
+  resources:
+    - leases
+  verbs:
+    - "*"
+- apiGroups:
+    - kaap.oss.datastax.com
+  resources:
+    - pulsarclusters
+    - pulsarclusters/status
+    - pulsarclusters/finalizers
+    - zookeepers
+    - zookeepers/status
+    - zookeepers/finalizers
+    - bookkeepers
+    - bookkeepers/status
+    - bookkeepers/finalizers
+    - brokers
+    - brokers/status
+    - brokers/finalizers
+    - proxies
+    - proxies/status
+    - proxies/finalizers
+    - autorecoveries
+    - autorecoveries/status
+    - autorecoveries/finalizers
+    - bastions
+    - bastions/status
+    - bastions/finalizers
+    - functionsworkers
+    - functionsworkers/status
+    - functionsworkers/finalizers
+  verbs:
+      - "*"
+- apiGroups:
+    - "cert-manager.io"
+  resources:
+    - issuers
+    - certificates
+  verbs:
+    - create
+    - get
+    - update
+    - list
+{{- end }}
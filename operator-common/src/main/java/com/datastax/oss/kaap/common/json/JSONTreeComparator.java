@@ -0,0 +1,161 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.common.json;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structural comparison of Jackson trees, with the same semantics of {@link JSONAssertComparator}:
+ * object fields are compared regardless of their order, arrays are compared in strict order and numbers are
+ * compared by value.
+ * {@link Result#areEquals()} stops at the first difference, the list of diffs is only computed when requested.
+ */
+public class JSONTreeComparator implements JSONComparator {
+
+    @Override
+    public Result compare(String expectedStr, String actualStr) {
+        return compare(SerializationUtil.readJsonTree(expectedStr), SerializationUtil.readJsonTree(actualStr));
+    }
+
+    public Result compare(JsonNode expected, JsonNode actual) {
+        if (!(expected.isObject() && actual.isObject()) && !(expected.isArray() && actual.isArray())) {
+            throw new IllegalArgumentException();
+        }
+        return new TreeResult(expected, actual);
+    }
+
+    private static class TreeResult implements Result {
+        private final JsonNode expected;
+        private final JsonNode actual;
+        private Boolean equals;
+        private List<FieldComparisonDiff> diffs;
+
+        TreeResult(JsonNode expected, JsonNode actual) {
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        @Override
+        public boolean areEquals() {
+            if (equals == null) {
+                equals = nodesEqual(expected, actual);
+            }
+            return equals;
+        }
+
+        @Override
+        public List<FieldComparisonDiff> diffs() {
+            if (diffs == null) {
+                if (areEquals()) {
+                    diffs = Collections.emptyList();
+                } else {
+                    final List<FieldComparisonDiff> result = new ArrayList<>();
+                    collectDiffs("", expected, actual, result);
+                    diffs = Collections.unmodifiableList(result);
+                }
+            }
+            return diffs;
+        }
+    }
+
+    private static boolean nodesEqual(JsonNode expected, JsonNode actual) {
+        if (expected.isNumber() && actual.isNumber()) {
+            return numbersEqual(expected, actual);
+        }
+        if (expected.getNodeType() != actual.getNodeType()) {
+            return false;
+        }
+        if (expected.isObject()) {
+            if (expected.size() != actual.size()) {
+                return false;
+            }
+            final Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                final JsonNode actualValue = actual.get(field.getKey());
+                if (actualValue == null || !nodesEqual(field.getValue(), actualValue)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (expected.isArray()) {
+            if (expected.size() != actual.size()) {
+                return false;
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (!nodesEqual(expected.get(i), actual.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return expected.equals(actual);
+    }
+
+    private static boolean numbersEqual(JsonNode expected, JsonNode actual) {
+        if (expected.isIntegralNumber() && actual.isIntegralNumber()) {
+            return expected.bigIntegerValue().equals(actual.bigIntegerValue());
+        }
+        return expected.decimalValue().compareTo(actual.decimalValue()) == 0;
+    }
+
+    private static void collectDiffs(String prefix, JsonNode expected, JsonNode actual,
+                                     List<FieldComparisonDiff> result) {
+        if (expected.isObject() && actual.isObject()) {
+            final Iterator<Map.Entry<String, JsonNode>> fields = expected.fields();
+            while (fields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = fields.next();
+                final String qualified = qualify(prefix, field.getKey());
+                final JsonNode actualValue = actual.get(field.getKey());
+                if (actualValue == null) {
+                    result.add(new FieldComparisonDiff(qualified, toText(field.getValue()), null));
+                } else {
+                    collectDiffs(qualified, field.getValue(), actualValue, result);
+                }
+            }
+            final Iterator<Map.Entry<String, JsonNode>> actualFields = actual.fields();
+            while (actualFields.hasNext()) {
+                final Map.Entry<String, JsonNode> field = actualFields.next();
+                if (!expected.has(field.getKey())) {
+                    result.add(new FieldComparisonDiff(qualify(prefix, field.getKey()), null,
+                            toText(field.getValue())));
+                }
+            }
+        } else if (expected.isArray() && actual.isArray() && expected.size() == actual.size()) {
+            for (int i = 0; i < expected.size(); i++) {
+                collectDiffs(prefix + "[" + i + "]", expected.get(i), actual.get(i), result);
+            }
+        } else if (!nodesEqual(expected, actual)) {
+            result.add(new FieldComparisonDiff(prefix, toText(expected), toText(actual)));
+        }
+    }
+
+    private static String qualify(String prefix, String field) {
+        final String name = field.contains(".") ? "\"" + field + "\"" : field;
+        return prefix.isEmpty() ? name : prefix + "." + name;
+    }
+
+    private static String toText(JsonNode node) {
+        return node.isContainerNode() ? node.toString() : node.asText();
+    }
+}
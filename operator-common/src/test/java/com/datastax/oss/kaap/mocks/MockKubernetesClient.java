@@ -65,6 +65,7 @@ import io.fabric8.kubernetes.client.dsl.V1BatchAPIGroupDSL;
 import io.fabric8.kubernetes.client.dsl.V1PolicyAPIGroupDSL;
 import io.fabric8.kubernetes.client.dsl.V1StorageAPIGroupDSL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
@@ -93,8 +94,8 @@ public class MockKubernetesClient {
 
     final KubernetesClient client;
     final MockResourcesResolver resourcesResolver;
-    final List<ResourceInteraction> createdResources = new ArrayList<>();
-    final List<ResourceInteraction> deletedResources = new ArrayList<>();
+    final List<ResourceInteraction> createdResources = Collections.synchronizedList(new ArrayList<>());
+    final List<ResourceInteraction> deletedResources = Collections.synchronizedList(new ArrayList<>());
 
     public MockKubernetesClient(String namespace) {
         this(namespace, null);
@@ -0,0 +1,46 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap;
+
+import com.datastax.oss.kaap.metrics.KubernetesApiMetricsInterceptor;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientBuilder;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+
+/**
+ * Replaces the default client of the kubernetes-client extension to count the API calls.
+ */
+@ApplicationScoped
+public class KubernetesClientProducer {
+
+    @Produces
+    @Singleton
+    public KubernetesClient kubernetesClient(Config config) {
+        return new KubernetesClientBuilder()
+                .withConfig(config)
+                .withHttpClientBuilderConsumer(builder -> builder.addOrReplaceInterceptor(
+                        KubernetesApiMetricsInterceptor.NAME, new KubernetesApiMetricsInterceptor()))
+                .build();
+    }
+
+    public void close(@Disposes KubernetesClient client) {
+        client.close();
+    }
+}
@@ -17,10 +17,16 @@ package com.datastax.oss.kaap;
 
 import io.javaoperatorsdk.operator.api.config.LeaderElectionConfiguration;
 import io.quarkus.arc.Unremovable;
+import io.quarkus.arc.lookup.LookupUnlessProperty;
 import javax.enterprise.context.ApplicationScoped;
 
+/**
+ * Single leader for all the custom resources. It's not used in sharded mode, where each replica owns the leases
+ * of its shards instead.
+ */
 @ApplicationScoped
 @Unremovable
+@LookupUnlessProperty(name = "kaap.sharding-enabled", stringValue = "true")
 public class LeaderElectionConfig extends LeaderElectionConfiguration {
 
     public static final String LEASE_NAME = "kaap-lease";
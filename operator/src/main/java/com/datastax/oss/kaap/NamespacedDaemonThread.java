@@ -29,11 +29,11 @@ import lombok.extern.jbosslog.JBossLog;
 public abstract class NamespacedDaemonThread<T> implements AutoCloseable {
 
     private final Map<String, NamespaceContext<T>> namespaces = new HashMap<>();
-    protected final List<ScheduledFuture<?>> tasks = new ArrayList<>();
 
     @Data
     private static class NamespaceContext<T> {
         private T current;
+        private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
 
         boolean isChanged(T spec) {
             if (current != null
@@ -45,20 +45,22 @@ public abstract class NamespacedDaemonThread<T> implements AutoCloseable {
         }
     }
 
-    public void onSpecChange(PulsarClusterSpec clusterSpec, String namespace) {
-        final NamespaceContext namespaceContext = namespaces.getOrDefault(namespace,
-                new NamespaceContext());
+    public synchronized void onSpecChange(PulsarClusterSpec clusterSpec, String namespace) {
+        final NamespaceContext<T> namespaceContext = namespaces.computeIfAbsent(namespace,
+                ns -> new NamespaceContext<>());
         final T newSpec = getSpec(clusterSpec);
         final boolean isChanged = namespaceContext.isChanged(newSpec);
         if (isChanged) {
-            cancelTasks();
+            if (!namespaceContext.getTasks().isEmpty()) {
+                cancelTasks(namespaceContext.getTasks());
+                tasksCancelled(namespace);
+            }
             final List<ScheduledFuture<?>> newTasks = specChanged(namespace, newSpec, clusterSpec);
             if (newTasks != null) {
-                tasks.addAll(newTasks);
+                namespaceContext.getTasks().addAll(newTasks);
             }
         }
         namespaceContext.setCurrent(newSpec);
-        namespaces.put(namespace, namespaceContext);
     }
 
 
@@ -66,8 +68,39 @@ public abstract class NamespacedDaemonThread<T> implements AutoCloseable {
 
     protected abstract List<ScheduledFuture<?>> specChanged(String namespace, T newSpec, PulsarClusterSpec clusterSpec);
 
+    /**
+     * Called after the tasks of the namespace have been cancelled, to release what they left behind.
+     */
+    protected void tasksCancelled(String namespace) {
+    }
+
+    /**
+     * Cancel the tasks of the namespace and forget its spec, the next spec change schedules them again.
+     * The tasks of the other namespaces are not affected.
+     */
+    public synchronized void stop(String namespace) {
+        final NamespaceContext<T> namespaceContext = namespaces.remove(namespace);
+        if (namespaceContext != null) {
+            log.debugf("Stopping %s tasks for namespace %s", getClass().getSimpleName(), namespace);
+            cancelTasks(namespaceContext.getTasks());
+            tasksCancelled(namespace);
+        }
+    }
+
+    public synchronized boolean isRunning(String namespace) {
+        final NamespaceContext<T> namespaceContext = namespaces.get(namespace);
+        return namespaceContext != null && !namespaceContext.getTasks().isEmpty();
+    }
+
+    public synchronized void cancelTasks() {
+        namespaces.forEach((namespace, namespaceContext) -> {
+            cancelTasks(namespaceContext.getTasks());
+            tasksCancelled(namespace);
+        });
+        namespaces.clear();
+    }
 
-    public void cancelTasks() {
+    private static void cancelTasks(List<ScheduledFuture<?>> tasks) {
         tasks.forEach(f -> {
             f.cancel(true);
             try {
@@ -24,4 +24,34 @@ public interface OperatorRuntimeConfiguration {
 
     @WithDefault("5")
     Integer reconciliationRescheduleSeconds();
+
+    @WithDefault("60")
+    Integer reconciliationResyncSeconds();
+
+    @WithDefault("300")
+    Integer reconciliationErrorBackoffMaxSeconds();
+
+    @WithDefault("4")
+    Integer clusterReconciliationParallelism();
+
+    @WithDefault("4")
+    Integer setsUpdateMaxConcurrency();
+
+    @WithDefault("4")
+    Integer namespaceReconciliationMaxConcurrency();
+
+    @WithDefault("0")
+    Double namespaceReconciliationsPerSecond();
+
+    @WithDefault("false")
+    Boolean shardingEnabled();
+
+    @WithDefault("16")
+    Integer shardingShards();
+
+    @WithDefault("30")
+    Integer shardingLeaseDurationSeconds();
+
+    @WithDefault("10")
+    Integer shardingRenewIntervalSeconds();
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler;
+
+import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.quarkus.runtime.LaunchMode;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import lombok.SneakyThrows;
+import lombok.extern.jbosslog.JBossLog;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * HTTP client for the brokers and bookies admin REST API, used to call the pods directly instead of running curl
+ * inside them.
+ * The underlying {@link HttpClient} keeps the connections alive. With TLS, there's one for each namespace and TLS
+ * secret, replaced when the certificates of the secret change.
+ */
+@JBossLog
+public class AdminApiHttpClient {
+
+    public static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    static final String SUPERUSER_ROLE = "superuser";
+    private static final String PLAIN_CLIENT_KEY = "plain";
+    private static final Map<String, CachedHttpClient> HTTP_CLIENTS = new ConcurrentHashMap<>();
+
+    private record CachedHttpClient(String certificatesHash, HttpClient httpClient) {
+    }
+
+    private final HttpClient httpClient;
+    private final String authorization;
+    private final Duration requestTimeout;
+
+    public AdminApiHttpClient(HttpClient httpClient, String authorization, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.authorization = authorization;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Create a client for the given cluster.
+     *
+     * @param tlsSecretName the secret holding the certificates of the target component, null if TLS is not enabled
+     * @return the client or empty if the pods can't be called directly and the exec based access must be used.
+     */
+    public static Optional<AdminApiHttpClient> create(KubernetesClient client, String namespace,
+                                                      GlobalSpec globalSpec, String tlsSecretName) {
+        if (!isPodNetworkReachable()) {
+            return Optional.empty();
+        }
+        String authorization = null;
+        if (BaseResourcesFactory.isAuthTokenEnabled(globalSpec)) {
+            final String secretName = "token-%s".formatted(SUPERUSER_ROLE);
+            final String token = readSecretKey(client, namespace, secretName, "%s.jwt".formatted(SUPERUSER_ROLE));
+            if (token == null) {
+                log.warnf("Token secret %s not found in namespace %s, admin API calls will go through pod exec",
+                        secretName, namespace);
+                return Optional.empty();
+            }
+            authorization = "Bearer " + token.strip();
+        }
+        final HttpClient httpClient;
+        if (tlsSecretName != null) {
+            String trusted = readSecretKey(client, namespace, tlsSecretName, "ca.crt");
+            if (trusted == null) {
+                trusted = readSecretKey(client, namespace, tlsSecretName, "tls.crt");
+            }
+            if (trusted == null) {
+                log.warnf("TLS secret %s not found in namespace %s, admin API calls will go through pod exec",
+                        tlsSecretName, namespace);
+                return Optional.empty();
+            }
+            final String trustedCertificates = trusted;
+            httpClient = getHttpClient("%s/%s".formatted(namespace, tlsSecretName),
+                    DigestUtils.sha256Hex(trustedCertificates),
+                    () -> newHttpClient(newSslContext(trustedCertificates)));
+        } else {
+            httpClient = getPlainHttpClient();
+        }
+        return Optional.of(new AdminApiHttpClient(httpClient, authorization, DEFAULT_REQUEST_TIMEOUT));
+    }
+
+    /**
+     * Create a client without credentials, for the services outside of the Pulsar cluster like a Prometheus server.
+     */
+    public static AdminApiHttpClient createUnauthenticated(Duration requestTimeout) {
+        return new AdminApiHttpClient(getPlainHttpClient(), null, requestTimeout);
+    }
+
+    private static HttpClient getPlainHttpClient() {
+        return getHttpClient(PLAIN_CLIENT_KEY, null, () -> newHttpClient(null));
+    }
+
+    /**
+     * Return the client cached for the key if it was created for the same certificates, otherwise replace it.
+     * The replaced client can't be closed on Java 17, it's released once the calls still using it complete.
+     */
+    static HttpClient getHttpClient(String key, String certificatesHash, Supplier<HttpClient> factory) {
+        return HTTP_CLIENTS.compute(key, (k, current) -> {
+            if (current != null && Objects.equals(current.certificatesHash(), certificatesHash)) {
+                return current;
+            }
+            if (current != null) {
+                log.infof("Certificates of %s changed, replacing the admin API HTTP client", k);
+            }
+            return new CachedHttpClient(certificatesHash, factory.get());
+        }).httpClient();
+    }
+
+    private static boolean isPodNetworkReachable() {
+        if (LaunchMode.current() == LaunchMode.DEVELOPMENT) {
+            // when the operator is running in dev mode, the pods are not reachable from the host.
+            return false;
+        }
+        // the pods DNS names are only resolvable inside the kubernetes cluster
+        return System.getenv("KUBERNETES_SERVICE_HOST") != null;
+    }
+
+    private static String readSecretKey(KubernetesClient client, String namespace, String secretName, String key) {
+        final Secret secret = client.secrets()
+                .inNamespace(namespace)
+                .withName(secretName)
+                .get();
+        if (secret == null || secret.getData() == null || secret.getData().get(key) == null) {
+            return null;
+        }
+        return new String(Base64.getDecoder().decode(secret.getData().get(key)), StandardCharsets.UTF_8);
+    }
+
+    public static HttpClient newHttpClient(SSLContext sslContext) {
+        final HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(CONNECT_TIMEOUT);
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        return builder.build();
+    }
+
+    @SneakyThrows
+    static SSLContext newSslContext(String trustedCertificates) {
+        final KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        trustStore.load(null, null);
+        int i = 0;
+        for (Certificate certificate : CertificateFactory.getInstance("X.509")
+                .generateCertificates(new ByteArrayInputStream(trustedCertificates.getBytes(StandardCharsets.UTF_8)))) {
+            trustStore.setCertificateEntry("trusted-" + i++, certificate);
+        }
+        final TrustManagerFactory trustManagerFactory =
+                TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        trustManagerFactory.init(trustStore);
+        final SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, trustManagerFactory.getTrustManagers(), null);
+        return sslContext;
+    }
+
+    /**
+     * Send the request and return the response body. Like 'curl -s', the body is returned whatever the status code
+     * is.
+     */
+    public CompletableFuture<String> send(String method, String url, String jsonBody) {
+        final HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .method(method, jsonBody == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(jsonBody));
+        if (jsonBody != null) {
+            request.header("Content-Type", "application/json");
+        }
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+                .thenApply(HttpResponse::body);
+    }
+
+    /**
+     * Fall back to the given exec based call if the pod couldn't be reached.
+     * Request timeouts are not retried since the pod is reachable but slow.
+     */
+    public static CompletableFuture<String> withFallback(String url, CompletableFuture<String> direct,
+                                                         Supplier<CompletableFuture<String>> fallback) {
+        return direct.exceptionallyCompose(e -> {
+            if (isTransportFailure(e)) {
+                log.debugf("Unable to reach %s (%s), falling back to pod exec", url, unwrap(e).toString());
+                return fallback.get();
+            }
+            return CompletableFuture.failedFuture(e);
+        });
+    }
+
+    static boolean isTransportFailure(Throwable e) {
+        final Throwable cause = unwrap(e);
+        if (cause instanceof HttpConnectTimeoutException) {
+            return true;
+        }
+        return cause instanceof IOException && !(cause instanceof HttpTimeoutException);
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    /**
+     * @return the DNS name of a pod governed by the given headless service.
+     */
+    public static String getPodHost(String podHostname, String serviceName, String namespace,
+                                    GlobalSpec globalSpec) {
+        // https://kubernetes.io/docs/concepts/services-networking/dns-pod-service/#a-aaaa-records-1
+        // <pod-hostname>.<service-name>.<namespace>.svc.<cluster-domain>
+        return "%s.%s.%s.svc.%s".formatted(podHostname, serviceName, namespace,
+                globalSpec.getKubernetesClusterDomain());
+    }
+}
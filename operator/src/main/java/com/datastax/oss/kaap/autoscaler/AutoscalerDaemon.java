@@ -15,9 +15,10 @@
  */
 package com.datastax.oss.kaap.autoscaler;
 
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import lombok.Getter;
 import lombok.extern.jbosslog.JBossLog;
 
@@ -33,7 +34,9 @@ public class AutoscalerDaemon implements AutoCloseable {
 
     public AutoscalerDaemon(KubernetesClient client) {
         this.client = client;
-        this.executorService = Executors.newSingleThreadScheduledExecutor();
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        OperatorMetrics.monitorExecutorQueue("autoscaler", executor);
+        this.executorService = executor;
         this.brokerAutoscalerDaemon = new BrokerAutoscalerDaemon(client, executorService);
         this.bookKeeperAutoscalerDaemon = new BookKeeperAutoscalerDaemon(client, executorService);
 
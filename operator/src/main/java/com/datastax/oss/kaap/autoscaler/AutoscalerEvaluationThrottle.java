@@ -0,0 +1,64 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler;
+
+import com.datastax.oss.kaap.crds.AutoscalerEvaluation;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decide which checks of an autoscaler are saved in the status of the autoscaled component.
+ * Saving a check costs a GET and a status patch: the checks changing the decision or the replicas are always saved,
+ * the others at most every {@link #SAVE_INTERVAL_MS}. The checks not saved are added to the count of the last saved
+ * one.
+ */
+class AutoscalerEvaluationThrottle {
+
+    static final long SAVE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private String lastDecision;
+    private Integer lastReplicas;
+    private long lastSaveTime;
+    private int skippedChecks;
+
+    /**
+     * @return true if the evaluation must be saved.
+     */
+    boolean shouldSave(AutoscalerEvaluation evaluation, long now) {
+        if (lastDecision != null
+                && lastDecision.equals(evaluation.getDecision())
+                && Objects.equals(lastReplicas, evaluation.getReplicas())
+                && now - lastSaveTime < SAVE_INTERVAL_MS) {
+            skippedChecks++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the checks not saved since the last saved evaluation, they had its same decision and replicas.
+     */
+    int getSkippedChecks() {
+        return skippedChecks;
+    }
+
+    void saved(AutoscalerEvaluation evaluation, long now) {
+        lastDecision = evaluation.getDecision();
+        lastReplicas = evaluation.getReplicas();
+        lastSaveTime = now;
+        skippedChecks = 0;
+    }
+}
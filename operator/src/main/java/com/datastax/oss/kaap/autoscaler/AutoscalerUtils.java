@@ -16,7 +16,10 @@
 package com.datastax.oss.kaap.autoscaler;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.crds.AutoscalerEvaluation;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
@@ -29,17 +32,24 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.extern.jbosslog.JBossLog;
 
 @JBossLog
 public class AutoscalerUtils {
 
+    public static final int MAX_EVALUATIONS_HISTORY = 10;
+
     public static boolean isStsReadyToScale(KubernetesClient client, Long stabilizationWindowMs,
                                             String namespace, String statefulsetName,
                                             Map<String, String> podSelector,
@@ -183,6 +193,96 @@ public class AutoscalerUtils {
         return response;
     }
 
+    /**
+     * Append the evaluation to the history of the autoscaler, keeping the last {@link #MAX_EVALUATIONS_HISTORY}
+     * ones. If the last evaluation has the same decision and replicas, it's replaced and the new one counts both, so
+     * a long stable period doesn't push the scaling decisions out of the history.
+     */
+    public static List<AutoscalerEvaluation> appendEvaluation(List<AutoscalerEvaluation> history,
+                                                              AutoscalerEvaluation evaluation) {
+        return appendEvaluation(history, evaluation, 0);
+    }
+
+    /**
+     * Like {@link #appendEvaluation(List, AutoscalerEvaluation)}, the given number of checks done since the last
+     * evaluation, with its same decision and replicas but not saved, are added to its count.
+     */
+    public static List<AutoscalerEvaluation> appendEvaluation(List<AutoscalerEvaluation> history,
+                                                              AutoscalerEvaluation evaluation, int skippedChecks) {
+        final List<AutoscalerEvaluation> result = history == null ? new ArrayList<>() : new ArrayList<>(history);
+        if (!result.isEmpty()) {
+            final AutoscalerEvaluation last = result.get(result.size() - 1);
+            if (skippedChecks > 0) {
+                last.setCount(Objects.requireNonNullElse(last.getCount(), 1) + skippedChecks);
+            }
+            if (Objects.equals(last.getDecision(), evaluation.getDecision())
+                    && Objects.equals(last.getReplicas(), evaluation.getReplicas())) {
+                evaluation.setFirstTimestamp(Objects.requireNonNullElse(last.getFirstTimestamp(),
+                        last.getTimestamp()));
+                evaluation.setCount(Objects.requireNonNullElse(last.getCount(), 1) + 1);
+                result.set(result.size() - 1, evaluation);
+                return result;
+            }
+        }
+        evaluation.setFirstTimestamp(evaluation.getTimestamp());
+        evaluation.setCount(1);
+        result.add(evaluation);
+        while (result.size() > MAX_EVALUATIONS_HISTORY) {
+            result.remove(0);
+        }
+        return result;
+    }
+
+    /**
+     * Reads and writes the autoscaler history in the status of a component custom resource.
+     *
+     * @param getHistory the history of all the sets, null if the resource has no status yet
+     * @param setHistory replace the history of all the sets, creating the status if needed
+     */
+    record HistoryStatusAccessor<T>(Function<T, Map<String, List<AutoscalerEvaluation>>> getHistory,
+                                    BiConsumer<T, Map<String, List<AutoscalerEvaluation>>> setHistory) {
+    }
+
+    /**
+     * Export the evaluation of the autoscaler of a set as metrics and, unless the throttle skips it, append it to the
+     * history in the status of the component custom resource.
+     */
+    static <T extends HasMetadata> void recordEvaluation(KubernetesClient client, Class<T> resourceClass,
+                                                         HistoryStatusAccessor<T> statusAccessor,
+                                                         String namespace, String name, String component,
+                                                         String setName, AutoscalerEvaluation evaluation,
+                                                         Map<String, Map<String, Double>> podMetrics, long now,
+                                                         AutoscalerEvaluationThrottle throttle) {
+        evaluation.setTimestamp(Instant.ofEpochMilli(now).toString());
+        evaluation.setMetrics(podMetrics);
+        OperatorMetrics.recordAutoscalerEvaluation(component, namespace, setName, evaluation.getDecision(),
+                evaluation.getReplicas(), podMetrics);
+        if (!throttle.shouldSave(evaluation, now)) {
+            return;
+        }
+        client.resources(resourceClass)
+                .inNamespace(namespace)
+                .withName(name)
+                .editStatus(resource -> {
+                    final Map<String, List<AutoscalerEvaluation>> current =
+                            statusAccessor.getHistory().apply(resource);
+                    final Map<String, List<AutoscalerEvaluation>> history =
+                            current == null ? new TreeMap<>() : new TreeMap<>(current);
+                    history.put(setName, appendEvaluation(history.get(setName), evaluation,
+                            throttle.getSkippedChecks()));
+                    statusAccessor.setHistory().accept(resource, history);
+                    return resource;
+                });
+        throttle.saved(evaluation, now);
+    }
+
+    /**
+     * Round the metric values saved in the status, the full precision doesn't help to read them.
+     */
+    public static double roundMetric(double value) {
+        return Math.round(value * 10000) / 10000d;
+    }
+
     public static void closeQuietly(Closeable c) {
         if (c != null) {
             try {
@@ -21,6 +21,7 @@ import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperAutoscalerSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSetSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSpec;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -71,5 +72,9 @@ public class BookKeeperAutoscalerDaemon extends NamespacedDaemonThread<Map<Strin
         }
         return newTasks;
     }
-}
 
+    @Override
+    protected void tasksCancelled(String namespace) {
+        OperatorMetrics.removeAutoscalerMetrics("bookkeeper", namespace, null);
+    }
+}
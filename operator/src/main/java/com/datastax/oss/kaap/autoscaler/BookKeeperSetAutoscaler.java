@@ -16,17 +16,20 @@
 package com.datastax.oss.kaap.autoscaler;
 
 import com.datastax.oss.kaap.autoscaler.bookkeeper.BookieAdminClient;
-import com.datastax.oss.kaap.autoscaler.bookkeeper.PodExecBookieAdminClient;
+import com.datastax.oss.kaap.autoscaler.bookkeeper.HttpBookieAdminClient;
 import com.datastax.oss.kaap.controllers.PulsarClusterController;
 import com.datastax.oss.kaap.controllers.bookkeeper.BookKeeperController;
 import com.datastax.oss.kaap.controllers.bookkeeper.BookKeeperResourcesFactory;
+import com.datastax.oss.kaap.crds.AutoscalerEvaluation;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeper;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperAutoscalerSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperFullSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSetSpec;
+import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperStatus;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +47,17 @@ import org.apache.commons.lang3.tuple.Pair;
 @JBossLog
 public class BookKeeperSetAutoscaler implements Runnable {
 
+    static final String METRIC_WRITABLE = "writable";
+    static final String METRIC_DISK_USAGE = "diskUsage";
+    private static final AutoscalerUtils.HistoryStatusAccessor<BookKeeper> HISTORY_STATUS_ACCESSOR =
+            new AutoscalerUtils.HistoryStatusAccessor<>(
+                    bk -> bk.getStatus() == null ? null : bk.getStatus().getAutoscalerHistory(),
+                    (bk, history) -> {
+                        if (bk.getStatus() == null) {
+                            bk.setStatus(new BookKeeperStatus());
+                        }
+                        bk.getStatus().setAutoscalerHistory(history);
+                    });
 
     @Data
     public static class ClusterStats {
@@ -58,6 +72,7 @@ public class BookKeeperSetAutoscaler implements Runnable {
     private final String bookkeeperSetName;
     private final BookKeeperSetSpec desiredBookKeeperSetSpec;
     private BookieAdminClient bookieAdminClient;
+    private final AutoscalerEvaluationThrottle evaluationThrottle = new AutoscalerEvaluationThrottle();
 
     public BookKeeperSetAutoscaler(KubernetesClient client, String namespace,
                                    String bookkeeperSetName,
@@ -86,7 +101,7 @@ public class BookKeeperSetAutoscaler implements Runnable {
 
     protected BookieAdminClient newBookieAdminClient(GlobalSpec currentGlobalSpec,
                                                      BookKeeperSetSpec currentBookKeeperSetSpec) {
-        return new PodExecBookieAdminClient(client, namespace, currentGlobalSpec, bookkeeperSetName,
+        return HttpBookieAdminClient.newBookieAdminClient(client, namespace, currentGlobalSpec, bookkeeperSetName,
                 currentBookKeeperSetSpec);
     }
 
@@ -120,6 +135,8 @@ public class BookKeeperSetAutoscaler implements Runnable {
                 .get();
         if (bkCr == null) {
             log.warnf("BookKeeper custom resource not found in namespace %s", namespace);
+            // the cluster has been deleted, its last values must not be exported anymore
+            OperatorMetrics.removeAutoscalerMetrics("bookkeeper", namespace, bookkeeperSetName);
             return;
         }
 
@@ -151,6 +168,9 @@ public class BookKeeperSetAutoscaler implements Runnable {
                 namespace, statefulsetName, podSelector, currentExpectedReplicas)) {
             log.infof("BookKeeper cluster %s %s is not ready to scale, expect replicas: %d",
                     clusterSpecName, bkName, currentExpectedReplicas);
+            recordEvaluation(bkCustomResourceName, AutoscalerEvaluation.DECISION_SKIPPED,
+                    "statefulset %s not ready to scale".formatted(statefulsetName), currentExpectedReplicas,
+                    Map.of());
             return;
         }
 
@@ -161,6 +181,10 @@ public class BookKeeperSetAutoscaler implements Runnable {
                         .collect(Collectors.toList());
 
         ClusterStats clusterStats = collectClusterStats(diskUsageHwm, bookieInfos);
+        final Map<String, Map<String, Double>> podMetrics = getPodMetrics(bookieInfos);
+        String reason = "%d writable bookies (%d at risk), %d read-only, min writable %d".formatted(
+                clusterStats.writableBookiesTotal, clusterStats.atRiskWritableBookies,
+                clusterStats.readOnlyBookiesTotal, targetWritableBookiesCount);
 
         int desiredScaleChange = 0;
 
@@ -169,6 +193,7 @@ public class BookKeeperSetAutoscaler implements Runnable {
         if (clusterStats.writableBookiesTotal < targetWritableBookiesCount) {
             desiredScaleChange += targetWritableBookiesCount - clusterStats.writableBookiesTotal;
             log.infof("Not enough writable bookies, need to add %d", desiredScaleChange);
+            reason += ", not enough writable bookies";
         }
 
         // 2. add up to stepUp bookies (1 by default) if there is certain level of "at risk"
@@ -180,6 +205,7 @@ public class BookKeeperSetAutoscaler implements Runnable {
             desiredScaleChange += bookieSafeStepUp;
             log.infof("Some writable bookies are at risk of running out of disk space, need to add extra %d",
                     bookieSafeStepUp);
+            reason += ", writable bookies at risk of running out of disk space";
         }
 
         // 3. only after that check if it's safe to scale down
@@ -190,14 +216,19 @@ public class BookKeeperSetAutoscaler implements Runnable {
                         clusterStats.writableBookiesTotal - targetWritableBookiesCount);
                 log.infof("Some writable bookies can be released, removing %d",
                         Math.abs(desiredScaleChange));
+                reason += ", writable bookies can be released";
             } else {
                 log.infof("Cannot scale down");
+                recordEvaluation(bkCustomResourceName, AutoscalerEvaluation.DECISION_STABLE,
+                        reason + ", cannot scale down", currentExpectedReplicas, podMetrics);
                 return;
             }
         }
 
         if (desiredScaleChange == 0) {
             log.infof("System is stable, no scaling needed");
+            recordEvaluation(bkCustomResourceName, AutoscalerEvaluation.DECISION_STABLE, reason,
+                    currentExpectedReplicas, podMetrics);
             return;
         }
 
@@ -208,6 +239,8 @@ public class BookKeeperSetAutoscaler implements Runnable {
         if (currentExpectedReplicas == scaleTo) {
             log.infof("Hit scale limits, won't scale. Current expected replicas: %d, desired scale change: %d",
                     currentExpectedReplicas, desiredScaleChange);
+            recordEvaluation(bkCustomResourceName, AutoscalerEvaluation.DECISION_STABLE,
+                    reason + ", hit the scale limits", currentExpectedReplicas, podMetrics);
             return;
         }
 
@@ -219,6 +252,47 @@ public class BookKeeperSetAutoscaler implements Runnable {
                 .patch(bkCr);
 
         log.infof("Bookies scaled up/down from %d to %d", currentExpectedReplicas, scaleTo);
+        recordEvaluation(bkCustomResourceName, scaleTo > currentExpectedReplicas
+                        ? AutoscalerEvaluation.DECISION_SCALE_UP : AutoscalerEvaluation.DECISION_SCALE_DOWN,
+                reason, scaleTo, podMetrics);
+    }
+
+    /**
+     * Export the evaluation as metrics and save it in the BookKeeper status, with the last ones of the bookkeeper
+     * set. The checks with the same decision and replicas as the last saved one are saved only every
+     * {@link AutoscalerEvaluationThrottle#SAVE_INTERVAL_MS}.
+     */
+    private void recordEvaluation(String bkCustomResourceName, String decision, String reason, int replicas,
+                                  Map<String, Map<String, Double>> podMetrics) {
+        final AutoscalerEvaluation evaluation = AutoscalerEvaluation.builder()
+                .decision(decision)
+                .reason(reason)
+                .replicas(replicas)
+                .build();
+        AutoscalerUtils.recordEvaluation(client, BookKeeper.class, HISTORY_STATUS_ACCESSOR, namespace,
+                bkCustomResourceName, "bookkeeper", bookkeeperSetName, evaluation, podMetrics,
+                System.currentTimeMillis(), evaluationThrottle);
+    }
+
+    /**
+     * @return for each bookie, 1 if it's writable or 0, and the usage of its fullest ledger disk.
+     */
+    private static Map<String, Map<String, Double>> getPodMetrics(
+            List<Pair<BookieAdminClient.BookieInfo, BookieAdminClient.BookieStats>> bookieInfos) {
+        final Map<String, Map<String, Double>> podMetrics = new TreeMap<>();
+        for (Pair<BookieAdminClient.BookieInfo, BookieAdminClient.BookieStats> info : bookieInfos) {
+            final Map<String, Double> metrics = new TreeMap<>();
+            metrics.put(METRIC_WRITABLE, info.getRight().isWritable() ? 1d : 0d);
+            if (info.getRight().getLedgerDiskInfos() != null) {
+                info.getRight().getLedgerDiskInfos().stream()
+                        .filter(d -> d.getMaxBytes() > 0)
+                        .mapToDouble(d -> (double) d.getUsedBytes() / d.getMaxBytes())
+                        .max()
+                        .ifPresent(usage -> metrics.put(METRIC_DISK_USAGE, AutoscalerUtils.roundMetric(usage)));
+            }
+            podMetrics.put(info.getLeft().getPodResource().get().getMetadata().getName(), metrics);
+        }
+        return podMetrics;
     }
 
     private void applyScaleTo(BookKeeper bookKeeperCr, int scaleTo) {
@@ -226,8 +300,9 @@ public class BookKeeperSetAutoscaler implements Runnable {
     }
 
 
-    private boolean checkIfCanScaleDown(double diskUsageLwm,
-                                        List<Pair<BookieAdminClient.BookieInfo, BookieAdminClient.BookieStats>> bookieInfos) {
+    private boolean checkIfCanScaleDown(
+            double diskUsageLwm,
+            List<Pair<BookieAdminClient.BookieInfo, BookieAdminClient.BookieStats>> bookieInfos) {
         boolean canScaleDown = true;
         for (Pair<BookieAdminClient.BookieInfo, BookieAdminClient.BookieStats> info : bookieInfos) {
             if (info.getRight().isWritable()) {
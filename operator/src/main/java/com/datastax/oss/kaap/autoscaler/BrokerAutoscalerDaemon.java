@@ -21,6 +21,7 @@ import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSpec;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -70,5 +71,9 @@ public class BrokerAutoscalerDaemon extends NamespacedDaemonThread<Map<String, B
         }
         return newTasks;
     }
-}
 
+    @Override
+    protected void tasksCancelled(String namespace) {
+        OperatorMetrics.removeAutoscalerMetrics("broker", namespace, null);
+    }
+}
@@ -15,26 +15,46 @@
  */
 package com.datastax.oss.kaap.autoscaler;
 
+import com.datastax.oss.kaap.autoscaler.broker.BrokerAdminClient;
 import com.datastax.oss.kaap.autoscaler.broker.BrokerResourceUsageSource;
+import com.datastax.oss.kaap.autoscaler.broker.HttpBrokerAdminClient;
+import com.datastax.oss.kaap.autoscaler.broker.HttpLoadReportResourceUsageSource;
 import com.datastax.oss.kaap.autoscaler.broker.LoadReportResourceUsageSource;
+import com.datastax.oss.kaap.autoscaler.broker.LoadTimeSeries;
 import com.datastax.oss.kaap.autoscaler.broker.PodMetricResourceUsageSource;
+import com.datastax.oss.kaap.autoscaler.broker.PrometheusApiResourceUsageSource;
+import com.datastax.oss.kaap.autoscaler.broker.PrometheusScrapeResourceUsageSource;
+import com.datastax.oss.kaap.autoscaler.broker.ResourceUsageWindow;
+import com.datastax.oss.kaap.autoscaler.broker.SeasonalForecaster;
 import com.datastax.oss.kaap.controllers.PulsarClusterController;
 import com.datastax.oss.kaap.controllers.broker.BrokerController;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
+import com.datastax.oss.kaap.crds.AutoscalerEvaluation;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.broker.Broker;
 import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerFullSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerStatus;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -42,11 +62,31 @@ import org.apache.commons.lang3.exception.ExceptionUtils;
 @JBossLog
 public class BrokerSetAutoscaler implements Runnable {
 
+    static final String LOAD_HISTORY_CONFIGMAP_SUFFIX = "-load-history";
+    static final String LOAD_HISTORY_KEY = "load";
+    // one week with 5 minutes buckets
+    static final int MAX_SEASON_BUCKETS = 2016;
+    // each unload is a blocking admin API call, the drain continues at the next check
+    static final int MAX_BUNDLE_UNLOADS_PER_CHECK = 50;
+    private static final AutoscalerUtils.HistoryStatusAccessor<Broker> HISTORY_STATUS_ACCESSOR =
+            new AutoscalerUtils.HistoryStatusAccessor<>(
+                    broker -> broker.getStatus() == null ? null : broker.getStatus().getAutoscalerHistory(),
+                    (broker, history) -> {
+                        if (broker.getStatus() == null) {
+                            broker.setStatus(new BrokerStatus());
+                        }
+                        broker.getStatus().setAutoscalerHistory(history);
+                    });
+
     private final KubernetesClient client;
     private final String namespace;
     private final PulsarClusterSpec clusterSpec;
     private final String brokerSetName;
     private final BrokerSetSpec desiredBrokerSetSpec;
+    private final ResourceUsageWindow usageWindow = new ResourceUsageWindow();
+    private final AutoscalerEvaluationThrottle evaluationThrottle = new AutoscalerEvaluationThrottle();
+    private LoadTimeSeries loadHistory;
+    private String savedLoadHistory;
 
     public BrokerSetAutoscaler(KubernetesClient client, String namespace,
                                String brokerSetName, PulsarClusterSpec clusterSpec) {
@@ -85,6 +125,8 @@ public class BrokerSetAutoscaler implements Runnable {
                 .get();
         if (brokerCr == null) {
             log.warnf("Broker custom resource not found in namespace %s", namespace);
+            // the cluster has been deleted, its last values must not be exported anymore
+            OperatorMetrics.removeAutoscalerMetrics("broker", namespace, brokerSetName);
             return;
         }
 
@@ -109,49 +151,539 @@ public class BrokerSetAutoscaler implements Runnable {
         if (!AutoscalerUtils.isStsReadyToScale(client,
                 autoscalerSpec.getStabilizationWindowMs(),
                 namespace, statefulsetName, podSelector, currentExpectedReplicas)) {
+            recordEvaluation(brokerCustomResourceName, AutoscalerEvaluation.builder()
+                    .decision(AutoscalerEvaluation.DECISION_SKIPPED)
+                    .reason("statefulset %s not ready to scale".formatted(statefulsetName))
+                    .replicas(currentExpectedReplicas)
+                    .build(), System.currentTimeMillis(), Map.of());
             return;
         }
         BrokerResourceUsageSource brokerResourceUsageSource =
-                newBrokerResourceUsageSource(autoscalerSpec, podSelector);
-        Optional<Boolean> scaleUpOrDown = decideScaleUpOrDown(autoscalerSpec, brokerResourceUsageSource);
-
-        if (scaleUpOrDown.isPresent()) {
-            int scaleTo = scaleUpOrDown.get()
-                    ? currentExpectedReplicas + autoscalerSpec.getScaleUpBy()
-                    : currentExpectedReplicas - autoscalerSpec.getScaleDownBy();
-
-            final Integer min = autoscalerSpec.getMin();
-            if (scaleTo <= 0 || (min != null && scaleTo < min)) {
-                log.debugf("Can't scale down, "
-                                + "replicas is already the min. Current %d, min %d, scaleDownBy %d",
-                        currentExpectedReplicas,
-                        min,
-                        autoscalerSpec.getScaleDownBy()
-                );
+                newBrokerResourceUsageSource(autoscalerSpec, podSelector, statefulsetName);
+        final long now = System.currentTimeMillis();
+        final List<BrokerResourceUsageSource.ResourceUsage> currentUsages =
+                brokerResourceUsageSource.getBrokersResourceUsages();
+        final List<BrokerResourceUsageSource.ResourceUsage> resourceUsages = usageWindow.aggregate(
+                currentUsages,
+                Objects.requireNonNullElse(autoscalerSpec.getUsageAggregation(),
+                        BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST),
+                Objects.requireNonNullElse(autoscalerSpec.getUsageWindowMs(), 0L),
+                now);
+        final Map<String, Map<String, Double>> podMetrics = getPodMetrics(autoscalerSpec, resourceUsages);
+        String reason = describeUsages(autoscalerSpec, resourceUsages);
+        Optional<Integer> scaleTo =
+                BrokerAutoscalerSpec.SCALING_POLICY_TARGET_TRACKING.equals(autoscalerSpec.getScalingPolicy())
+                        ? decideTargetReplicas(brokerSetName, autoscalerSpec, currentExpectedReplicas, resourceUsages)
+                        : decideStepReplicas(brokerSetName, autoscalerSpec, currentExpectedReplicas, resourceUsages);
+        final BrokerAutoscalerSpec.PredictiveSpec predictiveSpec = autoscalerSpec.getPredictive();
+        if (predictiveSpec != null && Boolean.TRUE.equals(predictiveSpec.getEnabled())) {
+            final OptionalDouble forecastLoad = recordLoadAndForecast(brokerCr, statefulsetName, podSelector,
+                    autoscalerSpec, currentUsages, now);
+            final Optional<Integer> reactive = scaleTo;
+            scaleTo = decidePredictiveReplicas(brokerSetName, autoscalerSpec, currentExpectedReplicas, scaleTo,
+                    forecastLoad);
+            if (!scaleTo.equals(reactive)) {
+                reason += ", forecasted load %.2f brokers".formatted(forecastLoad.getAsDouble());
+            }
+        }
+
+        final BrokerStatus.ScaleDownStatus scaleDown = getScaleDownStatus(brokerCr);
+        if (scaleDown != null) {
+            if (!Objects.equals(scaleDown.getFromReplicas(), currentExpectedReplicas)
+                    || (scaleTo.isPresent() && scaleTo.get() > currentExpectedReplicas)) {
+                // the replicas have been changed by someone else or the brokers are needed again, the unloaded
+                // bundles are simply assigned back by the load manager
+                log.infof("Aborting scale down of broker set %s to %d, current replicas %d, desired %s",
+                        brokerSetName, scaleDown.getToReplicas(), currentExpectedReplicas, scaleTo);
+                updateScaleDownStatus(brokerCustomResourceName, null);
+                reason = "scale down to %d aborted, %s".formatted(scaleDown.getToReplicas(), reason);
+            } else {
+                recordEvaluation(brokerCustomResourceName,
+                        drainAndScaleDown(brokerCr, brokerCustomResourceName, statefulsetName, currentGlobalSpec,
+                                currentBrokerSetSpec, autoscalerSpec, scaleDown, true, now, reason),
+                        now, podMetrics);
                 return;
             }
-            final Integer max = autoscalerSpec.getMax();
-            if (max != null && scaleTo > max) {
-                log.debugf("Can't scale down, "
-                                + "replicas is already the max. Current %d, max %d, scaleUpBy %d",
-                        currentExpectedReplicas,
-                        max,
-                        autoscalerSpec.getScaleUpBy()
-                );
+        }
+
+        if (scaleTo.isPresent() && scaleTo.get() != currentExpectedReplicas) {
+            if (scaleTo.get() < currentExpectedReplicas
+                    && !Boolean.FALSE.equals(autoscalerSpec.getDrainBeforeScaleDown())) {
+                // the statefulset removes the pods with the highest ordinals
+                final List<String> brokers = new ArrayList<>();
+                for (int i = scaleTo.get(); i < currentExpectedReplicas; i++) {
+                    brokers.add("%s-%d".formatted(statefulsetName, i));
+                }
+                recordEvaluation(brokerCustomResourceName,
+                        drainAndScaleDown(brokerCr, brokerCustomResourceName, statefulsetName, currentGlobalSpec,
+                                currentBrokerSetSpec, autoscalerSpec, BrokerStatus.ScaleDownStatus.builder()
+                                        .fromReplicas(currentExpectedReplicas)
+                                        .toReplicas(scaleTo.get())
+                                        .brokers(brokers)
+                                        .startTime(Instant.ofEpochMilli(now).toString())
+                                        .build(), false, now, reason),
+                        now, podMetrics);
                 return;
             }
+            scale(brokerCr, brokerCustomResourceName, currentExpectedReplicas, scaleTo.get());
+            recordEvaluation(brokerCustomResourceName, AutoscalerEvaluation.builder()
+                    .decision(scaleTo.get() > currentExpectedReplicas
+                            ? AutoscalerEvaluation.DECISION_SCALE_UP : AutoscalerEvaluation.DECISION_SCALE_DOWN)
+                    .reason(reason)
+                    .replicas(scaleTo.get())
+                    .build(), now, podMetrics);
+        } else {
+            log.infof("System is stable, no scaling needed");
+            recordEvaluation(brokerCustomResourceName, AutoscalerEvaluation.builder()
+                    .decision(AutoscalerEvaluation.DECISION_STABLE)
+                    .reason(reason)
+                    .replicas(currentExpectedReplicas)
+                    .build(), now, podMetrics);
+        }
+    }
 
+    private void scale(Broker brokerCr, String brokerCustomResourceName, int currentExpectedReplicas, int scaleTo) {
+        applyScaleTo(brokerCr, scaleTo);
+        client.resources(Broker.class)
+                .inNamespace(namespace)
+                .withName(brokerCustomResourceName)
+                .patch(brokerCr);
+        // the samples collected before the scaling don't describe the new set of brokers
+        usageWindow.clear();
+        log.infof("Scaled brokers for broker set %s from %d to %d",
+                brokerSetName, currentExpectedReplicas, scaleTo);
+    }
 
-            applyScaleTo(brokerCr, scaleTo);
-            client.resources(Broker.class)
-                    .inNamespace(namespace)
-                    .withName(brokerCustomResourceName)
-                    .patch(brokerCr);
-            log.infof("Scaled brokers for broker set %s from %d to %d",
-                    brokerSetName, currentExpectedReplicas, scaleTo);
+    /**
+     * Unload the bundles of the brokers to remove and lower the replicas once they don't own any bundle or the
+     * drain timeout is expired. Otherwise the progress is saved in the Broker status and the drain continues at the
+     * next check, even after an operator restart.
+     * The bundles are assigned to the remaining brokers in turn, so the load manager doesn't place them back on the
+     * brokers being removed.
+     *
+     * @return the evaluation to record, the given reason completed with the progress of the drain.
+     */
+    private AutoscalerEvaluation drainAndScaleDown(Broker brokerCr, String brokerCustomResourceName,
+                                                   String statefulsetName,
+                                                   GlobalSpec currentGlobalSpec, BrokerSetSpec currentBrokerSetSpec,
+                                                   BrokerAutoscalerSpec autoscalerSpec,
+                                                   BrokerStatus.ScaleDownStatus scaleDown, boolean inStatus, long now,
+                                                   String reason) {
+        final BrokerAdminClient brokerAdminClient = newBrokerAdminClient(currentGlobalSpec, currentBrokerSetSpec);
+        final List<String> destinations = new ArrayList<>();
+        for (int i = 0; i < scaleDown.getToReplicas(); i++) {
+            destinations.add(brokerAdminClient.getBrokerId("%s-%d".formatted(statefulsetName, i)));
+        }
+        int remainingBundles = 0;
+        int unloadsLeft = MAX_BUNDLE_UNLOADS_PER_CHECK;
+        boolean unknown = false;
+        for (String broker : scaleDown.getBrokers()) {
+            try {
+                Set<String> bundles = brokerAdminClient.getOwnedBundles(broker);
+                if (!bundles.isEmpty() && unloadsLeft > 0) {
+                    log.infof("Unloading %d of %d bundles from broker %s", Math.min(unloadsLeft, bundles.size()),
+                            bundles.size(), broker);
+                    for (String bundle : bundles) {
+                        if (unloadsLeft == 0) {
+                            break;
+                        }
+                        unloadsLeft--;
+                        final String destination = destinations.isEmpty() ? null
+                                : destinations.get(unloadsLeft % destinations.size());
+                        unloadBundle(brokerAdminClient, broker, bundle, destination);
+                    }
+                    // a bundle can still be assigned back to a removed broker, it will be unloaded again
+                    bundles = brokerAdminClient.getOwnedBundles(broker);
+                }
+                remainingBundles += bundles.size();
+            } catch (RuntimeException e) {
+                log.warnf("Unable to get the bundles of broker %s: %s", broker, e.getMessage());
+                unknown = true;
+            }
+        }
+        final long elapsed = now - Instant.parse(scaleDown.getStartTime()).toEpochMilli();
+        final long timeout = Objects.requireNonNullElse(autoscalerSpec.getDrainTimeoutMs(), 0L);
+        if ((remainingBundles == 0 && !unknown) || elapsed >= timeout) {
+            final boolean drained = remainingBundles == 0 && !unknown;
+            if (!drained) {
+                log.warnf("Brokers %s not drained after %d ms, removing them anyway", scaleDown.getBrokers(),
+                        elapsed);
+            }
+            scale(brokerCr, brokerCustomResourceName, scaleDown.getFromReplicas(), scaleDown.getToReplicas());
+            if (inStatus) {
+                updateScaleDownStatus(brokerCustomResourceName, null);
+            }
+            return AutoscalerEvaluation.builder()
+                    .decision(AutoscalerEvaluation.DECISION_SCALE_DOWN)
+                    .reason(drained
+                            ? "%s, brokers %s drained in %d ms".formatted(reason, scaleDown.getBrokers(), elapsed)
+                            : "%s, brokers %s not drained after %d ms".formatted(reason, scaleDown.getBrokers(),
+                            elapsed))
+                    .replicas(scaleDown.getToReplicas())
+                    .build();
+        }
+        scaleDown.setRemainingBundles(unknown ? null : remainingBundles);
+        updateScaleDownStatus(brokerCustomResourceName, scaleDown);
+        log.infof("Waiting for brokers %s to release their bundles before scaling broker set %s from %d to %d, "
+                        + "remaining bundles: %s", scaleDown.getBrokers(), brokerSetName, scaleDown.getFromReplicas(),
+                scaleDown.getToReplicas(), unknown ? "unknown" : remainingBundles);
+        return AutoscalerEvaluation.builder()
+                .decision(AutoscalerEvaluation.DECISION_DRAINING)
+                .reason(("%s, waiting for brokers %s to release their bundles before scaling down to %d, "
+                        + "remaining bundles: %s").formatted(reason, scaleDown.getBrokers(),
+                        scaleDown.getToReplicas(), unknown ? "unknown" : remainingBundles))
+                .replicas(scaleDown.getFromReplicas())
+                .build();
+    }
+
+    private BrokerStatus.ScaleDownStatus getScaleDownStatus(Broker brokerCr) {
+        final BrokerStatus status = brokerCr.getStatus();
+        if (status == null || status.getScaleDown() == null) {
+            return null;
+        }
+        return status.getScaleDown().get(brokerSetName);
+    }
+
+    private void updateScaleDownStatus(String brokerCustomResourceName, BrokerStatus.ScaleDownStatus scaleDown) {
+        client.resources(Broker.class)
+                .inNamespace(namespace)
+                .withName(brokerCustomResourceName)
+                .editStatus(broker -> {
+                    if (broker.getStatus() == null) {
+                        broker.setStatus(new BrokerStatus());
+                    }
+                    final Map<String, BrokerStatus.ScaleDownStatus> current = broker.getStatus().getScaleDown();
+                    final Map<String, BrokerStatus.ScaleDownStatus> scaleDowns = current == null
+                            ? new TreeMap<>() : new TreeMap<>(current);
+                    if (scaleDown == null) {
+                        scaleDowns.remove(brokerSetName);
+                    } else {
+                        scaleDowns.put(brokerSetName, scaleDown);
+                    }
+                    broker.getStatus().setScaleDown(scaleDowns.isEmpty() ? null : scaleDowns);
+                    return broker;
+                });
+    }
+
+    /**
+     * Export the evaluation as metrics and save it in the Broker status, with the last ones of the broker set.
+     * The checks with the same decision and replicas as the last saved one are saved only every
+     * {@link AutoscalerEvaluationThrottle#SAVE_INTERVAL_MS}.
+     */
+    private void recordEvaluation(String brokerCustomResourceName, AutoscalerEvaluation evaluation, long now,
+                                  Map<String, Map<String, Double>> podMetrics) {
+        AutoscalerUtils.recordEvaluation(client, Broker.class, HISTORY_STATUS_ACCESSOR, namespace,
+                brokerCustomResourceName, "broker", brokerSetName, evaluation, podMetrics, now, evaluationThrottle);
+    }
+
+    /**
+     * @return the value of the evaluated metrics for each broker, empty for the brokers without usage.
+     */
+    static Map<String, Map<String, Double>> getPodMetrics(BrokerAutoscalerSpec autoscalerSpec,
+                                                          List<BrokerResourceUsageSource.ResourceUsage> usages) {
+        final Map<String, Map<String, Double>> podMetrics = new TreeMap<>();
+        for (BrokerResourceUsageSource.ResourceUsage usage : usages) {
+            final Map<String, Double> metrics = new TreeMap<>();
+            for (BrokerAutoscalerSpec.MetricSpec metricSpec : getMetrics(autoscalerSpec)) {
+                final Double value = usage.getMetric(metricSpec.getName());
+                if (value != null) {
+                    metrics.put(metricSpec.getName(), AutoscalerUtils.roundMetric(value));
+                }
+            }
+            podMetrics.put(usage.getPod(), metrics);
+        }
+        return podMetrics;
+    }
+
+    /**
+     * @return a summary of the usages compared with the thresholds or the target of the scaling policy.
+     */
+    static String describeUsages(BrokerAutoscalerSpec autoscalerSpec,
+                                 List<BrokerResourceUsageSource.ResourceUsage> allResourceUsages) {
+        final List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages = allResourceUsages.stream()
+                .filter(BrokerResourceUsageSource.ResourceUsage::isAvailable)
+                .collect(Collectors.toList());
+        final List<BrokerAutoscalerSpec.MetricSpec> metrics = getMetrics(autoscalerSpec);
+        final List<String> parts = new ArrayList<>();
+        if (BrokerAutoscalerSpec.SCALING_POLICY_TARGET_TRACKING.equals(autoscalerSpec.getScalingPolicy())) {
+            for (BrokerAutoscalerSpec.MetricSpec metricSpec : metrics) {
+                if (metricSpec.getTarget() == null) {
+                    continue;
+                }
+                brokersResourceUsages.stream()
+                        .map(usage -> usage.getMetric(metricSpec.getName()))
+                        .filter(Objects::nonNull)
+                        .mapToDouble(Double::doubleValue)
+                        .average()
+                        .ifPresent(average -> parts.add("average %s %.2f, target %.2f"
+                                .formatted(metricSpec.getName(), average, metricSpec.getTarget())));
+            }
         } else {
-            log.infof("System is stable, no scaling needed");
+            final ThresholdCounts counts = countThresholdCrossings(metrics, brokersResourceUsages);
+            parts.add("%d/%d brokers over the higher threshold, %d under the lower threshold"
+                    .formatted(counts.over(), brokersResourceUsages.size(), counts.under()));
+        }
+        final int missing = allResourceUsages.size() - brokersResourceUsages.size();
+        if (missing > 0) {
+            parts.add("%d brokers without usage".formatted(missing));
+        }
+        return String.join(", ", parts);
+    }
+
+    private static void unloadBundle(BrokerAdminClient brokerAdminClient, String broker, String bundle,
+                                     String destination) {
+        try {
+            brokerAdminClient.unloadBundle(broker, bundle, destination);
+        } catch (RuntimeException e) {
+            log.warnf("Unable to unload bundle %s from broker %s to %s: %s", bundle, broker,
+                    destination == null ? "any broker" : destination, e.getMessage());
+            if (destination != null) {
+                // e.g. the destination broker is not available, the load manager chooses another one
+                unloadBundle(brokerAdminClient, broker, bundle, null);
+            }
+        }
+    }
+
+    protected BrokerAdminClient newBrokerAdminClient(GlobalSpec currentGlobalSpec,
+                                                     BrokerSetSpec currentBrokerSetSpec) {
+        return HttpBrokerAdminClient.newBrokerAdminClient(client, namespace, currentGlobalSpec, brokerSetName,
+                currentBrokerSetSpec);
+    }
+
+    /**
+     * Move by 'scaleUpBy' or 'scaleDownBy' brokers when the thresholds are crossed.
+     */
+    static Optional<Integer> decideStepReplicas(String brokerSetName, BrokerAutoscalerSpec autoscalerSpec,
+                                                int currentExpectedReplicas,
+                                                List<BrokerResourceUsageSource.ResourceUsage> resourceUsages) {
+        Optional<Boolean> scaleUpOrDown = decideScaleUpOrDown(brokerSetName, autoscalerSpec, resourceUsages);
+        if (scaleUpOrDown.isEmpty()) {
+            return Optional.empty();
+        }
+        int scaleTo = scaleUpOrDown.get()
+                ? currentExpectedReplicas + autoscalerSpec.getScaleUpBy()
+                : currentExpectedReplicas - autoscalerSpec.getScaleDownBy();
+
+        final Integer min = autoscalerSpec.getMin();
+        if (scaleTo <= 0 || (min != null && scaleTo < min)) {
+            log.debugf("Can't scale down, "
+                            + "replicas is already the min. Current %d, min %d, scaleDownBy %d",
+                    currentExpectedReplicas,
+                    min,
+                    autoscalerSpec.getScaleDownBy()
+            );
+            return Optional.empty();
+        }
+        final Integer max = autoscalerSpec.getMax();
+        if (max != null && scaleTo > max) {
+            log.debugf("Can't scale down, "
+                            + "replicas is already the max. Current %d, max %d, scaleUpBy %d",
+                    currentExpectedReplicas,
+                    max,
+                    autoscalerSpec.getScaleUpBy()
+            );
+            return Optional.empty();
+        }
+        return Optional.of(scaleTo);
+    }
+
+    /**
+     * Compute the replicas that would bring the average of each metric to its target, like the Kubernetes
+     * HPA: ceil(current * observed / target) using the metric with the highest observed / target ratio,
+     * bounded by 'maxScaleUpStep', 'maxScaleDownStep', 'min' and 'max'.
+     * No scaling happens while the ratio is within 'targetTolerance' of 1.
+     */
+    static Optional<Integer> decideTargetReplicas(String brokerSetName, BrokerAutoscalerSpec autoscalerSpec,
+                                                  int currentExpectedReplicas,
+                                                  List<BrokerResourceUsageSource.ResourceUsage> allResourceUsages) {
+        final List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages = allResourceUsages.stream()
+                .filter(BrokerResourceUsageSource.ResourceUsage::isAvailable)
+                .collect(Collectors.toList());
+        if (brokersResourceUsages.isEmpty()) {
+            log.warnf("No resource usage available for broker set %s, skipping", brokerSetName);
+            return Optional.empty();
+        }
+        final int missing = allResourceUsages.size() - brokersResourceUsages.size();
+        final Optional<TargetRatio> highest = highestTargetRatio(brokerSetName, autoscalerSpec,
+                brokersResourceUsages);
+        if (highest.isEmpty()) {
+            return Optional.empty();
+        }
+        final String metric = highest.get().metric();
+        final double observed = highest.get().observed();
+        final double target = highest.get().target();
+        final double ratio = highest.get().ratio();
+        if (Math.abs(ratio - 1) <= Objects.requireNonNullElse(autoscalerSpec.getTargetTolerance(), 0d)) {
+            log.debugf("Broker set %s average %s %.2f is within the tolerance of the target %.2f",
+                    brokerSetName, metric, observed, target);
+            return Optional.empty();
         }
+        // the epsilon avoids rounding up exact results like 3 * 0.8 / 0.6
+        int desired = (int) Math.ceil(currentExpectedReplicas * ratio - 1e-9);
+        if (desired < currentExpectedReplicas && missing > 0) {
+            // a broker without samples might be the busy one
+            log.infof("Not scaling down broker set %s, %d brokers didn't report their usage",
+                    brokerSetName, missing);
+            return Optional.empty();
+        }
+        final Integer maxScaleUpStep = autoscalerSpec.getMaxScaleUpStep();
+        if (maxScaleUpStep != null) {
+            desired = Math.min(desired, currentExpectedReplicas + maxScaleUpStep);
+        }
+        final Integer maxScaleDownStep = autoscalerSpec.getMaxScaleDownStep();
+        if (maxScaleDownStep != null) {
+            desired = Math.max(desired, currentExpectedReplicas - maxScaleDownStep);
+        }
+        final Integer max = autoscalerSpec.getMax();
+        if (max != null) {
+            desired = Math.min(desired, max);
+        }
+        final Integer min = autoscalerSpec.getMin();
+        desired = Math.max(desired, min == null ? 1 : Math.max(1, min));
+        log.infof("Broker set %s average %s %.2f, target %.2f, desired replicas %d (current %d)",
+                brokerSetName, metric, observed, target, desired, currentExpectedReplicas);
+        return Optional.of(desired);
+    }
+
+    /**
+     * Record the current load in the load history of the broker set, persisted in a ConfigMap, and forecast the peak
+     * load in the next 'horizonMs'.
+     */
+    private OptionalDouble recordLoadAndForecast(Broker brokerCr, String statefulsetName,
+                                                 Map<String, String> labels,
+                                                 BrokerAutoscalerSpec autoscalerSpec,
+                                                 List<BrokerResourceUsageSource.ResourceUsage> currentUsages,
+                                                 long now) {
+        final BrokerAutoscalerSpec.PredictiveSpec predictiveSpec = autoscalerSpec.getPredictive();
+        final long bucketMs = predictiveSpec.getBucketMs();
+        final int seasonBuckets = (int) Math.max(1, predictiveSpec.getSeasonMs() / bucketMs);
+        if (seasonBuckets > MAX_SEASON_BUCKETS) {
+            log.warnf("Predictive scaling disabled for broker set %s, the season has %d buckets, max is %d",
+                    brokerSetName, seasonBuckets, MAX_SEASON_BUCKETS);
+            return OptionalDouble.empty();
+        }
+        final int horizonBuckets = (int) Math.ceil((double) predictiveSpec.getHorizonMs() / bucketMs);
+        final String configMapName = statefulsetName + LOAD_HISTORY_CONFIGMAP_SUFFIX;
+        // three seasons give Holt-Winters some history beyond its initialization
+        final int capacity = 3 * seasonBuckets;
+        if (loadHistory == null || loadHistory.getBucketMs() != bucketMs || loadHistory.getCapacity() != capacity) {
+            final ConfigMap configMap = client.configMaps()
+                    .inNamespace(namespace)
+                    .withName(configMapName)
+                    .get();
+            final String encoded = configMap == null || configMap.getData() == null
+                    ? null : configMap.getData().get(LOAD_HISTORY_KEY);
+            loadHistory = LoadTimeSeries.decode(encoded, bucketMs, capacity);
+            savedLoadHistory = encoded;
+        }
+        computeLoadInBrokers(brokerSetName, autoscalerSpec, currentUsages)
+                .ifPresent(load -> loadHistory.record(now, load));
+        final String encoded = loadHistory.encode();
+        if (!encoded.equals(savedLoadHistory)) {
+            client.resource(new ConfigMapBuilder()
+                            .withNewMetadata()
+                            .withName(configMapName)
+                            .withNamespace(namespace)
+                            .withLabels(labels)
+                            .withOwnerReferences(new OwnerReferenceBuilder()
+                                    .withApiVersion(brokerCr.getApiVersion())
+                                    .withKind(brokerCr.getKind())
+                                    .withName(brokerCr.getMetadata().getName())
+                                    .withUid(brokerCr.getMetadata().getUid())
+                                    .build())
+                            .endMetadata()
+                            .withData(Map.of(LOAD_HISTORY_KEY, encoded))
+                            .build())
+                    .inNamespace(namespace)
+                    .createOrReplace();
+            savedLoadHistory = encoded;
+        }
+        final OptionalDouble forecast = SeasonalForecaster.forecastPeak(loadHistory, predictiveSpec.getMethod(),
+                seasonBuckets, horizonBuckets, loadHistory.bucketOf(now));
+        if (forecast.isEmpty()) {
+            log.debugf("Not enough load history for broker set %s to forecast the load", brokerSetName);
+        }
+        return forecast;
+    }
+
+    private record TargetRatio(String metric, double observed, double target, double ratio) {
+    }
+
+    /**
+     * @return the metric with the highest average / target ratio among the metrics with a target.
+     */
+    private static Optional<TargetRatio> highestTargetRatio(
+            String brokerSetName, BrokerAutoscalerSpec autoscalerSpec,
+            List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages) {
+        TargetRatio highest = null;
+        for (BrokerAutoscalerSpec.MetricSpec metricSpec : getMetrics(autoscalerSpec)) {
+            if (metricSpec.getTarget() == null) {
+                continue;
+            }
+            if (metricSpec.getTarget() <= 0) {
+                log.warnf("Invalid target %.2f for metric %s of broker set %s, skipping", metricSpec.getTarget(),
+                        metricSpec.getName(), brokerSetName);
+                continue;
+            }
+            final OptionalDouble average = brokersResourceUsages.stream()
+                    .map(usage -> usage.getMetric(metricSpec.getName()))
+                    .filter(Objects::nonNull)
+                    .mapToDouble(Double::doubleValue)
+                    .average();
+            if (average.isEmpty()) {
+                log.debugf("Metric %s not reported by broker set %s", metricSpec.getName(), brokerSetName);
+                continue;
+            }
+            final double ratio = average.getAsDouble() / metricSpec.getTarget();
+            if (highest == null || ratio > highest.ratio()) {
+                highest = new TargetRatio(metricSpec.getName(), average.getAsDouble(), metricSpec.getTarget(), ratio);
+            }
+        }
+        if (highest == null) {
+            log.warnf("No metric with a target available for broker set %s, skipping", brokerSetName);
+        }
+        return Optional.ofNullable(highest);
+    }
+
+    /**
+     * @return the load of the broker set expressed as the number of brokers needed to keep the metrics at their
+     * targets.
+     */
+    static OptionalDouble computeLoadInBrokers(String brokerSetName, BrokerAutoscalerSpec autoscalerSpec,
+                                               List<BrokerResourceUsageSource.ResourceUsage> allResourceUsages) {
+        final List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages = allResourceUsages.stream()
+                .filter(BrokerResourceUsageSource.ResourceUsage::isAvailable)
+                .collect(Collectors.toList());
+        if (brokersResourceUsages.isEmpty()) {
+            return OptionalDouble.empty();
+        }
+        return highestTargetRatio(brokerSetName, autoscalerSpec, brokersResourceUsages)
+                .map(ratio -> OptionalDouble.of(ratio.ratio() * allResourceUsages.size()))
+                .orElse(OptionalDouble.empty());
+    }
+
+    /**
+     * Scale up ahead of the forecasted load, the result is never lower than the replicas computed by the scaling
+     * policy (or the current replicas if the policy doesn't ask for a change) and never higher than 'max'.
+     */
+    static Optional<Integer> decidePredictiveReplicas(String brokerSetName, BrokerAutoscalerSpec autoscalerSpec,
+                                                      int currentExpectedReplicas, Optional<Integer> reactive,
+                                                      OptionalDouble forecastLoad) {
+        if (forecastLoad.isEmpty()) {
+            return reactive;
+        }
+        final int baseline = reactive.orElse(currentExpectedReplicas);
+        int predicted = (int) Math.ceil(forecastLoad.getAsDouble() - 1e-9);
+        final Integer max = autoscalerSpec.getMax();
+        if (max != null) {
+            predicted = Math.min(predicted, max);
+        }
+        if (predicted <= baseline) {
+            return reactive;
+        }
+        log.infof("Broker set %s forecasted load %.2f brokers, scaling to %d ahead of it (policy asks for %d)",
+                brokerSetName, forecastLoad.getAsDouble(), predicted, baseline);
+        return Optional.of(predicted);
     }
 
     private void applyScaleTo(Broker brokerCr, int scaleTo) {
@@ -162,53 +694,176 @@ public class BrokerSetAutoscaler implements Runnable {
         }
     }
 
-    private Optional<Boolean> decideScaleUpOrDown(BrokerAutoscalerSpec autoscalerSpec,
-                                        BrokerResourceUsageSource brokerResourceUsageSource) {
-        float cpuLowerThreshold = autoscalerSpec.getLowerCpuThreshold().floatValue();
-        float cpuHigherThreshold = autoscalerSpec.getHigherCpuThreshold().floatValue();
+    /**
+     * Scale up if at least 'scaleUpBrokersRatio' of the brokers with a sample are over the higher threshold, scale
+     * down if at least 'scaleDownBrokersRatio' of them are under the lower threshold, none is over the higher threshold
+     * and all the brokers reported their usage.
+     * With multiple metrics, a broker is over the higher threshold if the highest value / threshold ratio is greater
+     * than 1 and under the lower threshold if the highest value / threshold ratio is less than 1.
+     */
+    static Optional<Boolean> decideScaleUpOrDown(String brokerSetName, BrokerAutoscalerSpec autoscalerSpec,
+                                                 List<BrokerResourceUsageSource.ResourceUsage> allResourceUsages) {
+        final List<BrokerAutoscalerSpec.MetricSpec> metrics = getMetrics(autoscalerSpec);
+
+        final List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages = allResourceUsages.stream()
+                .filter(BrokerResourceUsageSource.ResourceUsage::isAvailable)
+                .collect(Collectors.toList());
+        final int missing = allResourceUsages.size() - brokersResourceUsages.size();
+        if (brokersResourceUsages.isEmpty()) {
+            log.warnf("No resource usage available for broker set %s, skipping", brokerSetName);
+            return Optional.empty();
+        }
+        if (missing > 0) {
+            log.warnf("Resource usage not available for %d brokers of broker set %s: %s", missing, brokerSetName,
+                    allResourceUsages.stream()
+                            .filter(usage -> !usage.isAvailable())
+                            .map(usage -> usage.getPod() + " (" + usage.getStatus() + ")")
+                            .collect(Collectors.joining(", ")));
+        }
 
+        final ThresholdCounts counts = countThresholdCrossings(metrics, brokersResourceUsages);
+        final int over = counts.over();
+        final int under = counts.under();
+        final int available = brokersResourceUsages.size();
+        if (over >= requiredBrokers(autoscalerSpec.getScaleUpBrokersRatio(), available)) {
+            log.infof("%d/%d brokers of broker set %s are over the higher threshold", over, available,
+                    brokerSetName);
+            return Optional.of(true);
+        }
+        if (over == 0 && under >= requiredBrokers(autoscalerSpec.getScaleDownBrokersRatio(), available)) {
+            if (missing > 0) {
+                // a broker without samples might be the busy one
+                log.infof("Not scaling down broker set %s, %d brokers didn't report their usage",
+                        brokerSetName, missing);
+                return Optional.empty();
+            }
+            log.infof("%d/%d brokers of broker set %s are under the lower threshold", under, available,
+                    brokerSetName);
+            return Optional.of(false);
+        }
+        return Optional.empty();
+    }
 
-        final List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages =
-                brokerResourceUsageSource.getBrokersResourceUsages();
+    private record ThresholdCounts(int over, int under) {
+    }
 
-        boolean scaleUp = false;
-        boolean scaleDown = false;
+    /**
+     * Count the brokers over the higher threshold and the brokers under the lower threshold.
+     */
+    private static ThresholdCounts countThresholdCrossings(
+            List<BrokerAutoscalerSpec.MetricSpec> metrics,
+            List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages) {
+        int over = 0;
+        int under = 0;
         for (BrokerResourceUsageSource.ResourceUsage brokerUsage : brokersResourceUsages) {
-            final double cpuPercentage = brokerUsage.getPercentCpu();
-            if (cpuPercentage < cpuLowerThreshold) {
-                if (scaleUp) {
-                    return Optional.empty();
-                }
-                scaleDown = true;
-            } else if (cpuPercentage > cpuHigherThreshold) {
-                if (scaleDown) {
-                    return Optional.empty();
-                }
-                scaleUp = true;
-            } else {
-                return Optional.empty();
+            final OptionalDouble higherRatio =
+                    maxThresholdRatio(brokerUsage, metrics, BrokerAutoscalerSpec.MetricSpec::getHigherThreshold);
+            final OptionalDouble lowerRatio =
+                    maxThresholdRatio(brokerUsage, metrics, BrokerAutoscalerSpec.MetricSpec::getLowerThreshold);
+            if (higherRatio.isPresent() && higherRatio.getAsDouble() > 1) {
+                over++;
+            } else if (lowerRatio.isPresent() && lowerRatio.getAsDouble() < 1) {
+                under++;
             }
         }
-        if (scaleUp && scaleDown) {
-            throw new IllegalStateException();
+        return new ThresholdCounts(over, under);
+    }
+
+    /**
+     * @return the metrics to evaluate, the cpu thresholds and target if no metric is configured.
+     */
+    static List<BrokerAutoscalerSpec.MetricSpec> getMetrics(BrokerAutoscalerSpec autoscalerSpec) {
+        if (autoscalerSpec.getMetrics() != null && !autoscalerSpec.getMetrics().isEmpty()) {
+            return autoscalerSpec.getMetrics();
         }
-        if (scaleUp) {
-            return Optional.of(true);
+        return List.of(BrokerAutoscalerSpec.MetricSpec.builder()
+                .name(BrokerResourceUsageSource.METRIC_CPU)
+                .lowerThreshold(autoscalerSpec.getLowerCpuThreshold())
+                .higherThreshold(autoscalerSpec.getHigherCpuThreshold())
+                .target(autoscalerSpec.getTargetCpuUtilization())
+                .build());
+    }
+
+    /**
+     * @return the highest value / threshold ratio among the metrics reported by the broker that have the threshold
+     * set, empty if there's none.
+     */
+    private static OptionalDouble maxThresholdRatio(BrokerResourceUsageSource.ResourceUsage brokerUsage,
+                                                    List<BrokerAutoscalerSpec.MetricSpec> metrics,
+                                                    Function<BrokerAutoscalerSpec.MetricSpec, Double> threshold) {
+        OptionalDouble max = OptionalDouble.empty();
+        for (BrokerAutoscalerSpec.MetricSpec metric : metrics) {
+            final Double thresholdValue = threshold.apply(metric);
+            final Double value = brokerUsage.getMetric(metric.getName());
+            if (thresholdValue == null || value == null) {
+                continue;
+            }
+            // the thresholds are compared with the same precision of the cpu samples
+            final double ratio = thresholdRatio(value, thresholdValue.floatValue());
+            if (max.isEmpty() || ratio > max.getAsDouble()) {
+                max = OptionalDouble.of(ratio);
+            }
         }
-        if (scaleDown) {
-            return Optional.of(false);
+        return max;
+    }
+
+    private static double thresholdRatio(double value, double threshold) {
+        if (threshold > 0) {
+            return value / threshold;
         }
-        throw new IllegalStateException();
+        // a zero threshold is only crossed by positive values
+        return value > 0 ? Double.POSITIVE_INFINITY : 1;
+    }
+
+    private static int requiredBrokers(Double ratio, int available) {
+        final double r = ratio == null ? 1.0d : ratio;
+        // at least one broker, the epsilon avoids rounding up exact ratios like 0.3 * 10
+        return Math.max(1, (int) Math.ceil(r * available - 1e-9));
+    }
+
+    private BrokerResourceUsageSource newPrometheusResourceUsageSource(
+            BrokerAutoscalerSpec.PrometheusSpec prometheusSpec,
+            Map<String, String> podSelector) {
+        final String url = prometheusSpec == null ? null : prometheusSpec.getUrl();
+        final Map<String, String> queries = prometheusSpec == null ? null : prometheusSpec.getQueries();
+        if (url != null) {
+            return new PrometheusApiResourceUsageSource(client, namespace, podSelector,
+                    AdminApiHttpClient.createUnauthenticated(LoadReportResourceUsageSource.DEFAULT_TIMEOUT), url,
+                    prometheusSpec.getPodLabel(),
+                    queries == null ? PrometheusApiResourceUsageSource.DEFAULT_QUERIES : queries,
+                    LoadReportResourceUsageSource.DEFAULT_TIMEOUT);
+        }
+        final GlobalSpec globalSpec = clusterSpec.getGlobalSpec();
+        final AdminApiHttpClient httpClient = AdminApiHttpClient.create(client, namespace, globalSpec,
+                HttpLoadReportResourceUsageSource.getTlsSecretName(globalSpec, brokerSetName)).orElse(null);
+        return new PrometheusScrapeResourceUsageSource(client, namespace, podSelector, brokerSetName,
+                desiredBrokerSetSpec, globalSpec, httpClient,
+                queries == null ? PrometheusScrapeResourceUsageSource.DEFAULT_QUERIES : queries,
+                LoadReportResourceUsageSource.DEFAULT_TIMEOUT);
     }
 
     private BrokerResourceUsageSource newBrokerResourceUsageSource(BrokerAutoscalerSpec brokerAutoscalerSpec,
-                                                                   Map<String, String> podSelector) {
+                                                                   Map<String, String> podSelector,
+                                                                   String statefulsetName) {
         switch (brokerAutoscalerSpec.getResourcesUsageSource()) {
             case BrokerAutoscalerSpec.RESOURCE_USAGE_SOURCE_LOAD_BALANCER:
+                final GlobalSpec globalSpec = clusterSpec.getGlobalSpec();
+                final Optional<AdminApiHttpClient> httpClient = AdminApiHttpClient.create(client, namespace,
+                        globalSpec, HttpLoadReportResourceUsageSource.getTlsSecretName(globalSpec, brokerSetName));
+                if (httpClient.isPresent()) {
+                    return new HttpLoadReportResourceUsageSource(client, namespace, podSelector, brokerSetName,
+                            desiredBrokerSetSpec, globalSpec, httpClient.get());
+                }
                 return new LoadReportResourceUsageSource(client, namespace, podSelector, brokerSetName,
-                        desiredBrokerSetSpec, clusterSpec.getGlobalSpec());
+                        desiredBrokerSetSpec, globalSpec);
             case BrokerAutoscalerSpec.RESOURCE_USAGE_SOURCE_K8S_METRICS:
-                return new PodMetricResourceUsageSource(client, namespace, podSelector);
+                final List<String> containers = brokerAutoscalerSpec.getK8sMetricsContainers();
+                return new PodMetricResourceUsageSource(client, namespace, podSelector,
+                        containers == null || containers.isEmpty()
+                                ? Set.of(BrokerResourcesFactory.getMainContainerName(statefulsetName))
+                                : Set.copyOf(containers));
+            case BrokerAutoscalerSpec.RESOURCE_USAGE_SOURCE_PROMETHEUS:
+                return newPrometheusResourceUsageSource(brokerAutoscalerSpec.getPrometheus(), podSelector);
             default:
                 throw new IllegalArgumentException(
                         "Unknown resource usage source: " + brokerAutoscalerSpec.getResourcesUsageSource());
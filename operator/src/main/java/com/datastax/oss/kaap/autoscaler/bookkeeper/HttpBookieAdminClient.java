@@ -0,0 +1,68 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.bookkeeper;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSetSpec;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bookie admin client calling the bookies REST API directly through a pooled HTTP client.
+ * The shell commands still run in the pods, and the REST calls fall back to pod exec if the bookie is not reachable.
+ */
+public class HttpBookieAdminClient extends PodExecBookieAdminClient {
+
+    private final AdminApiHttpClient httpClient;
+
+    public HttpBookieAdminClient(KubernetesClient client, String namespace,
+                                 GlobalSpec globalSpec, String bookkeeperSetName,
+                                 BookKeeperSetSpec currentBookKeeperSetSpec,
+                                 AdminApiHttpClient httpClient) {
+        super(client, namespace, globalSpec, bookkeeperSetName, currentBookKeeperSetSpec);
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * @return a client calling the bookies directly if they are reachable from the operator, the exec based one
+     * otherwise.
+     */
+    public static BookieAdminClient newBookieAdminClient(KubernetesClient client, String namespace,
+                                                         GlobalSpec globalSpec, String bookkeeperSetName,
+                                                         BookKeeperSetSpec currentBookKeeperSetSpec) {
+        final String tlsSecretName = BaseResourcesFactory.isTlsEnabledOnBookKeeper(globalSpec)
+                ? BaseResourcesFactory.getTlsSecretNameForBookkeeper(globalSpec) : null;
+        final Optional<AdminApiHttpClient> httpClient =
+                AdminApiHttpClient.create(client, namespace, globalSpec, tlsSecretName);
+        if (httpClient.isPresent()) {
+            return new HttpBookieAdminClient(client, namespace, globalSpec, bookkeeperSetName,
+                    currentBookKeeperSetSpec, httpClient.get());
+        }
+        return new PodExecBookieAdminClient(client, namespace, globalSpec, bookkeeperSetName,
+                currentBookKeeperSetSpec);
+    }
+
+    @Override
+    protected CompletableFuture<String> callRestApi(Pod pod, String method, String path, String jsonBody) {
+        final String url = computeBookieUrl(getBookieHost(pod)) + path;
+        return AdminApiHttpClient.withFallback(url, httpClient.send(method, url, jsonBody),
+                () -> super.callRestApi(pod, method, path, jsonBody));
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.datastax.oss.kaap.autoscaler.bookkeeper;
 
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
 import com.datastax.oss.kaap.autoscaler.AutoscalerUtils;
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
 import com.datastax.oss.kaap.controllers.bookkeeper.BookKeeperResourcesFactory;
@@ -107,15 +108,9 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
     public BookieStats collectBookieStats(BookieInfo bookieInfo) {
         final Pod pod = bookieInfo.getPodResource().get();
 
-        CompletableFuture<String> bkStateOut =
-                AutoscalerUtils.execInPod(client, namespace, pod.getMetadata().getName(),
-                        BookKeeperResourcesFactory.getBookKeeperContainerName(globalSpec),
-                        "curl -s " + bookieAdminUrl + "/api/v1/bookie/state");
+        CompletableFuture<String> bkStateOut = callRestApi(pod, "GET", "/api/v1/bookie/state", null);
 
-        CompletableFuture<String> bkInfoOut =
-                AutoscalerUtils.execInPod(client, namespace, pod.getMetadata().getName(),
-                        BookKeeperResourcesFactory.getBookKeeperContainerName(globalSpec),
-                        "curl -s " + bookieAdminUrl + "/api/v1/bookie/info");
+        CompletableFuture<String> bkInfoOut = callRestApi(pod, "GET", "/api/v1/bookie/info", null);
 
         List<BookieLedgerDiskInfo> ledgerDiskInfos = new ArrayList<>(1);
         final BookieLedgerDiskInfo diskInfo = parseAndFillDiskUsage(bkInfoOut.get(), pod);
@@ -178,12 +173,8 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
     @Override
     @SneakyThrows
     public void setReadOnly(BookieInfo bookieInfo, boolean readonly) {
-        CompletableFuture<String> curlOut = AutoscalerUtils.execInPod(client, namespace,
-                bookieInfo.getPodResource().get().getMetadata().getName(),
-                BookKeeperResourcesFactory.getBookKeeperContainerName(globalSpec),
-                "curl -s -X PUT -H \"Content-Type: application/json\" "
-                        + "-d '{\"readOnly\":" + readonly + "}' "
-                        + bookieAdminUrl + "/api/v1/bookie/state/readonly");
+        CompletableFuture<String> curlOut = callRestApi(bookieInfo.getPodResource().get(), "PUT",
+                "/api/v1/bookie/state/readonly", "{\"readOnly\":" + readonly + "}");
         curlOut.whenComplete((s, e) -> {
             if (e != null) {
                 log.errorf(e, "Error making bookie read-only %s",
@@ -281,17 +272,35 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
         No under replicated ledgers found
         */
         final PodResource pod = getBookieInfos().get(0).getPodResource();
-        CompletableFuture<String> urLedgersOut = AutoscalerUtils.execInPod(client, namespace,
-                pod.get().getMetadata().getName(),
-                BookKeeperResourcesFactory.getBookKeeperContainerName(globalSpec),
-                "curl -s " + bookieAdminUrl + "/api/v1/autorecovery/list_under_replicated_ledger/");
+        CompletableFuture<String> urLedgersOut = callRestApi(pod.get(), "GET",
+                "/api/v1/autorecovery/list_under_replicated_ledger/", null);
 
         final String s = urLedgersOut.get(1, TimeUnit.MINUTES);
         return s.contains("No under replicated ledgers found");
     }
 
 
+    /**
+     * Call the bookie REST API running curl in the bookie pod.
+     */
+    protected CompletableFuture<String> callRestApi(Pod pod, String method, String path, String jsonBody) {
+        final StringBuilder curl = new StringBuilder("curl -s");
+        if (!"GET".equals(method)) {
+            curl.append(" -X ").append(method);
+        }
+        if (jsonBody != null) {
+            curl.append(" -H \"Content-Type: application/json\" -d '").append(jsonBody).append("'");
+        }
+        curl.append(" ").append(bookieAdminUrl).append(path);
+        return AutoscalerUtils.execInPod(client, namespace, pod.getMetadata().getName(),
+                BookKeeperResourcesFactory.getBookKeeperContainerName(globalSpec), curl.toString());
+    }
+
     private String computeBookieUrl() {
+        return computeBookieUrl("localhost");
+    }
+
+    protected String computeBookieUrl(String host) {
         final String configKey = "%s%s".formatted(BaseResourcesFactory.CONFIG_PULSAR_PREFIX, "httpServerPort");
         final Map<String, Object> config = currentBookKeeperSetSpec.getConfig();
         final Object port;
@@ -302,7 +311,7 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
         }
         return "%s://%s:%s".formatted(
                 BaseResourcesFactory.isTlsEnabledOnBookKeeper(globalSpec) ? "https" : "http",
-                "localhost",
+                host,
                 String.valueOf(port)
         );
     }
@@ -311,10 +320,8 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
     @SneakyThrows
     public void triggerAudit() {
         final BookieInfo bookieInfo = getBookieInfos().get(0);
-        CompletableFuture<String> curlOut = AutoscalerUtils.execInPod(client, namespace,
-                bookieInfo.getPodResource().get().getMetadata().getName(),
-                BookKeeperResourcesFactory.getBookKeeperContainerName(globalSpec),
-                "curl -s -X PUT " + bookieAdminUrl + "/api/v1/autorecovery/trigger_audit");
+        CompletableFuture<String> curlOut = callRestApi(bookieInfo.getPodResource().get(), "PUT",
+                "/api/v1/autorecovery/trigger_audit", null);
         curlOut.whenComplete((s, e) -> {
             if (e != null) {
                 log.errorf(e, "Error triggering audit %s",
@@ -333,6 +340,11 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
         return getBookieId(pod, bookkeeperSetName, currentBookKeeperSetSpec, globalSpec, namespace);
     }
 
+    protected String getBookieHost(Pod pod) {
+        return getBookieHost(pod.getSpec().getHostname(), bookkeeperSetName, currentBookKeeperSetSpec, globalSpec,
+                namespace);
+    }
+
     public static String getBookieId(Pod pod, String bookieSet,
                                      BookKeeperSetSpec setSpec,
                                      GlobalSpec globalSpec,
@@ -344,22 +356,22 @@ public class PodExecBookieAdminClient implements BookieAdminClient {
                                      BookKeeperSetSpec setSpec,
                                      GlobalSpec globalSpec,
                                      String namespace) {
-        // https://kubernetes.io/docs/concepts/services-networking/dns-pod-service/#a-aaaa-records-1
-        // <pod-hostname>.<service-name>.<namespace>.svc.<cluster-domain>
-
         // note that this might depend on bk configs:
         // - 'useHostNameAsBookieID'
         // - 'useShortHostName'
         // - 'advertisedAddress'
+        return String.format("%s:%d",
+                getBookieHost(podHostname, bookieSet, setSpec, globalSpec, namespace),
+                BookKeeperResourcesFactory.DEFAULT_BK_PORT);
+    }
 
+    public static String getBookieHost(String podHostname, String bookieSet,
+                                       BookKeeperSetSpec setSpec,
+                                       GlobalSpec globalSpec,
+                                       String namespace) {
         final String svcName = BookKeeperResourcesFactory.getResourceName(globalSpec.getName(),
                 globalSpec.getComponents().getBookkeeperBaseName(), bookieSet, setSpec.getOverrideResourceName());
-        return String.format("%s.%s.%s.svc.%s:%d",
-                podHostname,
-                svcName,
-                namespace,
-                globalSpec.getKubernetesClusterDomain(),
-                BookKeeperResourcesFactory.DEFAULT_BK_PORT);
+        return AdminApiHttpClient.getPodHost(podHostname, svcName, namespace, globalSpec);
     }
 
     @Override
@@ -0,0 +1,38 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import java.util.Set;
+
+public interface BrokerAdminClient {
+
+    /**
+     * @return the bundles served by the broker, e.g. 'public/default/0x00000000_0x40000000'.
+     */
+    Set<String> getOwnedBundles(String podName);
+
+    /**
+     * @return the id of the broker running in the pod, its advertised address and web service port.
+     */
+    String getBrokerId(String podName);
+
+    /**
+     * Unload the bundle from the broker owning it and assign it to the destination broker.
+     * If the destination is null, or the broker doesn't support it, the load manager assigns the bundle to any
+     * broker at the next lookup.
+     */
+    void unloadBundle(String podName, String bundle, String destinationBroker);
+}
@@ -16,18 +16,76 @@
 package com.datastax.oss.kaap.autoscaler.broker;
 
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
 public interface BrokerResourceUsageSource {
 
+    enum SampleStatus {
+        OK,
+        TIMEOUT,
+        FAILED
+    }
+
+    /**
+     * Metrics reported as a fraction of the available resource.
+     */
+    String METRIC_CPU = "cpu";
+    String METRIC_MEMORY = "memory";
+    String METRIC_DIRECT_MEMORY = "directMemory";
+    String METRIC_BANDWIDTH_IN = "bandwidthIn";
+    String METRIC_BANDWIDTH_OUT = "bandwidthOut";
+    /**
+     * Metrics reported as absolute values.
+     */
+    String METRIC_MSG_RATE_IN = "msgRateIn";
+    String METRIC_MSG_RATE_OUT = "msgRateOut";
+    String METRIC_MSG_THROUGHPUT_IN = "msgThroughputIn";
+    String METRIC_MSG_THROUGHPUT_OUT = "msgThroughputOut";
+    String METRIC_NUM_BUNDLES = "numBundles";
+    String METRIC_NUM_TOPICS = "numTopics";
+
     @Data
     @AllArgsConstructor
     class ResourceUsage {
         String pod;
         float percentCpu;
+        SampleStatus status;
+        String error;
+        Map<String, Double> metrics;
+
+        public ResourceUsage(String pod, float percentCpu) {
+            this(pod, percentCpu, SampleStatus.OK, null, Map.of(METRIC_CPU, (double) percentCpu));
+        }
+
+        /**
+         * @param metrics the sampled metrics, the cpu usage is read from {@link #METRIC_CPU}
+         */
+        public ResourceUsage(String pod, Map<String, Double> metrics) {
+            this(pod, metrics.getOrDefault(METRIC_CPU, 0d).floatValue(), SampleStatus.OK, null, metrics);
+        }
+
+        public static ResourceUsage unavailable(String pod, SampleStatus status, String error) {
+            return new ResourceUsage(pod, 0, status, error, Map.of());
+        }
+
+        public boolean isAvailable() {
+            return status == SampleStatus.OK;
+        }
+
+        /**
+         * @return the metric value or null if it's not reported by the source.
+         */
+        public Double getMetric(String name) {
+            return metrics.get(name);
+        }
     }
 
+    /**
+     * @return one entry for each broker pod. The pods whose usage couldn't be collected are reported as not
+     * {@link ResourceUsage#isAvailable()}, with the reason.
+     */
     List<ResourceUsage> getBrokersResourceUsages();
 
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Broker admin client calling the brokers directly through a pooled HTTP client.
+ * If a broker is not reachable, the call is done running curl in the pod.
+ */
+public class HttpBrokerAdminClient extends PodExecBrokerAdminClient {
+
+    private final AdminApiHttpClient httpClient;
+
+    public HttpBrokerAdminClient(KubernetesClient client, String namespace, GlobalSpec globalSpec,
+                                 String brokerSet, BrokerSetSpec brokerSetSpec,
+                                 AdminApiHttpClient httpClient) {
+        super(client, namespace, globalSpec, brokerSet, brokerSetSpec);
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * @return a client calling the brokers directly if they are reachable from the operator, the exec based one
+     * otherwise.
+     */
+    public static BrokerAdminClient newBrokerAdminClient(KubernetesClient client, String namespace,
+                                                         GlobalSpec globalSpec, String brokerSet,
+                                                         BrokerSetSpec brokerSetSpec) {
+        final Optional<AdminApiHttpClient> httpClient = AdminApiHttpClient.create(client, namespace, globalSpec,
+                HttpLoadReportResourceUsageSource.getTlsSecretName(globalSpec, brokerSet));
+        if (httpClient.isPresent()) {
+            return new HttpBrokerAdminClient(client, namespace, globalSpec, brokerSet, brokerSetSpec,
+                    httpClient.get());
+        }
+        return new PodExecBrokerAdminClient(client, namespace, globalSpec, brokerSet, brokerSetSpec);
+    }
+
+    @Override
+    protected CompletableFuture<String> callRestApi(String podName, String method, String path) {
+        final String url = LoadReportResourceUsageSource.computeBrokerUrl(podName, namespace, brokerSet,
+                brokerSetSpec, globalSpec) + path;
+        return AdminApiHttpClient.withFallback(url, httpClient.send(method, url, null),
+                () -> super.callRestApi(podName, method, path));
+    }
+}
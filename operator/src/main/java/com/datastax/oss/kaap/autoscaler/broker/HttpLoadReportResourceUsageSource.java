@@ -0,0 +1,70 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Load report source calling the brokers admin API directly through a pooled HTTP client.
+ * If a broker is not reachable, its load report is requested running curl in the pod.
+ */
+public class HttpLoadReportResourceUsageSource extends LoadReportResourceUsageSource {
+
+    private final AdminApiHttpClient httpClient;
+
+    public HttpLoadReportResourceUsageSource(KubernetesClient client, String namespace,
+                                             Map<String, String> podSelector,
+                                             String brokerSet,
+                                             BrokerSetSpec brokerSetSpec,
+                                             GlobalSpec globalSpec,
+                                             AdminApiHttpClient httpClient) {
+        this(client, namespace, podSelector, brokerSet, brokerSetSpec, globalSpec, httpClient, DEFAULT_TIMEOUT);
+    }
+
+    public HttpLoadReportResourceUsageSource(KubernetesClient client, String namespace,
+                                             Map<String, String> podSelector,
+                                             String brokerSet,
+                                             BrokerSetSpec brokerSetSpec,
+                                             GlobalSpec globalSpec,
+                                             AdminApiHttpClient httpClient,
+                                             Duration timeout) {
+        super(client, namespace, podSelector, brokerSet, brokerSetSpec, globalSpec, timeout);
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * @return the TLS secret to trust for the given broker set, null if TLS is not enabled.
+     */
+    public static String getTlsSecretName(GlobalSpec globalSpec, String brokerSet) {
+        return BaseResourcesFactory.isTlsEnabledOnBrokerSet(globalSpec, brokerSet)
+                ? BaseResourcesFactory.getTlsSecretNameForBroker(globalSpec) : null;
+    }
+
+    @Override
+    protected CompletableFuture<String> requestLoadReport(Pod pod) {
+        final String url = computeBrokerUrl(pod) + getRequestPath();
+        return AdminApiHttpClient.withFallback(url, httpClient.send("GET", url, null),
+                () -> super.requestLoadReport(pod));
+    }
+}
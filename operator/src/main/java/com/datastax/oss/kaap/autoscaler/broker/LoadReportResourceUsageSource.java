@@ -15,6 +15,7 @@
  */
 package com.datastax.oss.kaap.autoscaler.broker;
 
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
 import com.datastax.oss.kaap.autoscaler.AutoscalerUtils;
 import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
@@ -24,41 +25,75 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
 import org.apache.commons.lang3.StringUtils;
 
 @JBossLog
 public class LoadReportResourceUsageSource implements BrokerResourceUsageSource {
 
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    protected static final String LOAD_REPORT_PATH = "/admin/v2/broker-stats/load-report/";
+
+    private static final List<String> LOAD_REPORT_USAGE_METRICS = List.of(
+            METRIC_CPU,
+            METRIC_MEMORY,
+            METRIC_DIRECT_MEMORY,
+            METRIC_BANDWIDTH_IN,
+            METRIC_BANDWIDTH_OUT);
+
+    private static final List<String> LOAD_REPORT_VALUE_METRICS = List.of(
+            METRIC_MSG_RATE_IN,
+            METRIC_MSG_RATE_OUT,
+            METRIC_MSG_THROUGHPUT_IN,
+            METRIC_MSG_THROUGHPUT_OUT,
+            METRIC_NUM_TOPICS,
+            METRIC_NUM_BUNDLES);
+
     private final KubernetesClient client;
-    private final String namespace;
+    protected final String namespace;
     private final Map<String, String> podSelector;
-    private final String brokerSet;
-    private final BrokerSetSpec brokerSetSpec;
-    private final GlobalSpec globalSpec;
+    protected final String brokerSet;
+    protected final BrokerSetSpec brokerSetSpec;
+    protected final GlobalSpec globalSpec;
+    private final Duration timeout;
 
     public LoadReportResourceUsageSource(KubernetesClient client, String namespace,
                                          Map<String, String> podSelector,
                                          String brokerSet,
                                          BrokerSetSpec brokerSetSpec,
                                          GlobalSpec globalSpec) {
+        this(client, namespace, podSelector, brokerSet, brokerSetSpec, globalSpec, DEFAULT_TIMEOUT);
+    }
+
+    public LoadReportResourceUsageSource(KubernetesClient client, String namespace,
+                                         Map<String, String> podSelector,
+                                         String brokerSet,
+                                         BrokerSetSpec brokerSetSpec,
+                                         GlobalSpec globalSpec,
+                                         Duration timeout) {
         this.client = client;
         this.namespace = namespace;
         this.podSelector = podSelector;
         this.brokerSet = brokerSet;
         this.brokerSetSpec = brokerSetSpec;
         this.globalSpec = globalSpec;
+        this.timeout = timeout;
     }
 
     @Override
-    @SneakyThrows
     public List<ResourceUsage> getBrokersResourceUsages() {
         final List<Pod> pods = client.pods()
                 .inNamespace(namespace)
@@ -66,46 +101,149 @@ public class LoadReportResourceUsageSource implements BrokerResourceUsageSource
                 .list()
                 .getItems();
 
+        // the requests are asynchronous, all the pods are queried at the same time and a slow pod only delays
+        // the tick up to the deadline
+        final Map<String, CompletableFuture<String>> requests = new LinkedHashMap<>();
+        for (Pod pod : pods) {
+            requests.put(pod.getMetadata().getName(), requestLoadReport(pod));
+        }
+        final long deadline = System.nanoTime() + timeout.toNanos();
 
         List<ResourceUsage> result = new ArrayList<>();
-        String webServicePort = getWebServicePort();
-        final String brokerUrl =
-                "http://localhost:%s/admin/v2/broker-stats/load-report/".formatted(String.valueOf(webServicePort));
+        for (Map.Entry<String, CompletableFuture<String>> request : requests.entrySet()) {
+            final String podName = request.getKey();
+            result.add(collect(podName, request.getValue(), deadline, timeout, this::parseResponse));
+        }
+        return result;
+    }
+
+    /**
+     * Request the load report running curl in the broker pod.
+     */
+    protected CompletableFuture<String> requestLoadReport(Pod pod) {
+        final String brokerUrl = "http://localhost:%s%s".formatted(getWebServicePort(), getRequestPath());
         final String curlAuthHeader = BrokerResourcesFactory.computeCurlAuthHeader(globalSpec);
         final String curlCommand = StringUtils.isBlank(curlAuthHeader)
                 ? "curl %s".formatted(brokerUrl) : "curl %s %s".formatted(curlAuthHeader, brokerUrl);
+        return AutoscalerUtils.execInPod(client, namespace, pod.getMetadata().getName(), getContainerName(),
+                curlCommand);
+    }
 
-        final String containerName =
-                BrokerResourcesFactory.getMainContainerName(BrokerResourcesFactory.getResourceName(globalSpec.getName(),
-                        globalSpec.getComponents().getBrokerBaseName(), brokerSet,
-                        brokerSetSpec.getOverrideResourceName()));
-        for (Pod pod : pods) {
-            final String podName = pod.getMetadata().getName();
+    protected String computeBrokerUrl(Pod pod) {
+        return computeBrokerUrl(pod.getMetadata().getName(), namespace, brokerSet, brokerSetSpec, globalSpec);
+    }
 
-            final String jsonOut = AutoscalerUtils.execInPod(client, namespace, podName, containerName, curlCommand)
-                    .get(30, TimeUnit.SECONDS);
+    /**
+     * @return the base URL of the admin API of the given broker pod, to call it from outside the pod.
+     */
+    static String computeBrokerUrl(String podName, String namespace, String brokerSet, BrokerSetSpec brokerSetSpec,
+                                   GlobalSpec globalSpec) {
+        final String host = AdminApiHttpClient.getPodHost(podName,
+                getBrokerResourceName(brokerSet, brokerSetSpec, globalSpec), namespace, globalSpec);
+        if (HttpLoadReportResourceUsageSource.getTlsSecretName(globalSpec, brokerSet) != null) {
+            return "https://%s:%d".formatted(host, BrokerResourcesFactory.DEFAULT_HTTPS_PORT);
+        }
+        return "http://%s:%s".formatted(host, getWebServicePort(brokerSetSpec));
+    }
 
-            final Map<String, Object> json = SerializationUtil.readJson(jsonOut, Map.class);
-            if (!json.containsKey("cpu")) {
-                throw new IllegalStateException(
-                        "Broker %s didn't exposed valid report usage, expected 'cpu', found: %s".formatted(podName,
-                                jsonOut));
+    protected String getBrokerResourceName() {
+        return getBrokerResourceName(brokerSet, brokerSetSpec, globalSpec);
+    }
+
+    static String getBrokerResourceName(String brokerSet, BrokerSetSpec brokerSetSpec, GlobalSpec globalSpec) {
+        return BrokerResourcesFactory.getResourceName(globalSpec.getName(),
+                globalSpec.getComponents().getBrokerBaseName(), brokerSet, brokerSetSpec.getOverrideResourceName());
+    }
+
+    private String getContainerName() {
+        return BrokerResourcesFactory.getMainContainerName(getBrokerResourceName());
+    }
+
+    /**
+     * @return the admin API path returning the broker usage.
+     */
+    protected String getRequestPath() {
+        return LOAD_REPORT_PATH;
+    }
+
+    protected ResourceUsage parseResponse(String podName, String body) {
+        return parseLoadReport(podName, body);
+    }
+
+    static ResourceUsage collect(String podName, CompletableFuture<String> request, long deadline,
+                                 Duration timeout) {
+        return collect(podName, request, deadline, timeout, LoadReportResourceUsageSource::parseLoadReport);
+    }
+
+    static ResourceUsage collect(String podName, CompletableFuture<String> request, long deadline,
+                                 Duration timeout, BiFunction<String, String, ResourceUsage> parser) {
+        final String jsonOut;
+        try {
+            jsonOut = request.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            request.cancel(true);
+            log.warnf("Broker %s didn't return the load report in %d ms", podName, timeout.toMillis());
+            return ResourceUsage.unavailable(podName, SampleStatus.TIMEOUT,
+                    "no response in %d ms".formatted(timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.cancel(true);
+            return ResourceUsage.unavailable(podName, SampleStatus.FAILED, "interrupted");
+        } catch (ExecutionException e) {
+            log.warnf("Broker %s load report failed: %s", podName, e.getCause().getMessage());
+            return ResourceUsage.unavailable(podName, SampleStatus.FAILED, e.getCause().getMessage());
+        }
+        try {
+            return parser.apply(podName, jsonOut);
+        } catch (RuntimeException e) {
+            log.warnf("Broker %s load report is not valid: %s", podName, e.getMessage());
+            return ResourceUsage.unavailable(podName, SampleStatus.FAILED, e.getMessage());
+        }
+    }
+
+    static ResourceUsage parseLoadReport(String podName, String jsonOut) {
+        final Map<String, Object> json = SerializationUtil.readJson(jsonOut, Map.class);
+        if (!json.containsKey("cpu")) {
+            throw new IllegalStateException(
+                    "Broker %s didn't exposed valid report usage, expected 'cpu', found: %s".formatted(podName,
+                            jsonOut));
+        }
+        final Map<String, Double> metrics = new HashMap<>();
+        for (String metric : LOAD_REPORT_USAGE_METRICS) {
+            final Object value = json.get(metric);
+            if (value == null) {
+                continue;
             }
             final LoadReportResourceUsage loadReportResourceUsage =
-                    SerializationUtil.convertValue(json.get("cpu"), LoadReportResourceUsage.class);
-            final float percentUsage = loadReportResourceUsage.percentUsage();
+                    SerializationUtil.convertValue(value, LoadReportResourceUsage.class);
+            if (METRIC_CPU.equals(metric)) {
+                metrics.put(metric, (double) loadReportResourceUsage.percentUsage());
+            } else if (loadReportResourceUsage.getLimit() > 0) {
+                // the bandwidth limit is not reported if the NIC speed can't be detected
+                metrics.put(metric, loadReportResourceUsage.getUsage() / loadReportResourceUsage.getLimit());
+            }
+        }
+        for (String metric : LOAD_REPORT_VALUE_METRICS) {
+            if (json.get(metric) instanceof Number number) {
+                metrics.put(metric, number.doubleValue());
+            }
+        }
 
-            final float rounded = new BigDecimal(percentUsage).setScale(2, RoundingMode.HALF_UP)
-                    .floatValue();
+        final float rounded = new BigDecimal(metrics.get(METRIC_CPU)).setScale(2, RoundingMode.HALF_UP)
+                .floatValue();
+        metrics.put(METRIC_CPU, (double) rounded);
 
 
-            log.infof("Broker %s cpu usage: %f %%", podName, rounded * 100, null);
-            result.add(new ResourceUsage(podName, rounded));
-        }
-        return result;
+        log.infof("Broker %s cpu usage: %f %%", podName, rounded * 100, null);
+        log.debugf("Broker %s load report metrics: %s", podName, metrics);
+        return new ResourceUsage(podName, metrics);
+    }
+
+    protected String getWebServicePort() {
+        return getWebServicePort(brokerSetSpec);
     }
 
-    private String getWebServicePort() {
+    static String getWebServicePort(BrokerSetSpec brokerSetSpec) {
         Object webServicePort =
                 brokerSetSpec.getConfig() != null
                         ? brokerSetSpec.getConfig().get("webServicePort")
@@ -0,0 +1,147 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size time series of the load of a broker set, one value for each bucket of 'bucketMs'.
+ * Each bucket keeps the peak of the values recorded in it, the buckets without values are NaN.
+ * The series is encoded as 'bucketMs;lastBucket;v1,v2,...' with the values in chronological order.
+ */
+public class LoadTimeSeries {
+
+    private final long bucketMs;
+    private final double[] values;
+    private long lastBucket = Long.MIN_VALUE;
+
+    public LoadTimeSeries(long bucketMs, int capacity) {
+        if (bucketMs <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("bucketMs and capacity must be positive");
+        }
+        this.bucketMs = bucketMs;
+        this.values = new double[capacity];
+        Arrays.fill(values, Double.NaN);
+    }
+
+    public long getBucketMs() {
+        return bucketMs;
+    }
+
+    public int getCapacity() {
+        return values.length;
+    }
+
+    public long bucketOf(long timestamp) {
+        return Math.floorDiv(timestamp, bucketMs);
+    }
+
+    /**
+     * @return the last bucket with a value recorded, Long.MIN_VALUE if the series is empty.
+     */
+    public long getLastBucket() {
+        return lastBucket;
+    }
+
+    public boolean isEmpty() {
+        return lastBucket == Long.MIN_VALUE;
+    }
+
+    public void record(long timestamp, double value) {
+        final long bucket = bucketOf(timestamp);
+        if (isEmpty() || bucket > lastBucket) {
+            if (!isEmpty()) {
+                final long gap = Math.min(bucket - lastBucket - 1, values.length);
+                for (long b = bucket - gap; b < bucket; b++) {
+                    values[index(b)] = Double.NaN;
+                }
+            }
+            lastBucket = bucket;
+            values[index(bucket)] = value;
+        } else if (bucket > lastBucket - values.length) {
+            final int i = index(bucket);
+            values[i] = Double.isNaN(values[i]) ? value : Math.max(values[i], value);
+        }
+    }
+
+    /**
+     * @return the value of the bucket or NaN if it's not recorded or out of the series.
+     */
+    public double get(long bucket) {
+        if (isEmpty() || bucket > lastBucket || bucket <= lastBucket - values.length) {
+            return Double.NaN;
+        }
+        return values[index(bucket)];
+    }
+
+    private int index(long bucket) {
+        return (int) Math.floorMod(bucket, (long) values.length);
+    }
+
+    public String encode() {
+        final StringBuilder builder = new StringBuilder(values.length * 5 + 32);
+        builder.append(bucketMs).append(';').append(lastBucket).append(';');
+        if (!isEmpty()) {
+            for (long b = lastBucket - values.length + 1; b <= lastBucket; b++) {
+                final double value = values[index(b)];
+                if (!Double.isNaN(value)) {
+                    // two decimals are enough for loads expressed in brokers
+                    builder.append(Math.round(value * 100) / 100d);
+                }
+                if (b < lastBucket) {
+                    builder.append(',');
+                }
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Decode the series, if the encoded series has a different bucket length or it's not valid an empty series is
+     * returned.
+     */
+    public static LoadTimeSeries decode(String encoded, long bucketMs, int capacity) {
+        final LoadTimeSeries series = new LoadTimeSeries(bucketMs, capacity);
+        if (encoded == null) {
+            return series;
+        }
+        final String[] parts = encoded.split(";", -1);
+        try {
+            if (parts.length != 3 || Long.parseLong(parts[0]) != bucketMs) {
+                return series;
+            }
+            final long last = Long.parseLong(parts[1]);
+            if (last == Long.MIN_VALUE || parts[2].isEmpty()) {
+                return series;
+            }
+            final String[] encodedValues = parts[2].split(",", -1);
+            long bucket = last - encodedValues.length + 1;
+            for (String value : encodedValues) {
+                if (!value.isEmpty()) {
+                    series.record(bucket * bucketMs, Double.parseDouble(value));
+                }
+                bucket++;
+            }
+            // keep the position even if the trailing buckets are empty
+            if (!series.isEmpty() && series.lastBucket < last) {
+                series.record(last * bucketMs, Double.NaN);
+            }
+        } catch (NumberFormatException e) {
+            return new LoadTimeSeries(bucketMs, capacity);
+        }
+        return series;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.datastax.oss.kaap.autoscaler.AutoscalerUtils;
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.SneakyThrows;
+import lombok.extern.jbosslog.JBossLog;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Call the brokers admin API running curl in the broker pods.
+ */
+@JBossLog
+public class PodExecBrokerAdminClient implements BrokerAdminClient {
+
+    protected final KubernetesClient client;
+    protected final String namespace;
+    protected final GlobalSpec globalSpec;
+    protected final String brokerSet;
+    protected final BrokerSetSpec brokerSetSpec;
+    protected final Duration timeout;
+
+    public PodExecBrokerAdminClient(KubernetesClient client, String namespace, GlobalSpec globalSpec,
+                                    String brokerSet, BrokerSetSpec brokerSetSpec) {
+        this(client, namespace, globalSpec, brokerSet, brokerSetSpec, LoadReportResourceUsageSource.DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * @param timeout max time to wait for each admin API call
+     */
+    public PodExecBrokerAdminClient(KubernetesClient client, String namespace, GlobalSpec globalSpec,
+                                    String brokerSet, BrokerSetSpec brokerSetSpec, Duration timeout) {
+        this.client = client;
+        this.namespace = namespace;
+        this.globalSpec = globalSpec;
+        this.brokerSet = brokerSet;
+        this.brokerSetSpec = brokerSetSpec;
+        this.timeout = timeout;
+    }
+
+    @Override
+    @SneakyThrows
+    public Set<String> getOwnedBundles(String podName) {
+        // the load report of the broker lists the bundles of the topics it's serving
+        final String loadReport = getResponse(podName,
+                callRestApi(podName, "GET", LoadReportResourceUsageSource.LOAD_REPORT_PATH));
+        return parseOwnedBundles(podName, loadReport);
+    }
+
+    static Set<String> parseOwnedBundles(String podName, String loadReport) {
+        final Map<String, Object> json = SerializationUtil.readJson(loadReport, Map.class);
+        if (!(json.get("bundles") instanceof List<?> bundles)) {
+            throw new IllegalStateException(
+                    "Broker %s didn't report its bundles, found: %s".formatted(podName, loadReport));
+        }
+        final Set<String> result = new TreeSet<>();
+        for (Object bundle : bundles) {
+            result.add(String.valueOf(bundle));
+        }
+        return result;
+    }
+
+    @Override
+    public String getBrokerId(String podName) {
+        // the default advertised address of the broker is the hostname of the pod
+        return "%s:%s".formatted(AdminApiHttpClient.getPodHost(podName,
+                        LoadReportResourceUsageSource.getBrokerResourceName(brokerSet, brokerSetSpec, globalSpec),
+                        namespace, globalSpec),
+                LoadReportResourceUsageSource.getWebServicePort(brokerSetSpec));
+    }
+
+    @Override
+    @SneakyThrows
+    public void unloadBundle(String podName, String bundle, String destinationBroker) {
+        String path = "/admin/v2/namespaces/%s/unload".formatted(bundle);
+        if (destinationBroker != null) {
+            path += "?destinationBroker=" + URLEncoder.encode(destinationBroker, StandardCharsets.UTF_8);
+        }
+        final String out = getResponse(podName, callRestApi(podName, "PUT", path));
+        // like 'curl -s', an error is only visible in the response body
+        if (StringUtils.isNotBlank(out)) {
+            throw new IllegalStateException("Unable to unload bundle %s from broker %s: %s".formatted(bundle,
+                    podName, out));
+        }
+        log.infof("Unloaded bundle %s from broker %s to %s", bundle, podName,
+                destinationBroker == null ? "any broker" : destinationBroker);
+    }
+
+    /**
+     * Wait for the response at most {@link #timeout}, the request is cancelled if it's not completed in time.
+     */
+    private String getResponse(String podName, CompletableFuture<String> request) throws InterruptedException {
+        try {
+            return request.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            request.cancel(true);
+            throw new IllegalStateException("Broker %s didn't respond in %d ms".formatted(podName,
+                    timeout.toMillis()));
+        } catch (InterruptedException e) {
+            request.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Broker %s call failed: %s".formatted(podName,
+                    e.getCause().getMessage()), e.getCause());
+        }
+    }
+
+    /**
+     * Call the broker admin API running curl in the broker pod.
+     */
+    protected CompletableFuture<String> callRestApi(String podName, String method, String path) {
+        final StringBuilder curl = new StringBuilder("curl -s");
+        if (!"GET".equals(method)) {
+            curl.append(" -X ").append(method);
+        }
+        final String curlAuthHeader = BrokerResourcesFactory.computeCurlAuthHeader(globalSpec);
+        if (StringUtils.isNotBlank(curlAuthHeader)) {
+            curl.append(" ").append(curlAuthHeader);
+        }
+        curl.append(" 'http://localhost:%s%s'".formatted(
+                LoadReportResourceUsageSource.getWebServicePort(brokerSetSpec), path));
+        return AutoscalerUtils.execInPod(client, namespace, podName, BrokerResourcesFactory.getMainContainerName(
+                LoadReportResourceUsageSource.getBrokerResourceName(brokerSet, brokerSetSpec, globalSpec)),
+                curl.toString());
+    }
+}
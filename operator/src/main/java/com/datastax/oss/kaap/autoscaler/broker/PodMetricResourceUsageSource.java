@@ -15,29 +15,45 @@
  */
 package com.datastax.oss.kaap.autoscaler.broker;
 
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.metrics.v1beta1.ContainerMetrics;
 import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetrics;
 import io.fabric8.kubernetes.api.model.metrics.v1beta1.PodMetricsList;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.extern.jbosslog.JBossLog;
 
+/**
+ * Compare the cpu usage reported by the metrics server with the cpu requests of the broker pods.
+ * Like the Kubernetes HPA, usage and requests are summed over the selected containers of each pod. Only the broker
+ * container is selected by default: an idle sidecar would dilute the usage of the broker.
+ */
 @JBossLog
 public class PodMetricResourceUsageSource implements BrokerResourceUsageSource {
 
     private final KubernetesClient client;
     private final String namespace;
     private final Map<String, String> podSelector;
+    private final Set<String> containerNames;
 
+    /**
+     * @param containerNames the containers to take into account
+     */
     public PodMetricResourceUsageSource(KubernetesClient client, String namespace,
-                                        Map<String, String> podSelector) {
+                                        Map<String, String> podSelector,
+                                        Set<String> containerNames) {
         this.client = client;
         this.namespace = namespace;
         this.podSelector = podSelector;
+        this.containerNames = containerNames;
     }
 
     @Override
@@ -51,53 +67,76 @@ public class PodMetricResourceUsageSource implements BrokerResourceUsageSource {
 
         log.infof("Got %d broker pod metrics", metrics.getItems().size());
 
-
-        List<ResourceUsage> result = new ArrayList<>();
-
-
+        // one call for all the pods, joined in memory with the metrics
+        final Map<String, PodMetrics> podMetrics = new HashMap<>();
         for (PodMetrics item : metrics.getItems()) {
-            final String podName = item.getMetadata().getName();
-
-            float cpuUsage;
-            float requestedCpu;
+            podMetrics.put(item.getMetadata().getName(), item);
+        }
 
-            Quantity cpuUsageQuantity = item.getContainers().get(0)
-                    .getUsage().get("cpu");
+        List<ResourceUsage> result = new ArrayList<>();
+        for (Pod pod : client.pods()
+                .inNamespace(namespace)
+                .withLabels(podSelector)
+                .list()
+                .getItems()) {
+            final String podName = pod.getMetadata().getName();
+            result.add(getResourceUsage(podName, pod, podMetrics.get(podName)));
+        }
+        return result;
+    }
 
-            if (cpuUsageQuantity == null) {
-                log.warnf("Broker pod %s didn't exposed CPU usage", podName);
+    private ResourceUsage getResourceUsage(String podName, Pod pod, PodMetrics metrics) {
+        if (metrics == null) {
+            log.warnf("Broker pod %s metrics not found", podName);
+            return ResourceUsage.unavailable(podName, SampleStatus.FAILED, "pod metrics not found");
+        }
+        float cpuUsage = 0;
+        boolean cpuUsageFound = false;
+        for (ContainerMetrics container : metrics.getContainers()) {
+            if (!containerNames.contains(container.getName())) {
                 continue;
-            } else {
-                cpuUsage = quantityToBytes(cpuUsageQuantity);
             }
+            final Quantity cpuUsageQuantity = container.getUsage() == null
+                    ? null : container.getUsage().get("cpu");
+            if (cpuUsageQuantity != null) {
+                cpuUsage += quantityToBytes(cpuUsageQuantity);
+                cpuUsageFound = true;
+            }
+        }
+        if (!cpuUsageFound) {
+            log.warnf("Broker pod %s didn't exposed CPU usage", podName);
+            return ResourceUsage.unavailable(podName, SampleStatus.FAILED, "cpu usage not found");
+        }
 
-            final Quantity requestedCpuQuantity = client.pods()
-                    .inNamespace(namespace)
-                    .withName(podName)
-                    .get().getSpec()
-                    .getContainers()
-                    .get(0)
-                    .getResources()
-                    .getRequests()
-                    .get("cpu");
-            if (requestedCpuQuantity == null) {
-                log.warnf("Broker pod %s CPU requests not set", podName);
+        float requestedCpu = 0;
+        for (Container container : pod.getSpec().getContainers()) {
+            if (!containerNames.contains(container.getName())) {
                 continue;
-            } else {
-                requestedCpu = quantityToBytes(requestedCpuQuantity);
-
             }
-            float percentage = cpuUsage / requestedCpu;
+            final Quantity requestedCpuQuantity = container.getResources() == null
+                    || container.getResources().getRequests() == null
+                    ? null : container.getResources().getRequests().get("cpu");
+            if (requestedCpuQuantity == null) {
+                // the ratio would be meaningless if a container uses cpu without requesting it
+                log.warnf("Broker pod %s CPU requests not set for container %s", podName, container.getName());
+                return ResourceUsage.unavailable(podName, SampleStatus.FAILED,
+                        "cpu requests not set for container " + container.getName());
+            }
+            requestedCpu += quantityToBytes(requestedCpuQuantity);
+        }
+        if (requestedCpu <= 0) {
+            log.warnf("Broker pod %s CPU requests not set", podName);
+            return ResourceUsage.unavailable(podName, SampleStatus.FAILED, "cpu requests not set");
+        }
+        float percentage = cpuUsage / requestedCpu;
 
-            log.infof("Broker pod %s CPU used/requested: %f/%f, rate %f",
-                    podName,
-                    new BigDecimal(cpuUsage).setScale(2, RoundingMode.HALF_EVEN),
-                    new BigDecimal(requestedCpu).setScale(2, RoundingMode.HALF_EVEN),
-                    new BigDecimal(percentage).setScale(2, RoundingMode.HALF_EVEN));
+        log.infof("Broker pod %s CPU used/requested: %f/%f, rate %f",
+                podName,
+                new BigDecimal(cpuUsage).setScale(2, RoundingMode.HALF_EVEN),
+                new BigDecimal(requestedCpu).setScale(2, RoundingMode.HALF_EVEN),
+                new BigDecimal(percentage).setScale(2, RoundingMode.HALF_EVEN));
 
-            result.add(new ResourceUsage(podName, percentage));
-        }
-        return result;
+        return new ResourceUsage(podName, percentage);
     }
 
     private static float quantityToBytes(Quantity quantity) {
@@ -106,4 +145,3 @@ public class PodMetricResourceUsageSource implements BrokerResourceUsageSource {
                 .floatValue();
     }
 }
-
@@ -0,0 +1,195 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.datastax.oss.kaap.common.SerializationUtil;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.extern.jbosslog.JBossLog;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Run the configured PromQL queries against a Prometheus compatible HTTP API, each query returns one value for each
+ * broker pod.
+ */
+@JBossLog
+public class PrometheusApiResourceUsageSource implements BrokerResourceUsageSource {
+
+    public static final String DEFAULT_POD_LABEL = "pod";
+    public static final Map<String, String> DEFAULT_QUERIES = Map.of(
+            METRIC_CPU,
+            "max by (${podLabel}) (pulsar_lb_cpu_usage{${selector}}) / 100",
+            METRIC_MEMORY,
+            "max by (${podLabel}) (pulsar_lb_memory_usage{${selector}}) / 100",
+            METRIC_DIRECT_MEMORY,
+            "sum by (${podLabel}) (jvm_memory_direct_bytes_used{${selector}}) "
+                    + "/ sum by (${podLabel}) (jvm_memory_direct_bytes_max{${selector}})",
+            METRIC_MSG_RATE_IN,
+            "sum by (${podLabel}) (pulsar_rate_in{${selector}})",
+            METRIC_MSG_RATE_OUT,
+            "sum by (${podLabel}) (pulsar_rate_out{${selector}})",
+            METRIC_MSG_THROUGHPUT_IN,
+            "sum by (${podLabel}) (pulsar_throughput_in{${selector}})",
+            METRIC_MSG_THROUGHPUT_OUT,
+            "sum by (${podLabel}) (pulsar_throughput_out{${selector}})");
+    static final String QUERY_PATH = "/api/v1/query";
+
+    private final KubernetesClient client;
+    private final String namespace;
+    private final Map<String, String> podSelector;
+    private final AdminApiHttpClient httpClient;
+    private final String url;
+    private final String podLabel;
+    private final Map<String, String> queries;
+    private final Duration timeout;
+
+    public PrometheusApiResourceUsageSource(KubernetesClient client, String namespace,
+                                            Map<String, String> podSelector,
+                                            AdminApiHttpClient httpClient,
+                                            String url,
+                                            String podLabel,
+                                            Map<String, String> queries,
+                                            Duration timeout) {
+        this.client = client;
+        this.namespace = namespace;
+        this.podSelector = podSelector;
+        this.httpClient = httpClient;
+        this.url = StringUtils.removeEnd(url, "/");
+        this.podLabel = podLabel == null ? DEFAULT_POD_LABEL : podLabel;
+        this.queries = queries;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public List<ResourceUsage> getBrokersResourceUsages() {
+        final List<String> pods = client.pods()
+                .inNamespace(namespace)
+                .withLabels(podSelector)
+                .list()
+                .getItems()
+                .stream()
+                .map(pod -> pod.getMetadata().getName())
+                .collect(Collectors.toList());
+        if (pods.isEmpty()) {
+            return List.of();
+        }
+        final Map<String, CompletableFuture<String>> requests = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            final String promQl = resolveQuery(query.getValue(), namespace, podLabel, pods);
+            requests.put(query.getKey(), httpClient.send("GET", "%s%s?query=%s".formatted(url, QUERY_PATH,
+                    URLEncoder.encode(promQl, StandardCharsets.UTF_8)), null));
+        }
+        final long deadline = System.nanoTime() + timeout.toNanos();
+
+        final Map<String, Map<String, Double>> metricsByPod = new HashMap<>();
+        String error = null;
+        for (Map.Entry<String, CompletableFuture<String>> request : requests.entrySet()) {
+            try {
+                final String body = request.getValue()
+                        .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                for (Map.Entry<String, Double> podValue : parseVector(body, podLabel).entrySet()) {
+                    metricsByPod.computeIfAbsent(podValue.getKey(), p -> new HashMap<>())
+                            .put(request.getKey(), podValue.getValue());
+                }
+            } catch (TimeoutException e) {
+                request.getValue().cancel(true);
+                error = "no response in %d ms".formatted(timeout.toMillis());
+                log.warnf("Prometheus query for metric %s timed out", request.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                request.getValue().cancel(true);
+                error = "interrupted";
+            } catch (ExecutionException | RuntimeException e) {
+                final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                error = cause.getMessage();
+                log.warnf("Prometheus query for metric %s failed: %s", request.getKey(), error);
+            }
+        }
+        final List<ResourceUsage> result = new ArrayList<>();
+        for (String pod : pods) {
+            final Map<String, Double> metrics = metricsByPod.get(pod);
+            if (metrics == null || metrics.isEmpty()) {
+                result.add(ResourceUsage.unavailable(pod, SampleStatus.FAILED,
+                        error == null ? "no samples for the pod" : error));
+            } else {
+                log.infof("Broker %s metrics: %s", pod, metrics);
+                result.add(new ResourceUsage(pod, metrics));
+            }
+        }
+        return result;
+    }
+
+    static String resolveQuery(String query, String namespace, String podLabel, List<String> pods) {
+        final String podsRegex = pods.stream()
+                .map(Pattern::quote)
+                .map(quoted -> quoted.replace("\\", "\\\\"))
+                .collect(Collectors.joining("|"));
+        final String selector = "namespace=\"%s\",%s=~\"%s\"".formatted(namespace, podLabel, podsRegex);
+        return query.replace("${selector}", selector)
+                .replace("${podLabel}", podLabel)
+                .replace("${namespace}", namespace)
+                .replace("${pods}", podsRegex);
+    }
+
+    /**
+     * Parse the instant vector returned by the query API.
+     *
+     * @return the value of each pod, the samples without the pod label are ignored.
+     */
+    static Map<String, Double> parseVector(String body, String podLabel) {
+        final Map<String, Object> json = SerializationUtil.readJson(body, Map.class);
+        if (!"success".equals(json.get("status"))) {
+            throw new IllegalStateException("Prometheus query failed: " + json.get("error"));
+        }
+        final Map<String, Object> data = (Map<String, Object>) json.get("data");
+        if (data == null || !"vector".equals(data.get("resultType"))) {
+            throw new IllegalStateException("Prometheus query didn't return an instant vector");
+        }
+        final Map<String, Double> result = new HashMap<>();
+        for (Map<String, Object> sample : (List<Map<String, Object>>) data.get("result")) {
+            final Map<String, String> labels = (Map<String, String>) sample.get("metric");
+            final List<Object> value = (List<Object>) sample.get("value");
+            final String pod = labels == null ? null : labels.get(podLabel);
+            if (pod == null || value == null || value.size() != 2) {
+                continue;
+            }
+            final double parsed;
+            try {
+                parsed = Double.parseDouble(String.valueOf(value.get(1)));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            if (Double.isFinite(parsed)) {
+                result.put(pod, parsed);
+            }
+        }
+        return result;
+    }
+}
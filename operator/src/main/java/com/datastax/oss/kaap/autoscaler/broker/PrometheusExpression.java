@@ -0,0 +1,333 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Subset of PromQL evaluated on the metrics scraped from a single broker.
+ * Supported syntax: instant vector selectors with label matchers ('=', '!=', '=~', '!~'), the aggregations
+ * 'sum', 'min', 'max', 'avg' and 'count' without grouping, number literals, parentheses and the binary operators
+ * '+', '-', '*' and '/'. A selector without aggregation is summed.
+ * e.g. 'jvm_memory_direct_bytes_used / jvm_memory_direct_bytes_max' or 'sum(pulsar_throughput_in{topic=~".*-in"})'
+ */
+public class PrometheusExpression {
+
+    public enum MatchOp {
+        EQUAL,
+        NOT_EQUAL,
+        REGEX,
+        NOT_REGEX
+    }
+
+    public enum Aggregation {
+        SUM,
+        MIN,
+        MAX,
+        AVG,
+        COUNT
+    }
+
+    public record LabelMatcher(String label, MatchOp op, String value, Pattern pattern) {
+    }
+
+    public record Selector(String metric, List<LabelMatcher> matchers) {
+    }
+
+    /**
+     * Aggregates of the samples matching a selector.
+     */
+    public static class Samples {
+        double sum;
+        double min = Double.NaN;
+        double max = Double.NaN;
+        int count;
+
+        void add(double value) {
+            sum += value;
+            min = count == 0 ? value : Math.min(min, value);
+            max = count == 0 ? value : Math.max(max, value);
+            count++;
+        }
+
+        double get(Aggregation aggregation) {
+            if (aggregation == Aggregation.COUNT) {
+                return count;
+            }
+            if (count == 0) {
+                return Double.NaN;
+            }
+            return switch (aggregation) {
+                case SUM -> sum;
+                case MIN -> min;
+                case MAX -> max;
+                case AVG -> sum / count;
+                default -> throw new IllegalStateException();
+            };
+        }
+    }
+
+    private interface Node {
+        double evaluate(Samples[] samples);
+    }
+
+    private record NumberNode(double value) implements Node {
+        @Override
+        public double evaluate(Samples[] samples) {
+            return value;
+        }
+    }
+
+    private record SelectorNode(int selector, Aggregation aggregation) implements Node {
+        @Override
+        public double evaluate(Samples[] samples) {
+            return samples[selector].get(aggregation);
+        }
+    }
+
+    private record BinaryNode(char op, Node left, Node right) implements Node {
+        @Override
+        public double evaluate(Samples[] samples) {
+            final double l = left.evaluate(samples);
+            final double r = right.evaluate(samples);
+            return switch (op) {
+                case '+' -> l + r;
+                case '-' -> l - r;
+                case '*' -> l * r;
+                case '/' -> r == 0 ? Double.NaN : l / r;
+                default -> throw new IllegalStateException();
+            };
+        }
+    }
+
+    private final String expression;
+    private final Node root;
+
+    private PrometheusExpression(String expression, Node root) {
+        this.expression = expression;
+        this.root = root;
+    }
+
+    /**
+     * Parse the expression, the selectors are added to the given list so that the selectors of multiple
+     * expressions can be evaluated with a single scan of the metrics.
+     */
+    public static PrometheusExpression parse(String expression, List<Selector> selectors) {
+        final Parser parser = new Parser(expression, selectors);
+        final Node root = parser.parseExpression();
+        parser.skipSpaces();
+        if (parser.pos != expression.length()) {
+            throw parser.error("unexpected character");
+        }
+        return new PrometheusExpression(expression, root);
+    }
+
+    /**
+     * @return the value of the expression or NaN if any of the selectors didn't match any sample.
+     */
+    public double evaluate(Samples[] samples) {
+        return root.evaluate(samples);
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static class Parser {
+        private final String input;
+        private final List<Selector> selectors;
+        private int pos;
+
+        Parser(String input, List<Selector> selectors) {
+            this.input = input;
+            this.selectors = selectors;
+        }
+
+        Node parseExpression() {
+            Node node = parseTerm();
+            while (true) {
+                skipSpaces();
+                if (peek('+') || peek('-')) {
+                    final char op = input.charAt(pos++);
+                    node = new BinaryNode(op, node, parseTerm());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        Node parseTerm() {
+            Node node = parseFactor();
+            while (true) {
+                skipSpaces();
+                if (peek('*') || peek('/')) {
+                    final char op = input.charAt(pos++);
+                    node = new BinaryNode(op, node, parseFactor());
+                } else {
+                    return node;
+                }
+            }
+        }
+
+        Node parseFactor() {
+            skipSpaces();
+            if (pos >= input.length()) {
+                throw error("unexpected end");
+            }
+            final char c = input.charAt(pos);
+            if (c == '(') {
+                pos++;
+                final Node node = parseExpression();
+                expect(')');
+                return node;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return parseNumber();
+            }
+            final String identifier = parseIdentifier();
+            skipSpaces();
+            if (peek('(')) {
+                final Aggregation aggregation;
+                try {
+                    aggregation = Aggregation.valueOf(identifier.toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw error("unsupported function '" + identifier + "'");
+                }
+                pos++;
+                skipSpaces();
+                final Node node = new SelectorNode(parseSelector(parseIdentifier()), aggregation);
+                expect(')');
+                return node;
+            }
+            return new SelectorNode(parseSelector(identifier), Aggregation.SUM);
+        }
+
+        Node parseNumber() {
+            final int start = pos;
+            while (pos < input.length()
+                    && (Character.isDigit(input.charAt(pos)) || input.charAt(pos) == '.'
+                    || input.charAt(pos) == 'e' || input.charAt(pos) == 'E')) {
+                pos++;
+            }
+            try {
+                return new NumberNode(Double.parseDouble(input.substring(start, pos)));
+            } catch (NumberFormatException e) {
+                throw error("invalid number");
+            }
+        }
+
+        String parseIdentifier() {
+            final int start = pos;
+            while (pos < input.length() && isNameChar(input.charAt(pos), pos == start)) {
+                pos++;
+            }
+            if (start == pos) {
+                throw error("expected a metric name");
+            }
+            return input.substring(start, pos);
+        }
+
+        int parseSelector(String metric) {
+            final List<LabelMatcher> matchers = new ArrayList<>();
+            skipSpaces();
+            if (peek('{')) {
+                pos++;
+                skipSpaces();
+                while (!peek('}')) {
+                    final String label = parseIdentifier();
+                    skipSpaces();
+                    final MatchOp op;
+                    if (input.startsWith("=~", pos)) {
+                        op = MatchOp.REGEX;
+                    } else if (input.startsWith("!~", pos)) {
+                        op = MatchOp.NOT_REGEX;
+                    } else if (input.startsWith("!=", pos)) {
+                        op = MatchOp.NOT_EQUAL;
+                    } else if (peek('=')) {
+                        op = MatchOp.EQUAL;
+                    } else {
+                        throw error("expected a label matcher");
+                    }
+                    pos += op == MatchOp.EQUAL ? 1 : 2;
+                    skipSpaces();
+                    final String value = parseString();
+                    final Pattern pattern = op == MatchOp.REGEX || op == MatchOp.NOT_REGEX
+                            ? Pattern.compile(value) : null;
+                    matchers.add(new LabelMatcher(label, op, value, pattern));
+                    skipSpaces();
+                    if (peek(',')) {
+                        pos++;
+                        skipSpaces();
+                    } else if (!peek('}')) {
+                        throw error("expected ',' or '}'");
+                    }
+                }
+                pos++;
+            }
+            selectors.add(new Selector(metric, List.copyOf(matchers)));
+            return selectors.size() - 1;
+        }
+
+        String parseString() {
+            if (!peek('"')) {
+                throw error("expected '\"'");
+            }
+            pos++;
+            final StringBuilder builder = new StringBuilder();
+            while (pos < input.length() && input.charAt(pos) != '"') {
+                char c = input.charAt(pos++);
+                if (c == '\\' && pos < input.length()) {
+                    c = input.charAt(pos++);
+                }
+                builder.append(c);
+            }
+            expect('"');
+            return builder.toString();
+        }
+
+        void expect(char c) {
+            skipSpaces();
+            if (!peek(c)) {
+                throw error("expected '" + c + "'");
+            }
+            pos++;
+        }
+
+        boolean peek(char c) {
+            return pos < input.length() && input.charAt(pos) == c;
+        }
+
+        void skipSpaces() {
+            while (pos < input.length() && Character.isWhitespace(input.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid expression '%s' at position %d: %s"
+                    .formatted(input, pos, message));
+        }
+    }
+
+    static boolean isNameChar(char c, boolean first) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || c == ':'
+                || (!first && c >= '0' && c <= '9');
+    }
+}
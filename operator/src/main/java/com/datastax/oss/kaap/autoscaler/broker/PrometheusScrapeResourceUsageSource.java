@@ -0,0 +1,109 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Scrape the '/metrics' endpoint of each broker and evaluate the configured expressions on its metrics.
+ * If the pods can't be called directly, the metrics are requested running curl in the pod.
+ */
+@JBossLog
+public class PrometheusScrapeResourceUsageSource extends LoadReportResourceUsageSource {
+
+    public static final Map<String, String> DEFAULT_QUERIES = Map.of(
+            METRIC_CPU, "max(pulsar_lb_cpu_usage) / 100",
+            METRIC_MEMORY, "max(pulsar_lb_memory_usage) / 100",
+            METRIC_DIRECT_MEMORY, "jvm_memory_direct_bytes_used / jvm_memory_direct_bytes_max",
+            METRIC_MSG_RATE_IN, "sum(pulsar_rate_in)",
+            METRIC_MSG_RATE_OUT, "sum(pulsar_rate_out)",
+            METRIC_MSG_THROUGHPUT_IN, "sum(pulsar_throughput_in)",
+            METRIC_MSG_THROUGHPUT_OUT, "sum(pulsar_throughput_out)");
+
+    static final String METRICS_PATH = "/metrics/";
+
+    private final AdminApiHttpClient httpClient;
+    private final Map<String, PrometheusExpression> expressions = new LinkedHashMap<>();
+    private final List<PrometheusExpression.Selector> selectors = new ArrayList<>();
+
+    /**
+     * @param httpClient the client to call the brokers, null if the pods can't be called directly
+     * @param queries    the expression of each metric
+     */
+    public PrometheusScrapeResourceUsageSource(KubernetesClient client, String namespace,
+                                               Map<String, String> podSelector,
+                                               String brokerSet,
+                                               BrokerSetSpec brokerSetSpec,
+                                               GlobalSpec globalSpec,
+                                               AdminApiHttpClient httpClient,
+                                               Map<String, String> queries,
+                                               Duration timeout) {
+        super(client, namespace, podSelector, brokerSet, brokerSetSpec, globalSpec, timeout);
+        this.httpClient = httpClient;
+        for (Map.Entry<String, String> query : queries.entrySet()) {
+            expressions.put(query.getKey(), PrometheusExpression.parse(query.getValue(), selectors));
+        }
+    }
+
+    @Override
+    protected String getRequestPath() {
+        return METRICS_PATH;
+    }
+
+    @Override
+    protected CompletableFuture<String> requestLoadReport(Pod pod) {
+        if (httpClient == null) {
+            return super.requestLoadReport(pod);
+        }
+        final String url = computeBrokerUrl(pod) + getRequestPath();
+        return AdminApiHttpClient.withFallback(url, httpClient.send("GET", url, null),
+                () -> super.requestLoadReport(pod));
+    }
+
+    @Override
+    protected ResourceUsage parseResponse(String podName, String body) {
+        // the parser keeps reusable matchers, it's not shared between the concurrent responses
+        final PrometheusExpression.Samples[] samples = new PrometheusTextParser(selectors).scan(body);
+        final Map<String, Double> metrics = new HashMap<>();
+        for (Map.Entry<String, PrometheusExpression> expression : expressions.entrySet()) {
+            final double value = expression.getValue().evaluate(samples);
+            if (Double.isFinite(value)) {
+                metrics.put(expression.getKey(), value);
+            } else {
+                log.debugf("Broker %s metric %s not available, expression: %s", podName, expression.getKey(),
+                        expression.getValue());
+            }
+        }
+        if (metrics.isEmpty()) {
+            throw new IllegalStateException("Broker %s didn't expose any of the metrics %s".formatted(podName,
+                    expressions.keySet()));
+        }
+        log.infof("Broker %s metrics: %s", podName, metrics);
+        return new ResourceUsage(podName, metrics);
+    }
+}
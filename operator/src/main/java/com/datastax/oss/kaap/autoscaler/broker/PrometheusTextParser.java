@@ -0,0 +1,272 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import java.util.List;
+import java.util.regex.Matcher;
+
+/**
+ * Single pass scan of the Prometheus text exposition format collecting the samples of the given selectors.
+ * The broker metrics pages can be several MB: the lines are never copied, the metric names and the label values
+ * are compared in place and only the values of the matching samples are parsed.
+ */
+public class PrometheusTextParser {
+
+    /**
+     * A window of the scanned text, reused to match the label values against the regex matchers.
+     */
+    private static class Slice implements CharSequence {
+        private String text;
+        private int start;
+        private int end;
+
+        Slice reset(String text, int start, int end) {
+            this.text = text;
+            this.start = start;
+            this.end = end;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return text.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return text.subSequence(start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return text.substring(start, end);
+        }
+    }
+
+    private final List<PrometheusExpression.Selector> selectors;
+    private final Matcher[][] regexMatchers;
+    private final Slice slice = new Slice();
+
+    public PrometheusTextParser(List<PrometheusExpression.Selector> selectors) {
+        this.selectors = selectors;
+        this.regexMatchers = new Matcher[selectors.size()][];
+        for (int i = 0; i < selectors.size(); i++) {
+            final List<PrometheusExpression.LabelMatcher> matchers = selectors.get(i).matchers();
+            regexMatchers[i] = new Matcher[matchers.size()];
+            for (int j = 0; j < matchers.size(); j++) {
+                if (matchers.get(j).pattern() != null) {
+                    regexMatchers[i][j] = matchers.get(j).pattern().matcher("");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the samples of each selector, in the same order of the selectors.
+     */
+    public PrometheusExpression.Samples[] scan(String text) {
+        final PrometheusExpression.Samples[] samples = new PrometheusExpression.Samples[selectors.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = new PrometheusExpression.Samples();
+        }
+        final int length = text.length();
+        int pos = 0;
+        while (pos < length) {
+            int eol = text.indexOf('\n', pos);
+            if (eol < 0) {
+                eol = length;
+            }
+            scanLine(text, pos, eol, samples);
+            pos = eol + 1;
+        }
+        return samples;
+    }
+
+    private void scanLine(String text, int start, int end, PrometheusExpression.Samples[] samples) {
+        if (start == end || text.charAt(start) == '#') {
+            return;
+        }
+        int nameEnd = start;
+        while (nameEnd < end && PrometheusExpression.isNameChar(text.charAt(nameEnd), nameEnd == start)) {
+            nameEnd++;
+        }
+        final int nameLength = nameEnd - start;
+        if (nameLength == 0) {
+            return;
+        }
+        int labelsEnd = nameEnd;
+        double value = Double.NaN;
+        boolean valueParsed = false;
+        for (int i = 0; i < selectors.size(); i++) {
+            final PrometheusExpression.Selector selector = selectors.get(i);
+            if (selector.metric().length() != nameLength
+                    || !text.regionMatches(start, selector.metric(), 0, nameLength)) {
+                continue;
+            }
+            if (labelsEnd == nameEnd && nameEnd < end && text.charAt(nameEnd) == '{') {
+                labelsEnd = findLabelsEnd(text, nameEnd + 1, end);
+                if (labelsEnd < 0) {
+                    return;
+                }
+            }
+            if (!matchesLabels(text, nameEnd, labelsEnd, selector, regexMatchers[i])) {
+                continue;
+            }
+            if (!valueParsed) {
+                value = parseValue(text, labelsEnd == nameEnd ? nameEnd : labelsEnd + 1, end);
+                valueParsed = true;
+            }
+            if (!Double.isNaN(value)) {
+                samples[i].add(value);
+            }
+        }
+    }
+
+    /**
+     * @return the position of the '}' closing the labels, -1 if the line is not valid.
+     */
+    private static int findLabelsEnd(String text, int pos, int end) {
+        boolean quoted = false;
+        for (int i = pos; i < end; i++) {
+            final char c = text.charAt(i);
+            if (quoted) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == '}') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesLabels(String text, int labelsStart, int labelsEnd,
+                                  PrometheusExpression.Selector selector, Matcher[] regexes) {
+        final List<PrometheusExpression.LabelMatcher> matchers = selector.matchers();
+        for (int j = 0; j < matchers.size(); j++) {
+            final PrometheusExpression.LabelMatcher matcher = matchers.get(j);
+            final long valueRange = findLabelValue(text, labelsStart, labelsEnd, matcher.label());
+            // a missing label matches like an empty value
+            final int valueStart = valueRange < 0 ? 0 : (int) (valueRange >>> 32);
+            final int valueEnd = valueRange < 0 ? 0 : (int) valueRange;
+            final String source = valueRange < 0 ? "" : text;
+            final boolean matches = switch (matcher.op()) {
+                case EQUAL, NOT_EQUAL -> equalsValue(source, valueStart, valueEnd, matcher.value());
+                case REGEX, NOT_REGEX -> regexes[j].reset(slice.reset(source, valueStart, valueEnd)).matches();
+            };
+            final boolean negated = matcher.op() == PrometheusExpression.MatchOp.NOT_EQUAL
+                    || matcher.op() == PrometheusExpression.MatchOp.NOT_REGEX;
+            if (matches == negated) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compare the escaped label value in [start, end) with the given value, unescaping it while scanning.
+     */
+    private static boolean equalsValue(String text, int start, int end, String value) {
+        final int length = value.length();
+        int j = 0;
+        for (int i = start; i < end; i++, j++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                c = text.charAt(++i);
+                if (c == 'n') {
+                    c = '\n';
+                }
+            }
+            if (j == length || value.charAt(j) != c) {
+                return false;
+            }
+        }
+        return j == length;
+    }
+
+    /**
+     * @return the start and end positions of the label value packed in a long, -1 if the label is not present.
+     */
+    private static long findLabelValue(String text, int labelsStart, int labelsEnd, String label) {
+        int pos = labelsStart + 1;
+        while (pos < labelsEnd) {
+            while (pos < labelsEnd && (text.charAt(pos) == ',' || text.charAt(pos) == ' ')) {
+                pos++;
+            }
+            final int nameStart = pos;
+            while (pos < labelsEnd && text.charAt(pos) != '=') {
+                pos++;
+            }
+            int nameEnd = pos;
+            while (nameEnd > nameStart && text.charAt(nameEnd - 1) == ' ') {
+                nameEnd--;
+            }
+            while (pos < labelsEnd && text.charAt(pos) != '"') {
+                pos++;
+            }
+            if (pos == labelsEnd) {
+                return -1;
+            }
+            final int valueStart = pos + 1;
+            int valueEnd = valueStart;
+            while (valueEnd < labelsEnd && text.charAt(valueEnd) != '"') {
+                if (text.charAt(valueEnd) == '\\') {
+                    valueEnd++;
+                }
+                valueEnd++;
+            }
+            if (nameEnd - nameStart == label.length() && text.regionMatches(nameStart, label, 0, label.length())) {
+                return ((long) valueStart << 32) | valueEnd;
+            }
+            pos = valueEnd + 1;
+        }
+        return -1;
+    }
+
+    private static double parseValue(String text, int pos, int end) {
+        while (pos < end && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+            pos++;
+        }
+        int valueEnd = pos;
+        while (valueEnd < end && text.charAt(valueEnd) != ' ' && text.charAt(valueEnd) != '\t'
+                && text.charAt(valueEnd) != '\r') {
+            valueEnd++;
+        }
+        if (valueEnd == pos) {
+            return Double.NaN;
+        }
+        if (text.startsWith("+Inf", pos)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (text.startsWith("-Inf", pos)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        try {
+            return Double.parseDouble(text.substring(pos, valueEnd));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the recent samples of each broker pod across the autoscaler checks and aggregates them over a time window.
+ */
+public class ResourceUsageWindow {
+
+    static final int MAX_SAMPLES_PER_POD = 1024;
+
+    private record Sample(long timestamp, Map<String, Double> values) {
+    }
+
+    private final Map<String, ArrayDeque<Sample>> samples = new HashMap<>();
+
+    /**
+     * Record the current samples and return, for each pod, the usage aggregated over the window.
+     * Pods missing from the current samples are forgotten, pods without a current sample are returned as they are.
+     */
+    public List<BrokerResourceUsageSource.ResourceUsage> aggregate(
+            List<BrokerResourceUsageSource.ResourceUsage> current, String aggregation, long windowMs, long now) {
+        final Set<String> pods = new HashSet<>();
+        final List<BrokerResourceUsageSource.ResourceUsage> result = new ArrayList<>(current.size());
+        for (BrokerResourceUsageSource.ResourceUsage usage : current) {
+            pods.add(usage.getPod());
+            final ArrayDeque<Sample> podSamples = samples.computeIfAbsent(usage.getPod(), p -> new ArrayDeque<>());
+            if (usage.isAvailable()) {
+                podSamples.addLast(new Sample(now, usage.getMetrics()));
+                if (podSamples.size() > MAX_SAMPLES_PER_POD) {
+                    podSamples.removeFirst();
+                }
+            }
+            while (!podSamples.isEmpty() && podSamples.peekFirst().timestamp() < now - windowMs) {
+                podSamples.removeFirst();
+            }
+            if (!usage.isAvailable() || podSamples.isEmpty()) {
+                result.add(usage);
+            } else {
+                final Map<String, Double> aggregated = new HashMap<>();
+                for (String metric : usage.getMetrics().keySet()) {
+                    aggregated.put(metric, aggregate(podSamples, metric, aggregation));
+                }
+                result.add(new BrokerResourceUsageSource.ResourceUsage(usage.getPod(), aggregated));
+            }
+        }
+        samples.keySet().retainAll(pods);
+        return result;
+    }
+
+    public void clear() {
+        samples.clear();
+    }
+
+    /**
+     * Aggregate the values of the metric, the samples that don't report the metric are skipped.
+     * The latest sample always reports it since the metric is taken from it.
+     */
+    private static double aggregate(ArrayDeque<Sample> podSamples, String metric, String aggregation) {
+        final double[] values = new double[podSamples.size()];
+        int count = 0;
+        for (Sample sample : podSamples) {
+            final Double value = sample.values().get(metric);
+            if (value != null) {
+                values[count++] = value;
+            }
+        }
+        switch (aggregation) {
+            case BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST:
+                return values[count - 1];
+            case BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN: {
+                double sum = 0;
+                for (int i = 0; i < count; i++) {
+                    sum += values[i];
+                }
+                return sum / count;
+            }
+            case BrokerAutoscalerSpec.USAGE_AGGREGATION_P90: {
+                Arrays.sort(values, 0, count);
+                // nearest rank
+                final int rank = (int) Math.ceil(0.9d * count);
+                return values[Math.max(0, rank - 1)];
+            }
+            case BrokerAutoscalerSpec.USAGE_AGGREGATION_EWMA: {
+                // the smoothing factor gives the samples of the window the same weight of a N-samples moving average
+                final double alpha = 2d / (count + 1);
+                double ewma = values[0];
+                for (int i = 1; i < count; i++) {
+                    ewma = alpha * values[i] + (1 - alpha) * ewma;
+                }
+                return ewma;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown usage aggregation: " + aggregation);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
+import java.util.OptionalDouble;
+
+/**
+ * Forecast of the peak load of a broker set in the next buckets of a {@link LoadTimeSeries}.
+ */
+public class SeasonalForecaster {
+
+    static final double HOLT_WINTERS_ALPHA = 0.3d;
+    static final double HOLT_WINTERS_BETA = 0.05d;
+    static final double HOLT_WINTERS_GAMMA = 0.2d;
+
+    private SeasonalForecaster() {
+    }
+
+    /**
+     * @param currentBucket the bucket of the current time
+     * @return the highest load forecasted in the buckets after the current one, up to 'horizonBuckets'. Empty if
+     * there's not enough history.
+     */
+    public static OptionalDouble forecastPeak(LoadTimeSeries series, String method, int seasonBuckets,
+                                              int horizonBuckets, long currentBucket) {
+        if (series.isEmpty() || seasonBuckets <= 0) {
+            return OptionalDouble.empty();
+        }
+        final int steps = Math.max(1, horizonBuckets);
+        if (BrokerAutoscalerSpec.FORECAST_METHOD_HOLT_WINTERS.equals(method)) {
+            final OptionalDouble holtWinters = holtWinters(series, seasonBuckets, steps, currentBucket);
+            if (holtWinters.isPresent()) {
+                return holtWinters;
+            }
+        } else if (!BrokerAutoscalerSpec.FORECAST_METHOD_SEASONAL_NAIVE.equals(method)) {
+            throw new IllegalArgumentException("Unknown forecast method: " + method);
+        }
+        return seasonalNaive(series, seasonBuckets, steps, currentBucket);
+    }
+
+    /**
+     * The load of each bucket is the same of one season before.
+     */
+    static OptionalDouble seasonalNaive(LoadTimeSeries series, int seasonBuckets, int steps, long currentBucket) {
+        double peak = Double.NaN;
+        for (long bucket = currentBucket + 1; bucket <= currentBucket + steps; bucket++) {
+            final double value = series.get(bucket - seasonBuckets);
+            if (!Double.isNaN(value) && (Double.isNaN(peak) || value > peak)) {
+                peak = value;
+            }
+        }
+        return Double.isNaN(peak) ? OptionalDouble.empty() : OptionalDouble.of(peak);
+    }
+
+    /**
+     * Additive Holt-Winters fitted on the whole series, it requires two full seasons to initialize the level, the
+     * trend and the seasonal components. The missing buckets are filled with the previous value.
+     */
+    static OptionalDouble holtWinters(LoadTimeSeries series, int seasonBuckets, int steps, long currentBucket) {
+        final long last = Math.min(series.getLastBucket(), currentBucket);
+        long first = last - series.getCapacity() + 1;
+        while (first <= last && Double.isNaN(series.get(first))) {
+            first++;
+        }
+        final int n = (int) (last - first + 1);
+        if (n < 2 * seasonBuckets) {
+            return OptionalDouble.empty();
+        }
+        final double[] x = new double[n];
+        for (int t = 0; t < n; t++) {
+            final double value = series.get(first + t);
+            x[t] = Double.isNaN(value) ? x[t - 1] : value;
+        }
+        final int m = seasonBuckets;
+        double firstSeasonMean = 0;
+        double secondSeasonMean = 0;
+        for (int i = 0; i < m; i++) {
+            firstSeasonMean += x[i];
+            secondSeasonMean += x[m + i];
+        }
+        firstSeasonMean /= m;
+        secondSeasonMean /= m;
+        double trend = (secondSeasonMean - firstSeasonMean) / m;
+        // the mean of the first season is the level in its middle
+        double level = firstSeasonMean - trend * (m - 1) / 2;
+        final double[] seasonal = new double[m];
+        for (int i = 0; i < m; i++) {
+            seasonal[i] = ((x[i] - firstSeasonMean) + (x[m + i] - secondSeasonMean)) / 2;
+        }
+        for (int t = 0; t < n; t++) {
+            final int s = t % m;
+            final double previousLevel = level;
+            level = HOLT_WINTERS_ALPHA * (x[t] - seasonal[s]) + (1 - HOLT_WINTERS_ALPHA) * (level + trend);
+            trend = HOLT_WINTERS_BETA * (level - previousLevel) + (1 - HOLT_WINTERS_BETA) * trend;
+            seasonal[s] = HOLT_WINTERS_GAMMA * (x[t] - level) + (1 - HOLT_WINTERS_GAMMA) * seasonal[s];
+        }
+        double peak = Double.NEGATIVE_INFINITY;
+        // the forecast starts after the current bucket even if the last buckets are missing
+        final int offset = (int) (currentBucket - last);
+        for (int k = offset + 1; k <= offset + steps; k++) {
+            final double forecast = level + k * trend + seasonal[(n - 1 + k) % m];
+            peak = Math.max(peak, forecast);
+        }
+        return OptionalDouble.of(Math.max(0, peak));
+    }
+}
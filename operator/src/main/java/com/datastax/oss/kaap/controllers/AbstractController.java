@@ -17,6 +17,10 @@ package com.datastax.oss.kaap.controllers;
 
 import com.datastax.oss.kaap.OperatorRuntimeConfiguration;
 import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.controllers.cache.OwnedResourceEventSource;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
+import com.datastax.oss.kaap.controllers.utils.ExponentialBackoff;
+import com.datastax.oss.kaap.controllers.utils.NamespaceThrottler;
 import com.datastax.oss.kaap.crds.BaseComponentStatus;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.FullSpecWithDefaults;
@@ -31,20 +35,34 @@ import com.datastax.oss.kaap.crds.function.FunctionsWorkerSpec;
 import com.datastax.oss.kaap.crds.proxy.ProxySpec;
 import com.datastax.oss.kaap.crds.validation.ValidSpec;
 import com.datastax.oss.kaap.crds.zookeeper.ZooKeeperSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
+import com.datastax.oss.kaap.sharding.ShardEventSource;
+import com.datastax.oss.kaap.sharding.ShardManager;
 import io.fabric8.kubernetes.api.model.Condition;
 import io.fabric8.kubernetes.api.model.ConditionBuilder;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceInitializer;
 import io.javaoperatorsdk.operator.api.reconciler.Reconciler;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.validation.ConstraintValidator;
@@ -53,6 +71,7 @@ import javax.validation.Validation;
 import javax.validation.Validator;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
 import org.hibernate.validator.HibernateValidatorConfiguration;
@@ -60,13 +79,32 @@ import org.hibernate.validator.cfg.ConstraintMapping;
 import org.hibernate.validator.cfg.context.ConstraintDefinitionContext;
 
 @JBossLog
-public abstract class AbstractController<T extends CustomResource<? extends FullSpecWithDefaults, BaseComponentStatus>>
-        implements Reconciler<T> {
+public abstract class AbstractController<T extends CustomResource<? extends FullSpecWithDefaults,
+        ? extends BaseComponentStatus>>
+        implements Reconciler<T>, EventSourceInitializer<T> {
+
+    private static final String COMPACT_LAST_APPLIED_PREFIX = "{\"fingerprints\":";
+    private static final int VALIDATION_CACHE_MAX_SIZE = 1024;
 
     protected final KubernetesClient client;
     private final Validator validator;
+    private final Map<String, CachedValidation> validationCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedValidation> eldest) {
+                    return size() > VALIDATION_CACHE_MAX_SIZE;
+                }
+            });
     @Inject
     OperatorRuntimeConfiguration operatorRuntimeConfiguration;
+    @Inject
+    protected SecondaryResourcesCache resourcesCache;
+    @Inject
+    ShardManager shardManager;
+    @Inject
+    NamespaceThrottler namespaceThrottler;
+    private volatile boolean eventDriven;
+    private ExponentialBackoff errorBackoff;
 
     public AbstractController() {
         this(null);
@@ -114,6 +152,35 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
         log.debugf("%s controller reconciliation started (resource gen %d)",
                 resource.getFullResourceName(), resource.getMetadata().getGeneration());
         long start = System.nanoTime();
+        final String controller = resource.getKind();
+        final String namespace = resource.getMetadata().getNamespace();
+        final String name = resource.getMetadata().getName();
+        if (shardManager != null && !shardManager.owns(resource)) {
+            // the owner of the shard reconciles it, this replica is notified if it gains the shard
+            log.debugf("%s %s/%s belongs to a shard owned by another replica, skipping", controller, namespace, name);
+            return UpdateControl.noUpdate();
+        }
+        final long throttleDelayMs = namespaceThrottler == null ? 0 : namespaceThrottler.tryAcquire(namespace);
+        if (throttleDelayMs > 0) {
+            log.debugf("%s %s/%s reconciliation throttled, retrying in %d ms", controller, namespace, name,
+                    throttleDelayMs);
+            OperatorMetrics.recordReschedule(controller, "throttled");
+            final UpdateControl<T> throttled = UpdateControl.noUpdate();
+            return throttled.rescheduleAfter(throttleDelayMs, TimeUnit.MILLISECONDS);
+        }
+        try {
+            return reconcileOwned(resource, context, start);
+        } finally {
+            if (namespaceThrottler != null) {
+                namespaceThrottler.release(namespace);
+            }
+        }
+    }
+
+    private UpdateControl<T> reconcileOwned(T resource, Context<T> context, long start) {
+        final String controller = resource.getKind();
+        final String namespace = resource.getMetadata().getNamespace();
+        final String name = resource.getMetadata().getName();
 
         final GlobalSpec globalSpec = resource.getSpec().getGlobalSpec();
         globalSpec.applyDefaults(null);
@@ -121,20 +188,22 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
 
         String lastApplied = resource.getStatus().getLastApplied();
 
-        final String validationErrorMessage = validate(resource);
+        final String validationErrorMessage = validateGeneration(resource);
         if (validationErrorMessage != null) {
             final List<Condition> conditions =
                     mergeConditions(resource.getStatus().getConditions(), List.of(createNotReadyCondition(
                             resource, CRDConstants.CONDITIONS_TYPE_READY_REASON_INVALID_SPEC, validationErrorMessage
                     )), Instant.now());
-            resource.setStatus(new BaseComponentStatus(conditions, lastApplied));
-            return UpdateControl.updateStatus(resource);
+            OperatorMetrics.recordReconcile(controller, namespace, "invalid", System.nanoTime() - start);
+            return updateStatusIfChanged(resource, conditions, lastApplied);
         }
 
 
         boolean reschedule;
+        boolean failed = false;
         List<Condition> conditions;
 
+        final long patchStart = System.nanoTime();
         try {
             ReconciliationResult reconciliationResult = patchResources(resource, context);
             conditions = mergeConditions(resource.getStatus().getConditions(), reconciliationResult.getConditions(),
@@ -144,7 +213,7 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
                 if (reconciliationResult.getOverrideLastApplied() != null) {
                     lastApplied = reconciliationResult.getOverrideLastApplied();
                 } else {
-                    lastApplied = SerializationUtil.writeAsJson(resource.getSpec());
+                    lastApplied = writeLastApplied(resource.getSpec());
                 }
             }
         } catch (Throwable throwable) {
@@ -156,8 +225,13 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
                     resource, CRDConstants.CONDITIONS_TYPE_READY_REASON_GENERIC_ERROR, throwable.getMessage()
             )), Instant.now());
             reschedule = true;
+            failed = true;
+        } finally {
+            OperatorMetrics.recordPhase(controller, OperatorMetrics.PHASE_PATCH, System.nanoTime() - patchStart);
         }
-        long time = (System.nanoTime() - start) / 1_000_000;
+        final long elapsed = System.nanoTime() - start;
+        OperatorMetrics.recordReconcile(controller, namespace, failed ? "error" : "success", elapsed);
+        long time = elapsed / 1_000_000;
 
         final String conditionsStr = conditions.stream().map(c -> {
             String str = "%s: %s";
@@ -173,14 +247,108 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
                 resource.getFullResourceName(),
                 time, reschedule + "", conditionsStr);
 
-        resource.setStatus(new BaseComponentStatus(conditions, lastApplied));
-        final UpdateControl<T> update = UpdateControl.updateStatus(resource);
-        if (reschedule) {
-            update.rescheduleAfter(operatorRuntimeConfiguration.reconciliationRescheduleSeconds(), TimeUnit.SECONDS);
+        final UpdateControl<T> update =
+                updateStatusIfChanged(resource, conditions, lastApplied);
+        final String resourceKey = namespace + "/" + name;
+        if (failed) {
+            OperatorMetrics.recordReschedule(controller, "error");
+            update.rescheduleAfter(getErrorBackoff().nextDelayMs(resourceKey), TimeUnit.MILLISECONDS);
+        } else {
+            getErrorBackoff().reset(resourceKey);
+            if (reschedule) {
+                OperatorMetrics.recordReschedule(controller, "requeue");
+                // with event sources registered, status changes of the owned resources trigger a reconciliation
+                // so the periodic reschedule is only a safety net
+                update.rescheduleAfter(eventDriven
+                        ? operatorRuntimeConfiguration.reconciliationResyncSeconds()
+                        : operatorRuntimeConfiguration.reconciliationRescheduleSeconds(), TimeUnit.SECONDS);
+            }
         }
         return update;
     }
 
+    /**
+     * The status is written only if it's changed, to avoid a write and a new watch event for each reschedule.
+     * Only the conditions and the last applied spec are set here, the other fields of the component status (e.g.
+     * written by the autoscaler) are kept as they are.
+     */
+    private UpdateControl<T> updateStatusIfChanged(T resource, List<Condition> conditions, String lastApplied) {
+        final BaseComponentStatus status = resource.getStatus();
+        final boolean changed = !Objects.equals(conditions, status.getConditions())
+                || !Objects.equals(lastApplied, status.getLastApplied());
+        status.setConditions(conditions);
+        status.setLastApplied(lastApplied);
+        if (!changed) {
+            log.debugf("%s status not changed, skipping update", resource.getFullResourceName());
+            return UpdateControl.noUpdate();
+        }
+        return UpdateControl.updateStatus(resource);
+    }
+
+    private record CachedValidation(Long generation, String errorMessage) {
+    }
+
+    /**
+     * The spec can only change with a new generation, so the validation result is cached per generation.
+     */
+    private String validateGeneration(T resource) {
+        final String uid = resource.getMetadata().getUid();
+        final Long generation = resource.getMetadata().getGeneration();
+        if (uid != null && generation != null) {
+            final CachedValidation cached = validationCache.get(uid);
+            if (cached != null && generation.equals(cached.generation())) {
+                return cached.errorMessage();
+            }
+        }
+        final String errorMessage = OperatorMetrics.timePhase(resource.getKind(), OperatorMetrics.PHASE_VALIDATE,
+                () -> validate(resource));
+        if (uid != null && generation != null) {
+            validationCache.put(uid, new CachedValidation(generation, errorMessage));
+        }
+        return errorMessage;
+    }
+
+    private synchronized ExponentialBackoff getErrorBackoff() {
+        if (errorBackoff == null) {
+            errorBackoff = new ExponentialBackoff(
+                    TimeUnit.SECONDS.toMillis(operatorRuntimeConfiguration.reconciliationRescheduleSeconds()),
+                    TimeUnit.SECONDS.toMillis(operatorRuntimeConfiguration.reconciliationErrorBackoffMaxSeconds()));
+        }
+        return errorBackoff;
+    }
+
+    @Override
+    public Map<String, EventSource> prepareEventSources(EventSourceContext<T> context) {
+        final List<EventSource> eventSources = new ArrayList<>();
+        if (resourcesCache != null) {
+            eventSources.addAll(
+                    createOwnedResourcesEventSources(context.getControllerConfiguration().getResourceClass()));
+            eventDriven = !eventSources.isEmpty();
+        }
+        if (shardManager != null && shardManager.isEnabled()) {
+            eventSources.add(new ShardEventSource<>(shardManager, context.getPrimaryCache(), this::onShardLost));
+        }
+        return EventSourceInitializer.nameEventSources(eventSources.toArray(new EventSource[0]));
+    }
+
+    /**
+     * Called when the shard of the resource is assigned to another replica.
+     * Controllers running background tasks for the resource must stop them here.
+     */
+    protected void onShardLost(T resource) {
+    }
+
+    protected List<EventSource> createOwnedResourcesEventSources(Class<T> resourceClass) {
+        return List.of(
+                new OwnedResourceEventSource<>(resourcesCache, StatefulSet.class, resourceClass,
+                        StatefulSet::getStatus),
+                new OwnedResourceEventSource<>(resourcesCache, Deployment.class, resourceClass,
+                        Deployment::getStatus),
+                new OwnedResourceEventSource<>(resourcesCache, Job.class, resourceClass,
+                        Job::getStatus)
+        );
+    }
+
     @Data
     @AllArgsConstructor
     protected static class ReconciliationResult {
@@ -205,6 +373,10 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
 
     protected abstract ReconciliationResult patchResources(T resource, Context<T> context) throws Exception;
 
+    protected ReconciliationResult timedCheckReady(T resource, Supplier<ReconciliationResult> checkReady) {
+        return OperatorMetrics.timePhase(resource.getKind(), OperatorMetrics.PHASE_CHECK_READY, checkReady);
+    }
+
     protected String validate(T resource) {
         final Set<ConstraintViolation<Object>> violations = validator.validate(resource.getSpec());
         if (violations.isEmpty()) {
@@ -233,11 +405,43 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
                 .build();
     }
 
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    protected static class CompactLastApplied {
+        LastAppliedFingerprints fingerprints;
+    }
+
+    protected static boolean isCompactLastApplied(FullSpecWithDefaults spec) {
+        return GlobalSpec.LastAppliedMode.Compact.toString().equals(spec.getGlobalSpec().getLastAppliedMode());
+    }
+
+    private static String writeLastApplied(FullSpecWithDefaults spec) {
+        if (isCompactLastApplied(spec)) {
+            return SerializationUtil.writeAsJson(new CompactLastApplied(LastAppliedFingerprints.ofSpec(spec)));
+        }
+        return SerializationUtil.writeAsJson(spec);
+    }
+
     protected boolean areSpecChanged(T cr) {
+        return OperatorMetrics.timePhase(cr.getKind(), OperatorMetrics.PHASE_DIFF, () -> isSpecChanged(cr));
+    }
+
+    private boolean isSpecChanged(T cr) {
         final String lastApplied = cr.getStatus().getLastApplied();
         if (lastApplied == null) {
             return true;
         }
+        if (lastApplied.startsWith(COMPACT_LAST_APPLIED_PREFIX)) {
+            final LastAppliedFingerprints previous =
+                    SerializationUtil.readJson(lastApplied, CompactLastApplied.class).getFingerprints();
+            final List<String> changed = LastAppliedFingerprints.changedSections(previous.getCommon(),
+                    LastAppliedFingerprints.sections(cr.getSpec()));
+            if (!changed.isEmpty()) {
+                log.infof("%s spec sections changed: %s", cr.getFullResourceName(), changed);
+            }
+            return !changed.isEmpty();
+        }
         return !SpecDiffer.generateDiff(cr.getSpec(), lastApplied).areEquals();
     }
 
@@ -316,7 +520,8 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
             }
 
             if (updated.getStatus().equals(condition.getStatus())) {
-                result.add(updated);
+                // keep the previous transition time, otherwise the status would change at every reconciliation
+                result.add(copyConditionWithLastTransitionTime(condition.getLastTransitionTime(), updated));
             } else {
                 result.add(copyConditionWithLastTransitionTime(now, updated));
             }
@@ -336,6 +541,10 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
     }
 
     private Condition copyConditionWithLastTransitionTime(Instant now, Condition updated) {
+        return copyConditionWithLastTransitionTime(now.toString(), updated);
+    }
+
+    private Condition copyConditionWithLastTransitionTime(String lastTransitionTime, Condition updated) {
         return new ConditionBuilder()
                 .withType(updated.getType())
                 .withObservedGeneration(updated.getObservedGeneration())
@@ -343,7 +552,7 @@ public abstract class AbstractController<T extends CustomResource<? extends Full
                 .withMessage(updated.getMessage())
                 .withReason(updated.getReason())
                 .withAdditionalProperties(updated.getAdditionalProperties())
-                .withLastTransitionTime(now.toString())
+                .withLastTransitionTime(lastTransitionTime)
                 .build();
     }
 }
@@ -18,10 +18,12 @@ package com.datastax.oss.kaap.controllers;
 import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.common.json.JSONComparator;
 import com.datastax.oss.kaap.crds.BaseComponentStatus;
-import com.datastax.oss.kaap.crds.ConfigUtil;
 import com.datastax.oss.kaap.crds.FullSpecWithDefaults;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.SpecDiffer;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.KubernetesClient;
@@ -31,7 +33,15 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -39,11 +49,12 @@ import lombok.extern.jbosslog.JBossLog;
 
 @JBossLog
 public abstract class AbstractResourceSetsController<T extends CustomResource<FULLSPEC,
-        BaseComponentStatus>, FULLSPEC extends FullSpecWithDefaults, SPEC extends SETSPEC, SETSPEC, FACTORY,
+        ? extends BaseComponentStatus>, FULLSPEC extends FullSpecWithDefaults, SPEC extends SETSPEC, SETSPEC, FACTORY,
         SETSLASTAPPLIED extends AbstractResourceSetsController.SetsLastApplied<FULLSPEC>>
         extends AbstractController<T> {
 
     private final String componentNameForLogs;
+    private ThreadPoolExecutor setsExecutor;
 
     public AbstractResourceSetsController(KubernetesClient client) {
         super(client);
@@ -70,6 +81,10 @@ public abstract class AbstractResourceSetsController<T extends CustomResource<FU
         void setCommon(FULLSPEC fullspec);
 
         Map<String, FULLSPEC> getSets();
+
+        LastAppliedFingerprints getFingerprints();
+
+        void setFingerprints(LastAppliedFingerprints fingerprints);
     }
 
     protected abstract String getComponentNameForLogs();
@@ -104,8 +119,16 @@ public abstract class AbstractResourceSetsController<T extends CustomResource<FU
 
         SETSLASTAPPLIED lastAppliedResource = readSetsLastApplied(resource);
         final SETSLASTAPPLIED clonedLastAppliedResource = SerializationUtil.deepCloneObject(lastAppliedResource);
+        final boolean compact = isCompactLastApplied(spec);
+        final Map<String, String> commonFingerprint = compact ? LastAppliedFingerprints.sections(spec) : null;
+        if (!compact) {
+            lastAppliedResource.setFingerprints(null);
+        } else if (lastAppliedResource.getFingerprints() == null) {
+            lastAppliedResource.setFingerprints(LastAppliedFingerprints.ofSets());
+        }
 
-        if (!SpecDiffer.generateDiff(lastAppliedResource.getCommon(), spec).areEquals()) {
+        if (OperatorMetrics.timePhase(resource.getKind(), OperatorMetrics.PHASE_DIFF,
+                () -> isCommonChanged(lastAppliedResource, spec, commonFingerprint))) {
 
             final String defaultSetName = getDefaultSetName();
             final SPEC setSpec = getSpec(spec);
@@ -115,42 +138,53 @@ public abstract class AbstractResourceSetsController<T extends CustomResource<FU
             patchCommonResources(new SetInfo<>(defaultSetName, setSpec, factory));
             lastAppliedResource.setCommon(spec);
         }
+        if (compact) {
+            lastAppliedResource.getFingerprints().setCommon(commonFingerprint);
+        }
 
         final boolean isRollingUpdate = isRollingUpdate(spec);
         boolean allSetsReady = true;
-        for (SetInfo<SETSPEC, FACTORY> info : desiredSets) {
-            final String setName = info.getName();
-            final FULLSPEC lastApplied = lastAppliedResource.getSets().get(setName);
-
-            final JSONComparator.Result compResult = compareLastAppliedSetSpec(resource, info, spec, lastApplied);
-            final boolean areEquals = compResult.areEquals();
-            if (areEquals) {
-                final ReconciliationResult result = checkReady(resource, info);
-                if (result.isReschedule()) {
-                    allSetsReady = false;
-                    if (isRollingUpdate) {
+        if (isRollingUpdate) {
+            for (SetInfo<SETSPEC, FACTORY> info : desiredSets) {
+                final String setName = info.getName();
+                final JSONComparator.Result compResult = timedCompareSet(resource, info, spec, lastAppliedResource);
+                final boolean areEquals = compResult.areEquals();
+                if (areEquals) {
+                    if (compact) {
+                        markSetApplied(lastAppliedResource, info, spec);
+                    }
+                    final ReconciliationResult result = timedCheckReady(resource, info);
+                    if (result.isReschedule()) {
                         log.infof("%s-set '%s' is not ready, rescheduling", componentNameForLogs, setName);
                         result.setOverrideLastApplied(SerializationUtil.writeAsJson(lastAppliedResource));
                         return result;
                     } else {
-                        log.infof("%s-set '%s' is not ready", componentNameForLogs, setName);
+                        log.infof("%s-set '%s' is ready", componentNameForLogs, setName);
                     }
                 } else {
-                    log.infof("%s-set '%s' is ready", componentNameForLogs, setName);
+                    SpecDiffer.logDetailedSpecDiff(compResult);
+                    beforeSetsPatched(resource, spec, List.of(info), lastAppliedResource);
+                    patchResourceSet(info);
+                    log.infof("%s-set '%s' patched", componentNameForLogs, setName);
+
+                    // this might happen if the replica has been set to zero
+                    final boolean isReady = !timedCheckReady(resource, info).isReschedule();
+                    markSetApplied(lastAppliedResource, info, spec);
+                    if (!isReady) {
+                        return newNotReadyResult(resource, lastAppliedResource);
+                    }
                 }
-            } else {
-                SpecDiffer.logDetailedSpecDiff(compResult);
-                patchResourceSet(info);
-                log.infof("%s-set '%s' patched", componentNameForLogs, setName);
-
-                // this might happen if the replica has been set to zero
-                final boolean isReady = !checkReady(resource, info).isReschedule();
-                if (!isReady) {
-                    allSetsReady = false;
+            }
+        } else {
+            final List<SetResult<SETSPEC, FACTORY>> results =
+                    patchSetsConcurrently(resource, spec, desiredSets, lastAppliedResource);
+            // last applied is updated only once all the sets have been handled
+            for (SetResult<SETSPEC, FACTORY> result : results) {
+                if (result.patched() || compact) {
+                    markSetApplied(lastAppliedResource, result.info(), spec);
                 }
-                lastAppliedResource.getSets().put(setName, spec);
-                if (!isReady && isRollingUpdate) {
-                    return newNotReadyResult(resource, lastAppliedResource);
+                if (!result.ready()) {
+                    allSetsReady = false;
                 }
             }
         }
@@ -164,11 +198,197 @@ public abstract class AbstractResourceSetsController<T extends CustomResource<FU
         }
     }
 
+    private boolean isCommonChanged(SETSLASTAPPLIED lastAppliedResource, FULLSPEC spec,
+                                    Map<String, String> commonFingerprint) {
+        final LastAppliedFingerprints fingerprints = lastAppliedResource.getFingerprints();
+        if (commonFingerprint != null && fingerprints != null && lastAppliedResource.getCommon() != null
+                && commonFingerprint.equals(fingerprints.getCommon())) {
+            return false;
+        }
+        return !SpecDiffer.generateDiff(lastAppliedResource.getCommon(), spec).areEquals();
+    }
+
+    private JSONComparator.Result timedCompareSet(T resource, SetInfo<SETSPEC, FACTORY> info, FULLSPEC spec,
+                                                  SETSLASTAPPLIED lastAppliedResource) {
+        return OperatorMetrics.timePhase(resource.getKind(), OperatorMetrics.PHASE_DIFF,
+                () -> compareSet(resource, info, spec, lastAppliedResource));
+    }
+
+    private ReconciliationResult timedCheckReady(T resource, SetInfo<SETSPEC, FACTORY> info) {
+        return timedCheckReady(resource, () -> checkReady(resource, info));
+    }
+
+    private JSONComparator.Result compareSet(T resource, SetInfo<SETSPEC, FACTORY> info, FULLSPEC spec,
+                                             SETSLASTAPPLIED lastAppliedResource) {
+        final LastAppliedFingerprints fingerprints = lastAppliedResource.getFingerprints();
+        if (fingerprints != null && fingerprints.getSets().containsKey(info.getName())) {
+            if (fingerprints.getSets().get(info.getName()).equals(getSetFingerprint(spec, info))) {
+                return JSONComparator.RESULT_EQUALS;
+            }
+            // the previous set spec is not retained in compact mode
+            log.infof("%s-set '%s' fingerprint changed", componentNameForLogs, info.getName());
+            return compareLastAppliedSetSpec(resource, info, spec, null);
+        }
+        return compareLastAppliedSetSpec(resource, info, spec, lastAppliedResource.getSets().get(info.getName()));
+    }
+
+    private void markSetApplied(SETSLASTAPPLIED lastAppliedResource, SetInfo<SETSPEC, FACTORY> info,
+                                FULLSPEC spec) {
+        final LastAppliedFingerprints fingerprints = lastAppliedResource.getFingerprints();
+        if (fingerprints != null) {
+            fingerprints.getSets().put(info.getName(), getSetFingerprint(spec, info));
+            lastAppliedResource.getSets().remove(info.getName());
+        } else {
+            lastAppliedResource.getSets().put(info.getName(), spec);
+        }
+    }
+
+    /**
+     * The resources of a set only depend on the global spec and on the set spec, which already includes the
+     * configuration inherited from the component spec.
+     */
+    private String getSetFingerprint(FULLSPEC spec, SetInfo<SETSPEC, FACTORY> info) {
+        return LastAppliedFingerprints.hash(Map.of("global", spec.getGlobalSpec(), "set", info.getSetSpec()));
+    }
+
+    private record SetResult<S, F>(SetInfo<S, F> info, boolean patched, boolean ready) {
+    }
+
+    /**
+     * The sets are compared and then patched concurrently. In between, the changed sets are handed to
+     * {@link #beforeSetsPatched} from the reconciliation thread, so the comparison has no side effects.
+     */
+    private List<SetResult<SETSPEC, FACTORY>> patchSetsConcurrently(T resource, FULLSPEC spec,
+                                                  List<SetInfo<SETSPEC, FACTORY>> desiredSets,
+                                                  SETSLASTAPPLIED lastAppliedResource) {
+        final List<Callable<JSONComparator.Result>> comparisons = new ArrayList<>();
+        for (SetInfo<SETSPEC, FACTORY> info : desiredSets) {
+            comparisons.add(() -> timedCompareSet(resource, info, spec, lastAppliedResource));
+        }
+        final List<JSONComparator.Result> compResults = runConcurrently(comparisons);
+
+        final List<SetInfo<SETSPEC, FACTORY>> changedSets = new ArrayList<>();
+        final List<Callable<SetResult<SETSPEC, FACTORY>>> patches = new ArrayList<>();
+        for (int i = 0; i < desiredSets.size(); i++) {
+            final SetInfo<SETSPEC, FACTORY> info = desiredSets.get(i);
+            final JSONComparator.Result compResult = compResults.get(i);
+            if (!compResult.areEquals()) {
+                changedSets.add(info);
+            }
+            patches.add(() -> patchSetIfNeeded(resource, info, compResult));
+        }
+        if (!changedSets.isEmpty()) {
+            beforeSetsPatched(resource, spec, changedSets, lastAppliedResource);
+        }
+        return runConcurrently(patches);
+    }
+
+    @SneakyThrows
+    private <R> List<R> runConcurrently(List<Callable<R>> tasks) {
+        if (tasks.size() == 1) {
+            return List.of(tasks.get(0).call());
+        }
+        final ExecutorService executor = getSetsExecutor();
+        final List<Future<R>> futures = new ArrayList<>();
+        for (Callable<R> task : tasks) {
+            futures.add(executor.submit(task));
+        }
+        // a failed set doesn't interrupt the others, their patches would be left half applied
+        final List<R> results = new ArrayList<>();
+        Throwable failure = null;
+        for (Future<R> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = ex.getCause();
+                } else {
+                    failure.addSuppressed(ex.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return results;
+    }
+
+    /**
+     * The pool is shared by all the reconciliations of the controller, so the total number of sets updated at the
+     * same time is bounded. Idle threads are released.
+     */
+    private synchronized ExecutorService getSetsExecutor() {
+        if (setsExecutor == null) {
+            final int concurrency = Math.max(1, operatorRuntimeConfiguration.setsUpdateMaxConcurrency());
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(concurrency, concurrency,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+            executor.allowCoreThreadTimeOut(true);
+            OperatorMetrics.monitorExecutorQueue(componentNameForLogs + "-sets", executor);
+            setsExecutor = executor;
+        }
+        return setsExecutor;
+    }
+
+    @PreDestroy
+    synchronized void shutdownSetsExecutor() {
+        if (setsExecutor != null) {
+            setsExecutor.shutdownNow();
+            setsExecutor = null;
+        }
+    }
+
+    private SetResult<SETSPEC, FACTORY> patchSetIfNeeded(T resource, SetInfo<SETSPEC, FACTORY> info,
+                                                         JSONComparator.Result compResult) {
+        final String setName = info.getName();
+        boolean patched = false;
+        if (!compResult.areEquals()) {
+            SpecDiffer.logDetailedSpecDiff(compResult);
+            patchResourceSet(info);
+            log.infof("%s-set '%s' patched", componentNameForLogs, setName);
+            patched = true;
+        }
+        // this might happen if the replica has been set to zero
+        final boolean ready = !timedCheckReady(resource, info).isReschedule();
+        if (ready) {
+            log.infof("%s-set '%s' is ready", componentNameForLogs, setName);
+        } else {
+            log.infof("%s-set '%s' is not ready", componentNameForLogs, setName);
+        }
+        return new SetResult<>(info, patched, ready);
+    }
+
+    /**
+     * Compare the last applied and the desired spec of a set, ignoring the other sets.
+     */
+    protected static JSONComparator.Result generateSetSpecDiff(String setName, Object lastApplied, Object spec) {
+        return SpecDiffer.generateDiff(toSetSpecTree(lastApplied, setName), toSetSpecTree(spec, setName));
+    }
+
+    private static JsonNode toSetSpecTree(Object fullSpec, String setName) {
+        if (fullSpec == null) {
+            return null;
+        }
+        final JsonNode tree = SerializationUtil.toJsonTree(fullSpec);
+        for (JsonNode section : tree) {
+            if (section.get("sets") instanceof ObjectNode sets) {
+                sets.retain(setName);
+            }
+        }
+        return tree;
+    }
+
     protected abstract JSONComparator.Result compareLastAppliedSetSpec(T resource, SetInfo<SETSPEC, FACTORY> setInfo, FULLSPEC spec,
                                                                        FULLSPEC lastApplied);
 
     protected abstract SETSLASTAPPLIED readSetsLastApplied(T resource);
 
+    /**
+     * Called from the reconciliation thread with the changed sets, before any of them is patched.
+     * With the parallel strategy it's called once for all the changed sets, with the rolling update once per set.
+     */
+    protected void beforeSetsPatched(T resource, FULLSPEC spec, List<SetInfo<SETSPEC, FACTORY>> changedSets,
+                                     SETSLASTAPPLIED lastAppliedResource) {}
+
     private ReconciliationResult newReadyResult(T resource,
                                                 SetsLastApplied<FULLSPEC> lastAppliedResource) {
         return new ReconciliationResult(
@@ -201,6 +421,9 @@ public abstract class AbstractResourceSetsController<T extends CustomResource<FU
                 deleteResourceSet(set, resource);
                 log.infof("Deleted %s-set: '%s'", componentNameForLogs, set.getName());
                 setLastApplied.getSets().remove(set.getName());
+                if (setLastApplied.getFingerprints() != null) {
+                    setLastApplied.getFingerprints().getSets().remove(set.getName());
+                }
             }
 
             for (SetInfo<SETSPEC, FACTORY> set : sets) {
@@ -234,21 +457,7 @@ public abstract class AbstractResourceSetsController<T extends CustomResource<FU
         return result;
     }
 
-    @SneakyThrows
     protected LinkedHashMap<String, SETSPEC> getSetSpecs(SPEC spec) {
-        Map<String, SETSPEC> sets = getSets(spec);
-        if (sets == null || sets.isEmpty()) {
-            final String defaultSetName = getDefaultSetName();
-            sets = new LinkedHashMap(Map.of(defaultSetName,
-                    ConfigUtil.applyDefaultsWithReflection(spec.getClass().getConstructor().newInstance(),
-                            () -> spec)));
-        } else {
-            for (Map.Entry<String, SETSPEC> set : sets.entrySet()) {
-                sets.put(set.getKey(),
-                        ConfigUtil.applyDefaultsWithReflection(set.getValue(), () -> spec)
-                );
-            }
-        }
-        return new LinkedHashMap<>(sets);
+        return SetSpecsResolver.resolve(spec, getSets(spec), getDefaultSetName());
     }
 }
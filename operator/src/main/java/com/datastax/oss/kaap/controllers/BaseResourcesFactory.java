@@ -17,6 +17,7 @@ package com.datastax.oss.kaap.controllers;
 
 import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.controllers.zookeeper.ZooKeeperResourcesFactory;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
@@ -28,6 +29,7 @@ import com.datastax.oss.kaap.crds.configs.ProbesConfig;
 import com.datastax.oss.kaap.crds.configs.StorageClassConfig;
 import com.datastax.oss.kaap.crds.configs.VolumeConfig;
 import com.datastax.oss.kaap.crds.configs.tls.TlsConfig;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import io.fabric8.kubernetes.api.model.Affinity;
 import io.fabric8.kubernetes.api.model.ConfigMap;
 import io.fabric8.kubernetes.api.model.Container;
@@ -51,6 +53,7 @@ import io.fabric8.kubernetes.api.model.VolumeMount;
 import io.fabric8.kubernetes.api.model.VolumeMountBuilder;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSetList;
 import io.fabric8.kubernetes.api.model.apps.ReplicaSetStatus;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.apps.StatefulSetStatus;
@@ -70,7 +73,12 @@ import io.fabric8.kubernetes.api.model.rbac.SubjectBuilder;
 import io.fabric8.kubernetes.api.model.storage.StorageClass;
 import io.fabric8.kubernetes.api.model.storage.StorageClassBuilder;
 import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.VersionInfo;
+import io.fabric8.kubernetes.client.dsl.base.PatchContext;
+import io.fabric8.kubernetes.client.dsl.base.PatchType;
+import io.fabric8.kubernetes.client.dsl.internal.PatchUtils;
+import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -89,17 +97,28 @@ public abstract class BaseResourcesFactory<T> {
 
     public static final String CONFIG_PULSAR_PREFIX = "PULSAR_PREFIX_";
     public static final String DEPLOYMENT_REVISION_ANNOTATION = "deployment.kubernetes.io/revision";
+    public static final String FIELD_MANAGER = "kaap";
+    public static final String APPLIED_CONFIG_HASH_ANNOTATION = "%s/applied-config-hash".formatted(CRDConstants.GROUP);
+    private static final int HTTP_UNPROCESSABLE_ENTITY = 422;
     protected final KubernetesClient client;
     protected final String namespace;
     protected final T spec;
     protected final GlobalSpec global;
     protected final String resourceName;
     protected final OwnerReference ownerReference;
+    protected final SecondaryResourcesCache resourcesCache;
     private VersionInfo version;
 
     public BaseResourcesFactory(KubernetesClient client, String namespace, String resourceName, T spec,
                                 GlobalSpec global, OwnerReference ownerReference) {
+        this(client, namespace, resourceName, spec, global, ownerReference, null);
+    }
+
+    public BaseResourcesFactory(KubernetesClient client, String namespace, String resourceName, T spec,
+                                GlobalSpec global, OwnerReference ownerReference,
+                                SecondaryResourcesCache resourcesCache) {
         this.client = client;
+        this.resourcesCache = resourcesCache;
         this.namespace = namespace;
         // clone spec objects to avoid unintended object modifications.
         this.spec = SerializationUtil.deepCloneObject(spec);
@@ -131,10 +150,11 @@ public abstract class BaseResourcesFactory<T> {
         if (ownerReference != null && !isNonNamespacedResource(resource.getClass())) {
             resource.getMetadata().setOwnerReferences(List.of(ownerReference));
         }
-        final R current = (R) client.resources(resource.getClass())
-                .inNamespace(namespace)
-                .withName(resource.getMetadata().getName())
-                .get();
+        if (isServerSideApplyEnabled()) {
+            applyResource(resource);
+            return;
+        }
+        final R current = (R) getResource(resource.getClass(), resource.getMetadata().getName());
         final boolean isImmutableResource = isImmutableResource(resource.getClass());
         if (current == null || isImmutableResource) {
             if (current != null && isImmutableResource) {
@@ -152,6 +172,8 @@ public abstract class BaseResourcesFactory<T> {
                 log.infof("Skipping creating resource %s since component is disabled",
                         resource.getFullResourceName());
             }
+        } else if (isCachedResource(resource.getClass())) {
+            patchCachedResource(current, resource);
         } else {
             client
                     .resource(current)
@@ -160,6 +182,117 @@ public abstract class BaseResourcesFactory<T> {
         }
     }
 
+    /**
+     * The cached copy might be behind the server one. The JSON patch computed against it starts with a test of its
+     * resource version, so a stale base is rejected (422) instead of failing on a missing path or, worse, being
+     * applied to the wrong array element. In that case, or on a conflict, the patch is computed again against the
+     * live resource.
+     */
+    private <R extends HasMetadata> void patchCachedResource(R cached, R resource) {
+        try {
+            final ArrayNode patch = (ArrayNode) SerializationUtil.readJsonTree(
+                    PatchUtils.jsonDiff(cached, resource, false));
+            if (patch.isEmpty()) {
+                return;
+            }
+            final String resourceVersion = cached.getMetadata().getResourceVersion();
+            if (resourceVersion != null) {
+                patch.insertObject(0)
+                        .put("op", "test")
+                        .put("path", "/metadata/resourceVersion")
+                        .put("value", resourceVersion);
+            }
+            client
+                    .resource(cached)
+                    .inNamespace(namespace)
+                    .patch(PatchContext.of(PatchType.JSON), SerializationUtil.writeAsJson(patch));
+        } catch (KubernetesClientException ex) {
+            // the other errors (e.g. an invalid resource or a forbidden request) would fail again
+            if (ex.getCode() != HttpURLConnection.HTTP_CONFLICT && ex.getCode() != HTTP_UNPROCESSABLE_ENTITY) {
+                throw ex;
+            }
+            log.debugf("Patch of %s failed with code %d against the cached version, retrying against the live "
+                    + "resource", resource.getMetadata().getName(), ex.getCode());
+            final R live = (R) client.resources(resource.getClass())
+                    .inNamespace(namespace)
+                    .withName(resource.getMetadata().getName())
+                    .get();
+            if (live == null) {
+                throw ex;
+            }
+            client
+                    .resource(live)
+                    .inNamespace(namespace)
+                    .patch(resource);
+        }
+    }
+
+    protected boolean isServerSideApplyEnabled() {
+        return GlobalSpec.ResourcesApplyMode.ServerSideApply.toString().equals(global.getApplyMode());
+    }
+
+    private <R extends HasMetadata> void applyResource(R resource) {
+        final String name = resource.getMetadata().getName();
+        final String hash = DigestUtils.sha256Hex(SerializationUtil.writeAsSortedJsonBytes(resource));
+        final R current = (R) getResource(resource.getClass(), name);
+        final boolean isImmutableResource = isImmutableResource(resource.getClass());
+        // a no-op apply is cheap and reverts the manual changes to the fields we own, only the immutable resources
+        // must be skipped since they're recreated
+        if (current != null && isImmutableResource
+                && hash.equals(getAnnotation(current, APPLIED_CONFIG_HASH_ANNOTATION))) {
+            log.debugf("Skipping recreation of %s %s, configuration didn't change", resource.getKind(), name);
+            return;
+        }
+        if (current == null && !isComponentEnabled()) {
+            log.infof("Skipping creating resource %s since component is disabled", resource.getFullResourceName());
+            return;
+        }
+        final Map<String, String> annotations = resource.getMetadata().getAnnotations() == null
+                ? new HashMap<>() : new HashMap<>(resource.getMetadata().getAnnotations());
+        annotations.put(APPLIED_CONFIG_HASH_ANNOTATION, hash);
+        resource.getMetadata().setAnnotations(annotations);
+
+        if (current != null && isImmutableResource) {
+            client
+                    .resource(current)
+                    .inNamespace(namespace)
+                    .withPropagationPolicy(DeletionPropagation.BACKGROUND)
+                    .delete();
+            if (isComponentEnabled()) {
+                client.resource(resource)
+                        .inNamespace(namespace)
+                        .create();
+            }
+            return;
+        }
+        client.resource(resource)
+                .inNamespace(namespace)
+                .patch(new PatchContext.Builder()
+                        .withPatchType(PatchType.SERVER_SIDE_APPLY)
+                        .withFieldManager(FIELD_MANAGER)
+                        .withForce(true)
+                        .build());
+    }
+
+    private static String getAnnotation(HasMetadata resource, String annotation) {
+        final Map<String, String> annotations = resource.getMetadata().getAnnotations();
+        return annotations == null ? null : annotations.get(annotation);
+    }
+
+    private boolean isCachedResource(Class<? extends HasMetadata> resourceClass) {
+        return resourcesCache != null && SecondaryResourcesCache.isCached(resourceClass);
+    }
+
+    protected <R extends HasMetadata> R getResource(Class<R> resourceClass, String name) {
+        if (isCachedResource(resourceClass)) {
+            return resourcesCache.get(resourceClass, namespace, name);
+        }
+        return client.resources(resourceClass)
+                .inNamespace(namespace)
+                .withName(name)
+                .get();
+    }
+
     public void deleteStatefulSet() {
         client.apps().statefulSets()
                 .inNamespace(namespace)
@@ -288,18 +421,26 @@ public abstract class BaseResourcesFactory<T> {
         return isTlsEnabledOnBroker(global);
     }
 
-    protected static boolean isTlsEnabledOnBroker(GlobalSpec global) {
+    public static boolean isTlsEnabledOnBroker(GlobalSpec global) {
         return global.getTls().getBroker() != null
                 && global.getTls().getBroker().getEnabled();
     }
 
     protected boolean isTlsEnabledOnBrokerSet(String brokerSet) {
-        final TlsConfig.TlsEntryConfig tlsConfigForBrokerSet = getTlsConfigForBrokerSet(brokerSet);
+        return isTlsEnabledOnBrokerSet(global, brokerSet);
+    }
+
+    public static boolean isTlsEnabledOnBrokerSet(GlobalSpec global, String brokerSet) {
+        final TlsConfig.TlsEntryConfig tlsConfigForBrokerSet = getTlsConfigForBrokerSet(global, brokerSet);
         return tlsConfigForBrokerSet != null && tlsConfigForBrokerSet.getEnabled();
     }
 
 
     protected TlsConfig.TlsEntryConfig getTlsConfigForBrokerSet(String brokerSet) {
+        return getTlsConfigForBrokerSet(global, brokerSet);
+    }
+
+    private static TlsConfig.TlsEntryConfig getTlsConfigForBrokerSet(GlobalSpec global, String brokerSet) {
         if (global.getTls().getBrokerResourceSets() == null
                 || !global.getTls().getBrokerResourceSets().containsKey(brokerSet)) {
             return global.getTls().getBroker();
@@ -491,6 +632,10 @@ public abstract class BaseResourcesFactory<T> {
     }
 
     protected String getTlsSecretNameForBookkeeper() {
+        return getTlsSecretNameForBookkeeper(global);
+    }
+
+    public static String getTlsSecretNameForBookkeeper(GlobalSpec global) {
         final String name = global.getTls().getBookkeeper() == null
                 ? null : global.getTls().getBookkeeper().getSecretName();
         return ObjectUtils.firstNonNull(
@@ -499,6 +644,10 @@ public abstract class BaseResourcesFactory<T> {
     }
 
     protected String getTlsSecretNameForBroker() {
+        return getTlsSecretNameForBroker(global);
+    }
+
+    public static String getTlsSecretNameForBroker(GlobalSpec global) {
         final String name = global.getTls().getBroker() == null
                 ? null : global.getTls().getBroker().getSecretName();
         return ObjectUtils.firstNonNull(
@@ -714,6 +863,9 @@ public abstract class BaseResourcesFactory<T> {
     }
 
     public StatefulSet getStatefulSet() {
+        if (resourcesCache != null) {
+            return resourcesCache.get(StatefulSet.class, namespace, resourceName);
+        }
         return client.apps().statefulSets()
                 .inNamespace(namespace)
                 .withName(resourceName)
@@ -721,6 +873,9 @@ public abstract class BaseResourcesFactory<T> {
     }
 
     public Deployment getDeployment() {
+        if (resourcesCache != null) {
+            return resourcesCache.get(Deployment.class, namespace, resourceName);
+        }
         return client.apps().deployments()
                 .inNamespace(namespace)
                 .withName(resourceName)
@@ -728,6 +883,9 @@ public abstract class BaseResourcesFactory<T> {
     }
 
     public Job getJob(String name) {
+        if (resourcesCache != null) {
+            return resourcesCache.get(Job.class, namespace, name);
+        }
         return client
                 .batch()
                 .v1()
@@ -783,6 +941,11 @@ public abstract class BaseResourcesFactory<T> {
     }
 
     public static boolean isDeploymentReady(Deployment deployment, KubernetesClient client) {
+        return isDeploymentReady(deployment, client, null);
+    }
+
+    public static boolean isDeploymentReady(Deployment deployment, KubernetesClient client,
+                                            SecondaryResourcesCache resourcesCache) {
         if (deployment == null) {
             return false;
         }
@@ -791,13 +954,23 @@ public abstract class BaseResourcesFactory<T> {
             return false;
         }
 
-        final List<ReplicaSet> replicaSets = client.apps().replicaSets()
-                .inNamespace(deployment.getMetadata().getNamespace())
-                .list()
-                .getItems()
+        final String namespace = deployment.getMetadata().getNamespace();
+        final String uid = deployment.getMetadata().getUid();
+        final Map<String, String> selector = getDeploymentSelector(deployment);
+        final List<ReplicaSet> ownedReplicaSets;
+        if (resourcesCache == null) {
+            final ReplicaSetList replicaSetList = selector.isEmpty()
+                    ? client.apps().replicaSets().inNamespace(namespace).list()
+                    : client.apps().replicaSets().inNamespace(namespace).withLabels(selector).list();
+            ownedReplicaSets = replicaSetList.getItems()
+                    .stream()
+                    .filter(r -> SecondaryResourcesCache.isOwnedBy(r, uid))
+                    .collect(Collectors.toList());
+        } else {
+            ownedReplicaSets = resourcesCache.listOwned(ReplicaSet.class, namespace, uid, selector);
+        }
+        final List<ReplicaSet> replicaSets = ownedReplicaSets
                 .stream()
-                .filter(r -> r.getMetadata().getOwnerReferences().get(0).getUid()
-                        .equals(deployment.getMetadata().getUid()))
                 .filter(r -> revision.equals(r.getMetadata().getAnnotations().get(DEPLOYMENT_REVISION_ANNOTATION)))
                 .collect(Collectors.toList());
         if (replicaSets.size() != 1) {
@@ -817,6 +990,15 @@ public abstract class BaseResourcesFactory<T> {
         return replicas == ready && available == ready;
     }
 
+    private static Map<String, String> getDeploymentSelector(Deployment deployment) {
+        if (deployment.getSpec() == null
+                || deployment.getSpec().getSelector() == null
+                || deployment.getSpec().getSelector().getMatchLabels() == null) {
+            return Map.of();
+        }
+        return deployment.getSpec().getSelector().getMatchLabels();
+    }
+
     public static boolean isPodReady(Pod pod) {
         if (pod == null) {
             return false;
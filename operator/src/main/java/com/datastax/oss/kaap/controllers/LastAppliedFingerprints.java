@@ -0,0 +1,87 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * Canonical hashes of the last applied spec, used by the 'Compact' last applied mode in place of the full spec copies.
+ * The common fingerprint has one hash per top level section of the spec (e.g. 'global' and the component section),
+ * the sets fingerprints have one hash per resource set.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LastAppliedFingerprints {
+
+    private Map<String, String> common;
+    private Map<String, String> sets;
+
+    public static String hash(Object object) {
+        return DigestUtils.sha256Hex(SerializationUtil.writeAsSortedJsonBytes(object));
+    }
+
+    /**
+     * Compute one hash for each top level field of the spec.
+     */
+    public static Map<String, String> sections(Object spec) {
+        final Map<String, Object> asMap = SerializationUtil.convertValue(spec, Map.class);
+        final Map<String, String> result = new TreeMap<>();
+        for (Map.Entry<String, Object> section : asMap.entrySet()) {
+            if (section.getValue() != null) {
+                result.put(section.getKey(), hash(section.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the names of the sections that are different between the two fingerprints.
+     */
+    public static List<String> changedSections(Map<String, String> previous, Map<String, String> current) {
+        final Set<String> all = new TreeSet<>(current.keySet());
+        all.addAll(previous.keySet());
+        final List<String> changed = new ArrayList<>();
+        for (String section : all) {
+            if (!Objects.equals(previous.get(section), current.get(section))) {
+                changed.add(section);
+            }
+        }
+        return changed;
+    }
+
+    public static LastAppliedFingerprints ofSpec(Object spec) {
+        return new LastAppliedFingerprints(sections(spec), null);
+    }
+
+    public static LastAppliedFingerprints ofSets() {
+        return new LastAppliedFingerprints(null, new HashMap<>());
+    }
+}
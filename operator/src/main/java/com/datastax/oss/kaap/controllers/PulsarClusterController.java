@@ -22,6 +22,7 @@ import com.datastax.oss.kaap.controllers.bookkeeper.BookKeeperController;
 import com.datastax.oss.kaap.controllers.broker.BrokerController;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
 import com.datastax.oss.kaap.controllers.utils.CertManagerCertificatesProvisioner;
+import com.datastax.oss.kaap.controllers.utils.DependencyGraphExecutor;
 import com.datastax.oss.kaap.controllers.utils.TokenAuthProvisioner;
 import com.datastax.oss.kaap.crds.BaseComponentStatus;
 import com.datastax.oss.kaap.crds.CRDConstants;
@@ -47,6 +48,7 @@ import com.datastax.oss.kaap.crds.proxy.Proxy;
 import com.datastax.oss.kaap.crds.proxy.ProxyFullSpec;
 import com.datastax.oss.kaap.crds.zookeeper.ZooKeeper;
 import com.datastax.oss.kaap.crds.zookeeper.ZooKeeperFullSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.api.model.Condition;
 import io.fabric8.kubernetes.api.model.KubernetesResourceList;
 import io.fabric8.kubernetes.api.model.ObjectMeta;
@@ -55,20 +57,31 @@ import io.fabric8.kubernetes.client.CustomResource;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.dsl.MixedOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceContext;
+import io.javaoperatorsdk.operator.api.reconciler.EventSourceInitializer;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.EventSource;
+import io.javaoperatorsdk.operator.processing.event.source.ResourceEventAware;
 import io.quarkus.runtime.ShutdownEvent;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import javax.enterprise.context.ApplicationScoped;
 import javax.enterprise.event.Observes;
 import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-cluster-app")
+@ControllerConfiguration(name = "pulsar-cluster-app")
 @JBossLog
 @ApplicationScoped
 public class PulsarClusterController extends AbstractController<PulsarCluster> {
@@ -86,12 +99,67 @@ public class PulsarClusterController extends AbstractController<PulsarCluster> {
     }
 
     private final AutoscalerDaemon autoscaler;
+    private final Map<String, ThreadPoolExecutor> executors = new HashMap<>();
+    // namespace -> clusters reconciled with the executor of the namespace
+    private final Map<String, Set<String>> namespaceClusters = new HashMap<>();
 
     public PulsarClusterController(KubernetesClient client) {
         super(client);
         autoscaler = new AutoscalerDaemon(client);
     }
 
+    @Override
+    protected List<EventSource> createOwnedResourcesEventSources(Class<PulsarCluster> resourceClass) {
+        // the cluster owns only the components custom resources
+        return List.of();
+    }
+
+    @Override
+    public Map<String, EventSource> prepareEventSources(EventSourceContext<PulsarCluster> context) {
+        final Map<String, EventSource> eventSources = new HashMap<>(super.prepareEventSources(context));
+        eventSources.putAll(EventSourceInitializer.nameEventSources(new ClusterDeletedEventSource()));
+        return eventSources;
+    }
+
+    private class ClusterDeletedEventSource extends AbstractEventSource
+            implements ResourceEventAware<PulsarCluster> {
+        @Override
+        public void onResourceDeleted(PulsarCluster resource) {
+            onClusterDeleted(resource);
+        }
+    }
+
+    /**
+     * Release the executor and the throttling state of the namespace once its last cluster is deleted.
+     */
+    synchronized void onClusterDeleted(PulsarCluster resource) {
+        final String namespace = resource.getMetadata().getNamespace();
+        final Set<String> clusters = namespaceClusters.get(namespace);
+        if (clusters != null) {
+            clusters.remove(resource.getMetadata().getName());
+            if (!clusters.isEmpty()) {
+                return;
+            }
+            namespaceClusters.remove(namespace);
+        }
+        final ThreadPoolExecutor executor = executors.remove(namespace);
+        if (executor != null) {
+            log.infof("Stopping cluster reconciliation pool for namespace %s", namespace);
+            executor.shutdown();
+            OperatorMetrics.unmonitorExecutorQueue("cluster-" + namespace);
+        }
+        if (namespaceThrottler != null) {
+            namespaceThrottler.remove(namespace);
+        }
+    }
+
+    @Override
+    protected void onShardLost(PulsarCluster resource) {
+        final String namespace = resource.getMetadata().getNamespace();
+        autoscaler.getBrokerAutoscalerDaemon().stop(namespace);
+        autoscaler.getBookKeeperAutoscalerDaemon().stop(namespace);
+    }
+
     @Override
     protected ReconciliationResult patchResources(PulsarCluster resource, Context<PulsarCluster> context)
             throws Exception {
@@ -103,7 +171,40 @@ public class PulsarClusterController extends AbstractController<PulsarCluster> {
         generateSecretsIfAbsent(currentNamespace, clusterSpec);
         setupTls(currentNamespace, clusterSpec);
 
-        if (!checkReadyOrPatchZooKeeper(currentNamespace, clusterSpec, ownerReference)) {
+        adjustProxyFunctionsWorkerDeployment(clusterSpec);
+        adjustBastionTarget(clusterSpec);
+
+        final DependencyGraphExecutor graph = new DependencyGraphExecutor(getExecutor(resource));
+        final Map<String, DependencyGraphExecutor.StepResult> results = graph
+                .addStep(CUSTOM_RESOURCE_ZOOKEEPER,
+                        () -> checkReadyOrPatchZooKeeper(currentNamespace, clusterSpec, ownerReference))
+                .addStep(CUSTOM_RESOURCE_BOOKKEEPER, () -> {
+                    final boolean ready = checkReadyOrPatchBookKeeper(currentNamespace, clusterSpec, ownerReference);
+                    if (ready) {
+                        autoscaler.getBookKeeperAutoscalerDaemon().onSpecChange(clusterSpec, currentNamespace);
+                    }
+                    return ready;
+                }, CUSTOM_RESOURCE_ZOOKEEPER)
+                .addStep(CUSTOM_RESOURCE_BROKER, () -> {
+                    final boolean ready = checkReadyOrPatchBroker(currentNamespace, clusterSpec, ownerReference);
+                    autoscaler.getBrokerAutoscalerDaemon().onSpecChange(clusterSpec, currentNamespace);
+                    return ready;
+                }, CUSTOM_RESOURCE_BOOKKEEPER)
+                .addStep(CUSTOM_RESOURCE_PROXY,
+                        () -> checkReadyOrPatchProxy(currentNamespace, clusterSpec, ownerReference),
+                        CUSTOM_RESOURCE_BOOKKEEPER)
+                .addStep(CUSTOM_RESOURCE_BASTION,
+                        () -> checkReadyOrPatchBastion(currentNamespace, clusterSpec, ownerReference),
+                        CUSTOM_RESOURCE_BOOKKEEPER)
+                .addStep(CUSTOM_RESOURCE_FUNCTIONS_WORKER,
+                        () -> checkReadyOrPatchFunctionsWorker(currentNamespace, clusterSpec, ownerReference),
+                        CUSTOM_RESOURCE_BROKER)
+                .addStep(CUSTOM_RESOURCE_AUTORECOVERY,
+                        () -> checkReadyOrPatchAutorecovery(currentNamespace, clusterSpec, ownerReference),
+                        CUSTOM_RESOURCE_BOOKKEEPER)
+                .execute();
+
+        if (results.get(CUSTOM_RESOURCE_ZOOKEEPER) != DependencyGraphExecutor.StepResult.READY) {
             log.info("waiting for zookeeper to become ready");
             return new ReconciliationResult(
                     true,
@@ -111,37 +212,24 @@ public class PulsarClusterController extends AbstractController<PulsarCluster> {
             );
         }
 
-
-        if (!checkReadyOrPatchBookKeeper(currentNamespace, clusterSpec, ownerReference)) {
+        if (results.get(CUSTOM_RESOURCE_BOOKKEEPER) != DependencyGraphExecutor.StepResult.READY) {
             log.info("waiting for bookkeeper to become ready");
             return new ReconciliationResult(
                     true,
                     List.of(createNotReadyInitializingCondition(resource))
             );
         }
-        autoscaler.getBookKeeperAutoscalerDaemon().onSpecChange(clusterSpec, currentNamespace);
-
-        final boolean brokerReady = checkReadyOrPatchBroker(currentNamespace, clusterSpec, ownerReference);
-        autoscaler.getBrokerAutoscalerDaemon().onSpecChange(clusterSpec, currentNamespace);
-
-        adjustProxyFunctionsWorkerDeployment(clusterSpec);
-        final boolean proxyReady = checkReadyOrPatchProxy(currentNamespace, clusterSpec, ownerReference);
 
-        adjustBastionTarget(clusterSpec);
-        final boolean bastionReady = checkReadyOrPatchBastion(currentNamespace, clusterSpec, ownerReference);
-        boolean functionsWorkerReady = false;
-        if (brokerReady) {
-            functionsWorkerReady =
-                    checkReadyOrPatchFunctionsWorker(currentNamespace, clusterSpec, ownerReference);
+        final List<String> notReady = new ArrayList<>();
+        for (String component : List.of(CUSTOM_RESOURCE_AUTORECOVERY, CUSTOM_RESOURCE_BROKER, CUSTOM_RESOURCE_PROXY,
+                CUSTOM_RESOURCE_BASTION, CUSTOM_RESOURCE_FUNCTIONS_WORKER)) {
+            // functions worker is skipped until the broker is ready, the broker is already reported in that case
+            if (results.get(component) == DependencyGraphExecutor.StepResult.NOT_READY) {
+                notReady.add(component);
+            }
         }
-        final boolean autorecoveryReady = checkReadyOrPatchAutorecovery(currentNamespace, clusterSpec, ownerReference);
-
-        boolean allReady = autorecoveryReady
-                && brokerReady
-                && proxyReady
-                && bastionReady
-                && functionsWorkerReady;
-
+        final boolean allReady = notReady.isEmpty()
+                && results.get(CUSTOM_RESOURCE_FUNCTIONS_WORKER) == DependencyGraphExecutor.StepResult.READY;
 
         if (allReady) {
             log.info("all resources ready, setting cluster to ready state");
@@ -150,23 +238,6 @@ public class PulsarClusterController extends AbstractController<PulsarCluster> {
                     List.of(createReadyCondition(resource))
             );
         } else {
-            List<String> notReady = new ArrayList<>();
-            if (!autorecoveryReady) {
-                notReady.add("autorecovery");
-            }
-            if (!brokerReady) {
-                notReady.add("broker");
-            }
-            if (!proxyReady) {
-                notReady.add("proxy");
-            }
-            if (!bastionReady) {
-                notReady.add("bastion");
-            }
-            if (!functionsWorkerReady && brokerReady) {
-                notReady.add("functionsworker");
-            }
-
             log.infof("waiting for %s to become ready", notReady);
 
             return new ReconciliationResult(
@@ -177,6 +248,24 @@ public class PulsarClusterController extends AbstractController<PulsarCluster> {
 
     }
 
+    /**
+     * Each namespace has its own pool, so the components of a slow cluster don't delay the other namespaces.
+     * Idle threads are released, so namespaces without ongoing reconciliations don't hold any thread.
+     */
+    private synchronized ExecutorService getExecutor(PulsarCluster resource) {
+        final String namespace = resource.getMetadata().getNamespace();
+        namespaceClusters.computeIfAbsent(namespace, ns -> new HashSet<>()).add(resource.getMetadata().getName());
+        return executors.computeIfAbsent(namespace, ns -> {
+            final int parallelism = operatorRuntimeConfiguration.clusterReconciliationParallelism();
+            log.infof("Starting cluster reconciliation pool for namespace %s with %d threads", ns, parallelism);
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                    60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+            executor.allowCoreThreadTimeOut(true);
+            OperatorMetrics.monitorExecutorQueue("cluster-" + ns, executor);
+            return executor;
+        });
+    }
+
     private void adjustBastionTarget(PulsarClusterSpec clusterSpec) {
         if (clusterSpec.getBastion() == null
                 || clusterSpec.getBastion().getTargetProxy() == null) {
@@ -463,5 +552,10 @@ public class PulsarClusterController extends AbstractController<PulsarCluster> {
         if (autoscaler != null) {
             autoscaler.close();
         }
+        synchronized (this) {
+            executors.values().forEach(ExecutorService::shutdownNow);
+            executors.clear();
+            namespaceClusters.clear();
+        }
     }
 }
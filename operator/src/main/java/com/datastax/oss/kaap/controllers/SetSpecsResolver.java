@@ -0,0 +1,56 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.crds.ConfigUtil;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.SneakyThrows;
+
+/**
+ * Resolves the resource sets of a component spec, applying the component spec as default of each set.
+ * It's stateless, so it can be used outside of the controllers (e.g. by the autoscalers) without
+ * building a controller instance.
+ */
+public final class SetSpecsResolver {
+
+    private SetSpecsResolver() {
+    }
+
+    /**
+     * @param spec           the component spec, used as default for each set
+     * @param sets           the declared sets, they are updated in place with the defaults
+     * @param defaultSetName the name of the set to return if no set is declared
+     * @return the sets with the defaults applied, in declaration order
+     */
+    @SneakyThrows
+    public static <SPEC extends SETSPEC, SETSPEC> LinkedHashMap<String, SETSPEC> resolve(SPEC spec,
+                                                                                        Map<String, SETSPEC> sets,
+                                                                                        String defaultSetName) {
+        final LinkedHashMap<String, SETSPEC> result = new LinkedHashMap<>();
+        if (sets == null || sets.isEmpty()) {
+            final SPEC defaultSet = (SPEC) spec.getClass().getConstructor().newInstance();
+            result.put(defaultSetName, ConfigUtil.applyDefaultsWithReflection(defaultSet, () -> spec));
+        } else {
+            for (Map.Entry<String, SETSPEC> set : sets.entrySet()) {
+                final SETSPEC resolved = ConfigUtil.applyDefaultsWithReflection(set.getValue(), () -> spec);
+                set.setValue(resolved);
+                result.put(set.getKey(), resolved);
+            }
+        }
+        return result;
+    }
+}
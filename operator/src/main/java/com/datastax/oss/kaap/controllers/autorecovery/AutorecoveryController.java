@@ -21,14 +21,13 @@ import com.datastax.oss.kaap.crds.autorecovery.Autorecovery;
 import com.datastax.oss.kaap.crds.autorecovery.AutorecoveryFullSpec;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import java.util.List;
 import lombok.extern.jbosslog.JBossLog;
 
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-autorecovery-controller")
+@ControllerConfiguration(name = "pulsar-autorecovery-controller")
 @JBossLog
 public class AutorecoveryController extends AbstractController<Autorecovery> {
 
@@ -43,11 +42,12 @@ public class AutorecoveryController extends AbstractController<Autorecovery> {
 
         final AutorecoveryResourcesFactory
                 resourcesFactory = new AutorecoveryResourcesFactory(
-                client, namespace, spec.getAutorecovery(), spec.getGlobal(), getOwnerReference(resource));
+                client, namespace, spec.getAutorecovery(), spec.getGlobal(), getOwnerReference(resource),
+                resourcesCache);
 
 
         if (!areSpecChanged(resource)) {
-            return checkReady(resource, resourcesFactory);
+            return timedCheckReady(resource, () -> checkReady(resource, resourcesFactory));
         } else {
             patchAll(resourcesFactory);
             return new ReconciliationResult(
@@ -77,7 +77,7 @@ public class AutorecoveryController extends AbstractController<Autorecovery> {
             return new ReconciliationResult(true,
                     List.of(createNotReadyInitializingCondition(resource)));
         } else {
-            if (BaseResourcesFactory.isDeploymentReady(deployment, client)) {
+            if (BaseResourcesFactory.isDeploymentReady(deployment, client, resourcesCache)) {
                 return new ReconciliationResult(
                         false,
                         List.of(createReadyCondition(resource))
@@ -17,6 +17,7 @@ package com.datastax.oss.kaap.controllers.autorecovery;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
 import com.datastax.oss.kaap.controllers.bookkeeper.BookKeeperResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.autorecovery.AutorecoverySpec;
 import io.fabric8.kubernetes.api.model.ConfigMap;
@@ -67,7 +68,15 @@ public class AutorecoveryResourcesFactory extends BaseResourcesFactory<Autorecov
     public AutorecoveryResourcesFactory(KubernetesClient client, String namespace,
                                         AutorecoverySpec spec, GlobalSpec global,
                                         OwnerReference ownerReference) {
-        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference);
+        this(client, namespace, spec, global, ownerReference, null);
+    }
+
+    public AutorecoveryResourcesFactory(KubernetesClient client, String namespace,
+                                        AutorecoverySpec spec, GlobalSpec global,
+                                        OwnerReference ownerReference,
+                                        SecondaryResourcesCache resourcesCache) {
+        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference,
+                resourcesCache);
     }
 
     @Override
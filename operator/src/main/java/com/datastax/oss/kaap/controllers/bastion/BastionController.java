@@ -21,14 +21,13 @@ import com.datastax.oss.kaap.crds.bastion.Bastion;
 import com.datastax.oss.kaap.crds.bastion.BastionFullSpec;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import java.util.List;
 import lombok.extern.jbosslog.JBossLog;
 
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-bastion-controller")
+@ControllerConfiguration(name = "pulsar-bastion-controller")
 @JBossLog
 public class BastionController extends AbstractController<Bastion> {
 
@@ -43,10 +42,11 @@ public class BastionController extends AbstractController<Bastion> {
 
         final BastionResourcesFactory
                 resourcesFactory = new BastionResourcesFactory(
-                client, namespace, spec.getBastion(), spec.getGlobal(), getOwnerReference(resource));
+                client, namespace, spec.getBastion(), spec.getGlobal(), getOwnerReference(resource),
+                resourcesCache);
 
         if (!areSpecChanged(resource)) {
-            return checkReady(resource, resourcesFactory);
+            return timedCheckReady(resource, () -> checkReady(resource, resourcesFactory));
         } else {
             patchAll(resourcesFactory);
             return new ReconciliationResult(
@@ -76,7 +76,7 @@ public class BastionController extends AbstractController<Bastion> {
             return new ReconciliationResult(true,
                     List.of(createNotReadyInitializingCondition(resource)));
         } else {
-            if (BaseResourcesFactory.isDeploymentReady(deployment, client)) {
+            if (BaseResourcesFactory.isDeploymentReady(deployment, client, resourcesCache)) {
                 return new ReconciliationResult(
                         false,
                         List.of(createReadyCondition(resource))
@@ -16,6 +16,7 @@
 package com.datastax.oss.kaap.controllers.bastion;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.bastion.BastionSpec;
 import io.fabric8.kubernetes.api.model.ConfigMap;
@@ -64,7 +65,15 @@ public class BastionResourcesFactory extends BaseResourcesFactory<BastionSpec> {
     public BastionResourcesFactory(KubernetesClient client, String namespace,
                                    BastionSpec spec, GlobalSpec global,
                                    OwnerReference ownerReference) {
-        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference);
+        this(client, namespace, spec, global, ownerReference, null);
+    }
+
+    public BastionResourcesFactory(KubernetesClient client, String namespace,
+                                   BastionSpec spec, GlobalSpec global,
+                                   OwnerReference ownerReference,
+                                   SecondaryResourcesCache resourcesCache) {
+        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference,
+                resourcesCache);
     }
 
     @Override
@@ -17,24 +17,24 @@ package com.datastax.oss.kaap.controllers.bookkeeper;
 
 import com.datastax.oss.kaap.autoscaler.bookkeeper.BookieAdminClient;
 import com.datastax.oss.kaap.autoscaler.bookkeeper.BookieDecommissionUtil;
-import com.datastax.oss.kaap.autoscaler.bookkeeper.PodExecBookieAdminClient;
-import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.autoscaler.bookkeeper.HttpBookieAdminClient;
 import com.datastax.oss.kaap.common.json.JSONComparator;
 import com.datastax.oss.kaap.controllers.AbstractResourceSetsController;
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.LastAppliedFingerprints;
+import com.datastax.oss.kaap.controllers.SetSpecsResolver;
 import com.datastax.oss.kaap.controllers.bookkeeper.racks.BookKeeperRackDaemon;
 import com.datastax.oss.kaap.controllers.bookkeeper.racks.client.ZkClientRackClientFactory;
 import com.datastax.oss.kaap.crds.GlobalSpec;
-import com.datastax.oss.kaap.crds.SpecDiffer;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeper;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperFullSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSetSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSpec;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import io.quarkus.runtime.ShutdownEvent;
 import java.util.ArrayList;
@@ -49,7 +49,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-bk-controller")
+@ControllerConfiguration(name = "pulsar-bk-controller")
 @JBossLog
 public class BookKeeperController extends
         AbstractResourceSetsController<BookKeeper, BookKeeperFullSpec, BookKeeperSpec, BookKeeperSetSpec,
@@ -79,7 +79,8 @@ public class BookKeeperController extends
     }
 
     public static LinkedHashMap<String, BookKeeperSetSpec> getBookKeeperSetSpecs(BookKeeperSpec spec) {
-        return new BookKeeperController(null).getSetSpecs(spec);
+        return SetSpecsResolver.resolve(spec, spec.getSets(),
+                BookKeeperResourcesFactory.BOOKKEEPER_DEFAULT_SET);
     }
 
     @Data
@@ -89,6 +90,8 @@ public class BookKeeperController extends
             implements AbstractResourceSetsController.SetsLastApplied<BookKeeperFullSpec> {
         private BookKeeperFullSpec common;
         private Map<String, BookKeeperFullSpec> sets = new HashMap<>();
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private LastAppliedFingerprints fingerprints;
     }
 
 
@@ -101,6 +104,11 @@ public class BookKeeperController extends
         return new BookKeeperRackDaemon(client, new ZkClientRackClientFactory(client));
     }
 
+    @Override
+    protected void onShardLost(BookKeeper resource) {
+        bkRackDaemon.stop(resource.getMetadata().getNamespace());
+    }
+
     @Override
     protected String getComponentNameForLogs() {
         return "bookkeeper";
@@ -193,7 +201,8 @@ public class BookKeeperController extends
     @Override
     protected BookKeeperResourcesFactory newFactory(OwnerReference ownerReference, String namespace, String setName,
                                                     BookKeeperSetSpec setSpec, GlobalSpec globalSpec) {
-        return new BookKeeperResourcesFactory(client, namespace, setName, setSpec, globalSpec, ownerReference);
+        return new BookKeeperResourcesFactory(client, namespace, setName, setSpec, globalSpec, ownerReference,
+                resourcesCache);
     }
 
     @Override
@@ -201,55 +210,74 @@ public class BookKeeperController extends
             BookKeeper resource, SetInfo<BookKeeperSetSpec, BookKeeperResourcesFactory> setInfo,
             BookKeeperFullSpec spec,
             BookKeeperFullSpec lastApplied) {
-        if (spec.getBookkeeper().getSets() != null) {
-            spec = SerializationUtil.deepCloneObject(spec);
-            spec.getBookkeeper().getSets().entrySet()
-                    .removeIf(e -> !e.getKey().equals(setInfo.getName()));
-        }
+        return generateSetSpecDiff(setInfo.getName(), lastApplied, spec);
+    }
 
-        if (lastApplied != null && lastApplied.getBookkeeper().getSets() != null) {
-            lastApplied = SerializationUtil.deepCloneObject(lastApplied);
-            lastApplied.getBookkeeper().getSets().entrySet()
-                    .removeIf(e -> !e.getKey().equals(setInfo.getName()));
+    @Override
+    protected void beforeSetsPatched(BookKeeper resource, BookKeeperFullSpec spec,
+                                     List<SetInfo<BookKeeperSetSpec, BookKeeperResourcesFactory>> changedSets,
+                                     BookKeeperSetsLastApplied lastAppliedResource) {
+        for (SetInfo<BookKeeperSetSpec, BookKeeperResourcesFactory> setInfo : changedSets) {
+            decommissionBookiesIfNeeded(resource, setInfo, spec,
+                    lastAppliedResource.getSets().get(setInfo.getName()));
         }
-        final JSONComparator.Result result = SpecDiffer.generateDiff(lastApplied, spec);
-        if (!result.areEquals()) {
-            if (lastApplied != null) {
-                final BookKeeperSetSpec lastAppliedSetSpec =
-                        lastApplied.getBookkeeper().getBookKeeperSetSpecRef(setInfo.getName());
-                final BookKeeperSetSpec desiredSetSpec =
-                        spec.getBookkeeper().getBookKeeperSetSpecRef(setInfo.getName());
-                if (lastAppliedSetSpec != null && desiredSetSpec != null) {
+        final PulsarClusterSpec pulsarClusterSpec = PulsarClusterSpec.builder()
+                .global(spec.getGlobal())
+                .bookkeeper(spec.getBookkeeper())
+                .build();
+        final String namespace = resource.getMetadata().getNamespace();
+        bkRackDaemon.stop(namespace);
+        log.infof("Initializing bookie racks for bookkeeper-sets %s",
+                changedSets.stream().map(SetInfo::getName).toList());
+        bkRackDaemon.triggerSync(namespace, spec);
+        bkRackDaemon.onSpecChange(pulsarClusterSpec, namespace);
+    }
 
-                    final int currentReplicas = lastAppliedSetSpec.getReplicas().intValue();
-                    final int desiredReplicas = desiredSetSpec.getReplicas().intValue();
-                    final int delta = currentReplicas - desiredReplicas;
-                    if (delta > 0) {
-                        final BookieAdminClient bookieAdminClient =
-                                createBookieAdminClient(resource.getMetadata().getNamespace(),
-                                        setInfo.getName(), lastApplied);
+    private void decommissionBookiesIfNeeded(BookKeeper resource,
+                                             SetInfo<BookKeeperSetSpec, BookKeeperResourcesFactory> setInfo,
+                                             BookKeeperFullSpec spec,
+                                             BookKeeperFullSpec lastApplied) {
+        final BookKeeperSetSpec desiredSetSpec =
+                spec.getBookkeeper().getBookKeeperSetSpecRef(setInfo.getName());
+        if (desiredSetSpec == null) {
+            return;
+        }
+        final int currentReplicas;
+        final BookKeeperFullSpec adminClientSpec;
+        if (lastApplied != null) {
+            final BookKeeperSetSpec lastAppliedSetSpec =
+                    lastApplied.getBookkeeper().getBookKeeperSetSpecRef(setInfo.getName());
+            if (lastAppliedSetSpec == null) {
+                return;
+            }
+            currentReplicas = lastAppliedSetSpec.getReplicas().intValue();
+            adminClientSpec = lastApplied;
+        } else if (isCompactLastApplied(spec)) {
+            // the previous set spec is not retained in compact mode, the current replicas are read from the cluster
+            final StatefulSet sts = setInfo.getResourceFactory().getStatefulSet();
+            if (sts == null || sts.getSpec().getReplicas() == null) {
+                return;
+            }
+            currentReplicas = sts.getSpec().getReplicas();
+            adminClientSpec = spec;
+        } else {
+            return;
+        }
+        final int desiredReplicas = desiredSetSpec.getReplicas().intValue();
+        final int delta = currentReplicas - desiredReplicas;
+        if (delta > 0) {
+            final BookieAdminClient bookieAdminClient =
+                    createBookieAdminClient(resource.getMetadata().getNamespace(),
+                            setInfo.getName(), adminClientSpec);
 
-                        final int decommissioned = BookieDecommissionUtil
-                                .decommissionBookies(bookieAdminClient.collectBookieInfos(),
-                                        delta, bookieAdminClient);
-                        if (decommissioned != delta) {
-                            throw new IllegalStateException(
-                                    "Failed to decommission " + (delta - decommissioned) + " bookies, will retry");
-                        }
-                    }
-                }
+            final int decommissioned = BookieDecommissionUtil
+                    .decommissionBookies(bookieAdminClient.collectBookieInfos(),
+                            delta, bookieAdminClient);
+            if (decommissioned != delta) {
+                throw new IllegalStateException(
+                        "Failed to decommission " + (delta - decommissioned) + " bookies, will retry");
             }
-            final PulsarClusterSpec pulsarClusterSpec = PulsarClusterSpec.builder()
-                    .global(spec.getGlobal())
-                    .bookkeeper(spec.getBookkeeper())
-                    .build();
-            bkRackDaemon.cancelTasks();
-            final String namespace = resource.getMetadata().getNamespace();
-            log.infof("Initializing bookie racks for bookkeeper-set '%s'", setInfo.getName());
-            bkRackDaemon.triggerSync(namespace, spec);
-            bkRackDaemon.onSpecChange(pulsarClusterSpec, namespace);
         }
-        return result;
     }
 
     protected BookieAdminClient createBookieAdminClient(String namespace,
@@ -257,7 +285,7 @@ public class BookKeeperController extends
                                                         BookKeeperFullSpec lastApplied) {
         final BookKeeperSetSpec lastAppliedSetSpec =
                 lastApplied.getBookkeeper().getBookKeeperSetSpecRef(setName);
-        return new PodExecBookieAdminClient(client,
+        return HttpBookieAdminClient.newBookieAdminClient(client,
                 namespace,
                 lastApplied.getGlobalSpec(),
                 setName,
@@ -16,6 +16,7 @@
 package com.datastax.oss.kaap.controllers.bookkeeper;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSetSpec;
@@ -103,9 +104,17 @@ public class BookKeeperResourcesFactory extends BaseResourcesFactory<BookKeeperS
                                       String bookkeeperSetName,
                                       BookKeeperSetSpec spec, GlobalSpec global,
                                       OwnerReference ownerReference) {
+        this(client, namespace, bookkeeperSetName, spec, global, ownerReference, null);
+    }
+
+    public BookKeeperResourcesFactory(KubernetesClient client, String namespace,
+                                      String bookkeeperSetName,
+                                      BookKeeperSetSpec spec, GlobalSpec global,
+                                      OwnerReference ownerReference,
+                                      SecondaryResourcesCache resourcesCache) {
         super(client, namespace, getResourceName(global.getName(),
                         getComponentBaseName(global), bookkeeperSetName, spec.getOverrideResourceName()), spec, global,
-                ownerReference);
+                ownerReference, resourcesCache);
         this.bookkeeperSet = bookkeeperSetName;
     }
 
@@ -469,10 +478,14 @@ public class BookKeeperResourcesFactory extends BaseResourcesFactory<BookKeeperS
         final String journalPvPrefix = getJournalPvPrefix(spec, resourceName);
         final String ledgersPvPrefix = getLedgersPvPrefix(spec, resourceName);
         final AtomicInteger pvcCount = new AtomicInteger(0);
-        client.persistentVolumeClaims()
+        final Map<String, String> labels = getLabels(spec.getLabels());
+        final List<PersistentVolumeClaim> pvcs = resourcesCache != null
+                ? resourcesCache.list(PersistentVolumeClaim.class, namespace, labels)
+                : client.persistentVolumeClaims()
                 .inNamespace(namespace)
-                .withLabels(getLabels(spec.getLabels()))
-                .list().getItems().forEach(pvc -> {
+                .withLabels(labels)
+                .list().getItems();
+        pvcs.forEach(pvc -> {
                     String name = pvc.getMetadata().getName();
                     if (name.startsWith(journalPvPrefix)
                             || name.startsWith(ledgersPvPrefix)) {
@@ -21,12 +21,13 @@ import com.datastax.oss.kaap.controllers.bookkeeper.racks.client.BkRackClientFac
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperAutoRackConfig;
 import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperFullSpec;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import io.fabric8.kubernetes.client.KubernetesClient;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.jbosslog.JBossLog;
 
@@ -39,7 +40,9 @@ public class BookKeeperRackDaemon extends NamespacedDaemonThread<BookKeeperFullS
 
     public BookKeeperRackDaemon(KubernetesClient client, BkRackClientFactory bkRackClientFactory) {
         this.client = client;
-        this.executorService = Executors.newSingleThreadScheduledExecutor();
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        OperatorMetrics.monitorExecutorQueue("bookkeeper-racks", executor);
+        this.executorService = executor;
         this.bkRackClientFactory = bkRackClientFactory;
     }
 
@@ -15,20 +15,20 @@
  */
 package com.datastax.oss.kaap.controllers.broker;
 
-import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.common.json.JSONComparator;
 import com.datastax.oss.kaap.controllers.AbstractResourceSetsController;
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.LastAppliedFingerprints;
+import com.datastax.oss.kaap.controllers.SetSpecsResolver;
 import com.datastax.oss.kaap.crds.GlobalSpec;
-import com.datastax.oss.kaap.crds.SpecDiffer;
 import com.datastax.oss.kaap.crds.broker.Broker;
 import com.datastax.oss.kaap.crds.broker.BrokerFullSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSpec;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -41,7 +41,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-broker-controller")
+@ControllerConfiguration(name = "pulsar-broker-controller")
 @JBossLog
 public class BrokerController extends
         AbstractResourceSetsController<Broker, BrokerFullSpec, BrokerSpec, BrokerSetSpec,
@@ -69,7 +69,7 @@ public class BrokerController extends
     }
 
     public static LinkedHashMap<String, BrokerSetSpec> getBrokerSetSpecs(BrokerSpec spec) {
-        return new BrokerController(null).getSetSpecs(spec);
+        return SetSpecsResolver.resolve(spec, spec.getSets(), BrokerResourcesFactory.BROKER_DEFAULT_SET);
     }
 
     @Data
@@ -79,6 +79,8 @@ public class BrokerController extends
             implements AbstractResourceSetsController.SetsLastApplied<BrokerFullSpec> {
         private BrokerFullSpec common;
         private Map<String, BrokerFullSpec> sets = new HashMap<>();
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private LastAppliedFingerprints fingerprints;
     }
 
 
@@ -160,25 +162,15 @@ public class BrokerController extends
     @Override
     protected BrokerResourcesFactory newFactory(OwnerReference ownerReference, String namespace, String setName,
                                                 BrokerSetSpec setSpec, GlobalSpec globalSpec) {
-        return new BrokerResourcesFactory(client, namespace, setName, setSpec, globalSpec, ownerReference);
+        return new BrokerResourcesFactory(client, namespace, setName, setSpec, globalSpec, ownerReference,
+                resourcesCache);
     }
 
     @Override
     protected JSONComparator.Result compareLastAppliedSetSpec(Broker resource,
                                                               SetInfo<BrokerSetSpec, BrokerResourcesFactory> setInfo,
                                                               BrokerFullSpec spec, BrokerFullSpec lastApplied) {
-        if (spec.getBroker().getSets() != null) {
-            spec = SerializationUtil.deepCloneObject(spec);
-            spec.getBroker().getSets().entrySet()
-                    .removeIf(e -> !e.getKey().equals(setInfo.getName()));
-        }
-
-        if (lastApplied != null && lastApplied.getBroker().getSets() != null) {
-            lastApplied = SerializationUtil.deepCloneObject(lastApplied);
-            lastApplied.getBroker().getSets().entrySet()
-                    .removeIf(e -> !e.getKey().equals(setInfo.getName()));
-        }
-        return SpecDiffer.generateDiff(lastApplied, spec);
+        return generateSetSpecDiff(setInfo.getName(), lastApplied, spec);
     }
 
     @Override
@@ -16,6 +16,7 @@
 package com.datastax.oss.kaap.controllers.broker;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
@@ -81,10 +82,17 @@ public class BrokerResourcesFactory extends BaseResourcesFactory<BrokerSetSpec>
     public BrokerResourcesFactory(KubernetesClient client, String namespace,
                                   String brokerSetName, BrokerSetSpec spec, GlobalSpec global,
                                   OwnerReference ownerReference) {
+        this(client, namespace, brokerSetName, spec, global, ownerReference, null);
+    }
+
+    public BrokerResourcesFactory(KubernetesClient client, String namespace,
+                                  String brokerSetName, BrokerSetSpec spec, GlobalSpec global,
+                                  OwnerReference ownerReference,
+                                  SecondaryResourcesCache resourcesCache) {
         super(client, namespace, getResourceName(global.getName(),
                         getComponentBaseName(global), Objects.requireNonNull(brokerSetName),
                         spec.getOverrideResourceName()),
-                spec, global, ownerReference);
+                spec, global, ownerReference, resourcesCache);
         brokerSet = brokerSetName;
     }
 
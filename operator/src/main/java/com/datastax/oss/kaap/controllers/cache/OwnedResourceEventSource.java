@@ -0,0 +1,87 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.cache;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Triggers a reconciliation of the owner custom resource when the status of one of the owned resources changes
+ * or when an owned resource is deleted.
+ * It relies on the informers of the {@link SecondaryResourcesCache}, so no additional watch is opened.
+ */
+@JBossLog
+public class OwnedResourceEventSource<R extends HasMetadata> extends AbstractEventSource
+        implements ResourceEventHandler<R> {
+
+    private final Class<R> resourceClass;
+    private final String ownerKind;
+    private final Function<R, Object> statusFunction;
+
+    public OwnedResourceEventSource(SecondaryResourcesCache resourcesCache,
+                                    Class<R> resourceClass,
+                                    Class<? extends HasMetadata> ownerClass,
+                                    Function<R, Object> statusFunction) {
+        this.resourceClass = resourceClass;
+        this.ownerKind = HasMetadata.getKind(ownerClass);
+        this.statusFunction = statusFunction;
+        resourcesCache.addEventHandler(resourceClass, this);
+    }
+
+    @Override
+    public void onAdd(R resource) {
+        // creations are driven by the reconciliation itself
+    }
+
+    @Override
+    public void onUpdate(R oldResource, R newResource) {
+        if (!Objects.equals(statusFunction.apply(oldResource), statusFunction.apply(newResource))) {
+            triggerOwner(newResource);
+        }
+    }
+
+    @Override
+    public void onDelete(R resource, boolean deletedFinalStateUnknown) {
+        triggerOwner(resource);
+    }
+
+    private void triggerOwner(R resource) {
+        if (!isRunning()) {
+            return;
+        }
+        final List<OwnerReference> ownerReferences = resource.getMetadata().getOwnerReferences();
+        if (ownerReferences == null) {
+            return;
+        }
+        for (OwnerReference ownerReference : ownerReferences) {
+            if (ownerKind.equals(ownerReference.getKind())) {
+                final ResourceID owner = new ResourceID(ownerReference.getName(),
+                        resource.getMetadata().getNamespace());
+                log.debugf("%s %s changed, triggering reconciliation of %s %s", resourceClass.getSimpleName(),
+                        resource.getMetadata().getName(), ownerKind, owner);
+                getEventHandler().handleEvent(new Event(owner));
+            }
+        }
+    }
+}
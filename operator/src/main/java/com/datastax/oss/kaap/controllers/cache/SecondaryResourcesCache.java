@@ -0,0 +1,254 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.cache;
+
+import com.datastax.oss.kaap.crds.CRDConstants;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.PersistentVolumeClaim;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.v1.Job;
+import io.fabric8.kubernetes.api.model.policy.v1.PodDisruptionBudget;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.cache.Cache;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Shared read cache for the secondary resources owned by the operator.
+ * One informer is started lazily for each (resource kind, namespace) pair the first time it's requested. The
+ * informers only watch the resources with the {@link CRDConstants#LABEL_CLUSTER} label, the other resources of the
+ * namespace are not cached.
+ * Until the informer is synced, and for every lookup that misses the cache, reads fall back to the API server
+ * so callers always see a consistent view (e.g. a resource created a few milliseconds ago).
+ */
+@ApplicationScoped
+@JBossLog
+public class SecondaryResourcesCache implements AutoCloseable {
+
+    public static final String INDEX_CLUSTER = "by-cluster";
+    public static final String INDEX_OWNER = "by-owner";
+
+    public static final Set<Class<? extends HasMetadata>> CACHED_RESOURCES = Set.of(
+            StatefulSet.class,
+            Deployment.class,
+            ReplicaSet.class,
+            Service.class,
+            ConfigMap.class,
+            PodDisruptionBudget.class,
+            Job.class,
+            PersistentVolumeClaim.class
+    );
+
+    private record InformerKey(Class<? extends HasMetadata> resourceClass, String namespace) {
+    }
+
+    private final KubernetesClient client;
+    private final Map<InformerKey, SharedIndexInformer<? extends HasMetadata>> informers = new ConcurrentHashMap<>();
+    private final Map<Class<? extends HasMetadata>, List<ResourceEventHandler<? extends HasMetadata>>> eventHandlers =
+            new HashMap<>();
+    private volatile boolean closed;
+
+    @Inject
+    public SecondaryResourcesCache(KubernetesClient client) {
+        this.client = client;
+    }
+
+    public static boolean isCached(Class<? extends HasMetadata> resourceClass) {
+        return CACHED_RESOURCES.contains(resourceClass);
+    }
+
+    /**
+     * Register a handler notified of every change of the given resource kind.
+     * The handler is attached to the informers already started and to the ones started later on.
+     */
+    public <R extends HasMetadata> void addEventHandler(Class<R> resourceClass, ResourceEventHandler<R> handler) {
+        synchronized (eventHandlers) {
+            eventHandlers.computeIfAbsent(resourceClass, k -> new ArrayList<>()).add(handler);
+            informers.forEach((key, informer) -> {
+                if (key.resourceClass() == resourceClass) {
+                    ((SharedIndexInformer<R>) informer).addEventHandler(handler);
+                }
+            });
+        }
+    }
+
+    public <R extends HasMetadata> R get(Class<R> resourceClass, String namespace, String name) {
+        final SharedIndexInformer<R> informer = getSyncedInformer(resourceClass, namespace);
+        if (informer != null) {
+            final R cached = informer.getIndexer().getByKey(Cache.namespaceKeyFunc(namespace, name));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return client.resources(resourceClass)
+                .inNamespace(namespace)
+                .withName(name)
+                .get();
+    }
+
+    public <R extends HasMetadata> List<R> list(Class<R> resourceClass, String namespace,
+                                                Map<String, String> labels) {
+        // the resources without the cluster label are not in the cache
+        final SharedIndexInformer<R> informer = labels != null && labels.containsKey(CRDConstants.LABEL_CLUSTER)
+                ? getSyncedInformer(resourceClass, namespace) : null;
+        if (informer == null) {
+            if (labels == null || labels.isEmpty()) {
+                return client.resources(resourceClass).inNamespace(namespace).list().getItems();
+            }
+            return client.resources(resourceClass).inNamespace(namespace).withLabels(labels).list().getItems();
+        }
+        return informer.getIndexer().byIndex(INDEX_CLUSTER, labels.get(CRDConstants.LABEL_CLUSTER)).stream()
+                .filter(r -> matchLabels(r, labels))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * List the resources owned by the given owner uid.
+     * When the informer is synced, the lookup goes through the owner index; otherwise the API server is queried
+     * using the given label selector (usually the owner's selector) to limit the number of returned objects.
+     */
+    public <R extends HasMetadata> List<R> listOwned(Class<R> resourceClass, String namespace, String ownerUid,
+                                                     Map<String, String> selector) {
+        final SharedIndexInformer<R> informer = getSyncedInformer(resourceClass, namespace);
+        final Collection<R> candidates = informer == null
+                ? list(resourceClass, namespace, selector)
+                : informer.getIndexer().byIndex(INDEX_OWNER, ownerUid);
+        return candidates.stream()
+                .filter(r -> isOwnedBy(r, ownerUid))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Whether the resource has an owner reference to the given uid.
+     * A resource without owner references is never owned, so it's excluded instead of failing the lookup.
+     */
+    public static boolean isOwnedBy(HasMetadata resource, String ownerUid) {
+        final List<OwnerReference> ownerReferences = resource.getMetadata().getOwnerReferences();
+        if (ownerReferences == null || ownerUid == null) {
+            return false;
+        }
+        for (OwnerReference ownerReference : ownerReferences) {
+            if (ownerUid.equals(ownerReference.getUid())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchLabels(HasMetadata resource, Map<String, String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return true;
+        }
+        final Map<String, String> resourceLabels = resource.getMetadata().getLabels();
+        if (resourceLabels == null) {
+            return false;
+        }
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            if (!Objects.equals(resourceLabels.get(label.getKey()), label.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <R extends HasMetadata> SharedIndexInformer<R> getSyncedInformer(Class<R> resourceClass,
+                                                                             String namespace) {
+        if (closed || namespace == null || !isCached(resourceClass)) {
+            return null;
+        }
+        final SharedIndexInformer<R> informer = (SharedIndexInformer<R>) informers.computeIfAbsent(
+                new InformerKey(resourceClass, namespace), key -> startInformer(key, resourceClass));
+        if (informer == null || !informer.hasSynced()) {
+            return null;
+        }
+        return informer;
+    }
+
+    private <R extends HasMetadata> SharedIndexInformer<R> startInformer(InformerKey key, Class<R> resourceClass) {
+        log.infof("Starting informer for %s in namespace %s", resourceClass.getSimpleName(), key.namespace());
+        final SharedIndexInformer<R> informer = client.resources(resourceClass)
+                .inNamespace(key.namespace())
+                .withLabel(CRDConstants.LABEL_CLUSTER)
+                .runnableInformer(0);
+        informer.addIndexers(Map.of(
+                INDEX_CLUSTER, labelIndexFunc(CRDConstants.LABEL_CLUSTER),
+                INDEX_OWNER, SecondaryResourcesCache::ownerIndexFunc
+        ));
+        synchronized (eventHandlers) {
+            for (ResourceEventHandler<? extends HasMetadata> handler
+                    : eventHandlers.getOrDefault(resourceClass, List.of())) {
+                informer.addEventHandler((ResourceEventHandler<R>) handler);
+            }
+        }
+        informer.start().whenCompleteAsync((ignore, ex) -> {
+            if (ex != null) {
+                log.warnf(ex, "Unable to start informer for %s in namespace %s, reads will hit the API server",
+                        resourceClass.getSimpleName(), key.namespace());
+                informers.remove(key, informer);
+                informer.stop();
+            }
+        });
+        return informer;
+    }
+
+    private static <R extends HasMetadata> Function<R, List<String>> labelIndexFunc(String label) {
+        return resource -> {
+            final Map<String, String> labels = resource.getMetadata().getLabels();
+            if (labels == null || !labels.containsKey(label)) {
+                return List.of();
+            }
+            return List.of(labels.get(label));
+        };
+    }
+
+    private static <R extends HasMetadata> List<String> ownerIndexFunc(R resource) {
+        final List<OwnerReference> ownerReferences = resource.getMetadata().getOwnerReferences();
+        if (ownerReferences == null || ownerReferences.isEmpty()) {
+            return List.of();
+        }
+        return ownerReferences.stream()
+                .map(OwnerReference::getUid)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        closed = true;
+        informers.values().forEach(SharedIndexInformer::stop);
+        informers.clear();
+    }
+}
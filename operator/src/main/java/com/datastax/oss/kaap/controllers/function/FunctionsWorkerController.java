@@ -21,14 +21,13 @@ import com.datastax.oss.kaap.crds.function.FunctionsWorker;
 import com.datastax.oss.kaap.crds.function.FunctionsWorkerFullSpec;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import java.util.List;
 import lombok.extern.jbosslog.JBossLog;
 
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-fn-worker-controller")
+@ControllerConfiguration(name = "pulsar-fn-worker-controller")
 @JBossLog
 public class FunctionsWorkerController extends AbstractController<FunctionsWorker> {
 
@@ -43,11 +42,12 @@ public class FunctionsWorkerController extends AbstractController<FunctionsWorke
 
         final FunctionsWorkerResourcesFactory
                 resourcesFactory = new FunctionsWorkerResourcesFactory(
-                client, namespace, spec.getFunctionsWorker(), spec.getGlobal(), getOwnerReference(resource));
+                client, namespace, spec.getFunctionsWorker(), spec.getGlobal(), getOwnerReference(resource),
+                resourcesCache);
 
 
         if (!areSpecChanged(resource)) {
-            return checkReady(resource, resourcesFactory);
+            return timedCheckReady(resource, () -> checkReady(resource, resourcesFactory));
         } else {
             patchAll(resourcesFactory);
             return new ReconciliationResult(
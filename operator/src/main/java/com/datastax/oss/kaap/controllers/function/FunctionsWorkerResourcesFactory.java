@@ -17,6 +17,7 @@ package com.datastax.oss.kaap.controllers.function;
 
 import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.configs.AuthConfig;
 import com.datastax.oss.kaap.crds.configs.ProbesConfig;
@@ -91,7 +92,15 @@ public class FunctionsWorkerResourcesFactory extends BaseResourcesFactory<Functi
     public FunctionsWorkerResourcesFactory(KubernetesClient client, String namespace,
                                            FunctionsWorkerSpec spec, GlobalSpec global,
                                            OwnerReference ownerReference) {
-        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference);
+        this(client, namespace, spec, global, ownerReference, null);
+    }
+
+    public FunctionsWorkerResourcesFactory(KubernetesClient client, String namespace,
+                                           FunctionsWorkerSpec spec, GlobalSpec global,
+                                           OwnerReference ownerReference,
+                                           SecondaryResourcesCache resourcesCache) {
+        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference,
+                resourcesCache);
     }
 
     @Override
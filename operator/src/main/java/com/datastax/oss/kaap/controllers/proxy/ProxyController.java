@@ -15,20 +15,20 @@
  */
 package com.datastax.oss.kaap.controllers.proxy;
 
-import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.common.json.JSONComparator;
 import com.datastax.oss.kaap.controllers.AbstractResourceSetsController;
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.LastAppliedFingerprints;
+import com.datastax.oss.kaap.controllers.SetSpecsResolver;
 import com.datastax.oss.kaap.crds.GlobalSpec;
-import com.datastax.oss.kaap.crds.SpecDiffer;
 import com.datastax.oss.kaap.crds.proxy.Proxy;
 import com.datastax.oss.kaap.crds.proxy.ProxyFullSpec;
 import com.datastax.oss.kaap.crds.proxy.ProxySetSpec;
 import com.datastax.oss.kaap.crds.proxy.ProxySpec;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.fabric8.kubernetes.api.model.OwnerReference;
 import io.fabric8.kubernetes.api.model.apps.Deployment;
 import io.fabric8.kubernetes.client.KubernetesClient;
-import io.javaoperatorsdk.operator.api.reconciler.Constants;
 import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -41,7 +41,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.jbosslog.JBossLog;
 
 
-@ControllerConfiguration(namespaces = Constants.WATCH_CURRENT_NAMESPACE, name = "pulsar-proxy-controller")
+@ControllerConfiguration(name = "pulsar-proxy-controller")
 @JBossLog
 public class ProxyController
         extends AbstractResourceSetsController<Proxy, ProxyFullSpec, ProxySpec, ProxySetSpec, ProxyResourcesFactory,
@@ -63,7 +63,7 @@ public class ProxyController
     }
 
     public static LinkedHashMap<String, ProxySetSpec> getProxySetSpecs(ProxySpec proxy) {
-        return new ProxyController(null).getSetSpecs(proxy);
+        return SetSpecsResolver.resolve(proxy, proxy.getSets(), ProxyResourcesFactory.PROXY_DEFAULT_SET);
     }
 
     @Data
@@ -72,6 +72,8 @@ public class ProxyController
     public static class ProxySetsLastApplied implements SetsLastApplied<ProxyFullSpec> {
         private ProxyFullSpec common;
         private Map<String, ProxyFullSpec> sets = new HashMap<>();
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private LastAppliedFingerprints fingerprints;
     }
 
     @Override
@@ -135,7 +137,7 @@ public class ProxyController
             );
         }
         final Deployment deployment = resourcesFactory.getDeployment();
-        if (BaseResourcesFactory.isDeploymentReady(deployment, client)) {
+        if (BaseResourcesFactory.isDeploymentReady(deployment, client, resourcesCache)) {
             return new ReconciliationResult(
                     false,
                     List.of(createReadyCondition(resource))
@@ -158,7 +160,7 @@ public class ProxyController
                                                ProxySetSpec setSpec, GlobalSpec globalSpec) {
         return new ProxyResourcesFactory(
                 client, namespace, setName, setSpec,
-                globalSpec, ownerReference);
+                globalSpec, ownerReference, resourcesCache);
     }
 
     @Override
@@ -174,17 +176,6 @@ public class ProxyController
     protected JSONComparator.Result compareLastAppliedSetSpec(Proxy proxy,
                                                               SetInfo<ProxySetSpec, ProxyResourcesFactory> info,
                                                               ProxyFullSpec spec, ProxyFullSpec lastApplied) {
-        if (spec.getProxy().getSets() != null) {
-            spec = SerializationUtil.deepCloneObject(spec);
-            spec.getProxy().getSets().entrySet()
-                    .removeIf(e -> !e.getKey().equals(info.getName()));
-        }
-
-        if (lastApplied != null && lastApplied.getProxy().getSets() != null) {
-            lastApplied = SerializationUtil.deepCloneObject(lastApplied);
-            lastApplied.getProxy().getSets().entrySet()
-                    .removeIf(e -> !e.getKey().equals(info.getName()));
-        }
-        return SpecDiffer.generateDiff(lastApplied, spec);
+        return generateSetSpecDiff(info.getName(), lastApplied, spec);
     }
 }
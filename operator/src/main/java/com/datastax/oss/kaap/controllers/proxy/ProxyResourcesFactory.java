@@ -17,6 +17,7 @@ package com.datastax.oss.kaap.controllers.proxy;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.configs.AuthConfig;
@@ -117,9 +118,17 @@ public class ProxyResourcesFactory extends BaseResourcesFactory<ProxySetSpec> {
                                  String proxySetName,
                                  ProxySetSpec spec, GlobalSpec global,
                                  OwnerReference ownerReference) {
+        this(client, namespace, proxySetName, spec, global, ownerReference, null);
+    }
+
+    public ProxyResourcesFactory(KubernetesClient client, String namespace,
+                                 String proxySetName,
+                                 ProxySetSpec spec, GlobalSpec global,
+                                 OwnerReference ownerReference,
+                                 SecondaryResourcesCache resourcesCache) {
         super(client, namespace, getResourceName(global, getComponentBaseName(global), proxySetName, spec), spec,
                 global,
-                ownerReference);
+                ownerReference, resourcesCache);
         this.proxySet = proxySetName;
     }
 
@@ -0,0 +1,119 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import lombok.SneakyThrows;
+
+/**
+ * Runs a set of named steps honouring their dependencies.
+ * A step starts as soon as all of its dependencies are ready; independent steps run concurrently on the given
+ * executor. If any dependency is not ready, the step is skipped.
+ * Steps must be added after their dependencies, which also prevents cycles.
+ */
+public class DependencyGraphExecutor {
+
+    public enum StepResult {
+        READY,
+        NOT_READY,
+        SKIPPED
+    }
+
+    @FunctionalInterface
+    public interface Step {
+        boolean run() throws Exception;
+    }
+
+    private record StepDefinition(Step step, List<String> dependencies) {
+    }
+
+    private final Executor executor;
+    private final Map<String, StepDefinition> steps = new LinkedHashMap<>();
+
+    public DependencyGraphExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public DependencyGraphExecutor addStep(String name, Step step, String... dependencies) {
+        if (steps.containsKey(name)) {
+            throw new IllegalArgumentException("Step " + name + " already defined");
+        }
+        for (String dependency : dependencies) {
+            if (!steps.containsKey(dependency)) {
+                throw new IllegalArgumentException("Step " + name + " depends on unknown step " + dependency);
+            }
+        }
+        steps.put(name, new StepDefinition(step, List.of(dependencies)));
+        return this;
+    }
+
+    /**
+     * Execute all the steps and wait for them to complete.
+     * If a step fails, the dependent steps are not executed and the first error (in insertion order) is rethrown
+     * once all the other steps are completed.
+     *
+     * @return the result of each step, in insertion order.
+     */
+    @SneakyThrows
+    public Map<String, StepResult> execute() {
+        final Map<String, CompletableFuture<StepResult>> futures = new LinkedHashMap<>();
+        for (Map.Entry<String, StepDefinition> entry : steps.entrySet()) {
+            final StepDefinition definition = entry.getValue();
+            final List<CompletableFuture<StepResult>> dependencies = new ArrayList<>();
+            for (String dependency : definition.dependencies()) {
+                dependencies.add(futures.get(dependency));
+            }
+            final CompletableFuture<StepResult> future = CompletableFuture
+                    .allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenApplyAsync(ignore -> {
+                        for (CompletableFuture<StepResult> dependency : dependencies) {
+                            if (dependency.join() != StepResult.READY) {
+                                return StepResult.SKIPPED;
+                            }
+                        }
+                        return runStep(definition.step());
+                    }, executor);
+            futures.put(entry.getKey(), future);
+        }
+
+        final Map<String, StepResult> results = new LinkedHashMap<>();
+        Throwable error = null;
+        for (Map.Entry<String, CompletableFuture<StepResult>> entry : futures.entrySet()) {
+            try {
+                results.put(entry.getKey(), entry.getValue().join());
+            } catch (CompletionException ex) {
+                if (error == null) {
+                    error = ex.getCause() == null ? ex : ex.getCause();
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return results;
+    }
+
+    @SneakyThrows
+    private static StepResult runStep(Step step) {
+        return step.run() ? StepResult.READY : StepResult.NOT_READY;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter, tracked per key.
+ * The n-th consecutive failure waits a random delay between half and the full value of
+ * min(initial * 2^(n-1), max).
+ */
+public class ExponentialBackoff {
+
+    private final long initialDelayMs;
+    private final long maxDelayMs;
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    public ExponentialBackoff(long initialDelayMs, long maxDelayMs) {
+        this.initialDelayMs = initialDelayMs;
+        this.maxDelayMs = Math.max(initialDelayMs, maxDelayMs);
+    }
+
+    public long nextDelayMs(String key) {
+        final int attempt = failures.merge(key, 1, Integer::sum);
+        // cap the exponent to avoid overflows, the delay is capped anyway
+        final int exponent = Math.min(attempt - 1, 30);
+        final long delay = Math.min(maxDelayMs, initialDelayMs << exponent);
+        final long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+
+    public void reset(String key) {
+        failures.remove(key);
+    }
+}
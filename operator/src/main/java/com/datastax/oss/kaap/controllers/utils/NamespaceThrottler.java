@@ -0,0 +1,115 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.utils;
+
+import com.datastax.oss.kaap.OperatorRuntimeConfiguration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+
+/**
+ * Limits the reconciliations of each namespace, shared by all the controllers.
+ * A namespace can run at most a fixed number of reconciliations at the same time and, optionally, start at most a
+ * fixed number of reconciliations per second (token bucket). When a namespace is over its limits the reconciliation
+ * is postponed instead of waiting, so the reconciliation threads stay available for the other namespaces.
+ */
+@ApplicationScoped
+public class NamespaceThrottler {
+
+    static final long CONCURRENCY_RETRY_DELAY_MS = 1000;
+
+    private static class NamespaceState {
+        private int running;
+        private double tokens;
+        private long lastRefillNanos;
+    }
+
+    private final int maxConcurrency;
+    private final double permitsPerSecond;
+    private final LongSupplier nanoClock;
+    private final Map<String, NamespaceState> namespaces = new ConcurrentHashMap<>();
+
+    @Inject
+    public NamespaceThrottler(OperatorRuntimeConfiguration configuration) {
+        this(configuration.namespaceReconciliationMaxConcurrency(),
+                configuration.namespaceReconciliationsPerSecond(), System::nanoTime);
+    }
+
+    /**
+     * @param maxConcurrency   maximum reconciliations running at the same time in a namespace, 0 means no limit
+     * @param permitsPerSecond maximum reconciliations started per second in a namespace, 0 means no limit
+     */
+    public NamespaceThrottler(int maxConcurrency, double permitsPerSecond, LongSupplier nanoClock) {
+        this.maxConcurrency = maxConcurrency;
+        this.permitsPerSecond = permitsPerSecond;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Try to start a reconciliation in the namespace. If it returns 0 {@link #release(String)} must be called once
+     * the reconciliation is completed.
+     *
+     * @return 0 if the reconciliation can start, otherwise the delay in milliseconds before trying again.
+     */
+    public long tryAcquire(String namespace) {
+        final NamespaceState state = namespaces.computeIfAbsent(namespace, ns -> {
+            final NamespaceState newState = new NamespaceState();
+            newState.tokens = burst();
+            newState.lastRefillNanos = nanoClock.getAsLong();
+            return newState;
+        });
+        synchronized (state) {
+            if (maxConcurrency > 0 && state.running >= maxConcurrency) {
+                return CONCURRENCY_RETRY_DELAY_MS;
+            }
+            if (permitsPerSecond > 0) {
+                final long now = nanoClock.getAsLong();
+                state.tokens = Math.min(burst(),
+                        state.tokens + (now - state.lastRefillNanos) * permitsPerSecond / TimeUnit.SECONDS.toNanos(1));
+                state.lastRefillNanos = now;
+                if (state.tokens < 1) {
+                    return Math.max(1, (long) Math.ceil((1 - state.tokens) / permitsPerSecond * 1000));
+                }
+                state.tokens--;
+            }
+            state.running++;
+            return 0;
+        }
+    }
+
+    public void release(String namespace) {
+        final NamespaceState state = namespaces.get(namespace);
+        if (state != null) {
+            synchronized (state) {
+                state.running = Math.max(0, state.running - 1);
+            }
+        }
+    }
+
+    /**
+     * Forget the state of the namespace, called when its last PulsarCluster is deleted.
+     */
+    public void remove(String namespace) {
+        namespaces.remove(namespace);
+    }
+
+    private double burst() {
+        return Math.max(1, permitsPerSecond);
+    }
+}
@@ -16,6 +16,7 @@
 package com.datastax.oss.kaap.controllers.zookeeper;
 
 import com.datastax.oss.kaap.controllers.BaseResourcesFactory;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.configs.ProbesConfig;
 import com.datastax.oss.kaap.crds.configs.VolumeConfig;
@@ -92,7 +93,15 @@ public class ZooKeeperResourcesFactory extends BaseResourcesFactory<ZooKeeperSpe
     public ZooKeeperResourcesFactory(KubernetesClient client, String namespace,
                                      ZooKeeperSpec spec, GlobalSpec global,
                                      OwnerReference ownerReference) {
-        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference);
+        this(client, namespace, spec, global, ownerReference, null);
+    }
+
+    public ZooKeeperResourcesFactory(KubernetesClient client, String namespace,
+                                     ZooKeeperSpec spec, GlobalSpec global,
+                                     OwnerReference ownerReference,
+                                     SecondaryResourcesCache resourcesCache) {
+        super(client, namespace, getResourceName(global, getComponentBaseName(global)), spec, global, ownerReference,
+                resourcesCache);
     }
 
     @Override
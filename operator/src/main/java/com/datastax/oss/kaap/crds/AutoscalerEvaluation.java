@@ -0,0 +1,58 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.crds;
+
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An autoscaler check, saved in the status of the autoscaled component.
+ * Consecutive checks with the same decision and replicas are merged in a single evaluation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AutoscalerEvaluation {
+
+    public static final String DECISION_SCALE_UP = "ScaleUp";
+    public static final String DECISION_SCALE_DOWN = "ScaleDown";
+    public static final String DECISION_STABLE = "Stable";
+    public static final String DECISION_DRAINING = "Draining";
+    public static final String DECISION_SKIPPED = "Skipped";
+
+    @JsonPropertyDescription("When the last saved check was done. Checks that don't change the decision or "
+            + "the replicas are saved at most every 5 minutes.")
+    private String timestamp;
+    @JsonPropertyDescription("When the first of the merged checks was done.")
+    private String firstTimestamp;
+    @JsonPropertyDescription("Number of consecutive checks with the same decision and replicas.")
+    private Integer count;
+    @JsonPropertyDescription("Metrics of each pod observed by the last check.")
+    private Map<String, Map<String, Double>> metrics;
+    @JsonPropertyDescription("Decision of the autoscaler: " + DECISION_SCALE_UP + ", " + DECISION_SCALE_DOWN + ", "
+            + DECISION_STABLE + ", " + DECISION_DRAINING + " (waiting for the brokers to release their bundles) or "
+            + DECISION_SKIPPED + " (the pods are not ready).")
+    private String decision;
+    @JsonPropertyDescription("Why the decision was taken.")
+    private String reason;
+    @JsonPropertyDescription("Replicas after the check.")
+    private Integer replicas;
+}
@@ -15,74 +15,174 @@
  */
 package com.datastax.oss.kaap.crds;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 import lombok.SneakyThrows;
-import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 
 public class ConfigUtil {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ClassDefaulter> DEFAULTERS = new ClassValue<>() {
+        @Override
+        protected ClassDefaulter computeValue(Class<?> type) {
+            return ClassDefaulter.compile(type);
+        }
+    };
+
     private ConfigUtil() {
     }
 
-    @SneakyThrows
+    /**
+     * Fill the null fields of the object with the values of the default object, recursively.
+     * Collections are taken from the default object only if the object's one is null or empty, maps are merged and
+     * the object's entries win.
+     * If the object is null, a new instance of the default object class is populated.
+     * The default supplier is called once; the field accessors are computed once per class.
+     */
+    @SuppressWarnings("unchecked")
     public static <T> T applyDefaultsWithReflection(T object, Supplier<T> defaultObject) {
-        final Class<?> declaringClass;
+        return (T) applyDefaults(object, defaultObject.get());
+    }
+
+    private static Object applyDefaults(Object object, Object defaults) {
+        if (defaults == null) {
+            return object;
+        }
+        final ClassDefaulter defaultsClass = DEFAULTERS.get(defaults.getClass());
+        final ClassDefaulter objectClass;
         if (object == null) {
-            final T defObject = defaultObject.get();
-            if (defObject == null) {
-                return null;
-            }
-            object = (T) defObject.getClass().getConstructor().newInstance();
-            declaringClass = defObject.getClass();
+            object = defaultsClass.newInstance();
+            objectClass = defaultsClass;
         } else {
-            declaringClass = object.getClass();
+            objectClass = DEFAULTERS.get(object.getClass());
         }
-        final List<Field> allFields = FieldUtils.getAllFieldsList(declaringClass);
-        for (Field field : allFields) {
-            if (Modifier.isStatic(field.getModifiers())) {
-                continue;
+        for (FieldDefaulter field : objectClass.fields) {
+            final Object current = field.get(object);
+            final FieldDefaulter defaultField = objectClass == defaultsClass ? field : defaultsClass.field(field.name);
+            final Object defaultValue = defaultField.get(defaults);
+            final Object newValue = switch (field.kind) {
+                case COLLECTION -> handleCollections((Collection) defaultValue, (Collection) current);
+                case MAP -> mergeMaps((Map) defaultValue, (Map) current);
+                case VALUE -> current != null ? current : defaultValue;
+                case OBJECT -> applyDefaults(current, defaultValue);
+                case PRIMITIVE -> current;
+            };
+            if (newValue != current) {
+                field.set(object, newValue);
             }
-            final Object newValue;
-
-            if (Collection.class.isAssignableFrom(field.getType())) {
-                newValue = handleCollections(
-                        (Collection) readField(defaultObject.get(), field.getName()),
-                        (Collection) readField(object, field.getName()));
-            } else if (Map.class.isAssignableFrom(field.getType())) {
-                newValue = mergeMaps(
-                        (Map) readField(defaultObject.get(), field.getName()),
-                        (Map) readField(object, field.getName()));
-            } else if (field.getType().getName().startsWith("java.")) {
-                final Object finalObj = object;
-                newValue = ObjectUtils.getFirstNonNull(
-                        () -> readField(finalObj, field.getName()),
-                        () -> readField(defaultObject.get(), field.getName())
-                );
+        }
+        return object;
+    }
+
+    private enum FieldKind {
+        COLLECTION,
+        MAP,
+        VALUE,
+        OBJECT,
+        // primitives can't be null, the object value is always kept
+        PRIMITIVE
+    }
+
+    private record FieldDefaulter(String name, FieldKind kind, MethodHandle getter, MethodHandle setter) {
+
+        @SneakyThrows
+        static FieldDefaulter compile(Field field) {
+            final Class<?> type = field.getType();
+            final FieldKind kind;
+            if (Collection.class.isAssignableFrom(type)) {
+                kind = FieldKind.COLLECTION;
+            } else if (Map.class.isAssignableFrom(type)) {
+                kind = FieldKind.MAP;
+            } else if (type.isPrimitive()) {
+                kind = FieldKind.PRIMITIVE;
+            } else if (type.getName().startsWith("java.")) {
+                kind = FieldKind.VALUE;
             } else {
-                newValue = applyDefaultsWithReflection(
-                        readField(object, field.getName()),
-                        () -> readField(defaultObject.get(), field.getName())
-                );
+                kind = FieldKind.OBJECT;
             }
-            FieldUtils.writeField(field, object, newValue, true);
+            field.setAccessible(true);
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            return new FieldDefaulter(field.getName(), kind,
+                    lookup.unreflectGetter(field).asType(GETTER_TYPE),
+                    lookup.unreflectSetter(field).asType(SETTER_TYPE));
+        }
+
+        @SneakyThrows
+        Object get(Object object) {
+            return (Object) getter.invokeExact(object);
+        }
+
+        @SneakyThrows
+        void set(Object object, Object value) {
+            setter.invokeExact(object, value);
         }
-        return object;
     }
 
-    @SneakyThrows
-    private static Object readField(Object object, String fieldName) {
-        if (object == null) {
-            return null;
+    private static class ClassDefaulter {
+        private final Class<?> type;
+        private final MethodHandle constructor;
+        private final List<FieldDefaulter> fields;
+        private final Map<String, FieldDefaulter> fieldsByName;
+
+        private ClassDefaulter(Class<?> type, MethodHandle constructor, List<FieldDefaulter> fields) {
+            this.type = type;
+            this.constructor = constructor;
+            this.fields = fields;
+            this.fieldsByName = new HashMap<>();
+            // fields are ordered from the class to its superclasses, the nearest declaration hides the others
+            for (FieldDefaulter field : fields) {
+                fieldsByName.putIfAbsent(field.name(), field);
+            }
         }
 
-        final Object res = FieldUtils.readField(object, fieldName, true);
-        return res;
+        static ClassDefaulter compile(Class<?> type) {
+            final List<FieldDefaulter> fields = new ArrayList<>();
+            for (Field field : FieldUtils.getAllFieldsList(type)) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    fields.add(FieldDefaulter.compile(field));
+                }
+            }
+            MethodHandle constructor;
+            try {
+                final Constructor<?> noArgs = type.getConstructor();
+                noArgs.setAccessible(true);
+                constructor = MethodHandles.lookup().unreflectConstructor(noArgs)
+                        .asType(MethodType.methodType(Object.class));
+            } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+                // only needed if the class is used as default for a null object
+                constructor = null;
+            }
+            return new ClassDefaulter(type, constructor, List.copyOf(fields));
+        }
+
+        @SneakyThrows
+        Object newInstance() {
+            if (constructor == null) {
+                throw new NoSuchMethodException(type.getName() + ".<init>()");
+            }
+            return (Object) constructor.invokeExact();
+        }
+
+        FieldDefaulter field(String name) {
+            final FieldDefaulter field = fieldsByName.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Cannot locate field " + name + " on " + type);
+            }
+            return field;
+        }
     }
 
     public static <T> Map<String, T> mergeMaps(Map<String, T> parent, Map<String, T> child) {
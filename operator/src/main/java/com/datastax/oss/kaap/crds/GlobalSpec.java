@@ -27,6 +27,7 @@ import io.fabric8.generator.annotation.Required;
 import io.fabric8.kubernetes.api.model.PodDNSConfig;
 import io.fabric8.kubernetes.api.model.PodDNSConfigBuilder;
 import io.fabric8.kubernetes.api.model.PodDNSConfigOptionBuilder;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
@@ -52,6 +53,16 @@ public class GlobalSpec extends ValidableSpec<GlobalSpec> implements WithDefault
 
     public static final String DEFAULT_TLS_SECRET_NAME = "pulsar-tls";
 
+    public enum ResourcesApplyMode {
+        Patch,
+        ServerSideApply
+    }
+
+    public enum LastAppliedMode {
+        Full,
+        Compact
+    }
+
 
     /** See CRD docs for more info about this setting. */
     public static final String DNS_NDOTS = "4";
@@ -223,6 +234,17 @@ public class GlobalSpec extends ValidableSpec<GlobalSpec> implements WithDefault
             + "versions of Apache Zookeeper (<3.8.0) does not support getting password from file. In that case, set "
             + "this to true.")
     private Boolean zookeeperPlainSslStorePassword;
+    @JsonPropertyDescription("How the operator writes the managed Kubernetes resources. 'Patch' reads the current "
+            + "resource and sends a JSON patch. 'ServerSideApply' applies every resource with server-side apply and "
+            + "the 'kaap' field manager at each reconciliation, so the changes made by others to the fields owned by "
+            + "the operator are reverted. Immutable resources like Jobs are only recreated when their configuration "
+            + "changed. Default is 'Patch'.")
+    private String applyMode;
+    @JsonPropertyDescription("How the operator tracks the last applied spec in the status of the resources. 'Full' "
+            + "stores a full copy of the spec for each component and each resource set. 'Compact' stores canonical "
+            + "hashes of the spec sections instead, which keeps the status small for large specs with many sets. "
+            + "Default is 'Full'.")
+    private String lastAppliedMode;
 
     @Override
     public void applyDefaults(GlobalSpec globalSpec) {
@@ -260,6 +282,12 @@ public class GlobalSpec extends ValidableSpec<GlobalSpec> implements WithDefault
         if (zookeeperPlainSslStorePassword == null) {
             zookeeperPlainSslStorePassword = false;
         }
+        if (applyMode == null) {
+            applyMode = ResourcesApplyMode.Patch.toString();
+        }
+        if (lastAppliedMode == null) {
+            lastAppliedMode = LastAppliedMode.Full.toString();
+        }
     }
 
     private void applyTlsDefaults() {
@@ -317,6 +345,22 @@ public class GlobalSpec extends ValidableSpec<GlobalSpec> implements WithDefault
 
     @Override
     public boolean isValid(GlobalSpec value, ConstraintValidatorContext context) {
+        if (value.getApplyMode() != null && Arrays.stream(ResourcesApplyMode.values())
+                .noneMatch(s -> s.toString().equals(value.getApplyMode()))) {
+            context.buildConstraintViolationWithTemplate(
+                            "Invalid apply mode: %s, only %s".formatted(value.getApplyMode(),
+                                    Arrays.toString(ResourcesApplyMode.values())))
+                    .addConstraintViolation();
+            return false;
+        }
+        if (value.getLastAppliedMode() != null && Arrays.stream(LastAppliedMode.values())
+                .noneMatch(s -> s.toString().equals(value.getLastAppliedMode()))) {
+            context.buildConstraintViolationWithTemplate(
+                            "Invalid last applied mode: %s, only %s".formatted(value.getLastAppliedMode(),
+                                    Arrays.toString(LastAppliedMode.values())))
+                    .addConstraintViolation();
+            return false;
+        }
         return true;
     }
 }
@@ -16,14 +16,18 @@
 package com.datastax.oss.kaap.crds;
 
 import com.datastax.oss.kaap.common.SerializationUtil;
-import com.datastax.oss.kaap.common.json.JSONAssertComparator;
 import com.datastax.oss.kaap.common.json.JSONComparator;
+import com.datastax.oss.kaap.common.json.JSONTreeComparator;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
 import lombok.extern.jbosslog.JBossLog;
 
 @JBossLog
 public class SpecDiffer {
 
+    private static final JSONTreeComparator COMPARATOR = new JSONTreeComparator();
+
     private static final JSONComparator.Result EXPECTED_WAS_NULL_RESULT = new JSONComparator.Result() {
         @Override
         public boolean areEquals() {
@@ -61,9 +65,23 @@ public class SpecDiffer {
         if (actualJson == null) {
             return ACTUAL_WAS_NULL_RESULT;
         }
-        return new JSONAssertComparator()
-                .compare(expectedJson, actualJson);
+        final long start = System.nanoTime();
+        return recorded(COMPARATOR.compare(expectedJson, actualJson), start);
+
+    }
 
+    public static JSONComparator.Result generateDiff(JsonNode expectedTree, JsonNode actualTree) {
+        if (expectedTree == null && actualTree == null) {
+            return JSONComparator.RESULT_EQUALS;
+        }
+        if (expectedTree == null) {
+            return EXPECTED_WAS_NULL_RESULT;
+        }
+        if (actualTree == null) {
+            return ACTUAL_WAS_NULL_RESULT;
+        }
+        final long start = System.nanoTime();
+        return recorded(COMPARATOR.compare(expectedTree, actualTree), start);
     }
 
     public static JSONComparator.Result generateDiff(Object expectedSpec, Object actualSpec) {
@@ -76,9 +94,9 @@ public class SpecDiffer {
         if (actualSpec == null) {
             return ACTUAL_WAS_NULL_RESULT;
         }
-        final String expectedStr = SerializationUtil.writeAsJson(expectedSpec);
-        final String actualStr = SerializationUtil.writeAsJson(actualSpec);
-        return generateDiff(expectedStr, actualStr);
+        final long start = System.nanoTime();
+        return recorded(COMPARATOR.compare(SerializationUtil.toJsonTree(expectedSpec),
+                SerializationUtil.toJsonTree(actualSpec)), start);
     }
 
     public static JSONComparator.Result generateDiff(Object expectedSpec, String actualJson) {
@@ -91,8 +109,9 @@ public class SpecDiffer {
         if (actualJson == null) {
             return ACTUAL_WAS_NULL_RESULT;
         }
-        final String expectedStr = SerializationUtil.writeAsJson(expectedSpec);
-        return generateDiff(expectedStr, actualJson);
+        final long start = System.nanoTime();
+        return recorded(COMPARATOR.compare(SerializationUtil.toJsonTree(expectedSpec),
+                SerializationUtil.readJsonTree(actualJson)), start);
     }
 
     public static JSONComparator.Result generateDiff(String expectedJson, Object actualSpec) {
@@ -105,10 +124,16 @@ public class SpecDiffer {
         if (actualSpec == null) {
             return EXPECTED_WAS_NULL_RESULT;
         }
-        final String actualStr = SerializationUtil.writeAsJson(actualSpec);
-        return generateDiff(expectedJson, actualStr);
+        final long start = System.nanoTime();
+        return recorded(COMPARATOR.compare(SerializationUtil.readJsonTree(expectedJson),
+                SerializationUtil.toJsonTree(actualSpec)), start);
     }
 
+    private static JSONComparator.Result recorded(JSONComparator.Result result, long startNanos) {
+        // the comparison is lazy, evaluate it to include its cost
+        OperatorMetrics.recordSpecDiff(result.areEquals(), System.nanoTime() - startNanos);
+        return result;
+    }
 
     public static void logDetailedSpecDiff(JSONComparator.Result diff) {
         logDetailedSpecDiff(diff, null, null);
@@ -15,7 +15,6 @@
  */
 package com.datastax.oss.kaap.crds.broker;
 
-import com.datastax.oss.kaap.crds.BaseComponentStatus;
 import com.datastax.oss.kaap.crds.CRDConstants;
 import io.fabric8.kubernetes.api.model.Namespaced;
 import io.fabric8.kubernetes.client.CustomResource;
@@ -32,9 +31,9 @@ import io.fabric8.kubernetes.model.annotation.Version;
 @Singular("broker")
 @Plural("brokers")
 @ShortNames({"br"})
-public class Broker extends CustomResource<BrokerFullSpec, BaseComponentStatus> implements Namespaced {
+public class Broker extends CustomResource<BrokerFullSpec, BrokerStatus> implements Namespaced {
     @Override
-    protected BaseComponentStatus initStatus() {
-        return new BaseComponentStatus();
+    protected BrokerStatus initStatus() {
+        return new BrokerStatus();
     }
 }
@@ -18,6 +18,9 @@ package com.datastax.oss.kaap.crds.broker;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import io.fabric8.generator.annotation.Max;
 import io.fabric8.generator.annotation.Min;
+import io.fabric8.generator.annotation.Required;
+import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -31,6 +34,96 @@ public class BrokerAutoscalerSpec {
 
     public static final String RESOURCE_USAGE_SOURCE_LOAD_BALANCER = "PulsarLBReport";
     public static final String RESOURCE_USAGE_SOURCE_K8S_METRICS = "K8SMetrics";
+    public static final String RESOURCE_USAGE_SOURCE_PROMETHEUS = "Prometheus";
+    public static final String SCALING_POLICY_THRESHOLDS = "Thresholds";
+    public static final String SCALING_POLICY_TARGET_TRACKING = "TargetTracking";
+    public static final String USAGE_AGGREGATION_LAST = "Last";
+    public static final String USAGE_AGGREGATION_MEAN = "Mean";
+    public static final String USAGE_AGGREGATION_P90 = "P90";
+    public static final String USAGE_AGGREGATION_EWMA = "Ewma";
+    public static final List<String> USAGE_AGGREGATIONS = List.of(USAGE_AGGREGATION_LAST, USAGE_AGGREGATION_MEAN,
+            USAGE_AGGREGATION_P90, USAGE_AGGREGATION_EWMA);
+    public static final String FORECAST_METHOD_HOLT_WINTERS = "HoltWinters";
+    public static final String FORECAST_METHOD_SEASONAL_NAIVE = "SeasonalNaive";
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class MetricSpec {
+        @Required
+        @JsonPropertyDescription("Name of the metric. Possible values are 'cpu', 'memory', 'directMemory', "
+                + "'bandwidthIn' and 'bandwidthOut', reported as a fraction of the available resource, and "
+                + "'msgRateIn', 'msgRateOut', 'msgThroughputIn', 'msgThroughputOut', 'numTopics' and 'numBundles', "
+                + "reported as absolute values. Only 'cpu' is available with the 'K8SMetrics' source.")
+        private String name;
+        @Min(0)
+        @javax.validation.constraints.Min(0)
+        @JsonPropertyDescription("A broker is under the lower threshold if the value is lower than this for all the "
+                + "metrics. If not set, the metric doesn't prevent a scale down.")
+        private Double lowerThreshold;
+        @Min(0)
+        @javax.validation.constraints.Min(0)
+        @JsonPropertyDescription("A broker is over the higher threshold if the value is higher than this for any of "
+                + "the metrics. If not set, the metric doesn't trigger a scale up.")
+        private Double higherThreshold;
+        @Min(0)
+        @javax.validation.constraints.Min(0)
+        @JsonPropertyDescription("The average value of the metric the 'TargetTracking' policy aims for. If not set, "
+                + "the metric is not used by the 'TargetTracking' policy.")
+        private Double target;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PredictiveSpec {
+        @JsonPropertyDescription("Enable the predictive scaling. The load of the broker set is recorded and the "
+                + "brokers are added ahead of the forecasted peaks. The number of brokers is never lower than the "
+                + "one computed by the scaling policy. Default is 'false'.")
+        private Boolean enabled;
+        @JsonPropertyDescription("The forecast method. With 'SeasonalNaive' the load expected is the one recorded "
+                + "one season before. With 'HoltWinters' the load is forecasted with the additive Holt-Winters "
+                + "method, it falls back to 'SeasonalNaive' until two seasons are recorded. Default is 'HoltWinters'.")
+        private String method;
+        @Min(60000)
+        @javax.validation.constraints.Min(60000)
+        @JsonPropertyDescription("The length in milliseconds of the load cycle. Default is 1 day.")
+        private Long seasonMs;
+        @Min(1000)
+        @javax.validation.constraints.Min(1000)
+        @JsonPropertyDescription("The load is recorded as the peak of each interval of this length in "
+                + "milliseconds. Default is 5 minutes.")
+        private Long bucketMs;
+        @Min(0)
+        @javax.validation.constraints.Min(0)
+        @JsonPropertyDescription("How far ahead in milliseconds the forecasted peak is looked for. It should cover "
+                + "the time needed by a new broker to be ready and to receive bundles. Default is 15 minutes.")
+        private Long horizonMs;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class PrometheusSpec {
+        @JsonPropertyDescription("Base URL of a Prometheus compatible HTTP API, e.g. 'http://prometheus:9090'. "
+                + "If not set, the '/metrics' endpoint of each broker is scraped directly.")
+        private String url;
+        @JsonPropertyDescription("With 'url', the label of the query results holding the broker pod name. "
+                + "Default is 'pod'.")
+        private String podLabel;
+        @JsonPropertyDescription("The expression of each metric. With 'url', the expressions are PromQL queries "
+                + "returning one value for each broker pod, the placeholders ${namespace}, ${pods} (a regex "
+                + "matching the pods of the broker set), ${podLabel} and ${selector} (the label matchers "
+                + "of the namespace and of the pods) are replaced before sending them. Without 'url', the "
+                + "expressions are evaluated on the metrics of each broker and support selectors, the aggregations "
+                + "'sum', 'min', 'max', 'avg' and 'count' and the arithmetic operators. "
+                + "If not set, the cpu, memory and direct memory usage and the message rates and throughputs "
+                + "are collected.")
+        private Map<String, String> queries;
+    }
 
     @JsonPropertyDescription("Enable autoscaling for brokers.")
     Boolean enabled;
@@ -76,7 +169,84 @@ public class BrokerAutoscalerSpec {
     Long stabilizationWindowMs;
 
     @JsonPropertyDescription("Source for getting the brokers resources usage. "
-            + "Possible values are 'PulsarLBReport' and 'K8SMetrics'. Default is 'PulsarLBReport'")
+            + "Possible values are 'PulsarLBReport', 'K8SMetrics' and 'Prometheus'. Default is 'PulsarLBReport'")
     String resourcesUsageSource;
+    @JsonPropertyDescription("With the 'K8SMetrics' resources usage source, the containers of the broker pods whose "
+            + "cpu usage and requests are compared. Default is the broker container only, the sidecars are ignored.")
+    List<String> k8sMetricsContainers;
+
+    @JsonPropertyDescription("How the usage samples of each broker collected in the last 'usageWindowMs' are "
+            + "aggregated before comparing them with the thresholds. "
+            + "Possible values are 'Last', 'Mean', 'P90' and 'Ewma'. Default is 'Last', only the latest sample is "
+            + "used.")
+    String usageAggregation;
+    @Min(0)
+    @javax.validation.constraints.Min(0)
+    @JsonPropertyDescription("The time window in milliseconds of the usage samples kept for each broker. "
+            + "Default is 5 minutes.")
+    Long usageWindowMs;
+    @Min(0)
+    @Max(1)
+    @javax.validation.constraints.Min(0)
+    @javax.validation.constraints.Max(1)
+    @JsonPropertyDescription("The fraction of brokers that must be over the higher threshold to trigger a scale up. "
+            + "Default is '1', all the brokers.")
+    Double scaleUpBrokersRatio;
+    @Min(0)
+    @Max(1)
+    @javax.validation.constraints.Min(0)
+    @javax.validation.constraints.Max(1)
+    @JsonPropertyDescription("The fraction of brokers that must be under the lower threshold to trigger a scale down. "
+            + "A scale down never happens while a broker is over the higher threshold. "
+            + "Default is '1', all the brokers.")
+    Double scaleDownBrokersRatio;
+
+    @JsonPropertyDescription("How the number of brokers is computed. "
+            + "With 'Thresholds' the brokers are scaled by 'scaleUpBy' or 'scaleDownBy' when the usage crosses the "
+            + "thresholds. With 'TargetTracking' the brokers are scaled proportionally to keep the average cpu usage "
+            + "at 'targetCpuUtilization'. Default is 'Thresholds'.")
+    String scalingPolicy;
+    @Min(0)
+    @Max(1)
+    @javax.validation.constraints.Min(0)
+    @javax.validation.constraints.Max(1)
+    @JsonPropertyDescription("The average cpu usage of the brokers the 'TargetTracking' policy aims for. "
+            + "Default is '0.6'")
+    Double targetCpuUtilization;
+    @Min(0)
+    @Max(1)
+    @javax.validation.constraints.Min(0)
+    @javax.validation.constraints.Max(1)
+    @JsonPropertyDescription("With the 'TargetTracking' policy, no scaling happens while the ratio between the "
+            + "average cpu usage and the target differs from 1 by less than this value. Default is '0.1'")
+    Double targetTolerance;
+    @Min(1)
+    @javax.validation.constraints.Min(1)
+    @JsonPropertyDescription("With the 'TargetTracking' policy, the max number of brokers to add at each scale up. "
+            + "Default is '10'")
+    Integer maxScaleUpStep;
+    @Min(1)
+    @javax.validation.constraints.Min(1)
+    @JsonPropertyDescription("With the 'TargetTracking' policy, the max number of brokers to remove at each scale "
+            + "down. Default is '1'")
+    Integer maxScaleDownStep;
+    @JsonPropertyDescription("Unload the bundles of the brokers to remove before lowering the number of replicas, "
+            + "so the clients are moved to the other brokers before the pods are stopped. The progress is tracked in "
+            + "the Broker status. Default is 'true'.")
+    Boolean drainBeforeScaleDown;
+    @Min(0)
+    @javax.validation.constraints.Min(0)
+    @JsonPropertyDescription("Max time in milliseconds to wait for the drained brokers to release their bundles. "
+            + "After it, the brokers are removed anyway. Default is 10 minutes.")
+    Long drainTimeoutMs;
+    @JsonPropertyDescription("The metrics used to take the scaling decisions, each one with its own thresholds and "
+            + "target. The ratio between each metric and its threshold (or target) is computed and the highest one "
+            + "drives the decision. If not set, only the cpu is used with 'lowerCpuThreshold', 'higherCpuThreshold' "
+            + "and 'targetCpuUtilization'.")
+    List<MetricSpec> metrics;
+    @JsonPropertyDescription("Config of the 'Prometheus' resources usage source.")
+    PrometheusSpec prometheus;
+    @JsonPropertyDescription("Predictive scaling config.")
+    PredictiveSpec predictive;
 
 }
@@ -117,6 +117,24 @@ public class BrokerSetSpec extends BaseComponentSpec<BrokerSetSpec> {
             .scaleUpBy(1)
             .scaleDownBy(1)
             .stabilizationWindowMs(TimeUnit.MINUTES.toMillis(5))
+            .usageAggregation(BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST)
+            .usageWindowMs(TimeUnit.MINUTES.toMillis(5))
+            .scaleUpBrokersRatio(1.0d)
+            .scaleDownBrokersRatio(1.0d)
+            .scalingPolicy(BrokerAutoscalerSpec.SCALING_POLICY_THRESHOLDS)
+            .targetCpuUtilization(0.6d)
+            .targetTolerance(0.1d)
+            .maxScaleUpStep(10)
+            .maxScaleDownStep(1)
+            .drainBeforeScaleDown(true)
+            .drainTimeoutMs(TimeUnit.MINUTES.toMillis(10))
+            .predictive(BrokerAutoscalerSpec.PredictiveSpec.builder()
+                    .enabled(false)
+                    .method(BrokerAutoscalerSpec.FORECAST_METHOD_HOLT_WINTERS)
+                    .seasonMs(TimeUnit.DAYS.toMillis(1))
+                    .bucketMs(TimeUnit.MINUTES.toMillis(5))
+                    .horizonMs(TimeUnit.MINUTES.toMillis(15))
+                    .build())
             .build();
 
     private static final Supplier<BrokerSpec.TransactionCoordinatorConfig> DEFAULT_TRANSACTION_COORDINATOR_CONFIG =
@@ -288,6 +306,15 @@ public class BrokerSetSpec extends BaseComponentSpec<BrokerSetSpec> {
 
     @Override
     public boolean isValid(BrokerSetSpec value, ConstraintValidatorContext context) {
+        final BrokerAutoscalerSpec autoscalerSpec = value.getAutoscaler();
+        if (autoscalerSpec != null && autoscalerSpec.getUsageAggregation() != null
+                && !BrokerAutoscalerSpec.USAGE_AGGREGATIONS.contains(autoscalerSpec.getUsageAggregation())) {
+            context.buildConstraintViolationWithTemplate(
+                            "Invalid autoscaler usage aggregation: %s, only %s".formatted(
+                                    autoscalerSpec.getUsageAggregation(), BrokerAutoscalerSpec.USAGE_AGGREGATIONS))
+                    .addConstraintViolation();
+            return false;
+        }
         return true;
     }
 }
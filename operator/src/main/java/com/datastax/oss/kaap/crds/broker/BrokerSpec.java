@@ -59,6 +59,13 @@ public class BrokerSpec extends BrokerSetSpec {
         if (!isBrokerSpecValid(context, brokerSpec)) {
             return false;
         }
+        if (brokerSpec.getSets() != null) {
+            for (BrokerSetSpec set : brokerSpec.getSets().values()) {
+                if (set != null && !super.isValid(set, context)) {
+                    return false;
+                }
+            }
+        }
         return super.isValid(value, context);
     }
 
@@ -0,0 +1,64 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.crds.broker;
+
+import com.datastax.oss.kaap.crds.AutoscalerEvaluation;
+import com.datastax.oss.kaap.crds.BaseComponentStatus;
+import com.fasterxml.jackson.annotation.JsonPropertyDescription;
+import io.fabric8.kubernetes.api.model.Condition;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+@NoArgsConstructor
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+public class BrokerStatus extends BaseComponentStatus {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ScaleDownStatus {
+        @JsonPropertyDescription("Number of brokers when the scale down started.")
+        private Integer fromReplicas;
+        @JsonPropertyDescription("Number of brokers once the drained brokers are removed.")
+        private Integer toReplicas;
+        @JsonPropertyDescription("Brokers whose bundles are being unloaded.")
+        private List<String> brokers;
+        @JsonPropertyDescription("When the scale down started.")
+        private String startTime;
+        @JsonPropertyDescription("Bundles still owned by the drained brokers at the last check.")
+        private Integer remainingBundles;
+    }
+
+    @JsonPropertyDescription("Scale down in progress for each broker set. The brokers are removed once their bundles "
+            + "are unloaded.")
+    Map<String, ScaleDownStatus> scaleDown;
+
+    @JsonPropertyDescription("Last autoscaler evaluations for each broker set, the oldest first.")
+    Map<String, List<AutoscalerEvaluation>> autoscalerHistory;
+
+    public BrokerStatus(List<Condition> conditions, String lastApplied) {
+        super(conditions, lastApplied);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.metrics;
+
+import io.fabric8.kubernetes.client.http.BasicBuilder;
+import io.fabric8.kubernetes.client.http.HttpHeaders;
+import io.fabric8.kubernetes.client.http.HttpRequest;
+import io.fabric8.kubernetes.client.http.Interceptor;
+import java.net.URI;
+
+/**
+ * Counts the requests sent to the Kubernetes API server by verb and resource type.
+ */
+public class KubernetesApiMetricsInterceptor implements Interceptor {
+
+    public static final String NAME = "kaap-metrics";
+
+    @Override
+    public void before(BasicBuilder builder, HttpHeaders headers) {
+        if (headers instanceof HttpRequest request) {
+            final ApiCall call = parse(request.method(), request.uri());
+            OperatorMetrics.recordApiCall(call.verb(), call.resource());
+        }
+    }
+
+    record ApiCall(String verb, String resource) {
+    }
+
+    /**
+     * Map a request to the Kubernetes API verb and to the resource plural, e.g. 'GET /api/v1/namespaces/ns/pods'
+     * is 'list' on 'pods'.
+     */
+    static ApiCall parse(String method, URI uri) {
+        final String[] segments = uri.getPath().replaceAll("^/+|/+$", "").split("/");
+        int index;
+        if (segments.length > 0 && segments[0].equals("api")) {
+            // api/{version}
+            index = 2;
+        } else if (segments.length > 0 && segments[0].equals("apis")) {
+            // apis/{group}/{version}
+            index = 3;
+        } else {
+            return new ApiCall(method.toLowerCase(), "other");
+        }
+        if (segments.length > index + 2 && segments[index].equals("namespaces")) {
+            index += 2;
+        }
+        if (segments.length <= index) {
+            return new ApiCall(method.toLowerCase(), "discovery");
+        }
+        final String resource = segments[index];
+        final boolean named = segments.length > index + 1;
+        final String query = uri.getQuery();
+        final String verb = switch (method) {
+            case "GET" -> query != null && query.contains("watch=true")
+                    ? "watch" : named ? "get" : "list";
+            case "POST" -> "create";
+            case "PUT" -> "update";
+            case "PATCH" -> "patch";
+            case "DELETE" -> named ? "delete" : "deletecollection";
+            default -> method.toLowerCase();
+        };
+        return new ApiCall(verb, resource);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Operator self metrics.
+ * Meters are registered in the Micrometer global registry, where Quarkus adds the Prometheus registry.
+ */
+public final class OperatorMetrics {
+
+    public static final String RECONCILE = "kaap.reconcile";
+    public static final String RECONCILE_PHASE = "kaap.reconcile.phase";
+    public static final String RECONCILE_RESCHEDULES = "kaap.reconcile.reschedules";
+    public static final String API_CALLS = "kaap.kubernetes.api.calls";
+    public static final String SPEC_DIFF = "kaap.spec.diff";
+    public static final String EXECUTOR_QUEUE_SIZE = "kaap.executor.queue.size";
+    public static final String AUTOSCALER_EVALUATIONS = "kaap.autoscaler.evaluations";
+    public static final String AUTOSCALER_REPLICAS = "kaap.autoscaler.replicas";
+    public static final String AUTOSCALER_POD_METRIC = "kaap.autoscaler.pod.metric";
+
+    public static final String PHASE_VALIDATE = "validate";
+    public static final String PHASE_DIFF = "diff";
+    public static final String PHASE_PATCH = "patch";
+    public static final String PHASE_CHECK_READY = "checkReady";
+
+    private static final Duration MIN_RECONCILE_DURATION = Duration.ofMillis(1);
+    private static final Duration MAX_RECONCILE_DURATION = Duration.ofMinutes(10);
+
+    private record GaugeValue(AtomicLong bits, Gauge gauge) {
+    }
+
+    private static final Map<Meter.Id, GaugeValue> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<Tags, Set<Meter.Id>> AUTOSCALER_POD_GAUGES = new ConcurrentHashMap<>();
+
+    private OperatorMetrics() {
+    }
+
+    private static MeterRegistry registry() {
+        return Metrics.globalRegistry;
+    }
+
+    /**
+     * Record the latency of a reconciliation. The custom resource name is not a tag: the histogram buckets would
+     * be kept for every resource ever reconciled, including the deleted ones.
+     */
+    public static void recordReconcile(String controller, String namespace, String outcome, long durationNanos) {
+        Timer.builder(RECONCILE)
+                .description("Reconciliation latency by controller and namespace")
+                .tag("controller", controller)
+                .tag("namespace", namespace)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_RECONCILE_DURATION)
+                .maximumExpectedValue(MAX_RECONCILE_DURATION)
+                .register(registry())
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time a step of the reconciliation.
+     * The 'diff' and 'checkReady' phases are nested in the 'patch' one.
+     */
+    public static <R> R timePhase(String controller, String phase, Supplier<R> step) {
+        final long start = System.nanoTime();
+        try {
+            return step.get();
+        } finally {
+            recordPhase(controller, phase, System.nanoTime() - start);
+        }
+    }
+
+    public static void recordPhase(String controller, String phase, long durationNanos) {
+        Timer.builder(RECONCILE_PHASE)
+                .description("Time spent in each reconciliation phase")
+                .tag("controller", controller)
+                .tag("phase", phase)
+                .register(registry())
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordReschedule(String controller, String reason) {
+        Counter.builder(RECONCILE_RESCHEDULES)
+                .description("Reconciliations rescheduled by the controllers")
+                .tag("controller", controller)
+                .tag("reason", reason)
+                .register(registry())
+                .increment();
+    }
+
+    public static void recordApiCall(String verb, String resource) {
+        Counter.builder(API_CALLS)
+                .description("Requests sent to the Kubernetes API server")
+                .tag("verb", verb)
+                .tag("resource", resource)
+                .register(registry())
+                .increment();
+    }
+
+    public static void recordSpecDiff(boolean equals, long durationNanos) {
+        Timer.builder(SPEC_DIFF)
+                .description("Spec comparisons")
+                .tag("result", equals ? "equal" : "different")
+                .register(registry())
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void monitorExecutorQueue(String executor, ThreadPoolExecutor executorService) {
+        Gauge.builder(EXECUTOR_QUEUE_SIZE, executorService, e -> e.getQueue().size())
+                .description("Tasks waiting in the operator executors")
+                .tag("executor", executor)
+                .register(registry());
+    }
+
+    /**
+     * Stop exporting the queue size of an executor that has been shut down.
+     */
+    public static void unmonitorExecutorQueue(String executor) {
+        registry().find(EXECUTOR_QUEUE_SIZE).tag("executor", executor).meters().forEach(registry()::remove);
+    }
+
+    /**
+     * Record an autoscaler check. The gauges of the pods that are not reported anymore are removed.
+     */
+    public static void recordAutoscalerEvaluation(String component, String namespace, String set, String decision,
+                                                  int replicas, Map<String, Map<String, Double>> podMetrics) {
+        final Tags tags = Tags.of("component", component, "namespace", namespace, "set", set);
+        Counter.builder(AUTOSCALER_EVALUATIONS)
+                .description("Autoscaler checks by decision")
+                .tags(tags)
+                .tag("decision", decision)
+                .register(registry())
+                .increment();
+        setGauge(AUTOSCALER_REPLICAS, "Replicas decided by the autoscaler", tags, replicas);
+        final Set<Meter.Id> podGauges = new HashSet<>();
+        podMetrics.forEach((pod, metrics) -> metrics.forEach((metric, value) ->
+                podGauges.add(setGauge(AUTOSCALER_POD_METRIC, "Pod metrics observed by the autoscaler",
+                        tags.and("pod", pod, "metric", metric), value))));
+        final Set<Meter.Id> previous = AUTOSCALER_POD_GAUGES.put(tags, podGauges);
+        if (previous != null) {
+            previous.stream()
+                    .filter(id -> !podGauges.contains(id))
+                    .forEach(OperatorMetrics::removeGauge);
+        }
+    }
+
+    /**
+     * Remove the autoscaler meters of a component in a namespace, only the ones of the given set if not null.
+     * Called when the autoscaler is stopped, so the last values are not exported forever.
+     */
+    public static void removeAutoscalerMetrics(String component, String namespace, String set) {
+        final Tags tags = set == null
+                ? Tags.of("component", component, "namespace", namespace)
+                : Tags.of("component", component, "namespace", namespace, "set", set);
+        AUTOSCALER_POD_GAUGES.keySet().removeIf(key -> matchTags(key, tags));
+        GAUGES.keySet().stream()
+                .filter(id -> id.getName().equals(AUTOSCALER_REPLICAS) || id.getName().equals(AUTOSCALER_POD_METRIC))
+                .filter(id -> matchTags(Tags.of(id.getTagsAsIterable()), tags))
+                .collect(Collectors.toList())
+                .forEach(OperatorMetrics::removeGauge);
+        registry().find(AUTOSCALER_EVALUATIONS).tags(tags).meters().forEach(registry()::remove);
+    }
+
+    private static boolean matchTags(Tags meterTags, Tags tags) {
+        return tags.stream().allMatch(tag -> meterTags.stream()
+                .anyMatch(t -> t.getKey().equals(tag.getKey()) && t.getValue().equals(tag.getValue())));
+    }
+
+    private static Meter.Id setGauge(String name, String description, Tags tags, double value) {
+        final Meter.Id id = new Meter.Id(name, tags, null, description, Meter.Type.GAUGE);
+        GAUGES.computeIfAbsent(id, k -> {
+            final AtomicLong bits = new AtomicLong();
+            return new GaugeValue(bits, Gauge.builder(name, bits, b -> Double.longBitsToDouble(b.get()))
+                    .description(description)
+                    .tags(tags)
+                    .register(registry()));
+        }).bits().set(Double.doubleToLongBits(value));
+        return id;
+    }
+
+    private static void removeGauge(Meter.Id id) {
+        final GaugeValue gauge = GAUGES.remove(id);
+        if (gauge != null) {
+            registry().remove(gauge.gauge());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.apache.commons.codec.digest.MurmurHash3;
+
+/**
+ * Consistent hashing of the shards over the operator replicas.
+ * Each member is placed on the ring with a number of virtual nodes, a shard belongs to the first member found
+ * walking the ring clockwise from the shard hash. When a member joins or leaves, only the shards between its
+ * virtual nodes and their predecessors move.
+ */
+public class ConsistentHashRing {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 64;
+
+    private final NavigableMap<Integer, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> members) {
+        this(members, DEFAULT_VIRTUAL_NODES);
+    }
+
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        // sorted to resolve hash collisions in the same way on every replica
+        for (String member : new TreeSet<>(members)) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.putIfAbsent(hash(member + "#" + i), member);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    /**
+     * @return the member owning the shard, null if the ring is empty.
+     */
+    public String ownerOf(int shard) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        final Map.Entry<Integer, String> entry = ring.ceilingEntry(hash("shard-" + shard));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * @return the shard of the key, between 0 (inclusive) and shards (exclusive).
+     */
+    public static int shardOf(String key, int shards) {
+        return Math.floorMod(hash(key), shards);
+    }
+
+    static int hash(String value) {
+        return MurmurHash3.hash32x86(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
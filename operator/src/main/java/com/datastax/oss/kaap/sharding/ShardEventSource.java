@@ -0,0 +1,75 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.sharding;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import io.javaoperatorsdk.operator.processing.event.source.AbstractEventSource;
+import io.javaoperatorsdk.operator.processing.event.source.Cache;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Triggers a reconciliation of the primary resources of the shards gained by this replica, since their events
+ * were ignored while another replica owned them.
+ * The resources of the lost shards are passed to the given callback to stop any background task.
+ */
+@JBossLog
+public class ShardEventSource<R extends HasMetadata> extends AbstractEventSource implements ShardManager.Listener {
+
+    private final ShardManager shardManager;
+    private final Cache<R> primaryCache;
+    private final Consumer<R> onLost;
+
+    public ShardEventSource(ShardManager shardManager, Cache<R> primaryCache, Consumer<R> onLost) {
+        this.shardManager = shardManager;
+        this.primaryCache = primaryCache;
+        this.onLost = onLost;
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        shardManager.addListener(this);
+    }
+
+    @Override
+    public void stop() {
+        shardManager.removeListener(this);
+        super.stop();
+    }
+
+    @Override
+    public void onShardsChanged(Set<Integer> gained, Set<Integer> lost) {
+        if (!isRunning()) {
+            return;
+        }
+        if (!lost.isEmpty()) {
+            primaryCache.list(resource -> lost.contains(shardManager.shardOf(resource)))
+                    .forEach(onLost);
+        }
+        if (!gained.isEmpty()) {
+            primaryCache.list(resource -> gained.contains(shardManager.shardOf(resource)))
+                    .forEach(resource -> {
+                        final ResourceID resourceID = ResourceID.fromResource(resource);
+                        log.debugf("Shard of %s gained, triggering reconciliation", resourceID);
+                        getEventHandler().handleEvent(new Event(resourceID));
+                    });
+        }
+    }
+}
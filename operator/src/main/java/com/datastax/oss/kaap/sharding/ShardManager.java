@@ -0,0 +1,397 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.sharding;
+
+import com.datastax.oss.kaap.OperatorRuntimeConfiguration;
+import com.datastax.oss.kaap.crds.CRDConstants;
+import com.datastax.oss.kaap.crds.cluster.PulsarCluster;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseBuilder;
+import io.fabric8.kubernetes.api.model.coordination.v1.LeaseSpec;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.inject.Inject;
+import lombok.Getter;
+import lombok.extern.jbosslog.JBossLog;
+
+/**
+ * Splits the PulsarCluster custom resources between the operator replicas.
+ * Each cluster, together with the components custom resources it owns, belongs to one of a fixed number of shards.
+ * Every replica renews a membership lease, builds a {@link ConsistentHashRing} of the live members and claims the
+ * leases of the shards the ring assigns to it, releasing the ones assigned to other replicas.
+ * A replica reconciles a resource only while it holds the lease of its shard, so when replicas join or leave only
+ * the shards that move change owner.
+ * When sharding is disabled every resource is owned by this replica.
+ */
+@ApplicationScoped
+@JBossLog
+public class ShardManager implements AutoCloseable {
+
+    public static final String SHARD_LEASE_PREFIX = "kaap-shard-";
+    public static final String MEMBER_LEASE_PREFIX = "kaap-member-";
+    public static final String LABEL_SHARDING = CRDConstants.GROUP + "/sharding";
+    static final String LABEL_SHARDING_MEMBER = "member";
+    static final String LABEL_SHARDING_SHARD = "shard";
+
+    private static final String PULSAR_CLUSTER_KIND = HasMetadata.getKind(PulsarCluster.class);
+
+    public interface Listener {
+        void onShardsChanged(Set<Integer> gained, Set<Integer> lost);
+    }
+
+    private final KubernetesClient client;
+    @Getter
+    private final boolean enabled;
+    @Getter
+    private final int shards;
+    private final Duration leaseDuration;
+    private final Duration renewInterval;
+    private final Duration renewDeadline;
+    @Getter
+    private final String identity;
+    private final String namespace;
+    private final Clock clock;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // shard -> last successful renewal of its lease
+    private final Map<Integer, Instant> ownedShards = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executorService;
+
+    @Inject
+    public ShardManager(KubernetesClient client, OperatorRuntimeConfiguration configuration) {
+        this(client, configuration.shardingEnabled(), configuration.shardingShards(),
+                Duration.ofSeconds(configuration.shardingLeaseDurationSeconds()),
+                Duration.ofSeconds(configuration.shardingRenewIntervalSeconds()),
+                defaultIdentity(), Clock.systemUTC());
+    }
+
+    public ShardManager(KubernetesClient client, boolean enabled, int shards, Duration leaseDuration,
+                        Duration renewInterval, String identity, Clock clock) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be greater than 0");
+        }
+        if (renewInterval.compareTo(leaseDuration) >= 0) {
+            throw new IllegalArgumentException("the renew interval must be lower than the lease duration");
+        }
+        this.client = client;
+        this.enabled = enabled;
+        this.shards = shards;
+        this.leaseDuration = leaseDuration;
+        this.renewInterval = renewInterval;
+        // like client-go leader election, stop before the lease can be taken by a replica whose clock is ahead
+        this.renewDeadline = leaseDuration.minus(renewInterval);
+        this.identity = sanitizeIdentity(identity);
+        this.namespace = client == null ? null : client.getNamespace();
+        this.clock = clock;
+    }
+
+    private static String defaultIdentity() {
+        final String hostname = System.getenv("HOSTNAME");
+        return hostname == null || hostname.isBlank() ? UUID.randomUUID().toString() : hostname;
+    }
+
+    private static String sanitizeIdentity(String identity) {
+        return identity.toLowerCase().replaceAll("[^a-z0-9.-]", "-");
+    }
+
+    void onStart(@Observes StartupEvent ev) {
+        start();
+    }
+
+    void onStop(@Observes ShutdownEvent ev) {
+        close();
+    }
+
+    public synchronized void start() {
+        if (!enabled || executorService != null) {
+            return;
+        }
+        log.infof("Sharding enabled with %d shards, member identity %s", shards, identity);
+        executorService = Executors.newSingleThreadScheduledExecutor();
+        executorService.scheduleWithFixedDelay(this::syncSafely, 0, renewInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * The key of the cluster the resource belongs to: the PulsarCluster itself or the PulsarCluster owning it.
+     */
+    static String clusterKey(HasMetadata resource) {
+        String clusterName = resource.getMetadata().getName();
+        if (!PULSAR_CLUSTER_KIND.equals(resource.getKind())) {
+            final List<OwnerReference> ownerReferences = resource.getMetadata().getOwnerReferences();
+            if (ownerReferences != null) {
+                for (OwnerReference ownerReference : ownerReferences) {
+                    if (PULSAR_CLUSTER_KIND.equals(ownerReference.getKind())) {
+                        clusterName = ownerReference.getName();
+                        break;
+                    }
+                }
+            }
+        }
+        return resource.getMetadata().getNamespace() + "/" + clusterName;
+    }
+
+    public int shardOf(HasMetadata resource) {
+        return ConsistentHashRing.shardOf(clusterKey(resource), shards);
+    }
+
+    public boolean owns(HasMetadata resource) {
+        if (!enabled) {
+            return true;
+        }
+        return isOwned(shardOf(resource), clock.instant());
+    }
+
+    public Set<Integer> getOwnedShards() {
+        final Instant now = clock.instant();
+        final Set<Integer> result = new TreeSet<>();
+        ownedShards.keySet().forEach(shard -> {
+            if (isOwned(shard, now)) {
+                result.add(shard);
+            }
+        });
+        return result;
+    }
+
+    private boolean isOwned(int shard, Instant now) {
+        final Instant renewed = ownedShards.get(shard);
+        return renewed != null && now.isBefore(renewed.plus(renewDeadline));
+    }
+
+    private void syncSafely() {
+        try {
+            sync();
+        } catch (Throwable e) {
+            log.errorf(e, "Error while syncing the shard leases: %s", e.getMessage());
+        }
+    }
+
+    synchronized void sync() {
+        final Instant now = clock.instant();
+        final Set<Integer> previous = new HashSet<>(ownedShards.keySet());
+        final Map<String, Lease> leases = new HashMap<>();
+        try {
+            client.leases().inNamespace(namespace).withLabel(LABEL_SHARDING).list().getItems()
+                    .forEach(lease -> leases.put(lease.getMetadata().getName(), lease));
+            renewMembership(leases.get(MEMBER_LEASE_PREFIX + identity), now);
+        } catch (KubernetesClientException e) {
+            log.warnf("Unable to renew the sharding membership: %s", e.getMessage());
+            expireShards(now);
+            notifyListeners(previous);
+            return;
+        }
+
+        final Set<String> members = new TreeSet<>();
+        members.add(identity);
+        for (Lease lease : leases.values()) {
+            if (LABEL_SHARDING_MEMBER.equals(lease.getMetadata().getLabels().get(LABEL_SHARDING))
+                    && !isExpired(lease, now)) {
+                members.add(lease.getSpec().getHolderIdentity());
+            }
+        }
+        final ConsistentHashRing ring = new ConsistentHashRing(members);
+        for (int shard = 0; shard < shards; shard++) {
+            final Lease lease = leases.get(SHARD_LEASE_PREFIX + shard);
+            try {
+                if (identity.equals(ring.ownerOf(shard))) {
+                    if (acquireOrRenew(shard, lease, now)) {
+                        ownedShards.put(shard, now);
+                    }
+                } else {
+                    // stop reconciling before giving up the lease
+                    ownedShards.remove(shard);
+                    release(lease);
+                }
+            } catch (KubernetesClientException e) {
+                log.debugf("Unable to update lease of shard %d: %s", shard, e.getMessage());
+            }
+        }
+        expireShards(now);
+        notifyListeners(previous);
+    }
+
+    private void renewMembership(Lease current, Instant now) {
+        if (current == null) {
+            client.leases().inNamespace(namespace).resource(newLease(MEMBER_LEASE_PREFIX + identity,
+                    LABEL_SHARDING_MEMBER, now)).create();
+        } else {
+            current.getSpec().setHolderIdentity(identity);
+            current.getSpec().setRenewTime(toZonedDateTime(now));
+            replace(current);
+        }
+    }
+
+    private boolean acquireOrRenew(int shard, Lease lease, Instant now) {
+        if (lease == null) {
+            client.leases().inNamespace(namespace)
+                    .resource(newLease(SHARD_LEASE_PREFIX + shard, LABEL_SHARDING_SHARD, now))
+                    .create();
+            log.infof("Acquired new shard %d", shard);
+            return true;
+        }
+        final LeaseSpec spec = lease.getSpec();
+        if (identity.equals(spec.getHolderIdentity())) {
+            spec.setRenewTime(toZonedDateTime(now));
+            spec.setLeaseDurationSeconds((int) leaseDuration.toSeconds());
+            replace(lease);
+            return true;
+        }
+        if (spec.getHolderIdentity() == null || isExpired(lease, now)) {
+            log.infof("Acquired shard %d, previous holder %s", shard, spec.getHolderIdentity());
+            spec.setHolderIdentity(identity);
+            spec.setAcquireTime(toZonedDateTime(now));
+            spec.setRenewTime(toZonedDateTime(now));
+            spec.setLeaseDurationSeconds((int) leaseDuration.toSeconds());
+            spec.setLeaseTransitions(Objects.requireNonNullElse(spec.getLeaseTransitions(), 0) + 1);
+            replace(lease);
+            return true;
+        }
+        // the previous owner still has to release it
+        return false;
+    }
+
+    private void release(Lease lease) {
+        if (lease != null && identity.equals(lease.getSpec().getHolderIdentity())) {
+            log.infof("Releasing shard lease %s", lease.getMetadata().getName());
+            lease.getSpec().setHolderIdentity(null);
+            replace(lease);
+        }
+    }
+
+    private void replace(Lease lease) {
+        // the resource version read in the list protects from concurrent updates of other replicas
+        client.leases().inNamespace(namespace).resource(lease)
+                .lockResourceVersion(lease.getMetadata().getResourceVersion())
+                .replace();
+    }
+
+    private Lease newLease(String name, String type, Instant now) {
+        return new LeaseBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .withNamespace(namespace)
+                .withLabels(Map.of(LABEL_SHARDING, type))
+                .endMetadata()
+                .withNewSpec()
+                .withHolderIdentity(identity)
+                .withLeaseDurationSeconds((int) leaseDuration.toSeconds())
+                .withAcquireTime(toZonedDateTime(now))
+                .withRenewTime(toZonedDateTime(now))
+                .withLeaseTransitions(0)
+                .endSpec()
+                .build();
+    }
+
+    private boolean isExpired(Lease lease, Instant now) {
+        final LeaseSpec spec = lease.getSpec();
+        if (spec == null || spec.getHolderIdentity() == null || spec.getRenewTime() == null) {
+            return true;
+        }
+        final long duration = spec.getLeaseDurationSeconds() == null
+                ? leaseDuration.toSeconds() : spec.getLeaseDurationSeconds();
+        return !now.isBefore(spec.getRenewTime().toInstant().plusSeconds(duration));
+    }
+
+    /**
+     * Drop the shards whose lease couldn't be renewed before the renew deadline, another replica may take them
+     * once the lease duration is elapsed.
+     */
+    private void expireShards(Instant now) {
+        ownedShards.keySet().removeIf(shard -> {
+            if (!isOwned(shard, now)) {
+                log.warnf("Lease of shard %d expired", shard);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void notifyListeners(Set<Integer> previous) {
+        final Set<Integer> current = new HashSet<>(ownedShards.keySet());
+        final Set<Integer> gained = new TreeSet<>(current);
+        gained.removeAll(previous);
+        final Set<Integer> lost = new TreeSet<>(previous);
+        lost.removeAll(current);
+        if (gained.isEmpty() && lost.isEmpty()) {
+            return;
+        }
+        log.infof("Owned shards changed, gained: %s, lost: %s", gained, lost);
+        for (Listener listener : listeners) {
+            listener.onShardsChanged(gained, lost);
+        }
+    }
+
+    private static ZonedDateTime toZonedDateTime(Instant instant) {
+        return ZonedDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    /**
+     * Stop claiming shards and give them up, so the other replicas can take them over without waiting for the
+     * leases to expire.
+     */
+    @Override
+    public synchronized void close() {
+        if (!enabled) {
+            return;
+        }
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+        final Set<Integer> previous = new HashSet<>(ownedShards.keySet());
+        ownedShards.clear();
+        try {
+            for (Integer shard : previous) {
+                release(client.leases().inNamespace(namespace).withName(SHARD_LEASE_PREFIX + shard).get());
+            }
+            client.leases().inNamespace(namespace).withName(MEMBER_LEASE_PREFIX + identity).delete();
+        } catch (KubernetesClientException e) {
+            log.warnf("Unable to release the shard leases: %s", e.getMessage());
+        }
+        notifyListeners(previous);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap;
+
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.arc.DefaultBean;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import javax.enterprise.inject.Disposes;
+import javax.enterprise.inject.Produces;
+import javax.inject.Singleton;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class KubernetesClientProducerTest {
+
+    /**
+     * The client of the kubernetes-client extension is a default bean, so it's replaced by any other producer of
+     * the same type, including for the operator SDK which looks up the client in the container.
+     */
+    @Test
+    public void testReplacesDefaultClient() throws Exception {
+        final Method quarkusProducer = io.quarkus.kubernetes.client.runtime.KubernetesClientProducer.class
+                .getMethod("kubernetesClient", Config.class);
+        Assert.assertTrue(quarkusProducer.isAnnotationPresent(DefaultBean.class));
+        Assert.assertTrue(quarkusProducer.isAnnotationPresent(Produces.class));
+
+        final Method producer = KubernetesClientProducer.class.getMethod("kubernetesClient", Config.class);
+        Assert.assertTrue(producer.isAnnotationPresent(Produces.class));
+        Assert.assertTrue(producer.isAnnotationPresent(Singleton.class));
+        Assert.assertFalse(producer.isAnnotationPresent(DefaultBean.class));
+        Assert.assertEquals(producer.getReturnType(), quarkusProducer.getReturnType());
+
+        final Method disposer = KubernetesClientProducer.class.getMethod("close", KubernetesClient.class);
+        final Parameter disposed = disposer.getParameters()[0];
+        Assert.assertTrue(disposed.isAnnotationPresent(Disposes.class));
+        Assert.assertEquals(Arrays.stream(KubernetesClientProducer.class.getDeclaredMethods())
+                .filter(m -> m.isAnnotationPresent(Produces.class))
+                .count(), 1);
+    }
+
+    @Test
+    public void testClientCountsApiCalls() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        final KubernetesServer server = new KubernetesServer(false, true);
+        server.before();
+        final KubernetesClientProducer producer = new KubernetesClientProducer();
+        final KubernetesClient client = producer.kubernetesClient(server.getClient().getConfiguration());
+        try {
+            client.configMaps().inNamespace("ns").list();
+            client.configMaps().inNamespace("ns").withName("cm").get();
+
+            Assert.assertEquals(count(registry, "list"), 1.0);
+            Assert.assertEquals(count(registry, "get"), 1.0);
+        } finally {
+            producer.close(client);
+            server.after();
+            Metrics.removeRegistry(registry);
+            registry.close();
+        }
+    }
+
+    private static double count(SimpleMeterRegistry registry, String verb) {
+        final Counter counter = registry.find(OperatorMetrics.API_CALLS)
+                .tags("verb", verb, "resource", "configmaps")
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap;
+
+import com.datastax.oss.kaap.crds.GlobalSpec;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NamespacedDaemonThreadTest {
+
+    private static class TestDaemon extends NamespacedDaemonThread<String> {
+        private final ScheduledExecutorService executorService = new ScheduledThreadPoolExecutor(1);
+        private final List<String> cancelled = new ArrayList<>();
+
+        @Override
+        protected String getSpec(PulsarClusterSpec clusterSpec) {
+            return clusterSpec.getGlobal().getName();
+        }
+
+        @Override
+        protected List<ScheduledFuture<?>> specChanged(String namespace, String newSpec,
+                                                       PulsarClusterSpec clusterSpec) {
+            return List.of(executorService.scheduleWithFixedDelay(() -> {
+            }, 1, 1, TimeUnit.HOURS));
+        }
+
+        @Override
+        protected void tasksCancelled(String namespace) {
+            cancelled.add(namespace);
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testStopNamespace() {
+        try (TestDaemon daemon = new TestDaemon()) {
+            daemon.onSpecChange(clusterSpec("pul"), "ns1");
+            daemon.onSpecChange(clusterSpec("pul"), "ns2");
+            Assert.assertTrue(daemon.isRunning("ns1"));
+            Assert.assertTrue(daemon.isRunning("ns2"));
+            Assert.assertTrue(daemon.cancelled.isEmpty());
+
+            daemon.onSpecChange(clusterSpec("pul2"), "ns1");
+            Assert.assertTrue(daemon.isRunning("ns1"));
+            Assert.assertTrue(daemon.isRunning("ns2"));
+
+            daemon.stop("ns1");
+            Assert.assertFalse(daemon.isRunning("ns1"));
+            Assert.assertTrue(daemon.isRunning("ns2"));
+            Assert.assertEquals(daemon.cancelled, List.of("ns1", "ns1"));
+
+            // the same spec is scheduled again after a stop
+            daemon.onSpecChange(clusterSpec("pul2"), "ns1");
+            Assert.assertTrue(daemon.isRunning("ns1"));
+
+            daemon.cancelTasks();
+            Assert.assertFalse(daemon.isRunning("ns1"));
+            Assert.assertFalse(daemon.isRunning("ns2"));
+            Assert.assertEquals(daemon.cancelled.size(), 4);
+            Assert.assertTrue(daemon.cancelled.subList(2, 4).containsAll(List.of("ns1", "ns2")));
+        }
+    }
+
+    private static PulsarClusterSpec clusterSpec(String name) {
+        return PulsarClusterSpec.builder()
+                .global(GlobalSpec.builder().name(name).build())
+                .build();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class AdminApiHttpClientTest {
+
+    private HttpServer httpServer;
+    private final List<String> requests = new ArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeMethod
+    public void before() throws Exception {
+        requests.clear();
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/api", exchange -> {
+            final String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            requests.add("%s %s %s %s %s".formatted(exchange.getRequestMethod(),
+                    exchange.getRequestURI().getPath(),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    exchange.getRequestHeaders().getFirst("Content-Type"),
+                    body));
+            final byte[] response = "No under replicated ledgers found".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(404, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        httpServer.createContext("/slow", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        httpServer.start();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void after() {
+        release.countDown();
+        httpServer.stop(0);
+    }
+
+    private String url(String path) {
+        return "http://localhost:%d%s".formatted(httpServer.getAddress().getPort(), path);
+    }
+
+    @Test
+    public void testSend() throws Exception {
+        final AdminApiHttpClient client = new AdminApiHttpClient(AdminApiHttpClient.newHttpClient(null),
+                "Bearer mytoken", Duration.ofSeconds(10));
+        Assert.assertEquals(client.send("GET", url("/api/v1/autorecovery/list_under_replicated_ledger/"), null)
+                .get(), "No under replicated ledgers found");
+        client.send("PUT", url("/api/v1/bookie/state/readonly"), "{\"readOnly\":true}").get();
+        Assert.assertEquals(requests, List.of(
+                "GET /api/v1/autorecovery/list_under_replicated_ledger/ Bearer mytoken null ",
+                "PUT /api/v1/bookie/state/readonly Bearer mytoken application/json {\"readOnly\":true}"));
+
+        final AdminApiHttpClient noAuth = new AdminApiHttpClient(AdminApiHttpClient.newHttpClient(null),
+                null, Duration.ofSeconds(10));
+        noAuth.send("PUT", url("/api/v1/autorecovery/trigger_audit"), null).get();
+        Assert.assertEquals(requests.get(2), "PUT /api/v1/autorecovery/trigger_audit null null ");
+    }
+
+    @Test
+    public void testFallback() throws Exception {
+        final AdminApiHttpClient client = new AdminApiHttpClient(AdminApiHttpClient.newHttpClient(null),
+                null, Duration.ofMillis(200));
+        final int unreachablePort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachablePort = socket.getLocalPort();
+        }
+        final String unreachable = "http://localhost:%d/api".formatted(unreachablePort);
+        Assert.assertEquals(AdminApiHttpClient.withFallback(unreachable, client.send("GET", unreachable, null),
+                () -> CompletableFuture.completedFuture("from-exec")).get(), "from-exec");
+
+        final AtomicBoolean fallbackCalled = new AtomicBoolean();
+        final CompletableFuture<String> slow = AdminApiHttpClient.withFallback(url("/slow"),
+                client.send("GET", url("/slow"), null), () -> {
+                    fallbackCalled.set(true);
+                    return CompletableFuture.completedFuture("from-exec");
+                });
+        try {
+            slow.get();
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertFalse(AdminApiHttpClient.isTransportFailure(e));
+        }
+        Assert.assertFalse(fallbackCalled.get());
+    }
+
+    @Test
+    public void testHttpClientReplacedOnCertificatesChange() {
+        final HttpClient first = AdminApiHttpClient.getHttpClient("ns/pulsar-tls", "hash1",
+                () -> AdminApiHttpClient.newHttpClient(null));
+        Assert.assertSame(AdminApiHttpClient.getHttpClient("ns/pulsar-tls", "hash1",
+                () -> AdminApiHttpClient.newHttpClient(null)), first);
+        final HttpClient otherNamespace = AdminApiHttpClient.getHttpClient("ns2/pulsar-tls", "hash1",
+                () -> AdminApiHttpClient.newHttpClient(null));
+        Assert.assertNotSame(otherNamespace, first);
+
+        final HttpClient rotated = AdminApiHttpClient.getHttpClient("ns/pulsar-tls", "hash2",
+                () -> AdminApiHttpClient.newHttpClient(null));
+        Assert.assertNotSame(rotated, first);
+        Assert.assertSame(AdminApiHttpClient.getHttpClient("ns/pulsar-tls", "hash2",
+                () -> AdminApiHttpClient.newHttpClient(null)), rotated);
+        Assert.assertSame(AdminApiHttpClient.getHttpClient("ns2/pulsar-tls", "hash1",
+                () -> AdminApiHttpClient.newHttpClient(null)), otherNamespace);
+    }
+}
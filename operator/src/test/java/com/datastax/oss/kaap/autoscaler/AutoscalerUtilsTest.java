@@ -0,0 +1,107 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler;
+
+import com.datastax.oss.kaap.crds.AutoscalerEvaluation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AutoscalerUtilsTest {
+
+    private static AutoscalerEvaluation evaluation(int second, String decision, int replicas) {
+        return AutoscalerEvaluation.builder()
+                .timestamp("2023-01-01T00:00:%02dZ".formatted(second))
+                .decision(decision)
+                .reason("reason " + second)
+                .replicas(replicas)
+                .build();
+    }
+
+    @Test
+    public void testAppendEvaluation() {
+        List<AutoscalerEvaluation> history = AutoscalerUtils.appendEvaluation(null,
+                evaluation(0, AutoscalerEvaluation.DECISION_STABLE, 3));
+        history = AutoscalerUtils.appendEvaluation(history, evaluation(1, AutoscalerEvaluation.DECISION_STABLE, 3));
+        history = AutoscalerUtils.appendEvaluation(history, evaluation(2, AutoscalerEvaluation.DECISION_STABLE, 3));
+        Assert.assertEquals(history.size(), 1);
+        Assert.assertEquals(history.get(0).getFirstTimestamp(), "2023-01-01T00:00:00Z");
+        Assert.assertEquals(history.get(0).getTimestamp(), "2023-01-01T00:00:02Z");
+        Assert.assertEquals(history.get(0).getReason(), "reason 2");
+        Assert.assertEquals(history.get(0).getCount(), 3);
+
+        history = AutoscalerUtils.appendEvaluation(history, evaluation(3, AutoscalerEvaluation.DECISION_SCALE_UP, 4));
+        history = AutoscalerUtils.appendEvaluation(history, evaluation(4, AutoscalerEvaluation.DECISION_STABLE, 4));
+        Assert.assertEquals(history.size(), 3);
+        Assert.assertEquals(history.get(1).getDecision(), AutoscalerEvaluation.DECISION_SCALE_UP);
+        Assert.assertEquals(history.get(1).getCount(), 1);
+        Assert.assertEquals(history.get(2).getFirstTimestamp(), "2023-01-01T00:00:04Z");
+
+        for (int i = 0; i < AutoscalerUtils.MAX_EVALUATIONS_HISTORY; i++) {
+            history = AutoscalerUtils.appendEvaluation(history, evaluation(10 + i,
+                    i % 2 == 0 ? AutoscalerEvaluation.DECISION_SCALE_UP : AutoscalerEvaluation.DECISION_STABLE,
+                    5 + i));
+        }
+        Assert.assertEquals(history.size(), AutoscalerUtils.MAX_EVALUATIONS_HISTORY);
+        Assert.assertEquals(history.get(0).getTimestamp(), "2023-01-01T00:00:10Z");
+        Assert.assertEquals(history.get(history.size() - 1).getReplicas(),
+                4 + AutoscalerUtils.MAX_EVALUATIONS_HISTORY);
+    }
+
+    @Test
+    public void testEvaluationThrottle() {
+        final AutoscalerEvaluationThrottle throttle = new AutoscalerEvaluationThrottle();
+        final List<List<AutoscalerEvaluation>> history = new ArrayList<>(List.of(List.of()));
+        final BiConsumer<AutoscalerEvaluation, Long> check = (evaluation, now) -> {
+            if (throttle.shouldSave(evaluation, now)) {
+                history.set(0, AutoscalerUtils.appendEvaluation(history.get(0), evaluation,
+                        throttle.getSkippedChecks()));
+                throttle.saved(evaluation, now);
+            }
+        };
+        for (int i = 0; i < 3; i++) {
+            check.accept(evaluation(i, AutoscalerEvaluation.DECISION_STABLE, 3), i * 1000L);
+        }
+        // only the first check is saved
+        Assert.assertEquals(history.get(0).size(), 1);
+        Assert.assertEquals(history.get(0).get(0).getCount(), 1);
+        Assert.assertEquals(history.get(0).get(0).getTimestamp(), "2023-01-01T00:00:00Z");
+
+        // the interval is expired, the checks not saved are counted
+        check.accept(evaluation(3, AutoscalerEvaluation.DECISION_STABLE, 3),
+                AutoscalerEvaluationThrottle.SAVE_INTERVAL_MS);
+        Assert.assertEquals(history.get(0).size(), 1);
+        Assert.assertEquals(history.get(0).get(0).getCount(), 4);
+        Assert.assertEquals(history.get(0).get(0).getTimestamp(), "2023-01-01T00:00:03Z");
+
+        // a different decision is saved right away, the checks not saved before are counted by the previous one
+        check.accept(evaluation(4, AutoscalerEvaluation.DECISION_STABLE, 3),
+                AutoscalerEvaluationThrottle.SAVE_INTERVAL_MS + 1);
+        check.accept(evaluation(5, AutoscalerEvaluation.DECISION_SCALE_UP, 4),
+                AutoscalerEvaluationThrottle.SAVE_INTERVAL_MS + 2);
+        Assert.assertEquals(history.get(0).size(), 2);
+        Assert.assertEquals(history.get(0).get(0).getCount(), 5);
+        Assert.assertEquals(history.get(0).get(1).getCount(), 1);
+
+        // different replicas are saved right away too
+        Assert.assertFalse(throttle.shouldSave(evaluation(6, AutoscalerEvaluation.DECISION_SCALE_UP, 4),
+                AutoscalerEvaluationThrottle.SAVE_INTERVAL_MS + 3));
+        Assert.assertTrue(throttle.shouldSave(evaluation(7, AutoscalerEvaluation.DECISION_SCALE_UP, 5),
+                AutoscalerEvaluationThrottle.SAVE_INTERVAL_MS + 4));
+    }
+}
@@ -89,6 +89,7 @@ public class BookKeeperAutoscalerTest {
         KubernetesServer server;
 
         PatchOp patchOp;
+        final List<PatchOp> statusPatchOps = new ArrayList<>();
 
         @Data
         public static class PatchOp {
@@ -146,7 +147,7 @@ public class BookKeeperAutoscalerTest {
                             "/apis/kaap.oss.datastax.com/v1beta1/namespaces/ns/bookkeepers/%s-bookkeeper".formatted(
                                     clusterSpecName))
                     .andReturn(HttpURLConnection.HTTP_OK, bkCr)
-                    .times(2);
+                    .always();
 
 
             List<Pod> pods = new ArrayList<>();
@@ -241,6 +242,39 @@ public class BookKeeperAutoscalerTest {
                         }
                     })
                     .once();
+
+            server.expect()
+                    .patch()
+                    .withPath(
+                            "/apis/kaap.oss.datastax.com/v1beta1/namespaces/ns/bookkeepers/%s-bookkeeper/status"
+                                    .formatted(clusterSpecName))
+                    .andReply(HttpURLConnection.HTTP_OK, new BodyProvider<Object>() {
+                        @Override
+                        @SneakyThrows
+                        public Object getBody(RecordedRequest recordedRequest) {
+                            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                            recordedRequest.getBody().copyTo(byteArrayOutputStream);
+                            final ObjectMapper mapper = new ObjectMapper();
+                            for (Object op : mapper.readValue(byteArrayOutputStream.toByteArray(), List.class)) {
+                                statusPatchOps.add(mapper.convertValue(op, PatchOp.class));
+                            }
+                            return bkCr;
+                        }
+                    })
+                    .always();
+        }
+
+        /**
+         * @return the last evaluation of the default bookkeeper set saved in the status.
+         */
+        Map<String, Object> getLastEvaluation() {
+            final PatchOp op = statusPatchOps.stream()
+                    .filter(o -> o.getPath().equals("/status/autoscalerHistory"))
+                    .reduce((first, second) -> second)
+                    .orElseThrow();
+            final List<Map<String, Object>> history = (List<Map<String, Object>>) ((Map<String, Object>) op
+                    .getValue()).get(BookKeeperResourcesFactory.BOOKKEEPER_DEFAULT_SET);
+            return history.get(history.size() - 1);
         }
 
         @Override
@@ -366,6 +400,12 @@ public class BookKeeperAutoscalerTest {
                 },
                 bookieInfofunc);
         Assert.assertNull(mockServer.patchOp);
+        final Map<String, Object> evaluation = mockServer.getLastEvaluation();
+        Assert.assertEquals(evaluation.get("decision"), "Stable");
+        Assert.assertEquals(evaluation.get("replicas"), 3);
+        Assert.assertEquals(evaluation.get("reason"), "3 writable bookies (0 at risk), 0 read-only, min writable 3");
+        Assert.assertEquals(((Map<String, Object>) evaluation.get("metrics")).get("pul-bookkeeper-0"),
+                Map.of("writable", 1.0, "diskUsage", 0.1));
     }
 
     private PodResource getMockPodResource() {
@@ -428,6 +468,8 @@ public class BookKeeperAutoscalerTest {
                 },
                 bookieInfofunc);
         Assert.assertEquals(5, mockServer.patchOp.getValue());
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "ScaleUp");
+        Assert.assertEquals(mockServer.getLastEvaluation().get("replicas"), 5);
     }
 
     /**
@@ -861,6 +903,7 @@ public class BookKeeperAutoscalerTest {
                 },
                 bookieInfofunc);
         Assert.assertNull(mockServer.patchOp);
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "Skipped");
     }
 
     @Test
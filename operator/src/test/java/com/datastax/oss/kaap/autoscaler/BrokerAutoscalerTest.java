@@ -15,9 +15,15 @@
  */
 package com.datastax.oss.kaap.autoscaler;
 
+import com.datastax.oss.kaap.autoscaler.broker.BrokerAdminClient;
+import com.datastax.oss.kaap.autoscaler.broker.BrokerResourceUsageSource;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
+import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.broker.Broker;
+import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerFullSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerStatus;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
 import com.datastax.oss.kaap.mocks.MockKubernetesClient;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,6 +33,7 @@ import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.api.model.PodSpecBuilder;
 import io.fabric8.kubernetes.api.model.PodStatusBuilder;
 import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
@@ -45,9 +52,16 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import lombok.Builder;
 import lombok.Data;
 import lombok.SneakyThrows;
@@ -72,9 +86,11 @@ public class BrokerAutoscalerTest {
         private PulsarClusterSpec pulsarClusterSpec;
         private PodConsumer podConsumer;
         private Consumer<StatefulSet> stsConsumer;
+        private Consumer<Broker> brokerConsumer;
         KubernetesServer server;
 
         PatchOp patchOp;
+        final List<PatchOp> statusPatchOps = new ArrayList<>();
 
         @Data
         public static class PatchOp {
@@ -93,6 +109,9 @@ public class BrokerAutoscalerTest {
                     .global(pulsarClusterSpec.getGlobal())
                     .broker(pulsarClusterSpec.getBroker())
                     .build());
+            if (brokerConsumer != null) {
+                brokerConsumer.accept(brokerCr);
+            }
 
             final String clusterSpecName = pulsarClusterSpec.getGlobal().getName();
 
@@ -131,7 +150,7 @@ public class BrokerAutoscalerTest {
                     .withPath("/apis/kaap.oss.datastax.com/v1beta1/namespaces/ns/brokers/%s-broker".formatted(
                             clusterSpecName))
                     .andReturn(HttpURLConnection.HTTP_OK, brokerCr)
-                    .times(2);
+                    .always();
 
 
             List<Pod> pods = new ArrayList<>();
@@ -163,6 +182,8 @@ public class BrokerAutoscalerTest {
                         .endMetadata()
                         .withContainers(
                                 new ContainerMetricsBuilder()
+                                        .withName(sts.getSpec().getTemplate().getSpec().getContainers().get(0)
+                                                .getName())
                                         .withUsage(Map.of("cpu", Quantity.parse("300Mi")))
                                         .build()
                         )
@@ -170,12 +191,6 @@ public class BrokerAutoscalerTest {
                 podConsumer.accept(pod, podMetrics, i);
                 pods.add(pod);
                 podsMetrics.add(podMetrics);
-
-                server.expect()
-                        .get()
-                        .withPath("/api/v1/namespaces/ns/pods/%s".formatted(podName))
-                        .andReturn(HttpURLConnection.HTTP_OK, pod)
-                        .once();
             }
             final PodList podList = new PodListBuilder()
                     .withItems(pods)
@@ -189,7 +204,7 @@ public class BrokerAutoscalerTest {
                             )
                     )
                     .andReturn(HttpURLConnection.HTTP_OK, podList)
-                    .once();
+                    .always();
 
             final PodMetricsList podMetricsList = new PodMetricsListBuilder()
                     .withItems(podsMetrics)
@@ -223,6 +238,44 @@ public class BrokerAutoscalerTest {
                         }
                     })
                     .once();
+
+            server.expect()
+                    .patch()
+                    .withPath("/apis/kaap.oss.datastax.com/v1beta1/namespaces/ns/brokers/%s-broker/status".formatted(
+                            clusterSpecName))
+                    .andReply(HttpURLConnection.HTTP_OK, new BodyProvider<Object>() {
+                        @Override
+                        @SneakyThrows
+                        public Object getBody(RecordedRequest recordedRequest) {
+                            final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+                            recordedRequest.getBody().copyTo(byteArrayOutputStream);
+                            final ObjectMapper mapper = new ObjectMapper();
+                            for (Object op : mapper.readValue(byteArrayOutputStream.toByteArray(), List.class)) {
+                                statusPatchOps.add(mapper.convertValue(op, PatchOp.class));
+                            }
+                            return brokerCr;
+                        }
+                    })
+                    .always();
+        }
+
+        List<PatchOp> getScaleDownPatchOps() {
+            return statusPatchOps.stream()
+                    .filter(op -> op.getPath().startsWith("/status/scaleDown"))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * @return the last evaluation of the default broker set saved in the status.
+         */
+        Map<String, Object> getLastEvaluation() {
+            final PatchOp op = statusPatchOps.stream()
+                    .filter(o -> o.getPath().equals("/status/autoscalerHistory"))
+                    .reduce((first, second) -> second)
+                    .orElseThrow();
+            final List<Map<String, Object>> history = (List<Map<String, Object>>) ((Map<String, Object>) op
+                    .getValue()).get(BrokerResourcesFactory.BROKER_DEFAULT_SET);
+            return history.get(history.size() - 1);
         }
 
         @Override
@@ -250,6 +303,15 @@ public class BrokerAutoscalerTest {
         }, statefulSet -> {
         });
         Assert.assertEquals(4, mockServer.patchOp.getValue());
+        final Map<String, Object> evaluation = mockServer.getLastEvaluation();
+        Assert.assertEquals(evaluation.get("decision"), "ScaleUp");
+        Assert.assertEquals(evaluation.get("replicas"), 4);
+        Assert.assertEquals(evaluation.get("reason"),
+                "3/3 brokers over the higher threshold, 0 under the lower threshold");
+        Assert.assertEquals(evaluation.get("metrics"), Map.of(
+                "pul-broker-0", Map.of("cpu", 0.9),
+                "pul-broker-1", Map.of("cpu", 0.9),
+                "pul-broker-2", Map.of("cpu", 0.9)));
     }
 
     @Test
@@ -273,6 +335,308 @@ public class BrokerAutoscalerTest {
         Assert.assertEquals(2, mockServer.patchOp.getValue());
     }
 
+    @Test
+    public void testK8SMetricsSidecar() {
+        final String spec = """
+                global:
+                   name: pul
+                broker:
+                    replicas: 3
+                    autoscaler:
+                        enabled: true
+                        resourcesUsageSource: K8SMetrics
+                    resources:
+                        requests:
+                            cpu: 1
+                """;
+        // only the broker container is compared with its requests, the idle sidecar is ignored
+        MockServer mockServer = runAutoscaler(spec, (pod, metrics, i) -> addSidecar(pod, metrics, "0.5"),
+                statefulSet -> {
+                });
+        Assert.assertEquals(mockServer.patchOp.getValue(), 4);
+
+        // a sidecar without cpu requests doesn't make the pods unusable
+        mockServer = runAutoscaler(spec, (pod, metrics, i) -> addSidecar(pod, metrics, null), statefulSet -> {
+        });
+        Assert.assertEquals(mockServer.patchOp.getValue(), 4);
+
+        final String specWithSidecar = """
+                global:
+                   name: pul
+                broker:
+                    replicas: 3
+                    autoscaler:
+                        enabled: true
+                        resourcesUsageSource: K8SMetrics
+                        k8sMetricsContainers:
+                        - pul-broker
+                        - sidecar
+                    resources:
+                        requests:
+                            cpu: 1
+                """;
+        mockServer = runAutoscaler(specWithSidecar, (pod, metrics, i) -> addSidecar(pod, metrics, "0.5"),
+                statefulSet -> {
+                });
+        // (0.9 + 0.05) / (1 + 0.5) is under the higher threshold
+        Assert.assertNull(mockServer.patchOp);
+
+        mockServer = runAutoscaler(specWithSidecar, (pod, metrics, i) -> addSidecar(pod, metrics, null),
+                statefulSet -> {
+                });
+        Assert.assertNull(mockServer.patchOp);
+        // the pods are reported without usage instead of being dropped
+        Assert.assertEquals(mockServer.getLastEvaluation().get("reason"),
+                "0/0 brokers over the higher threshold, 0 under the lower threshold, 3 brokers without usage");
+    }
+
+    @Test
+    public void testK8SMetricsPodUnavailable() {
+        final String spec = """
+                global:
+                   name: pul
+                broker:
+                    replicas: 3
+                    autoscaler:
+                        enabled: true
+                        resourcesUsageSource: K8SMetrics
+                    resources:
+                        requests:
+                            cpu: 1
+                """;
+        final MockServer mockServer = runAutoscaler(spec, (pod, metrics, i) -> {
+            if (i == 2) {
+                metrics.getContainers().clear();
+            } else {
+                metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.9"));
+            }
+        }, statefulSet -> {
+        });
+        final Map<String, Object> evaluation = mockServer.getLastEvaluation();
+        Assert.assertEquals(evaluation.get("reason"),
+                "2/2 brokers over the higher threshold, 0 under the lower threshold, 1 brokers without usage");
+    }
+
+    private static void addSidecar(Pod pod, PodMetrics metrics, String cpuRequests) {
+        // the sidecar is listed first in the metrics, usage and requests are joined by container name
+        pod.setSpec(new PodSpecBuilder(pod.getSpec())
+                .addNewContainer()
+                .withName("sidecar")
+                .withNewResources()
+                .withRequests(cpuRequests == null ? Map.of() : Map.of("cpu", Quantity.parse(cpuRequests)))
+                .endResources()
+                .endContainer()
+                .build());
+        metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.9"));
+        metrics.getContainers().add(0, new ContainerMetricsBuilder()
+                .withName("sidecar")
+                .withUsage(new HashMap<>(Map.of("cpu", Quantity.parse("0.05"))))
+                .build());
+    }
+
+    private static class MockBrokerAdminClient implements BrokerAdminClient {
+        private final Map<String, Set<String>> bundles;
+        private final boolean unloadFails;
+        private final List<String> unloaded = new ArrayList<>();
+        private final List<String> destinations = new ArrayList<>();
+        // bundles assigned back to the same broker by the load manager
+        private final Set<String> reassigned = new HashSet<>();
+
+        MockBrokerAdminClient(Map<String, Set<String>> bundles) {
+            this(bundles, false);
+        }
+
+        MockBrokerAdminClient(Map<String, Set<String>> bundles, boolean unloadFails) {
+            this.bundles = new HashMap<>();
+            bundles.forEach((broker, owned) -> this.bundles.put(broker, new TreeSet<>(owned)));
+            this.unloadFails = unloadFails;
+        }
+
+        @Override
+        public Set<String> getOwnedBundles(String podName) {
+            return new TreeSet<>(bundles.getOrDefault(podName, Set.of()));
+        }
+
+        @Override
+        public String getBrokerId(String podName) {
+            return podName + ":8080";
+        }
+
+        @Override
+        public void unloadBundle(String podName, String bundle, String destinationBroker) {
+            if (unloadFails) {
+                throw new IllegalStateException("unload failed");
+            }
+            unloaded.add(podName + "/" + bundle);
+            destinations.add(destinationBroker);
+            if (!reassigned.contains(bundle)) {
+                bundles.get(podName).remove(bundle);
+            }
+        }
+    }
+
+    private static final String SCALE_DOWN_SPEC = """
+            global:
+               name: pul
+            broker:
+                replicas: 3
+                autoscaler:
+                    enabled: true
+                    resourcesUsageSource: K8SMetrics
+                resources:
+                    requests:
+                        cpu: 1
+            """;
+
+    private static void setScaleDownStatus(Broker broker, Instant startTime) {
+        final BrokerStatus status = new BrokerStatus();
+        status.setScaleDown(Map.of(BrokerResourcesFactory.BROKER_DEFAULT_SET, BrokerStatus.ScaleDownStatus.builder()
+                .fromReplicas(3)
+                .toReplicas(2)
+                .brokers(List.of("pul-broker-2"))
+                .startTime(startTime.toString())
+                .remainingBundles(1)
+                .build()));
+        broker.setStatus(status);
+    }
+
+    @Test
+    public void testDrainBeforeScaleDown() {
+        // the bundles are unloaded and the victim is removed in the same check
+        MockBrokerAdminClient adminClient = new MockBrokerAdminClient(Map.of(
+                "pul-broker-1", Set.of("public/default/0x00000000_0x80000000"),
+                "pul-broker-2", Set.of("public/default/0x80000000_0xffffffff", "public/perf/0x00000000_0xffffffff")));
+        MockServer mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, null, adminClient);
+        Assert.assertEquals(mockServer.patchOp.getValue(), 2);
+        Assert.assertEquals(adminClient.unloaded, List.of("pul-broker-2/public/default/0x80000000_0xffffffff",
+                "pul-broker-2/public/perf/0x00000000_0xffffffff"));
+        Assert.assertTrue(mockServer.getScaleDownPatchOps().isEmpty());
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "ScaleDown");
+        Assert.assertEquals(mockServer.getLastEvaluation().get("replicas"), 2);
+        Assert.assertTrue(((String) mockServer.getLastEvaluation().get("reason"))
+                .contains("brokers [pul-broker-2] drained"));
+
+        // the bundles can't be unloaded, the progress is saved in the status
+        adminClient = new MockBrokerAdminClient(Map.of(
+                "pul-broker-2", Set.of("public/default/0x80000000_0xffffffff")), true);
+        mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, null, adminClient);
+        Assert.assertNull(mockServer.patchOp);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().size(), 1);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().get(0).getPath(), "/status/scaleDown");
+        final Map<String, Object> scaleDown = (Map<String, Object>) ((Map<String, Object>) mockServer
+                .getScaleDownPatchOps().get(0).getValue()).get(BrokerResourcesFactory.BROKER_DEFAULT_SET);
+        Assert.assertEquals(scaleDown.get("fromReplicas"), 3);
+        Assert.assertEquals(scaleDown.get("toReplicas"), 2);
+        Assert.assertEquals(scaleDown.get("brokers"), List.of("pul-broker-2"));
+        Assert.assertEquals(scaleDown.get("remainingBundles"), 1);
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "Draining");
+        Assert.assertEquals(mockServer.getLastEvaluation().get("replicas"), 3);
+
+        // resumed from the status, the broker doesn't own any bundle anymore
+        mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, broker -> setScaleDownStatus(broker, Instant.now()), new MockBrokerAdminClient(Map.of()));
+        Assert.assertEquals(mockServer.patchOp.getValue(), 2);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().size(), 1);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().get(0).getOp(), "remove");
+
+        // resumed from the status, the drain timeout is expired
+        mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, broker -> setScaleDownStatus(broker, Instant.now().minusSeconds(3600)), new MockBrokerAdminClient(
+                Map.of("pul-broker-2", Set.of("public/default/0x80000000_0xffffffff")), true));
+        Assert.assertEquals(mockServer.patchOp.getValue(), 2);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().get(0).getOp(), "remove");
+
+        // the load increased again, the scale down is aborted
+        mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.9"));
+        }, statefulSet -> {
+        }, broker -> setScaleDownStatus(broker, Instant.now()), new MockBrokerAdminClient(
+                Map.of("pul-broker-2", Set.of("public/default/0x80000000_0xffffffff")), true));
+        Assert.assertEquals(mockServer.patchOp.getValue(), 4);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().get(0).getOp(), "remove");
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "ScaleUp");
+        Assert.assertTrue(((String) mockServer.getLastEvaluation().get("reason")).startsWith(
+                "scale down to 2 aborted, "));
+    }
+
+    @Test
+    public void testDrainBundleReassignedToVictim() {
+        MockBrokerAdminClient adminClient = new MockBrokerAdminClient(Map.of(
+                "pul-broker-2", Set.of("public/default/0x80000000_0xffffffff", "public/perf/0x00000000_0xffffffff")));
+        adminClient.reassigned.add("public/default/0x80000000_0xffffffff");
+        MockServer mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, null, adminClient);
+        // each bundle is unloaded once per check, to the remaining brokers
+        Assert.assertEquals(adminClient.unloaded, List.of("pul-broker-2/public/default/0x80000000_0xffffffff",
+                "pul-broker-2/public/perf/0x00000000_0xffffffff"));
+        Assert.assertEquals(Set.copyOf(adminClient.destinations), Set.of("pul-broker-0:8080", "pul-broker-1:8080"));
+        Assert.assertNull(mockServer.patchOp);
+        final Map<String, Object> scaleDown = (Map<String, Object>) ((Map<String, Object>) mockServer
+                .getScaleDownPatchOps().get(0).getValue()).get(BrokerResourcesFactory.BROKER_DEFAULT_SET);
+        Assert.assertEquals(scaleDown.get("remainingBundles"), 1);
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "Draining");
+
+        // the bundle keeps coming back, the broker is removed once the drain timeout is expired
+        adminClient = new MockBrokerAdminClient(Map.of(
+                "pul-broker-2", Set.of("public/default/0x80000000_0xffffffff")));
+        adminClient.reassigned.add("public/default/0x80000000_0xffffffff");
+        mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, broker -> setScaleDownStatus(broker, Instant.now().minusSeconds(3600)), adminClient);
+        Assert.assertEquals(adminClient.unloaded, List.of("pul-broker-2/public/default/0x80000000_0xffffffff"));
+        Assert.assertFalse(adminClient.destinations.contains("pul-broker-2:8080"));
+        Assert.assertEquals(mockServer.patchOp.getValue(), 2);
+        Assert.assertEquals(mockServer.getScaleDownPatchOps().get(0).getOp(), "remove");
+        Assert.assertTrue(((String) mockServer.getLastEvaluation().get("reason"))
+                .contains("brokers [pul-broker-2] not drained"));
+    }
+
+    @Test
+    public void testDrainUnloadsCappedPerCheck() {
+        final Set<String> bundles = new TreeSet<>();
+        for (int i = 0; i < BrokerSetAutoscaler.MAX_BUNDLE_UNLOADS_PER_CHECK + 10; i++) {
+            bundles.add("public/default-%d/0x00000000_0xffffffff".formatted(i));
+        }
+        final MockBrokerAdminClient adminClient = new MockBrokerAdminClient(Map.of("pul-broker-2", bundles));
+        final MockServer mockServer = runAutoscaler(SCALE_DOWN_SPEC, (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, null, adminClient);
+        // the remaining bundles are unloaded at the next checks
+        Assert.assertNull(mockServer.patchOp);
+        Assert.assertEquals(adminClient.unloaded.size(), BrokerSetAutoscaler.MAX_BUNDLE_UNLOADS_PER_CHECK);
+        final Map<String, Object> scaleDown = (Map<String, Object>) ((Map<String, Object>) mockServer
+                .getScaleDownPatchOps().get(0).getValue()).get(BrokerResourcesFactory.BROKER_DEFAULT_SET);
+        Assert.assertEquals(scaleDown.get("remainingBundles"), 10);
+        Assert.assertEquals(mockServer.getLastEvaluation().get("decision"), "Draining");
+    }
+
+    @Test
+    public void testScaleDownWithoutDrain() {
+        final MockBrokerAdminClient adminClient = new MockBrokerAdminClient(Map.of(
+                "pul-broker-2", Set.of("public/default/0x80000000_0xffffffff")), true);
+        final MockServer mockServer = runAutoscaler(SCALE_DOWN_SPEC.replace("enabled: true",
+                "enabled: true\n        drainBeforeScaleDown: false"), (pod, metrics, i) -> {
+            metrics.getContainers().get(0).getUsage().put("cpu", Quantity.parse("0.1"));
+        }, statefulSet -> {
+        }, null, adminClient);
+        Assert.assertEquals(mockServer.patchOp.getValue(), 2);
+        Assert.assertTrue(adminClient.unloaded.isEmpty());
+    }
+
     @Test
     public void testStsNotReady() {
         final String spec = """
@@ -341,18 +705,254 @@ public class BrokerAutoscalerTest {
         Assert.assertNull(mockServer.patchOp);
     }
 
+    @Test
+    public void testDecisionWithMissingSamples() {
+        final BrokerAutoscalerSpec autoscalerSpec = BrokerAutoscalerSpec.builder()
+                .lowerCpuThreshold(0.3d)
+                .higherCpuThreshold(0.8d)
+                .build();
+        final BrokerResourceUsageSource.ResourceUsage timedOut = BrokerResourceUsageSource.ResourceUsage
+                .unavailable("pul-broker-2", BrokerResourceUsageSource.SampleStatus.TIMEOUT, "no response");
+
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.95f),
+                timedOut)), Optional.of(true));
+        // the missing broker might be busy
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f),
+                timedOut)), Optional.empty());
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f))), Optional.of(false));
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(timedOut)),
+                Optional.empty());
+    }
+
+    @Test
+    public void testDecisionWithBrokersRatio() {
+        final BrokerAutoscalerSpec autoscalerSpec = BrokerAutoscalerSpec.builder()
+                .lowerCpuThreshold(0.3d)
+                .higherCpuThreshold(0.8d)
+                .scaleUpBrokersRatio(0.5d)
+                .scaleDownBrokersRatio(0.6d)
+                .build();
+        // one idle broker doesn't block the scale up
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f))), Optional.of(true));
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.5f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.5f))), Optional.empty());
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.5f))), Optional.of(false));
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.5f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.5f))), Optional.empty());
+
+        // never scale down while a broker is busy
+        autoscalerSpec.setScaleUpBrokersRatio(1.0d);
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.9f))), Optional.empty());
+    }
+
+    @Test
+    public void testTargetTracking() {
+        final BrokerAutoscalerSpec autoscalerSpec = BrokerAutoscalerSpec.builder()
+                .scalingPolicy(BrokerAutoscalerSpec.SCALING_POLICY_TARGET_TRACKING)
+                .targetCpuUtilization(0.6d)
+                .targetTolerance(0.1d)
+                .maxScaleUpStep(10)
+                .maxScaleDownStep(1)
+                .min(1)
+                .max(20)
+                .build();
+        // 3x surge absorbed in one step
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 3, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.9f))), Optional.of(5));
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 3, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.8f))), Optional.of(5));
+        // within tolerance
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 3, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.65f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.6f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.55f))), Optional.empty());
+        // max step
+        autoscalerSpec.setMaxScaleUpStep(1);
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 3, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.9f))), Optional.of(4));
+        // max
+        autoscalerSpec.setMaxScaleUpStep(10);
+        autoscalerSpec.setMax(4);
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 3, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.9f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.9f))), Optional.of(4));
+
+        // scale down by the max step, never under min
+        autoscalerSpec.setMin(2);
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 4, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-3", 0.1f))), Optional.of(3));
+        autoscalerSpec.setMaxScaleDownStep(10);
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 4, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-3", 0.1f))), Optional.of(2));
+        // the missing broker might be busy
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 4, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.1f),
+                BrokerResourceUsageSource.ResourceUsage.unavailable("pul-broker-3",
+                        BrokerResourceUsageSource.SampleStatus.TIMEOUT, "no response"))), Optional.empty());
+    }
+
+    private static BrokerResourceUsageSource.ResourceUsage usage(String pod, double cpu, double memory,
+                                                                 double msgRateIn) {
+        return new BrokerResourceUsageSource.ResourceUsage(pod, Map.of(
+                BrokerResourceUsageSource.METRIC_CPU, cpu,
+                BrokerResourceUsageSource.METRIC_MEMORY, memory,
+                BrokerResourceUsageSource.METRIC_MSG_RATE_IN, msgRateIn));
+    }
+
+    @Test
+    public void testMultipleMetrics() {
+        final BrokerAutoscalerSpec autoscalerSpec = BrokerAutoscalerSpec.builder()
+                .lowerCpuThreshold(0.3d)
+                .higherCpuThreshold(0.8d)
+                .metrics(List.of(
+                        BrokerAutoscalerSpec.MetricSpec.builder()
+                                .name(BrokerResourceUsageSource.METRIC_CPU)
+                                .lowerThreshold(0.3d)
+                                .higherThreshold(0.8d)
+                                .target(0.6d)
+                                .build(),
+                        BrokerAutoscalerSpec.MetricSpec.builder()
+                                .name(BrokerResourceUsageSource.METRIC_MEMORY)
+                                .lowerThreshold(0.5d)
+                                .higherThreshold(0.9d)
+                                .build(),
+                        BrokerAutoscalerSpec.MetricSpec.builder()
+                                .name(BrokerResourceUsageSource.METRIC_MSG_RATE_IN)
+                                .higherThreshold(10000d)
+                                .target(5000d)
+                                .build()))
+                .targetTolerance(0.1d)
+                .maxScaleUpStep(10)
+                .maxScaleDownStep(1)
+                .build();
+
+        // low cpu but memory over the threshold
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                usage("pul-broker-0", 0.1d, 0.95d, 100d),
+                usage("pul-broker-1", 0.1d, 0.95d, 100d))), Optional.of(true));
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                usage("pul-broker-0", 0.1d, 0.2d, 20000d),
+                usage("pul-broker-1", 0.1d, 0.2d, 20000d))), Optional.of(true));
+        // cpu under the lower threshold but memory not
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                usage("pul-broker-0", 0.1d, 0.6d, 100d),
+                usage("pul-broker-1", 0.1d, 0.6d, 100d))), Optional.empty());
+        // msgRateIn has no lower threshold
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                usage("pul-broker-0", 0.1d, 0.2d, 9000d),
+                usage("pul-broker-1", 0.1d, 0.2d, 9000d))), Optional.of(false));
+        // metrics not reported by the source are skipped
+        Assert.assertEquals(BrokerSetAutoscaler.decideScaleUpOrDown("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.1f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.1f))), Optional.of(false));
+
+        // msgRateIn drives the scale up: 2 * 7500 / 5000
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 2, List.of(
+                usage("pul-broker-0", 0.6d, 0.2d, 7000d),
+                usage("pul-broker-1", 0.6d, 0.2d, 8000d))), Optional.of(3));
+        // cpu drives the scale up: 2 * 0.9 / 0.6
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 2, List.of(
+                usage("pul-broker-0", 0.9d, 0.2d, 5000d),
+                usage("pul-broker-1", 0.9d, 0.2d, 5000d))), Optional.of(3));
+        // no scale down while msgRateIn is at the target
+        Assert.assertEquals(BrokerSetAutoscaler.decideTargetReplicas("broker", autoscalerSpec, 2, List.of(
+                usage("pul-broker-0", 0.1d, 0.2d, 5000d),
+                usage("pul-broker-1", 0.1d, 0.2d, 5000d))), Optional.empty());
+    }
+
+    @Test
+    public void testPredictive() {
+        final BrokerAutoscalerSpec autoscalerSpec = BrokerAutoscalerSpec.builder()
+                .targetCpuUtilization(0.5d)
+                .min(1)
+                .max(8)
+                .build();
+        // 4 brokers at 0.75 cpu, 6 brokers are needed at 0.5
+        Assert.assertEquals(BrokerSetAutoscaler.computeLoadInBrokers("broker", autoscalerSpec, List.of(
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", 0.7f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-1", 0.8f),
+                new BrokerResourceUsageSource.ResourceUsage("pul-broker-2", 0.75f),
+                BrokerResourceUsageSource.ResourceUsage.unavailable("pul-broker-3",
+                        BrokerResourceUsageSource.SampleStatus.TIMEOUT, "no response"))).getAsDouble(),
+                6d, 0.0001d);
+
+        // scale up ahead of the peak
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 3,
+                Optional.empty(), OptionalDouble.of(5.2d)), Optional.of(6));
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 3,
+                Optional.of(4), OptionalDouble.of(5.2d)), Optional.of(6));
+        // never lower than the policy
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 3,
+                Optional.of(4), OptionalDouble.of(2d)), Optional.of(4));
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 3,
+                Optional.empty(), OptionalDouble.of(2d)), Optional.empty());
+        // a scale down is limited by the forecast
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 5,
+                Optional.of(4), OptionalDouble.of(5d)), Optional.of(5));
+        // bounded by max
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 3,
+                Optional.empty(), OptionalDouble.of(20d)), Optional.of(8));
+        Assert.assertEquals(BrokerSetAutoscaler.decidePredictiveReplicas("broker", autoscalerSpec, 3,
+                Optional.of(4), OptionalDouble.empty()), Optional.of(4));
+    }
+
     private MockServer runAutoscaler(String spec, MockServer.PodConsumer podConf, Consumer<StatefulSet> stsConf) {
+        return runAutoscaler(spec, podConf, stsConf, null, new MockBrokerAdminClient(Map.of()));
+    }
+
+    private MockServer runAutoscaler(String spec, MockServer.PodConsumer podConf, Consumer<StatefulSet> stsConf,
+                                     Consumer<Broker> brokerConf, BrokerAdminClient brokerAdminClient) {
         final PulsarClusterSpec pulsarClusterSpec = MockKubernetesClient.readYaml(spec, PulsarClusterSpec.class);
         try (final MockServer server = MockServer.builder()
                 .withPulsarClusterSpec(pulsarClusterSpec)
                 .withPodConsumer(podConf)
                 .withStsConsumer(stsConf)
+                .withBrokerConsumer(brokerConf)
                 .build();) {
             server.start();
 
             final BrokerSetAutoscaler brokerAutoscaler =
                     new BrokerSetAutoscaler(server.server.getClient(), NAMESPACE,
-                            BrokerResourcesFactory.BROKER_DEFAULT_SET, pulsarClusterSpec);
+                            BrokerResourcesFactory.BROKER_DEFAULT_SET, pulsarClusterSpec) {
+                        @Override
+                        protected BrokerAdminClient newBrokerAdminClient(GlobalSpec currentGlobalSpec,
+                                                                         BrokerSetSpec currentBrokerSetSpec) {
+                            return brokerAdminClient;
+                        }
+                    };
             brokerAutoscaler.internalRun();
             return server;
         }
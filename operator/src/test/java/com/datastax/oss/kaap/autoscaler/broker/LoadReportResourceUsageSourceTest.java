@@ -15,28 +15,38 @@
  */
 package com.datastax.oss.kaap.autoscaler.broker;
 
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
 import com.datastax.oss.kaap.controllers.broker.BrokerResourcesFactory;
+import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.broker.Broker;
 import com.datastax.oss.kaap.crds.broker.BrokerFullSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
 import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
 import com.datastax.oss.kaap.mocks.MockKubernetesClient;
+import com.sun.net.httpserver.HttpServer;
 import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
 import io.fabric8.kubernetes.api.model.Pod;
 import io.fabric8.kubernetes.api.model.PodBuilder;
 import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.PodListBuilder;
 import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
 import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
 import io.fabric8.kubernetes.client.server.mock.OutputStreamMessage;
 import java.lang.reflect.Field;
 import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutionException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import lombok.Builder;
 import lombok.SneakyThrows;
 import org.testng.Assert;
@@ -121,7 +131,7 @@ public class LoadReportResourceUsageSourceTest {
         }
     }
 
-    @Test(expectedExceptions = ExecutionException.class)
+    @Test
     public void testLastFailed() throws Exception {
         final String spec = """
                 global:
@@ -158,6 +168,128 @@ public class LoadReportResourceUsageSourceTest {
                     }
 
                 });
+        Assert.assertEquals(brokersResourceUsages.size(), 2);
+        Assert.assertTrue(brokersResourceUsages.get(0).isAvailable());
+        Assert.assertEquals(brokersResourceUsages.get(0).getPercentCpu() + "", "0.29");
+        Assert.assertEquals(brokersResourceUsages.get(1).getPod(), "pul-broker-1");
+        Assert.assertFalse(brokersResourceUsages.get(1).isAvailable());
+        Assert.assertEquals(brokersResourceUsages.get(1).getStatus(), BrokerResourceUsageSource.SampleStatus.FAILED);
+    }
+
+    @Test
+    public void testParseOwnedBundles() {
+        Assert.assertEquals(PodExecBrokerAdminClient.parseOwnedBundles("pul-broker-0", """
+                {
+                    "cpu": {"usage": 2.0, "limit": 8.0},
+                    "bundles": ["public/perf/0x00000000_0xffffffff", "public/default/0x00000000_0x80000000"]
+                }
+                """), Set.of("public/default/0x00000000_0x80000000", "public/perf/0x00000000_0xffffffff"));
+        Assert.assertEquals(PodExecBrokerAdminClient.parseOwnedBundles("pul-broker-0", """
+                {"cpu": {"usage": 2.0, "limit": 8.0}, "bundles": []}
+                """), Set.of());
+        Assert.assertThrows(IllegalStateException.class, () -> PodExecBrokerAdminClient.parseOwnedBundles(
+                "pul-broker-0", "{\"cpu\": {\"usage\": 2.0, \"limit\": 8.0}}"));
+    }
+
+    @Test
+    public void testAdminClientTimeout() {
+        final CompletableFuture<String> slow = new CompletableFuture<>();
+        final PodExecBrokerAdminClient adminClient = new PodExecBrokerAdminClient(null, "ns", null, "broker", null,
+                Duration.ofMillis(100)) {
+            @Override
+            protected CompletableFuture<String> callRestApi(String podName, String method, String path) {
+                return slow;
+            }
+        };
+        final IllegalStateException e = Assert.expectThrows(IllegalStateException.class,
+                () -> adminClient.unloadBundle("pul-broker-0", "public/default/0x00000000_0xffffffff", null));
+        Assert.assertEquals(e.getMessage(), "Broker pul-broker-0 didn't respond in 100 ms");
+        Assert.assertTrue(slow.isCancelled());
+        Assert.assertThrows(IllegalStateException.class, () -> adminClient.getOwnedBundles("pul-broker-0"));
+    }
+
+    @Test
+    public void testUnloadBundleToDestination() {
+        final GlobalSpec globalSpec = GlobalSpec.builder().name("pul").build();
+        globalSpec.applyDefaults(null);
+        final List<String> paths = new ArrayList<>();
+        final PodExecBrokerAdminClient adminClient = new PodExecBrokerAdminClient(null, "ns", globalSpec, "broker",
+                BrokerSetSpec.builder().build()) {
+            @Override
+            protected CompletableFuture<String> callRestApi(String podName, String method, String path) {
+                paths.add(method + " " + path);
+                return CompletableFuture.completedFuture("");
+            }
+        };
+        final String destination = adminClient.getBrokerId("pul-broker-1");
+        Assert.assertEquals(destination, "pul-broker-1.pul-broker.ns.svc.cluster.local:8080");
+        adminClient.unloadBundle("pul-broker-0", "public/default/0x00000000_0xffffffff", destination);
+        adminClient.unloadBundle("pul-broker-0", "public/default/0x00000000_0xffffffff", null);
+        Assert.assertEquals(paths, List.of(
+                "PUT /admin/v2/namespaces/public/default/0x00000000_0xffffffff/unload"
+                        + "?destinationBroker=pul-broker-1.pul-broker.ns.svc.cluster.local%3A8080",
+                "PUT /admin/v2/namespaces/public/default/0x00000000_0xffffffff/unload"));
+    }
+
+    @Test
+    public void testCollect() {
+        final Duration timeout = Duration.ofMillis(100);
+        final CompletableFuture<String> slow = new CompletableFuture<>();
+        BrokerResourceUsageSource.ResourceUsage usage = LoadReportResourceUsageSource.collect("pul-broker-0", slow,
+                System.nanoTime() + timeout.toNanos(), timeout);
+        Assert.assertEquals(usage.getStatus(), BrokerResourceUsageSource.SampleStatus.TIMEOUT);
+        Assert.assertTrue(slow.isCancelled());
+
+        usage = LoadReportResourceUsageSource.collect("pul-broker-0",
+                CompletableFuture.failedFuture(new IllegalStateException("exec failed")),
+                System.nanoTime() + timeout.toNanos(), timeout);
+        Assert.assertEquals(usage.getStatus(), BrokerResourceUsageSource.SampleStatus.FAILED);
+        Assert.assertEquals(usage.getError(), "exec failed");
+
+        usage = LoadReportResourceUsageSource.collect("pul-broker-0",
+                CompletableFuture.completedFuture("{\"other\": {}}"),
+                System.nanoTime() + timeout.toNanos(), timeout);
+        Assert.assertEquals(usage.getStatus(), BrokerResourceUsageSource.SampleStatus.FAILED);
+
+        usage = LoadReportResourceUsageSource.collect("pul-broker-0",
+                CompletableFuture.completedFuture("{\"cpu\": {\"usage\": 2.0, \"limit\": 8.0}}"),
+                System.nanoTime() + timeout.toNanos(), timeout);
+        Assert.assertTrue(usage.isAvailable());
+        Assert.assertEquals(usage.getPercentCpu() + "", "0.25");
+    }
+
+    @Test
+    public void testParseFullLoadReport() {
+        final BrokerResourceUsageSource.ResourceUsage usage = LoadReportResourceUsageSource.parseLoadReport(
+                "pul-broker-0", """
+                        {
+                            "cpu": {"usage": 2.0, "limit": 8.0},
+                            "memory": {"usage": 512.0, "limit": 1024.0},
+                            "directMemory": {"usage": 256.0, "limit": 1024.0},
+                            "bandwidthIn": {"usage": 100.0, "limit": -1.0},
+                            "bandwidthOut": {"usage": 100.0, "limit": 1000.0},
+                            "msgRateIn": 1500.5,
+                            "msgRateOut": 3000.0,
+                            "msgThroughputIn": 1024.0,
+                            "msgThroughputOut": 2048.0,
+                            "numTopics": 12,
+                            "numBundles": 4,
+                            "numConsumers": 3
+                        }
+                        """);
+        Assert.assertTrue(usage.isAvailable());
+        Assert.assertEquals(usage.getPercentCpu() + "", "0.25");
+        Assert.assertEquals(usage.getMetrics(), Map.of(
+                BrokerResourceUsageSource.METRIC_CPU, 0.25d,
+                BrokerResourceUsageSource.METRIC_MEMORY, 0.5d,
+                BrokerResourceUsageSource.METRIC_DIRECT_MEMORY, 0.25d,
+                BrokerResourceUsageSource.METRIC_BANDWIDTH_OUT, 0.1d,
+                BrokerResourceUsageSource.METRIC_MSG_RATE_IN, 1500.5d,
+                BrokerResourceUsageSource.METRIC_MSG_RATE_OUT, 3000d,
+                BrokerResourceUsageSource.METRIC_MSG_THROUGHPUT_IN, 1024d,
+                BrokerResourceUsageSource.METRIC_MSG_THROUGHPUT_OUT, 2048d,
+                BrokerResourceUsageSource.METRIC_NUM_TOPICS, 12d,
+                BrokerResourceUsageSource.METRIC_NUM_BUNDLES, 4d));
     }
 
     @Test
@@ -204,23 +336,98 @@ public class LoadReportResourceUsageSourceTest {
     }
 
 
+    @Test
+    public void testHttpWithExecFallback() throws Exception {
+        final String spec = """
+                global:
+                   name: pul
+                broker:
+                    replicas: 2
+                    autoscaler:
+                        enabled: true
+                """;
+        final HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/admin/v2/broker-stats/load-report/", exchange -> {
+            final byte[] body = """
+                    {
+                        "cpu": {
+                            "usage": 2.33,
+                            "limit": 8.0
+                        }
+                    }
+                    """.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        httpServer.start();
+        final int unreachablePort;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            unreachablePort = socket.getLocalPort();
+        }
+        try {
+            final List<BrokerResourceUsageSource.ResourceUsage> brokersResourceUsages =
+                    createResourceUsageSource(spec, (pod, server) -> {
+                        if (pod.getMetadata().getName().equals("pul-broker-1")) {
+                            server.server.expect()
+                                    .get()
+                                    .withPath(genExpectedUrlForExecInPod(pod.getMetadata().getName(),
+                                            "curl http://localhost:8080/admin/v2/broker-stats/load-report/"))
+                                    .andUpgradeToWebSocket()
+                                    .open(new OutputStreamMessage("""
+                                            {
+                                                "cpu": {
+                                                    "usage": 4.66,
+                                                    "limit": 8.0
+                                                }
+                                            }
+                                            """))
+                                    .done()
+                                    .always();
+                        }
+                    }, (client, clusterSpec) -> new HttpLoadReportResourceUsageSource(client, "ns",
+                            Map.of("app", "pulsar"),
+                            BrokerResourcesFactory.BROKER_DEFAULT_SET,
+                            clusterSpec.getBroker(),
+                            clusterSpec.getGlobalSpec(),
+                            new AdminApiHttpClient(AdminApiHttpClient.newHttpClient(null), null,
+                                    Duration.ofSeconds(10))) {
+                        @Override
+                        protected String computeBrokerUrl(Pod pod) {
+                            return "http://localhost:%d".formatted(pod.getMetadata().getName().equals("pul-broker-0")
+                                    ? httpServer.getAddress().getPort() : unreachablePort);
+                        }
+                    });
+            Assert.assertEquals(brokersResourceUsages.size(), 2);
+            Assert.assertEquals(brokersResourceUsages.get(0).getPod(), "pul-broker-0");
+            Assert.assertEquals(brokersResourceUsages.get(0).getPercentCpu() + "", "0.29");
+            Assert.assertEquals(brokersResourceUsages.get(1).getPod(), "pul-broker-1");
+            Assert.assertEquals(brokersResourceUsages.get(1).getPercentCpu() + "", "0.58");
+        } finally {
+            httpServer.stop(0);
+        }
+    }
+
     private List<BrokerResourceUsageSource.ResourceUsage> createLoadReportResourceUsageSource(String spec,
                                                                                               BiConsumer<Pod,
                                                                                                       MockServer> podConf) {
+        return createResourceUsageSource(spec, podConf,
+                (client, clusterSpec) -> new LoadReportResourceUsageSource(client, "ns", Map.of("app", "pulsar"),
+                        BrokerResourcesFactory.BROKER_DEFAULT_SET,
+                        clusterSpec.getBroker(),
+                        clusterSpec.getGlobalSpec()));
+    }
+
+    private List<BrokerResourceUsageSource.ResourceUsage> createResourceUsageSource(
+            String spec, BiConsumer<Pod, MockServer> podConf,
+            BiFunction<KubernetesClient, PulsarClusterSpec, LoadReportResourceUsageSource> sourceFactory) {
         final PulsarClusterSpec pulsarClusterSpec = MockKubernetesClient.readYaml(spec, PulsarClusterSpec.class);
         try (final MockServer server = MockServer.builder()
                 .withPulsarClusterSpec(pulsarClusterSpec)
                 .withPodConsumer(podConf)
                 .build();) {
             server.start();
-
-
-            final LoadReportResourceUsageSource source =
-                    new LoadReportResourceUsageSource(server.server.getClient(), "ns", Map.of("app", "pulsar"),
-                            BrokerResourcesFactory.BROKER_DEFAULT_SET,
-                            pulsarClusterSpec.getBroker(),
-                            pulsarClusterSpec.getGlobalSpec());
-            return source.getBrokersResourceUsages();
+            return sourceFactory.apply(server.server.getClient(), pulsarClusterSpec).getBrokersResourceUsages();
         }
     }
 
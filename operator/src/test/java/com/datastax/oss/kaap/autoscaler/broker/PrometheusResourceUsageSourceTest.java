@@ -0,0 +1,209 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.autoscaler.AdminApiHttpClient;
+import com.sun.net.httpserver.HttpServer;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.PodListBuilder;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PrometheusResourceUsageSourceTest {
+
+    private static final String METRICS = """
+            # HELP pulsar_rate_in Messages published per second
+            # TYPE pulsar_rate_in gauge
+            pulsar_rate_in{cluster="pul",namespace="public/default",topic="persistent://public/default/t1"} 100.5
+            pulsar_rate_in{cluster="pul",namespace="public/default",topic="persistent://public/default/t2"} 50
+            pulsar_rate_in{cluster="pul",namespace="public/perf",topic="persistent://public/perf/t1"} 1e3
+            pulsar_rate_out{cluster="pul",namespace="public/perf",topic="persistent://public/perf/t1"} +Inf
+            pulsar_lb_cpu_usage{cluster="pul"} 42.0 1700000000000
+            pulsar_lb_memory_usage{cluster="pul"} 12.5
+            jvm_memory_direct_bytes_used{cluster="pul"} 256
+            jvm_memory_direct_bytes_max{cluster="pul"} 1024
+            label_escapes{path="a\\"b",other="x"} 7
+            pulsar_rate_in_total{cluster="pul"} 999
+            """;
+
+    private static double evaluate(String expression, String text) {
+        final List<PrometheusExpression.Selector> selectors = new ArrayList<>();
+        final PrometheusExpression parsed = PrometheusExpression.parse(expression, selectors);
+        return parsed.evaluate(new PrometheusTextParser(selectors).scan(text));
+    }
+
+    @Test
+    public void testExpressions() {
+        Assert.assertEquals(evaluate("pulsar_rate_in", METRICS), 1150.5);
+        Assert.assertEquals(evaluate("sum(pulsar_rate_in{namespace=\"public/default\"})", METRICS), 150.5);
+        Assert.assertEquals(evaluate("sum(pulsar_rate_in{namespace!=\"public/default\"})", METRICS), 1000.0);
+        Assert.assertEquals(evaluate("max(pulsar_rate_in{topic=~\".*/t1\"})", METRICS), 1000.0);
+        Assert.assertEquals(evaluate("min(pulsar_rate_in{topic!~\".*/perf/.*\"})", METRICS), 50.0);
+        Assert.assertEquals(evaluate("count(pulsar_rate_in)", METRICS), 3.0);
+        Assert.assertEquals(evaluate("avg(pulsar_rate_in{namespace=\"public/default\"})", METRICS), 75.25);
+        Assert.assertEquals(evaluate("max(pulsar_lb_cpu_usage) / 100", METRICS), 0.42);
+        Assert.assertEquals(evaluate("jvm_memory_direct_bytes_used / jvm_memory_direct_bytes_max", METRICS), 0.25);
+        Assert.assertEquals(evaluate("(pulsar_lb_cpu_usage + pulsar_lb_memory_usage * 2) - 1", METRICS), 66.0);
+        Assert.assertEquals(evaluate("label_escapes{path=\"a\\\"b\"}", METRICS), 7.0);
+        Assert.assertEquals(evaluate("sum(pulsar_rate_out)", METRICS), Double.POSITIVE_INFINITY);
+        // a missing label matches the empty string
+        Assert.assertEquals(evaluate("sum(pulsar_lb_cpu_usage{topic=\"\"})", METRICS), 42.0);
+        Assert.assertTrue(Double.isNaN(evaluate("max(missing_metric)", METRICS)));
+        Assert.assertEquals(evaluate("count(missing_metric)", METRICS), 0.0);
+        Assert.assertTrue(Double.isNaN(evaluate("pulsar_lb_cpu_usage / count(missing_metric)", METRICS)));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> evaluate("rate(pulsar_rate_in)", METRICS));
+        Assert.assertThrows(IllegalArgumentException.class, () -> evaluate("sum(pulsar_rate_in", METRICS));
+        Assert.assertThrows(IllegalArgumentException.class, () -> evaluate("pulsar_rate_in{a~\"b\"}", METRICS));
+    }
+
+    @Test(timeOut = 10000)
+    public void testLabelMatchersOnLargePage() {
+        final int topics = 50_000;
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < topics; i++) {
+            final String namespace = i % 2 == 0 ? "public/default" : "public/perf";
+            text.append("pulsar_rate_in{cluster=\"pul\",namespace=\"").append(namespace)
+                    .append("\",topic=\"persistent://").append(namespace).append("/t").append(i).append("\"} 1\n");
+        }
+        text.append("label_escapes{path=\"a\\\"b\"} 7\n");
+        final String page = text.toString();
+        // the label values are compared in place, the rest of the page is never scanned for each sample
+        Assert.assertEquals(evaluate("count(pulsar_rate_in{namespace=\"public/default\"})", page), topics / 2.0);
+        Assert.assertEquals(evaluate("count(pulsar_rate_in{namespace!=\"public/default\",cluster=\"pul\"})", page),
+                topics / 2.0);
+        Assert.assertEquals(evaluate("label_escapes{path=\"a\\\"b\"}", page), 7.0);
+        Assert.assertTrue(Double.isNaN(evaluate("label_escapes{path=\"a\\\"\"}", page)));
+    }
+
+    @Test
+    public void testScrapeMetrics() {
+        final PrometheusScrapeResourceUsageSource source = new PrometheusScrapeResourceUsageSource(null, "ns",
+                Map.of(), "broker", null, null, null, PrometheusScrapeResourceUsageSource.DEFAULT_QUERIES,
+                Duration.ofSeconds(1));
+        final BrokerResourceUsageSource.ResourceUsage usage = source.parseResponse("pul-broker-0", METRICS);
+        Assert.assertTrue(usage.isAvailable());
+        Assert.assertEquals(usage.getMetric(BrokerResourceUsageSource.METRIC_CPU), 0.42);
+        Assert.assertEquals(usage.getMetric(BrokerResourceUsageSource.METRIC_MEMORY), 0.125);
+        Assert.assertEquals(usage.getMetric(BrokerResourceUsageSource.METRIC_DIRECT_MEMORY), 0.25);
+        Assert.assertEquals(usage.getMetric(BrokerResourceUsageSource.METRIC_MSG_RATE_IN), 1150.5);
+        // not finite values are skipped
+        Assert.assertNull(usage.getMetrics().get(BrokerResourceUsageSource.METRIC_MSG_RATE_OUT));
+        Assert.assertNull(usage.getMetrics().get(BrokerResourceUsageSource.METRIC_MSG_THROUGHPUT_IN));
+
+        final BrokerResourceUsageSource.ResourceUsage failed = LoadReportResourceUsageSource.collect("pul-broker-0",
+                CompletableFuture.completedFuture("other_metric 1\n"),
+                System.nanoTime() + Duration.ofSeconds(1).toNanos(), Duration.ofSeconds(1),
+                source::parseResponse);
+        Assert.assertFalse(failed.isAvailable());
+        Assert.assertEquals(failed.getStatus(), BrokerResourceUsageSource.SampleStatus.FAILED);
+    }
+
+    @Test
+    public void testResolveQuery() {
+        Assert.assertEquals(PrometheusApiResourceUsageSource.resolveQuery(
+                        "max by (${podLabel}) (pulsar_lb_cpu_usage{${selector}})", "ns", "pod",
+                        List.of("pul-broker-0", "pul-broker-1")),
+                "max by (pod) (pulsar_lb_cpu_usage{namespace=\"ns\",pod=~\"\\\\Qpul-broker-0\\\\E|"
+                        + "\\\\Qpul-broker-1\\\\E\"})");
+    }
+
+    @Test
+    public void testQueryApi() throws Exception {
+        final KubernetesServer server = new KubernetesServer(false);
+        server.before();
+        final HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        final List<String> queries = new ArrayList<>();
+        httpServer.createContext(PrometheusApiResourceUsageSource.QUERY_PATH, exchange -> {
+            final String query = URLDecoder.decode(exchange.getRequestURI().getRawQuery().substring("query=".length()),
+                    StandardCharsets.UTF_8);
+            synchronized (queries) {
+                queries.add(query);
+            }
+            final String body;
+            if (query.startsWith("cpu")) {
+                body = """
+                        {"status":"success","data":{"resultType":"vector","result":[
+                            {"metric":{"pod":"pul-broker-0"},"value":[1700000000.0,"0.5"]},
+                            {"metric":{"pod":"pul-broker-1"},"value":[1700000000.0,"NaN"]},
+                            {"metric":{"instance":"other"},"value":[1700000000.0,"0.9"]}
+                        ]}}
+                        """;
+            } else if (query.startsWith("rate")) {
+                body = """
+                        {"status":"success","data":{"resultType":"vector","result":[
+                            {"metric":{"pod":"pul-broker-0"},"value":[1700000000.0,"1200"]}
+                        ]}}
+                        """;
+            } else {
+                body = """
+                        {"status":"error","errorType":"bad_data","error":"parse error"}
+                        """;
+            }
+            final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        httpServer.start();
+        try {
+            server.expect()
+                    .get()
+                    .withPath("/api/v1/namespaces/ns/pods?labelSelector=app%3Dpulsar")
+                    .andReturn(HttpURLConnection.HTTP_OK, new PodListBuilder()
+                            .withItems(new PodBuilder().withNewMetadata().withName("pul-broker-0").endMetadata()
+                                            .build(),
+                                    new PodBuilder().withNewMetadata().withName("pul-broker-1").endMetadata()
+                                            .build())
+                            .build())
+                    .once();
+            final PrometheusApiResourceUsageSource source = new PrometheusApiResourceUsageSource(
+                    server.getClient(), "ns", Map.of("app", "pulsar"),
+                    AdminApiHttpClient.createUnauthenticated(Duration.ofSeconds(5)),
+                    "http://localhost:%d/".formatted(httpServer.getAddress().getPort()), null,
+                    Map.of(BrokerResourceUsageSource.METRIC_CPU, "cpu{${selector}}",
+                            BrokerResourceUsageSource.METRIC_MSG_RATE_IN, "rate{namespace=\"${namespace}\"}",
+                            BrokerResourceUsageSource.METRIC_MEMORY, "invalid"),
+                    Duration.ofSeconds(5));
+            final List<BrokerResourceUsageSource.ResourceUsage> usages = source.getBrokersResourceUsages();
+            Assert.assertEquals(usages.size(), 2);
+            Assert.assertEquals(usages.get(0).getPod(), "pul-broker-0");
+            Assert.assertTrue(usages.get(0).isAvailable());
+            Assert.assertEquals(usages.get(0).getMetric(BrokerResourceUsageSource.METRIC_CPU), 0.5);
+            Assert.assertEquals(usages.get(0).getMetric(BrokerResourceUsageSource.METRIC_MSG_RATE_IN), 1200.0);
+            Assert.assertNull(usages.get(0).getMetrics().get(BrokerResourceUsageSource.METRIC_MEMORY));
+            Assert.assertEquals(usages.get(1).getPod(), "pul-broker-1");
+            Assert.assertFalse(usages.get(1).isAvailable());
+            Assert.assertEquals(usages.get(1).getStatus(), BrokerResourceUsageSource.SampleStatus.FAILED);
+
+            Assert.assertEquals(queries.size(), 3);
+            Assert.assertTrue(queries.contains("rate{namespace=\"ns\"}"));
+        } finally {
+            httpServer.stop(0);
+            server.after();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ResourceUsageWindowTest {
+
+    private static BrokerResourceUsageSource.ResourceUsage usage(String pod, float cpu) {
+        return new BrokerResourceUsageSource.ResourceUsage(pod, cpu);
+    }
+
+    private static float aggregate(ResourceUsageWindow window, float cpu, String aggregation, long now) {
+        return window.aggregate(List.of(usage("pul-broker-0", cpu)), aggregation, 1000, now).get(0)
+                .getPercentCpu();
+    }
+
+    @Test
+    public void testAggregations() {
+        ResourceUsageWindow window = new ResourceUsageWindow();
+        Assert.assertEquals(aggregate(window, 0.2f, BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 0), 0.2f);
+        Assert.assertEquals(aggregate(window, 0.4f, BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 100), 0.3f, 0.0001f);
+        Assert.assertEquals(aggregate(window, 0.9f, BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST, 200), 0.9f);
+        // the first sample is out of the window
+        Assert.assertEquals(aggregate(window, 0.8f, BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1050), 0.7f,
+                0.0001f);
+
+        window = new ResourceUsageWindow();
+        for (int i = 1; i <= 10; i++) {
+            aggregate(window, i / 10f, BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST, i);
+        }
+        Assert.assertEquals(aggregate(window, 0.05f, BrokerAutoscalerSpec.USAGE_AGGREGATION_P90, 11), 0.9f);
+
+        window = new ResourceUsageWindow();
+        aggregate(window, 0.1f, BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST, 0);
+        aggregate(window, 0.1f, BrokerAutoscalerSpec.USAGE_AGGREGATION_LAST, 1);
+        // alpha = 2 / 4
+        Assert.assertEquals(aggregate(window, 0.9f, BrokerAutoscalerSpec.USAGE_AGGREGATION_EWMA, 2), 0.5f,
+                0.0001f);
+    }
+
+    @Test
+    public void testMissingSamples() {
+        final ResourceUsageWindow window = new ResourceUsageWindow();
+        window.aggregate(List.of(usage("pul-broker-0", 0.2f), usage("pul-broker-1", 0.4f)),
+                BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 0);
+        final BrokerResourceUsageSource.ResourceUsage timedOut = BrokerResourceUsageSource.ResourceUsage
+                .unavailable("pul-broker-1", BrokerResourceUsageSource.SampleStatus.TIMEOUT, "no response");
+        List<BrokerResourceUsageSource.ResourceUsage> result = window.aggregate(
+                List.of(usage("pul-broker-0", 0.4f), timedOut),
+                BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 10);
+        Assert.assertEquals(result.get(0).getPercentCpu(), 0.3f, 0.0001f);
+        Assert.assertSame(result.get(1), timedOut);
+
+        // pul-broker-1 has been removed, its samples are forgotten
+        window.aggregate(List.of(usage("pul-broker-0", 0.4f)), BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 20);
+        result = window.aggregate(List.of(usage("pul-broker-1", 0.8f)),
+                BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 30);
+        Assert.assertEquals(result.get(0).getPercentCpu(), 0.8f);
+
+        window.clear();
+        result = window.aggregate(List.of(usage("pul-broker-1", 0.2f)),
+                BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 40);
+        Assert.assertEquals(result.get(0).getPercentCpu(), 0.2f);
+    }
+
+    @Test
+    public void testMultipleMetrics() {
+        final ResourceUsageWindow window = new ResourceUsageWindow();
+        window.aggregate(List.of(new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", Map.of(
+                        BrokerResourceUsageSource.METRIC_CPU, 0.2d,
+                        BrokerResourceUsageSource.METRIC_MEMORY, 0.4d))),
+                BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 0);
+        final BrokerResourceUsageSource.ResourceUsage result = window.aggregate(List.of(
+                        new BrokerResourceUsageSource.ResourceUsage("pul-broker-0", Map.of(
+                                BrokerResourceUsageSource.METRIC_CPU, 0.4d,
+                                BrokerResourceUsageSource.METRIC_MEMORY, 0.8d,
+                                BrokerResourceUsageSource.METRIC_NUM_TOPICS, 10d))),
+                BrokerAutoscalerSpec.USAGE_AGGREGATION_MEAN, 1000, 10).get(0);
+        Assert.assertEquals(result.getPercentCpu(), 0.3f, 0.0001f);
+        Assert.assertEquals(result.getMetric(BrokerResourceUsageSource.METRIC_MEMORY), 0.6d, 0.0001d);
+        // only the samples that reported the metric are aggregated
+        Assert.assertEquals(result.getMetric(BrokerResourceUsageSource.METRIC_NUM_TOPICS), 10d);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.autoscaler.broker;
+
+import com.datastax.oss.kaap.crds.broker.BrokerAutoscalerSpec;
+import java.util.OptionalDouble;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SeasonalForecasterTest {
+
+    private static final int SEASON = 24;
+
+    private static double dailyLoad(long bucket) {
+        // peak of 10 brokers at bucket 12 of each season, 2 brokers at night
+        final long hour = Math.floorMod(bucket, SEASON);
+        return 2 + 8 * Math.max(0, 1 - Math.abs(hour - 12) / 6d);
+    }
+
+    @Test
+    public void testTimeSeries() {
+        final LoadTimeSeries series = new LoadTimeSeries(1000, 4);
+        Assert.assertTrue(series.isEmpty());
+        series.record(10_000, 1.5);
+        series.record(10_500, 1.2);
+        Assert.assertEquals(series.get(10), 1.5);
+        series.record(10_900, 2.345);
+        Assert.assertEquals(series.get(10), 2.345);
+        // a gap of two buckets
+        series.record(13_000, 3);
+        Assert.assertTrue(Double.isNaN(series.get(11)));
+        Assert.assertTrue(Double.isNaN(series.get(12)));
+        Assert.assertEquals(series.get(13), 3d);
+        Assert.assertEquals(series.encode(), "1000;13;2.35,,,3.0");
+
+        final LoadTimeSeries decoded = LoadTimeSeries.decode(series.encode(), 1000, 4);
+        Assert.assertEquals(decoded.getLastBucket(), 13);
+        Assert.assertEquals(decoded.get(10), 2.35);
+        Assert.assertEquals(decoded.encode(), series.encode());
+
+        // the oldest bucket is dropped
+        series.record(14_000, 4);
+        Assert.assertTrue(Double.isNaN(series.get(10)));
+        Assert.assertEquals(series.encode(), "1000;14;,,3.0,4.0");
+
+        Assert.assertTrue(LoadTimeSeries.decode(series.encode(), 2000, 4).isEmpty());
+        Assert.assertTrue(LoadTimeSeries.decode("invalid", 1000, 4).isEmpty());
+        Assert.assertTrue(LoadTimeSeries.decode(null, 1000, 4).isEmpty());
+    }
+
+    @Test
+    public void testSeasonalNaive() {
+        final LoadTimeSeries series = new LoadTimeSeries(1, SEASON * 3);
+        for (long bucket = 0; bucket < SEASON + 8; bucket++) {
+            series.record(bucket, dailyLoad(bucket));
+        }
+        // at bucket 8 of the second season, the peak is expected at bucket 12
+        final long current = SEASON + 8;
+        Assert.assertEquals(SeasonalForecaster.forecastPeak(series,
+                BrokerAutoscalerSpec.FORECAST_METHOD_SEASONAL_NAIVE, SEASON, 4, current), OptionalDouble.of(10));
+        Assert.assertEquals(SeasonalForecaster.forecastPeak(series,
+                BrokerAutoscalerSpec.FORECAST_METHOD_SEASONAL_NAIVE, SEASON, 1, current),
+                OptionalDouble.of(dailyLoad(9)));
+        // not enough history for Holt-Winters
+        Assert.assertEquals(SeasonalForecaster.forecastPeak(series,
+                BrokerAutoscalerSpec.FORECAST_METHOD_HOLT_WINTERS, SEASON, 4, current), OptionalDouble.of(10));
+        Assert.assertTrue(SeasonalForecaster.forecastPeak(new LoadTimeSeries(1, SEASON),
+                BrokerAutoscalerSpec.FORECAST_METHOD_SEASONAL_NAIVE, SEASON, 4, current).isEmpty());
+    }
+
+    @Test
+    public void testHoltWinters() {
+        final LoadTimeSeries series = new LoadTimeSeries(1, SEASON * 3);
+        for (long bucket = 0; bucket < 2 * SEASON + 8; bucket++) {
+            // growing traffic
+            series.record(bucket, dailyLoad(bucket) + bucket / 20d);
+        }
+        final long current = 2 * SEASON + 8;
+        final double naive = SeasonalForecaster.seasonalNaive(series, SEASON, 4, current).getAsDouble();
+        final double holtWinters = SeasonalForecaster.forecastPeak(series,
+                BrokerAutoscalerSpec.FORECAST_METHOD_HOLT_WINTERS, SEASON, 4, current).getAsDouble();
+        final double actual = dailyLoad(current + 4) + (current + 4) / 20d;
+        Assert.assertTrue(holtWinters > naive, holtWinters + " should be higher than " + naive);
+        Assert.assertEquals(holtWinters, actual, actual * 0.1);
+
+        // a missing bucket is filled with the previous value
+        series.record(current + 2, 5);
+        Assert.assertTrue(SeasonalForecaster.holtWinters(series, SEASON, 4, current + 2).isPresent());
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.common;
+
+import com.datastax.oss.kaap.crds.ClusterSpecFixtures;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SerializationUtilTest {
+
+    @Test
+    public void testDeepCloneObject() {
+        final PulsarClusterSpec spec = ClusterSpecFixtures.clusterSpec();
+        final PulsarClusterSpec clone = SerializationUtil.deepCloneObject(spec);
+        Assert.assertNotSame(clone, spec);
+        Assert.assertEquals(clone, spec);
+        Assert.assertEquals(SerializationUtil.writeAsJson(clone), SerializationUtil.writeAsJson(spec));
+        // same result of a JSON round trip
+        Assert.assertEquals(clone, SerializationUtil.readJson(SerializationUtil.writeAsJson(spec),
+                PulsarClusterSpec.class));
+
+        Assert.assertNotSame(clone.getGlobal(), spec.getGlobal());
+        Assert.assertNotSame(clone.getBroker().getConfig(), spec.getBroker().getConfig());
+        Assert.assertNotSame(clone.getBookkeeper().getSets().get("set1"), spec.getBookkeeper().getSets().get("set1"));
+
+        clone.getBroker().getConfig().put("newKey", "value");
+        clone.getBookkeeper().getSets().remove("set1");
+        Assert.assertFalse(spec.getBroker().getConfig().containsKey("newKey"));
+        Assert.assertTrue(spec.getBookkeeper().getSets().containsKey("set1"));
+    }
+
+    @Test
+    public void testDeepCloneObjectNulls() {
+        Assert.assertNull(SerializationUtil.deepCloneObject(null));
+        final Map<String, Object> map = new HashMap<>();
+        map.put("a", null);
+        map.put("b", List.of(1, "x", Map.of("c", true)));
+        final Map<String, Object> clone = SerializationUtil.deepCloneObject(map);
+        Assert.assertEquals(clone, map);
+        Assert.assertNotSame(clone.get("b"), map.get("b"));
+    }
+}
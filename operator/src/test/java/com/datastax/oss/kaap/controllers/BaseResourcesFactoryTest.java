@@ -15,13 +15,42 @@
  */
 package com.datastax.oss.kaap.controllers;
 
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
+import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.configs.tls.TlsConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.fabric8.kubernetes.api.model.StatusBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.fabric8.mockwebserver.utils.ResponseProvider;
+import io.fabric8.zjsonpatch.JsonPatch;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import okhttp3.Headers;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.awaitility.Awaitility;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class BaseResourcesFactoryTest {
 
+    private static final int HTTP_UNPROCESSABLE_ENTITY = 422;
+
     @Test
     public void testTlsTrustStoreArgs() throws Exception {
         final GlobalSpec globalSpec = GlobalSpec.builder()
@@ -91,9 +120,253 @@ public class BaseResourcesFactoryTest {
                         echo ''""");
     }
 
+    @Test
+    public void testServerSideApply() {
+        final KubernetesServer server = new KubernetesServer(false);
+        server.before();
+        try {
+            final AtomicReference<ConfigMap> stored = new AtomicReference<>();
+            final List<String> ops = new ArrayList<>();
+            server.expect()
+                    .get()
+                    .withPath("/api/v1/namespaces/ns/configmaps/cm")
+                    .andReply(HttpURLConnection.HTTP_OK, recordedRequest -> stored.get())
+                    .always();
+            server.expect()
+                    .patch()
+                    .withPath("/api/v1/namespaces/ns/configmaps/cm?fieldManager=kaap&force=true")
+                    .andReply(HttpURLConnection.HTTP_OK, recordedRequest -> {
+                        ops.add(recordedRequest.getHeader("Content-Type"));
+                        stored.set(SerializationUtil.readJson(recordedRequest.getBody().readUtf8(),
+                                ConfigMap.class));
+                        return stored.get();
+                    })
+                    .always();
+
+            final GlobalSpec globalSpec = GlobalSpec.builder()
+                    .applyMode(GlobalSpec.ResourcesApplyMode.ServerSideApply.toString())
+                    .build();
+            final BaseResourcesFactory factory = getFactory(globalSpec, server.getClient());
+
+            factory.patchResource(newConfigMap("v1"));
+            Assert.assertEquals(ops.size(), 1);
+            Assert.assertTrue(ops.get(0).startsWith("application/apply-patch+yaml"));
+            Assert.assertEquals(stored.get().getData().get("key"), "v1");
+            final String hash = stored.get().getMetadata().getAnnotations()
+                    .get(BaseResourcesFactory.APPLIED_CONFIG_HASH_ANNOTATION);
+            Assert.assertNotNull(hash);
+
+            // a manual change is reverted by the next apply even if the configuration didn't change
+            stored.get().getData().put("key", "manual");
+            factory.patchResource(newConfigMap("v1"));
+            Assert.assertEquals(ops.size(), 2);
+            Assert.assertEquals(stored.get().getData().get("key"), "v1");
+            Assert.assertEquals(stored.get().getMetadata().getAnnotations()
+                    .get(BaseResourcesFactory.APPLIED_CONFIG_HASH_ANNOTATION), hash);
+
+            factory.patchResource(newConfigMap("v2"));
+            Assert.assertEquals(ops.size(), 3);
+            Assert.assertEquals(stored.get().getData().get("key"), "v2");
+            Assert.assertNotEquals(stored.get().getMetadata().getAnnotations()
+                    .get(BaseResourcesFactory.APPLIED_CONFIG_HASH_ANNOTATION), hash);
+        } finally {
+            server.after();
+        }
+    }
+
+    @Test
+    public void testIsDeploymentReadyScopedLookup() throws Exception {
+        final KubernetesServer server = new KubernetesServer(false, true);
+        server.before();
+        final SecondaryResourcesCache cache = new SecondaryResourcesCache(server.getClient());
+        try {
+            final KubernetesClient client = server.getClient();
+            final Deployment proxy = DeploymentReadinessFixtures.deployment("ns", "proxy", 3);
+            final Deployment bastion = DeploymentReadinessFixtures.deployment("ns", "bastion", 3);
+            for (int r = 1; r <= 3; r++) {
+                client.resource(DeploymentReadinessFixtures.replicaSet(proxy, r)).inNamespace("ns").create();
+                client.resource(DeploymentReadinessFixtures.replicaSet(bastion, r)).inNamespace("ns").create();
+            }
+            final ReplicaSet orphan = DeploymentReadinessFixtures.replicaSet(proxy, 3);
+            orphan.getMetadata().setName("orphan");
+            orphan.getMetadata().setOwnerReferences(null);
+            client.resource(orphan).inNamespace("ns").create();
+
+            final int requestsBefore = server.getKubernetesMockServer().getRequestCount();
+            Assert.assertTrue(BaseResourcesFactory.isDeploymentReady(proxy, client));
+            Assert.assertEquals(server.getKubernetesMockServer().getRequestCount(), requestsBefore + 1);
+            final RecordedRequest request = server.getKubernetesMockServer().getLastRequest();
+            Assert.assertTrue(request.getPath().contains("labelSelector="), request.getPath());
+
+            cache.list(ReplicaSet.class, "ns", Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+            Awaitility.await().until(() -> {
+                final int before = server.getKubernetesMockServer().getRequestCount();
+                cache.list(ReplicaSet.class, "ns", Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+                return server.getKubernetesMockServer().getRequestCount() == before;
+            });
+            final int requestsBeforeCache = server.getKubernetesMockServer().getRequestCount();
+            Assert.assertTrue(BaseResourcesFactory.isDeploymentReady(proxy, client, cache));
+            Assert.assertTrue(BaseResourcesFactory.isDeploymentReady(bastion, client, cache));
+            Assert.assertEquals(server.getKubernetesMockServer().getRequestCount(), requestsBeforeCache);
+
+            proxy.getMetadata().getAnnotations().put(BaseResourcesFactory.DEPLOYMENT_REVISION_ANNOTATION, "4");
+            Assert.assertFalse(BaseResourcesFactory.isDeploymentReady(proxy, client, cache));
+        } finally {
+            cache.close();
+            server.after();
+        }
+    }
+
+    @Test
+    public void testPatchStaleCachedResource() {
+        final KubernetesServer server = new KubernetesServer(false);
+        server.before();
+        try {
+            final Service cached = newService(80, 443);
+            cached.getMetadata().setResourceVersion("1");
+            // the first port was removed after the cache was updated
+            final AtomicReference<Service> live = new AtomicReference<>(newService(443));
+            live.get().getMetadata().setResourceVersion("2");
+            final List<String> patches = new ArrayList<>();
+            server.expect()
+                    .get()
+                    .withPath("/api/v1/namespaces/ns/services/svc")
+                    .andReply(HttpURLConnection.HTTP_OK, recordedRequest -> live.get())
+                    .always();
+            server.expect()
+                    .patch()
+                    .withPath("/api/v1/namespaces/ns/services/svc")
+                    .andReply(new JsonPatchResponseProvider(live, patches))
+                    .always();
+
+            final GlobalSpec globalSpec = GlobalSpec.builder().build();
+            globalSpec.applyDefaults(null);
+            final SecondaryResourcesCache cache = new SecondaryResourcesCache(server.getClient()) {
+                @Override
+                public <R extends HasMetadata> R get(Class<R> resourceClass, String namespace, String name) {
+                    return (R) cached;
+                }
+            };
+            final BaseResourcesFactory factory = new BaseResourcesFactory<>(server.getClient(), "ns", "test", null,
+                    globalSpec, null, cache) {
+                @Override
+                protected String getComponentBaseName() {
+                    return "test";
+                }
+
+                @Override
+                protected boolean isComponentEnabled() {
+                    return true;
+                }
+            };
+
+            // the patch computed against the cached copy would change the port 443, now the first one
+            factory.patchResource(newService(8080, 443));
+            Assert.assertEquals(patches.size(), 2);
+            Assert.assertTrue(patches.get(0).contains("\"op\":\"test\""), patches.get(0));
+            Assert.assertEquals(live.get().getSpec().getPorts().stream()
+                    .map(ServicePort::getPort)
+                    .collect(Collectors.toList()), List.of(8080, 443));
+        } finally {
+            server.after();
+        }
+    }
+
+    /**
+     * Apply the JSON patches to the live resource like the API server, a failed test operation or a missing path
+     * is rejected with 422.
+     */
+    private static class JsonPatchResponseProvider implements ResponseProvider<Object> {
+        private final AtomicReference<Service> live;
+        private final List<String> patches;
+        private Headers headers = new Headers.Builder().build();
+        private Object body;
+
+        JsonPatchResponseProvider(AtomicReference<Service> live, List<String> patches) {
+            this.live = live;
+            this.patches = patches;
+        }
+
+        @Override
+        public int getStatusCode(RecordedRequest request) {
+            final String patch = request.getBody().readUtf8();
+            patches.add(patch);
+            final JsonNode current = SerializationUtil.readJsonTree(SerializationUtil.writeAsJson(live.get()));
+            final ArrayNode operations = (ArrayNode) SerializationUtil.readJsonTree(patch);
+            final ArrayNode changes = operations.arrayNode();
+            for (JsonNode operation : operations) {
+                if (!"test".equals(operation.get("op").asText())) {
+                    changes.add(operation);
+                } else if (!current.at(operation.get("path").asText()).equals(operation.get("value"))) {
+                    return reject("test of " + operation.get("path").asText() + " failed");
+                }
+            }
+            try {
+                live.set(SerializationUtil.readJson(JsonPatch.apply(changes, current).toString(), Service.class));
+            } catch (RuntimeException ex) {
+                return reject(ex.getMessage());
+            }
+            body = live.get();
+            return HttpURLConnection.HTTP_OK;
+        }
+
+        private int reject(String message) {
+            body = new StatusBuilder().withCode(HTTP_UNPROCESSABLE_ENTITY).withMessage(message).build();
+            return HTTP_UNPROCESSABLE_ENTITY;
+        }
+
+        @Override
+        public Object getBody(RecordedRequest request) {
+            return body;
+        }
+
+        @Override
+        public Headers getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public void setHeaders(Headers headers) {
+            this.headers = headers;
+        }
+    }
+
+    private static Service newService(int... ports) {
+        final ServiceBuilder builder = new ServiceBuilder()
+                .withNewMetadata()
+                .withName("svc")
+                .withNamespace("ns")
+                .endMetadata()
+                .withNewSpec()
+                .endSpec();
+        for (int port : ports) {
+            builder.editSpec()
+                    .addNewPort()
+                    .withName("port-" + port)
+                    .withPort(port)
+                    .endPort()
+                    .endSpec();
+        }
+        return builder.build();
+    }
+
+    private static ConfigMap newConfigMap(String value) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                .withName("cm")
+                .withNamespace("ns")
+                .endMetadata()
+                .withData(Map.of("key", value))
+                .build();
+    }
+
     private BaseResourcesFactory getFactory(GlobalSpec globalSpec) {
+        return getFactory(globalSpec, null);
+    }
+
+    private BaseResourcesFactory getFactory(GlobalSpec globalSpec, KubernetesClient client) {
         globalSpec.applyDefaults(null);
-        return new BaseResourcesFactory<>(null, "ns", "test", null, globalSpec, null) {
+        return new BaseResourcesFactory<>(client, "ns", "test", null, globalSpec, null) {
             @Override
             protected String getComponentBaseName() {
                 return "test";
@@ -34,13 +34,63 @@ import lombok.SneakyThrows;
 import org.testng.Assert;
 
 public class ControllerTestUtil<X extends FullSpecWithDefaults,
-        R extends CustomResource<X, BaseComponentStatus>> {
+        R extends CustomResource<X, ? extends BaseComponentStatus>> {
 
     public static class TestOperatorRuntimeConfiguration implements OperatorRuntimeConfiguration{
         @Override
         public Integer reconciliationRescheduleSeconds() {
             return 5;
         }
+
+        @Override
+        public Integer reconciliationResyncSeconds() {
+            return 60;
+        }
+
+        @Override
+        public Integer reconciliationErrorBackoffMaxSeconds() {
+            return 300;
+        }
+
+        @Override
+        public Integer clusterReconciliationParallelism() {
+            return 4;
+        }
+
+        @Override
+        public Integer setsUpdateMaxConcurrency() {
+            return 4;
+        }
+
+        @Override
+        public Integer namespaceReconciliationMaxConcurrency() {
+            return 4;
+        }
+
+        @Override
+        public Double namespaceReconciliationsPerSecond() {
+            return 0d;
+        }
+
+        @Override
+        public Boolean shardingEnabled() {
+            return false;
+        }
+
+        @Override
+        public Integer shardingShards() {
+            return 16;
+        }
+
+        @Override
+        public Integer shardingLeaseDurationSeconds() {
+            return 30;
+        }
+
+        @Override
+        public Integer shardingRenewIntervalSeconds() {
+            return 10;
+        }
     }
 
     private final String namespace;
@@ -0,0 +1,77 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.controllers.autorecovery.AutorecoveryController;
+import com.datastax.oss.kaap.controllers.bastion.BastionController;
+import com.datastax.oss.kaap.controllers.bookkeeper.BookKeeperController;
+import com.datastax.oss.kaap.controllers.broker.BrokerController;
+import com.datastax.oss.kaap.controllers.function.FunctionsWorkerController;
+import com.datastax.oss.kaap.controllers.proxy.ProxyController;
+import com.datastax.oss.kaap.controllers.zookeeper.ZooKeeperController;
+import io.javaoperatorsdk.operator.api.reconciler.Constants;
+import io.javaoperatorsdk.operator.api.reconciler.ControllerConfiguration;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import lombok.SneakyThrows;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * The operator SDK extension applies the 'quarkus.operator-sdk.namespaces' setting (QUARKUS_OPERATOR_SDK_NAMESPACES,
+ * set by the chart from 'operator.watchNamespaces') only to the controllers whose annotation doesn't declare the
+ * namespaces.
+ */
+public class ControllersNamespacesTest {
+
+    private static final List<Class<?>> CONTROLLERS = List.of(
+            PulsarClusterController.class,
+            ZooKeeperController.class,
+            BookKeeperController.class,
+            BrokerController.class,
+            ProxyController.class,
+            AutorecoveryController.class,
+            BastionController.class,
+            FunctionsWorkerController.class
+    );
+
+    @Test
+    public void testControllersUseOperatorNamespaces() {
+        final Set<String> names = new HashSet<>();
+        for (Class<?> controller : CONTROLLERS) {
+            final ControllerConfiguration configuration = controller.getAnnotation(ControllerConfiguration.class);
+            Assert.assertNotNull(configuration, controller.getName());
+            // the annotation default, an explicit value would prevail over the operator setting
+            Assert.assertEquals(Set.of(configuration.namespaces()), Constants.DEFAULT_NAMESPACES_SET,
+                    controller.getName());
+            Assert.assertTrue(names.add(configuration.name()), configuration.name());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void testDefaultNamespaces() {
+        final Properties properties = new Properties();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("application.properties")) {
+            properties.load(in);
+        }
+        Assert.assertEquals(properties.getProperty("quarkus.operator-sdk.namespaces"),
+                Constants.WATCH_CURRENT_NAMESPACE);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.controllers.cache.SecondaryResourcesCache;
+import com.datastax.oss.kaap.crds.CRDConstants;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.awaitility.Awaitility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the ReplicaSet lookups used by {@link BaseResourcesFactory#isDeploymentReady} in a namespace with
+ * 1,000 ReplicaSets spread across 10 deployments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeploymentReadinessBenchmark {
+
+    private static final String NAMESPACE = "ns";
+    private static final int DEPLOYMENTS = 10;
+    private static final int REPLICA_SETS_PER_DEPLOYMENT = 100;
+
+    private KubernetesServer server;
+    private KubernetesClient client;
+    private SecondaryResourcesCache cache;
+    private Deployment deployment;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DeploymentReadinessBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        server = new KubernetesServer(false, true);
+        server.before();
+        client = server.getClient();
+        for (int i = 0; i < DEPLOYMENTS; i++) {
+            final Deployment d = DeploymentReadinessFixtures.deployment(NAMESPACE, "component-" + i,
+                    REPLICA_SETS_PER_DEPLOYMENT);
+            for (int r = 1; r <= REPLICA_SETS_PER_DEPLOYMENT; r++) {
+                client.resource(DeploymentReadinessFixtures.replicaSet(d, r)).inNamespace(NAMESPACE).create();
+            }
+            if (i == 0) {
+                deployment = d;
+            }
+        }
+        cache = new SecondaryResourcesCache(client);
+        cache.list(ReplicaSet.class, NAMESPACE, Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+        Awaitility.await().until(() -> {
+            final int before = server.getKubernetesMockServer().getRequestCount();
+            cache.list(ReplicaSet.class, NAMESPACE, Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+            return server.getKubernetesMockServer().getRequestCount() == before;
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.close();
+        server.after();
+    }
+
+    @Benchmark
+    public int listAllAndFilter() {
+        // previous implementation, kept as baseline
+        return client.apps().replicaSets().inNamespace(NAMESPACE).list().getItems()
+                .stream()
+                .filter(r -> r.getMetadata().getOwnerReferences().get(0).getUid()
+                        .equals(deployment.getMetadata().getUid()))
+                .collect(Collectors.toList())
+                .size();
+    }
+
+    @Benchmark
+    public boolean labelSelectorQuery() {
+        return BaseResourcesFactory.isDeploymentReady(deployment, client);
+    }
+
+    @Benchmark
+    public boolean ownerIndex() {
+        return BaseResourcesFactory.isDeploymentReady(deployment, client, cache);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.crds.CRDConstants;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSetBuilder;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+final class DeploymentReadinessFixtures {
+
+    private DeploymentReadinessFixtures() {
+    }
+
+    static Deployment deployment(String namespace, String component, int revision) {
+        return new DeploymentBuilder()
+                .withNewMetadata()
+                .withName(component)
+                .withNamespace(namespace)
+                .withUid(UUID.randomUUID().toString())
+                .withAnnotations(Map.of(BaseResourcesFactory.DEPLOYMENT_REVISION_ANNOTATION, revision + ""))
+                .endMetadata()
+                .withNewSpec()
+                .withNewSelector()
+                .withMatchLabels(Map.of(
+                        CRDConstants.LABEL_CLUSTER, "pul",
+                        CRDConstants.LABEL_COMPONENT, component
+                ))
+                .endSelector()
+                .endSpec()
+                .build();
+    }
+
+    static ReplicaSet replicaSet(Deployment owner, int revision) {
+        final Map<String, String> labels =
+                new HashMap<>(owner.getSpec().getSelector().getMatchLabels());
+        labels.put("pod-template-hash", "hash-" + revision);
+        return new ReplicaSetBuilder()
+                .withNewMetadata()
+                .withName(owner.getMetadata().getName() + "-" + revision)
+                .withLabels(labels)
+                .withAnnotations(Map.of(BaseResourcesFactory.DEPLOYMENT_REVISION_ANNOTATION, revision + ""))
+                .withOwnerReferences(new OwnerReferenceBuilder()
+                        .withKind("Deployment")
+                        .withName(owner.getMetadata().getName())
+                        .withUid(owner.getMetadata().getUid())
+                        .withController(true)
+                        .build())
+                .endMetadata()
+                .withNewStatus()
+                .withReplicas(1)
+                .withReadyReplicas(1)
+                .withAvailableReplicas(1)
+                .endStatus()
+                .build();
+    }
+}
@@ -133,6 +133,20 @@ public class KubeTestUtil {
         Assert.assertEquals(readyCondition.getReason(), CRDConstants.CONDITIONS_TYPE_READY_REASON_INITIALIZING);
     }
 
+    /**
+     * Assert that the reconciliation didn't write the status and that the resource, as updated in place by the
+     * reconciliation, is still initializing.
+     */
+    public static <R extends CustomResource<?, ? extends BaseComponentStatus>> void assertNoUpdateInitializing(
+            UpdateControl<R> updateControl, R resource) {
+        Assert.assertTrue(updateControl.isNoUpdate());
+        Assert.assertNull(updateControl.getResource());
+        Assert.assertEquals(updateControl.getScheduleDelay().get().longValue(), 5000L);
+        Condition readyCondition = getReadyCondition(resource.getStatus());
+        Assert.assertEquals(readyCondition.getStatus(), CRDConstants.CONDITIONS_STATUS_FALSE);
+        Assert.assertEquals(readyCondition.getReason(), CRDConstants.CONDITIONS_TYPE_READY_REASON_INITIALIZING);
+    }
+
     public static void assertUpdateControlReady(
             UpdateControl<? extends CustomResource<?, ? extends BaseComponentStatus>> updateControl) {
         Assert.assertFalse(updateControl.getScheduleDelay().isPresent());
@@ -0,0 +1,78 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperFullSpec;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class LastAppliedFingerprintsTest {
+
+    private static final String SPEC = """
+            global:
+                name: pul
+                image: apachepulsar/pulsar:global
+            bookkeeper:
+                config:
+                    a: b
+                    c: d
+                sets:
+                  set1: {}
+                  set2:
+                    replicas: 2
+            """;
+
+    @Test
+    public void testSections() {
+        final BookKeeperFullSpec spec = SerializationUtil.readYaml(SPEC, BookKeeperFullSpec.class);
+        final Map<String, String> sections = LastAppliedFingerprints.sections(spec);
+        Assert.assertEquals(List.copyOf(sections.keySet()), List.of("bookkeeper", "global"));
+        Assert.assertEquals(sections, LastAppliedFingerprints.sections(
+                SerializationUtil.readYaml(SPEC, BookKeeperFullSpec.class)));
+
+        spec.getBookkeeper().setReplicas(4);
+        final Map<String, String> changed = LastAppliedFingerprints.sections(spec);
+        Assert.assertEquals(changed.get("global"), sections.get("global"));
+        Assert.assertEquals(LastAppliedFingerprints.changedSections(sections, changed), List.of("bookkeeper"));
+    }
+
+    @Test
+    public void testHashIgnoresMapOrder() {
+        final Map<String, Object> map1 = new LinkedHashMap<>();
+        map1.put("a", "1");
+        map1.put("b", Map.of("x", 1));
+        final Map<String, Object> map2 = new LinkedHashMap<>();
+        map2.put("b", Map.of("x", 1));
+        map2.put("a", "1");
+        Assert.assertEquals(LastAppliedFingerprints.hash(map1), LastAppliedFingerprints.hash(map2));
+        map2.put("a", "2");
+        Assert.assertNotEquals(LastAppliedFingerprints.hash(map1), LastAppliedFingerprints.hash(map2));
+    }
+
+    @Test
+    public void testChangedSections() {
+        Assert.assertEquals(LastAppliedFingerprints.changedSections(
+                Map.of("global", "h1", "broker", "h2"),
+                Map.of("global", "h1", "broker", "h2")), List.of());
+        Assert.assertEquals(LastAppliedFingerprints.changedSections(
+                Map.of("global", "h1", "broker", "h2"),
+                Map.of("global", "h3", "proxy", "h2")), List.of("broker", "global", "proxy"));
+    }
+}
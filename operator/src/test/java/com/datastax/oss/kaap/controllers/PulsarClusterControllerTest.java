@@ -17,7 +17,10 @@ package com.datastax.oss.kaap.controllers;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import com.datastax.oss.kaap.controllers.utils.NamespaceThrottler;
 import com.datastax.oss.kaap.controllers.utils.TokenAuthProvisioner;
 import com.datastax.oss.kaap.crds.BaseComponentStatus;
 import com.datastax.oss.kaap.crds.CRDConstants;
@@ -30,6 +33,7 @@ import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
 import com.datastax.oss.kaap.crds.function.FunctionsWorker;
 import com.datastax.oss.kaap.crds.proxy.Proxy;
 import com.datastax.oss.kaap.crds.zookeeper.ZooKeeper;
+import com.datastax.oss.kaap.metrics.OperatorMetrics;
 import com.datastax.oss.kaap.mocks.MockKubernetesClient;
 import io.fabric8.kubernetes.api.model.Condition;
 import io.fabric8.kubernetes.api.model.HasMetadata;
@@ -37,6 +41,8 @@ import io.fabric8.kubernetes.api.model.ObjectMeta;
 import io.fabric8.kubernetes.client.CustomResource;
 import io.javaoperatorsdk.operator.api.reconciler.Context;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -108,7 +114,9 @@ public class PulsarClusterControllerTest {
                     required: true
                   zone:
                     enabled: false
-                zookeeperPlainSslStorePassword: false""";
+                zookeeperPlainSslStorePassword: false
+                applyMode: Patch
+                lastAppliedMode: Full""";
     static final String NAMESPACE = "ns";
 
     TokenAuthProvisioner tokenAuthProvisioner;
@@ -525,6 +533,23 @@ public class PulsarClusterControllerTest {
                       scaleDownBy: 1
                       stabilizationWindowMs: 300000
                       resourcesUsageSource: PulsarLBReport
+                      usageAggregation: Last
+                      usageWindowMs: 300000
+                      scaleUpBrokersRatio: 1.0
+                      scaleDownBrokersRatio: 1.0
+                      scalingPolicy: Thresholds
+                      targetCpuUtilization: 0.6
+                      targetTolerance: 0.1
+                      maxScaleUpStep: 10
+                      maxScaleDownStep: 1
+                      drainBeforeScaleDown: true
+                      drainTimeoutMs: 600000
+                      predictive:
+                        enabled: false
+                        method: HoltWinters
+                        seasonMs: 86400000
+                        bucketMs: 300000
+                        horizonMs: 900000
                     kafka:
                       enabled: false
                       exposePorts: true
@@ -668,7 +693,12 @@ public class PulsarClusterControllerTest {
     private UpdateControl<PulsarCluster> invokeController(MockKubernetesClient client,
                                                           String spec,
                                                           ExistingResourceProvider existingResourceProvider) {
+        return newController(client, existingResourceProvider).reconcile(newCluster("pulsar-cluster", spec),
+                mock(Context.class));
+    }
 
+    private PulsarClusterController newController(MockKubernetesClient client,
+                                                  ExistingResourceProvider existingResourceProvider) {
         final PulsarClusterController controller =
                 new PulsarClusterController(client.getClient()) {
 
@@ -686,17 +716,19 @@ public class PulsarClusterControllerTest {
                     }
                 };
         controller.operatorRuntimeConfiguration = new ControllerTestUtil.TestOperatorRuntimeConfiguration();
+        return controller;
+    }
 
+    private PulsarCluster newCluster(String name, String spec) {
         final PulsarCluster cr = new PulsarCluster();
         ObjectMeta meta = new ObjectMeta();
-        meta.setName("pulsar-cluster");
+        meta.setName(name);
         meta.setNamespace(NAMESPACE);
         cr.setMetadata(meta);
 
         final PulsarClusterSpec fSpec = MockKubernetesClient.readYaml(spec, PulsarClusterSpec.class);
         cr.setSpec(fSpec);
-
-        return controller.reconcile(cr, mock(Context.class));
+        return cr;
     }
 
     private void setReadyCondition(BaseComponentStatus status, boolean ready) {
@@ -733,6 +765,46 @@ public class PulsarClusterControllerTest {
         verify(tokenAuthProvisioner).generateSecretsIfAbsent(any());
     }
 
+    @Test
+    public void testNamespaceReleasedWithLastCluster() throws Exception {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        try {
+            final String spec = """
+                    global:
+                        name: pulsar-spec-1
+                        image: apachepulsar/pulsar:2.10.2
+                    """;
+            final PulsarClusterController controller = newController(new MockKubernetesClient(NAMESPACE), r -> null);
+            final NamespaceThrottler throttler = spy(new NamespaceThrottler(0, 0, System::nanoTime));
+            controller.namespaceThrottler = throttler;
+            final PulsarCluster cluster1 = newCluster("pulsar-cluster-1", spec);
+            final PulsarCluster cluster2 = newCluster("pulsar-cluster-2", spec);
+            controller.reconcile(cluster1, mock(Context.class));
+            controller.reconcile(cluster2, mock(Context.class));
+            Assert.assertNotNull(registry.find(OperatorMetrics.EXECUTOR_QUEUE_SIZE)
+                    .tags("executor", "cluster-" + NAMESPACE).gauge());
+
+            controller.onClusterDeleted(cluster1);
+            Assert.assertNotNull(registry.find(OperatorMetrics.EXECUTOR_QUEUE_SIZE)
+                    .tags("executor", "cluster-" + NAMESPACE).gauge());
+            verify(throttler, never()).remove(NAMESPACE);
+
+            controller.onClusterDeleted(cluster2);
+            Assert.assertNull(registry.find(OperatorMetrics.EXECUTOR_QUEUE_SIZE)
+                    .tags("executor", "cluster-" + NAMESPACE).gauge());
+            verify(throttler).remove(NAMESPACE);
+
+            // a new cluster in the namespace gets a new executor
+            controller.reconcile(cluster1, mock(Context.class));
+            Assert.assertNotNull(registry.find(OperatorMetrics.EXECUTOR_QUEUE_SIZE)
+                    .tags("executor", "cluster-" + NAMESPACE).gauge());
+        } finally {
+            Metrics.removeRegistry(registry);
+            registry.close();
+        }
+    }
+
     @Test
     public void testResourceSets() throws Exception {
         String spec = """
@@ -808,6 +880,48 @@ public class PulsarClusterControllerTest {
         );
     }
 
+    @Test
+    public void testBrokerAutoscalerUsageAggregation() throws Exception {
+        String spec = """
+                global:
+                    name: pulsar-spec-1
+                    image: apachepulsar/pulsar:2.10.2
+                broker:
+                    autoscaler:
+                        enabled: true
+                        usageAggregation: Median
+                """;
+        MockKubernetesClient client = new MockKubernetesClient(NAMESPACE);
+        UpdateControl<PulsarCluster> status = invokeController(client, spec, r -> null);
+        Condition readyCondition = KubeTestUtil.getReadyCondition(status.getResource().getStatus());
+        Assert.assertEquals(readyCondition.getStatus(), CRDConstants.CONDITIONS_STATUS_FALSE);
+        Assert.assertEquals(readyCondition.getReason(), CRDConstants.CONDITIONS_TYPE_READY_REASON_INVALID_SPEC);
+        Assert.assertTrue(readyCondition.getMessage().contains(
+                "Invalid autoscaler usage aggregation: Median, only [Last, Mean, P90, Ewma]")
+        );
+
+        spec = """
+                global:
+                    name: pulsar-spec-1
+                    image: apachepulsar/pulsar:2.10.2
+                    resourceSets:
+                      set1: {}
+                broker:
+                    sets:
+                        set1:
+                            autoscaler:
+                                enabled: true
+                                usageAggregation: Median
+                """;
+        client = new MockKubernetesClient(NAMESPACE);
+        status = invokeController(client, spec, r -> null);
+        readyCondition = KubeTestUtil.getReadyCondition(status.getResource().getStatus());
+        Assert.assertEquals(readyCondition.getReason(), CRDConstants.CONDITIONS_TYPE_READY_REASON_INVALID_SPEC);
+        Assert.assertTrue(readyCondition.getMessage().contains(
+                "Invalid autoscaler usage aggregation: Median, only [Last, Mean, P90, Ewma]")
+        );
+    }
+
     @Test
     public void testProxyResourceSetsNotDefined() throws Exception {
         String spec = """
@@ -0,0 +1,57 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSetSpec;
+import com.datastax.oss.kaap.crds.bookkeeper.BookKeeperSpec;
+import java.util.LinkedHashMap;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SetSpecsResolverTest {
+
+    @Test
+    public void testDefaultSet() {
+        final BookKeeperSpec spec = SerializationUtil.readYaml("""
+                replicas: 4
+                config:
+                    a: b
+                """, BookKeeperSpec.class);
+        final LinkedHashMap<String, BookKeeperSetSpec> sets = SetSpecsResolver.resolve(spec, spec.getSets(), "bk");
+        Assert.assertEquals(List.copyOf(sets.keySet()), List.of("bk"));
+        Assert.assertEquals(sets.get("bk").getClass(), BookKeeperSpec.class);
+        Assert.assertEquals(sets.get("bk").getReplicas(), 4);
+        Assert.assertEquals(sets.get("bk").getConfig().get("a"), "b");
+    }
+
+    @Test
+    public void testSetsOrderAndDefaults() {
+        final BookKeeperSpec spec = SerializationUtil.readYaml("""
+                replicas: 4
+                sets:
+                  z: {}
+                  a:
+                    replicas: 1
+                """, BookKeeperSpec.class);
+        final LinkedHashMap<String, BookKeeperSetSpec> sets = SetSpecsResolver.resolve(spec, spec.getSets(), "bk");
+        Assert.assertEquals(List.copyOf(sets.keySet()), List.of("z", "a"));
+        Assert.assertEquals(sets.get("z").getReplicas(), 4);
+        Assert.assertEquals(sets.get("a").getReplicas(), 1);
+        Assert.assertSame(spec.getSets().get("z"), sets.get("z"));
+    }
+}
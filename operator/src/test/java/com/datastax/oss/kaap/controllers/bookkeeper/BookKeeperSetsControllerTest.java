@@ -47,6 +47,8 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
@@ -61,12 +63,18 @@ public class BookKeeperSetsControllerTest {
     static final String NAMESPACE = "ns";
     static final String CLUSTER_NAME = "pulsar-spec-1";
     private BookieAdminClient bookieAdminClient;
+    private final List<String> adminClientSets = new CopyOnWriteArrayList<>();
+    private final List<Thread> adminClientThreads = new CopyOnWriteArrayList<>();
+    private final AtomicInteger rackClients = new AtomicInteger();
     private final ControllerTestUtil<BookKeeperFullSpec, BookKeeper> controllerTestUtil =
             new ControllerTestUtil<>(NAMESPACE, CLUSTER_NAME, this::controllerConstructor);
 
     @BeforeMethod(alwaysRun = true)
     public void beforeMethod() {
         bookieAdminClient = Mockito.mock(BookieAdminClient.class);
+        adminClientSets.clear();
+        adminClientThreads.clear();
+        rackClients.set(0);
     }
 
     @Test
@@ -731,8 +739,8 @@ public class BookKeeperSetsControllerTest {
 
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        bookkeeperUpdateControl = invokeController(spec, bookkeeperUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(bookkeeperUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, bookkeeperUpdateControl.getResource(), client),
+                bookkeeperUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         setsLastApplied =
                 SerializationUtil.readJson(bookkeeperUpdateControl.getResource().getStatus().getLastApplied(),
@@ -828,8 +836,8 @@ public class BookKeeperSetsControllerTest {
 
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        bookkeeperUpdateControl = invokeController(spec, bookkeeperUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(bookkeeperUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, bookkeeperUpdateControl.getResource(), client),
+                bookkeeperUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         Assert.assertNotNull(bookkeeperUpdateControl.getResource().getStatus().getLastApplied());
 
@@ -837,8 +845,8 @@ public class BookKeeperSetsControllerTest {
                 resolver.newStatefulSetBuilder("pulsar-spec-1-bookkeeper-setz", true).build());
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        bookkeeperUpdateControl = invokeController(spec, bookkeeperUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(bookkeeperUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, bookkeeperUpdateControl.getResource(), client),
+                bookkeeperUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         Assert.assertNotNull(bookkeeperUpdateControl.getResource().getStatus().getLastApplied());
 
@@ -883,8 +891,8 @@ public class BookKeeperSetsControllerTest {
                 resolver.newStatefulSetBuilder("pulsar-spec-1-bookkeeper-setz", true).build());
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        bookkeeperUpdateControl = invokeController(spec, bookkeeperUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(bookkeeperUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, bookkeeperUpdateControl.getResource(), client),
+                bookkeeperUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         Assert.assertNotNull(bookkeeperUpdateControl.getResource().getStatus().getLastApplied());
 
@@ -1082,6 +1090,8 @@ public class BookKeeperSetsControllerTest {
             @Override
             protected BookieAdminClient createBookieAdminClient(String namespace, String setName,
                                                                 BookKeeperFullSpec lastApplied) {
+                adminClientSets.add(setName);
+                adminClientThreads.add(Thread.currentThread());
                 return bookieAdminClient;
             }
 
@@ -1093,6 +1103,7 @@ public class BookKeeperSetsControllerTest {
                             @Override
                             public BkRackClient newBkRackClient(String namespace, BookKeeperFullSpec newSpec,
                                                                 BookKeeperAutoRackConfig autoRackConfig) {
+                                rackClients.incrementAndGet();
                                 return new BkRackClient() {
                                     @Override
                                     public BookiesRackOp newBookiesRackOp() {
@@ -1158,6 +1169,56 @@ public class BookKeeperSetsControllerTest {
                 3);
     }
 
+    @Test
+    public void testParallelDownscaling() throws Exception {
+        String spec = """
+                global:
+                    name: pul
+                    persistence: false
+                    image: apachepulsar/pulsar:global
+                bookkeeper:
+                    setsUpdateStrategy: Parallel
+                    sets:
+                      set1:
+                        replicas: 5
+                      set2:
+                        replicas: 5
+                """;
+        MockResourcesResolver resolver = new MockResourcesResolver();
+        MockKubernetesClient client = new MockKubernetesClient(NAMESPACE, resolver);
+        UpdateControl<BookKeeper> bookkeeperUpdateControl = invokeController(spec, new BookKeeper(), client);
+        KubeTestUtil.assertUpdateControlInitializing(bookkeeperUpdateControl);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 2);
+
+        mockBookieAdminClient(5);
+        rackClients.set(0);
+        spec = """
+                global:
+                    name: pul
+                    persistence: false
+                    image: apachepulsar/pulsar:global
+                bookkeeper:
+                    setsUpdateStrategy: Parallel
+                    sets:
+                      set1:
+                        replicas: 3
+                      set2:
+                        replicas: 3
+                """;
+        client = new MockKubernetesClient(NAMESPACE, resolver);
+        bookkeeperUpdateControl = invokeController(spec, bookkeeperUpdateControl.getResource(), client);
+        KubeTestUtil.assertUpdateControlInitializing(bookkeeperUpdateControl);
+        Assert.assertEquals((int) client.getCreatedResource(StatefulSet.class, "pul-bookkeeper-set1")
+                .getResource().getSpec().getReplicas(), 3);
+        Assert.assertEquals((int) client.getCreatedResource(StatefulSet.class, "pul-bookkeeper-set2")
+                .getResource().getSpec().getReplicas(), 3);
+
+        // the bookies are decommissioned in order from the reconciliation thread, the racks are synced once
+        Assert.assertEquals(adminClientSets, List.of("set1", "set2"));
+        Assert.assertEquals(adminClientThreads, List.of(Thread.currentThread(), Thread.currentThread()));
+        Assert.assertEquals(rackClients.get(), 2);
+    }
+
     private void mockBookieAdminClient(int replicas) {
         final List<BookieAdminClient.BookieInfo> bookieInfos = new ArrayList<>();
         for (int i = 0; i < replicas; i++) {
@@ -18,10 +18,10 @@ package com.datastax.oss.kaap.controllers.broker;
 import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.controllers.ControllerTestUtil;
 import com.datastax.oss.kaap.controllers.KubeTestUtil;
-import com.datastax.oss.kaap.crds.BaseComponentStatus;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.broker.Broker;
 import com.datastax.oss.kaap.crds.broker.BrokerFullSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerStatus;
 import com.datastax.oss.kaap.mocks.MockKubernetesClient;
 import com.datastax.oss.kaap.mocks.MockResourcesResolver;
 import io.fabric8.kubernetes.api.model.ConfigMap;
@@ -359,7 +359,7 @@ public class BrokerControllerTest {
         statusLastApplied.setCommon(brokerCr.getSpec());
         statusLastApplied.getSets().put(BrokerResourcesFactory.BROKER_DEFAULT_SET, brokerCr.getSpec());
         brokerCr.setStatus(
-                new BaseComponentStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
+                new BrokerStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
         );
         client = new MockKubernetesClient(NAMESPACE, new MockResourcesResolver() {
             @Override
@@ -656,7 +656,7 @@ public class BrokerControllerTest {
         statusLastApplied.setCommon(brokerCr.getSpec());
         statusLastApplied.getSets().put(BrokerResourcesFactory.BROKER_DEFAULT_SET, brokerCr.getSpec());
         brokerCr.setStatus(
-                new BaseComponentStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
+                new BrokerStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
         );
         client = new MockKubernetesClient(NAMESPACE, new MockResourcesResolver() {
             @Override
@@ -1299,7 +1299,7 @@ public class BrokerControllerTest {
         statusLastApplied.setCommon(brokerCr.getSpec());
         statusLastApplied.getSets().put(BrokerResourcesFactory.BROKER_DEFAULT_SET, brokerCr.getSpec());
         brokerCr.setStatus(
-                new BaseComponentStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
+                new BrokerStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
         );
         MockKubernetesClient client = new MockKubernetesClient(NAMESPACE, new MockResourcesResolver() {
             @Override
@@ -1549,7 +1549,7 @@ public class BrokerControllerTest {
         statusLastApplied.setCommon(brokerCr.getSpec());
         statusLastApplied.getSets().put(BrokerResourcesFactory.BROKER_DEFAULT_SET, brokerCr.getSpec());
         brokerCr.setStatus(
-                new BaseComponentStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
+                new BrokerStatus(List.of(), SerializationUtil.writeAsJson(statusLastApplied))
         );
         MockKubernetesClient client = new MockKubernetesClient(NAMESPACE, new MockResourcesResolver() {
             @Override
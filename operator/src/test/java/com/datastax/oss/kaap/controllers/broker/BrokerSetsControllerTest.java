@@ -30,6 +30,7 @@ import io.fabric8.kubernetes.api.model.apps.StatefulSet;
 import io.fabric8.kubernetes.api.model.policy.v1.PodDisruptionBudget;
 import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import java.util.LinkedHashMap;
+import java.util.Set;
 import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
 import org.testng.Assert;
@@ -613,6 +614,124 @@ public class BrokerSetsControllerTest {
     }
 
 
+    @Test
+    public void testParallelUpdateManySets() throws Exception {
+        String spec = """
+                global:
+                    name: pulsar-spec-1
+                    image: apachepulsar/pulsar:global
+                broker:
+                    setsUpdateStrategy: Parallel
+                    sets:
+                      set1: {}
+                      set2: {}
+                      set3: {}
+                      set4: {}
+                      set5: {}
+                      set6: {}
+                """;
+        MockResourcesResolver resolver = new MockResourcesResolver();
+        MockKubernetesClient client = new MockKubernetesClient(NAMESPACE, resolver);
+        UpdateControl<Broker> brokerUpdateControl = invokeController(spec, new Broker(), client);
+        KubeTestUtil.assertUpdateControlInitializing(brokerUpdateControl);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 6);
+        BrokerController.BrokerSetsLastApplied setsLastApplied =
+                SerializationUtil.readJson(brokerUpdateControl.getResource().getStatus().getLastApplied(),
+                        BrokerController.BrokerSetsLastApplied.class);
+        Assert.assertEquals(setsLastApplied.getSets().keySet(),
+                Set.of("set1", "set2", "set3", "set4", "set5", "set6"));
+
+        for (int i = 1; i <= 5; i++) {
+            resolver.putResource("pulsar-spec-1-broker-set" + i,
+                    resolver.newStatefulSetBuilder("pulsar-spec-1-broker-set" + i, true).build());
+        }
+        client = new MockKubernetesClient(NAMESPACE, resolver);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, brokerUpdateControl.getResource(), client),
+                brokerUpdateControl.getResource());
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
+
+        resolver.putResource("pulsar-spec-1-broker-set6",
+                resolver.newStatefulSetBuilder("pulsar-spec-1-broker-set6", true).build());
+        client = new MockKubernetesClient(NAMESPACE, resolver);
+        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
+        KubeTestUtil.assertUpdateControlReady(brokerUpdateControl);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
+    }
+
+    @Test
+    public void testCompactLastApplied() throws Exception {
+        String spec = """
+                global:
+                    name: pulsar-spec-1
+                    image: apachepulsar/pulsar:global
+                    lastAppliedMode: Compact
+                broker:
+                    setsUpdateStrategy: Parallel
+                    sets:
+                      set1: {}
+                      set2: {}
+                """;
+        MockResourcesResolver resolver = new MockResourcesResolver();
+        MockKubernetesClient client = new MockKubernetesClient(NAMESPACE, resolver);
+        UpdateControl<Broker> brokerUpdateControl = invokeController(spec, new Broker(), client);
+        KubeTestUtil.assertUpdateControlInitializing(brokerUpdateControl);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 2);
+        BrokerController.BrokerSetsLastApplied setsLastApplied =
+                SerializationUtil.readJson(brokerUpdateControl.getResource().getStatus().getLastApplied(),
+                        BrokerController.BrokerSetsLastApplied.class);
+        Assert.assertNotNull(setsLastApplied.getCommon());
+        Assert.assertTrue(setsLastApplied.getSets().isEmpty());
+        Assert.assertEquals(setsLastApplied.getFingerprints().getSets().keySet(), Set.of("set1", "set2"));
+        Assert.assertEquals(setsLastApplied.getFingerprints().getCommon().keySet(), Set.of("global", "broker"));
+
+        resolver.putResource("pulsar-spec-1-broker-set1",
+                resolver.newStatefulSetBuilder("pulsar-spec-1-broker-set1", true).build());
+        resolver.putResource("pulsar-spec-1-broker-set2",
+                resolver.newStatefulSetBuilder("pulsar-spec-1-broker-set2", true).build());
+        client = new MockKubernetesClient(NAMESPACE, resolver);
+        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
+        KubeTestUtil.assertUpdateControlReady(brokerUpdateControl);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
+
+        spec = """
+                global:
+                    name: pulsar-spec-1
+                    image: apachepulsar/pulsar:global
+                    lastAppliedMode: Compact
+                broker:
+                    setsUpdateStrategy: Parallel
+                    sets:
+                      set1: {}
+                      set2:
+                        replicas: 5
+                """;
+        client = new MockKubernetesClient(NAMESPACE, resolver);
+        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 1);
+        Assert.assertEquals(client.getCreatedResource(StatefulSet.class, "pulsar-spec-1-broker-set2")
+                .getResource().getSpec().getReplicas(), 5);
+
+        spec = """
+                global:
+                    name: pulsar-spec-1
+                    image: apachepulsar/pulsar:global
+                    lastAppliedMode: Compact
+                broker:
+                    setsUpdateStrategy: Parallel
+                    sets:
+                      set1: {}
+                """;
+        client = new MockKubernetesClient(NAMESPACE, resolver);
+        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
+        KubeTestUtil.assertUpdateControlReady(brokerUpdateControl);
+        Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
+        Assert.assertNotNull(client.getDeletedResource(StatefulSet.class, "pulsar-spec-1-broker-set2"));
+        setsLastApplied =
+                SerializationUtil.readJson(brokerUpdateControl.getResource().getStatus().getLastApplied(),
+                        BrokerController.BrokerSetsLastApplied.class);
+        Assert.assertEquals(setsLastApplied.getFingerprints().getSets().keySet(), Set.of("set1"));
+    }
+
     @Test
     public void testRollingUpdate() throws Exception {
         String spec = """
@@ -638,8 +757,8 @@ public class BrokerSetsControllerTest {
 
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(brokerUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, brokerUpdateControl.getResource(), client),
+                brokerUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
 
         resolver.putResource("pulsar-spec-1-broker-setz",
@@ -732,8 +851,8 @@ public class BrokerSetsControllerTest {
 
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(brokerUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, brokerUpdateControl.getResource(), client),
+                brokerUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         Assert.assertNotNull(brokerUpdateControl.getResource().getStatus().getLastApplied());
 
@@ -741,8 +860,8 @@ public class BrokerSetsControllerTest {
                 resolver.newStatefulSetBuilder("pulsar-spec-1-broker-setz", true).build());
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(brokerUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, brokerUpdateControl.getResource(), client),
+                brokerUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         Assert.assertNotNull(brokerUpdateControl.getResource().getStatus().getLastApplied());
 
@@ -787,8 +906,8 @@ public class BrokerSetsControllerTest {
                 resolver.newStatefulSetBuilder("pulsar-spec-1-broker-setz", true).build());
 
         client = new MockKubernetesClient(NAMESPACE, resolver);
-        brokerUpdateControl = invokeController(spec, brokerUpdateControl.getResource(), client);
-        KubeTestUtil.assertUpdateControlInitializing(brokerUpdateControl);
+        KubeTestUtil.assertNoUpdateInitializing(invokeController(spec, brokerUpdateControl.getResource(), client),
+                brokerUpdateControl.getResource());
         Assert.assertEquals(client.getCreatedResources(StatefulSet.class).size(), 0);
         Assert.assertNotNull(brokerUpdateControl.getResource().getStatus().getLastApplied());
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.cache;
+
+import com.datastax.oss.kaap.crds.CRDConstants;
+import com.datastax.oss.kaap.crds.broker.Broker;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSetBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import io.javaoperatorsdk.operator.processing.event.Event;
+import io.javaoperatorsdk.operator.processing.event.ResourceID;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.awaitility.Awaitility;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OwnedResourceEventSourceTest {
+
+    private static final String NAMESPACE = "ns";
+
+    private KubernetesServer server;
+    private KubernetesClient client;
+    private SecondaryResourcesCache cache;
+
+    @BeforeMethod
+    public void before() {
+        server = new KubernetesServer(false, true);
+        server.before();
+        client = server.getClient();
+        cache = new SecondaryResourcesCache(client);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void after() {
+        cache.close();
+        server.after();
+    }
+
+    @Test
+    public void testStatusChangeTriggersOwner() {
+        final List<Event> events = new CopyOnWriteArrayList<>();
+        final OwnedResourceEventSource<StatefulSet> eventSource =
+                new OwnedResourceEventSource<>(cache, StatefulSet.class, Broker.class, StatefulSet::getStatus);
+        eventSource.setEventHandler(events::add);
+        eventSource.start();
+
+        client.resource(new StatefulSetBuilder()
+                .withNewMetadata()
+                .withName("broker")
+                .withLabels(Map.of(CRDConstants.LABEL_CLUSTER, "pul"))
+                .withOwnerReferences(new OwnerReferenceBuilder()
+                        .withKind("Broker")
+                        .withName("pulsar-broker")
+                        .build())
+                .endMetadata()
+                .withNewSpec()
+                .withReplicas(1)
+                .endSpec()
+                .build()).inNamespace(NAMESPACE).create();
+        client.resource(new StatefulSetBuilder()
+                .withNewMetadata()
+                .withName("not-owned")
+                .withLabels(Map.of(CRDConstants.LABEL_CLUSTER, "pul"))
+                .endMetadata()
+                .build()).inNamespace(NAMESPACE).create();
+
+        // starts the informer
+        cache.list(StatefulSet.class, NAMESPACE, Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+        Awaitility.await().until(() -> {
+            final int before = server.getKubernetesMockServer().getRequestCount();
+            cache.list(StatefulSet.class, NAMESPACE, Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+            return server.getKubernetesMockServer().getRequestCount() == before;
+        });
+        Assert.assertTrue(events.isEmpty());
+
+        client.apps().statefulSets().inNamespace(NAMESPACE).withName("broker")
+                .edit(sts -> new StatefulSetBuilder(sts)
+                        .editMetadata().addToLabels("label", "value").endMetadata()
+                        .build());
+        client.apps().statefulSets().inNamespace(NAMESPACE).withName("not-owned")
+                .edit(sts -> new StatefulSetBuilder(sts)
+                        .withNewStatus().withReadyReplicas(1).endStatus()
+                        .build());
+        client.apps().statefulSets().inNamespace(NAMESPACE).withName("broker")
+                .edit(sts -> new StatefulSetBuilder(sts)
+                        .withNewStatus().withReadyReplicas(1).endStatus()
+                        .build());
+        Awaitility.await().until(() -> !events.isEmpty());
+        Assert.assertEquals(events.size(), 1);
+        Assert.assertEquals(events.get(0).getRelatedCustomResourceID(), new ResourceID("pulsar-broker", NAMESPACE));
+
+        client.apps().statefulSets().inNamespace(NAMESPACE).withName("broker").delete();
+        Awaitility.await().until(() -> events.size() == 2);
+
+        eventSource.stop();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.cache;
+
+import com.datastax.oss.kaap.crds.CRDConstants;
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.Secret;
+import io.fabric8.kubernetes.api.model.SecretBuilder;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import java.util.List;
+import java.util.Map;
+import org.awaitility.Awaitility;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class SecondaryResourcesCacheTest {
+
+    private static final String NAMESPACE = "ns";
+
+    private KubernetesServer server;
+    private KubernetesClient client;
+    private SecondaryResourcesCache cache;
+
+    @BeforeMethod
+    public void before() {
+        server = new KubernetesServer(false, true);
+        server.before();
+        client = server.getClient();
+        cache = new SecondaryResourcesCache(client);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void after() {
+        cache.close();
+        server.after();
+    }
+
+    @Test
+    public void testGetFromCache() {
+        client.resource(newConfigMap("cm1", "pul", "broker")).inNamespace(NAMESPACE).create();
+
+        // first access starts the informer and reads from the api server
+        Assert.assertNotNull(cache.get(ConfigMap.class, NAMESPACE, "cm1"));
+        awaitSynced();
+
+        final int requestsBefore = server.getKubernetesMockServer().getRequestCount();
+        for (int i = 0; i < 10; i++) {
+            final ConfigMap cm = cache.get(ConfigMap.class, NAMESPACE, "cm1");
+            Assert.assertEquals(cm.getMetadata().getName(), "cm1");
+        }
+        Assert.assertEquals(server.getKubernetesMockServer().getRequestCount(), requestsBefore);
+    }
+
+    @Test
+    public void testCacheMissFallsBackToServer() {
+        Assert.assertNull(cache.get(ConfigMap.class, NAMESPACE, "cm1"));
+        awaitSynced();
+
+        client.resource(newConfigMap("cm1", "pul", "broker")).inNamespace(NAMESPACE).create();
+        Assert.assertNotNull(cache.get(ConfigMap.class, NAMESPACE, "cm1"));
+    }
+
+    @Test
+    public void testListByLabels() {
+        client.resource(newConfigMap("cm1", "pul", "broker")).inNamespace(NAMESPACE).create();
+        client.resource(newConfigMap("cm2", "pul", "proxy")).inNamespace(NAMESPACE).create();
+        client.resource(newConfigMap("cm3", "other", "broker")).inNamespace(NAMESPACE).create();
+
+        Assert.assertEquals(cache.list(ConfigMap.class, NAMESPACE,
+                Map.of(CRDConstants.LABEL_CLUSTER, "pul")).size(), 2);
+        awaitSynced();
+        final int requestsBefore = server.getKubernetesMockServer().getRequestCount();
+
+        final List<ConfigMap> byCluster = cache.list(ConfigMap.class, NAMESPACE,
+                Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+        Assert.assertEquals(byCluster.size(), 2);
+
+        final List<ConfigMap> byClusterAndComponent = cache.list(ConfigMap.class, NAMESPACE,
+                Map.of(CRDConstants.LABEL_CLUSTER, "pul", CRDConstants.LABEL_COMPONENT, "broker"));
+        Assert.assertEquals(byClusterAndComponent.size(), 1);
+        Assert.assertEquals(byClusterAndComponent.get(0).getMetadata().getName(), "cm1");
+
+        Assert.assertEquals(server.getKubernetesMockServer().getRequestCount(), requestsBefore);
+
+        // without the cluster label the lookup goes to the api server
+        final List<ConfigMap> byComponent = cache.list(ConfigMap.class, NAMESPACE,
+                Map.of(CRDConstants.LABEL_COMPONENT, "broker"));
+        Assert.assertEquals(byComponent.size(), 2);
+        Assert.assertEquals(cache.list(ConfigMap.class, NAMESPACE, null).size(), 3);
+        Assert.assertEquals(server.getKubernetesMockServer().getRequestCount(), requestsBefore + 2);
+    }
+
+    @Test
+    public void testResourcesWithoutClusterLabelNotCached() {
+        client.resource(new ConfigMapBuilder()
+                .withNewMetadata()
+                .withName("unlabeled")
+                .endMetadata()
+                .build()).inNamespace(NAMESPACE).create();
+        Assert.assertNotNull(cache.get(ConfigMap.class, NAMESPACE, "unlabeled"));
+        awaitSynced();
+
+        final int requestsBefore = server.getKubernetesMockServer().getRequestCount();
+        Assert.assertNotNull(cache.get(ConfigMap.class, NAMESPACE, "unlabeled"));
+        Assert.assertEquals(server.getKubernetesMockServer().getRequestCount(), requestsBefore + 1);
+    }
+
+    @Test
+    public void testNotCachedResource() {
+        client.resource(new SecretBuilder()
+                .withNewMetadata()
+                .withName("s1")
+                .endMetadata()
+                .build()).inNamespace(NAMESPACE).create();
+        Assert.assertNotNull(cache.get(Secret.class, NAMESPACE, "s1"));
+        Assert.assertNotNull(cache.get(Secret.class, NAMESPACE, "s1"));
+        Assert.assertFalse(SecondaryResourcesCache.isCached(Secret.class));
+    }
+
+    private void awaitSynced() {
+        Awaitility.await().until(() -> {
+            final int requestsBefore = server.getKubernetesMockServer().getRequestCount();
+            cache.list(ConfigMap.class, NAMESPACE, Map.of(CRDConstants.LABEL_CLUSTER, "pul"));
+            return server.getKubernetesMockServer().getRequestCount() == requestsBefore;
+        });
+    }
+
+    private static ConfigMap newConfigMap(String name, String cluster, String component) {
+        return new ConfigMapBuilder()
+                .withNewMetadata()
+                .withName(name)
+                .withLabels(Map.of(
+                        CRDConstants.LABEL_APP, CRDConstants.LABEL_APP_VALUE,
+                        CRDConstants.LABEL_CLUSTER, cluster,
+                        CRDConstants.LABEL_COMPONENT, component
+                ))
+                .endMetadata()
+                .withData(Map.of("key", "value"))
+                .build();
+    }
+}
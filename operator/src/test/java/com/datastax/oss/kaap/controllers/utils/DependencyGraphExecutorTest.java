@@ -0,0 +1,108 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.utils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+public class DependencyGraphExecutorTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterClass(alwaysRun = true)
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOrdering() {
+        final List<String> executed = new CopyOnWriteArrayList<>();
+        final Map<String, DependencyGraphExecutor.StepResult> results = new DependencyGraphExecutor(executor)
+                .addStep("a", () -> executed.add("a"))
+                .addStep("b", () -> executed.add("b"), "a")
+                .addStep("c", () -> executed.add("c"), "b")
+                .execute();
+        Assert.assertEquals(executed, List.of("a", "b", "c"));
+        Assert.assertEquals(List.copyOf(results.keySet()), List.of("a", "b", "c"));
+        Assert.assertTrue(results.values().stream().allMatch(r -> r == DependencyGraphExecutor.StepResult.READY));
+    }
+
+    @Test
+    public void testIndependentStepsRunConcurrently() {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final DependencyGraphExecutor.Step awaitOther = () -> {
+            latch.countDown();
+            return latch.await(10, TimeUnit.SECONDS);
+        };
+        final Map<String, DependencyGraphExecutor.StepResult> results = new DependencyGraphExecutor(executor)
+                .addStep("root", () -> true)
+                .addStep("left", awaitOther, "root")
+                .addStep("right", awaitOther, "root")
+                .execute();
+        Assert.assertEquals(results.get("left"), DependencyGraphExecutor.StepResult.READY);
+        Assert.assertEquals(results.get("right"), DependencyGraphExecutor.StepResult.READY);
+    }
+
+    @Test
+    public void testSkipDependentsWhenNotReady() {
+        final Map<String, DependencyGraphExecutor.StepResult> results = new DependencyGraphExecutor(executor)
+                .addStep("a", () -> true)
+                .addStep("b", () -> false, "a")
+                .addStep("c", () -> {
+                    throw new IllegalStateException("must not run");
+                }, "b")
+                .addStep("d", () -> true, "a")
+                .execute();
+        Assert.assertEquals(results, Map.of(
+                "a", DependencyGraphExecutor.StepResult.READY,
+                "b", DependencyGraphExecutor.StepResult.NOT_READY,
+                "c", DependencyGraphExecutor.StepResult.SKIPPED,
+                "d", DependencyGraphExecutor.StepResult.READY
+        ));
+    }
+
+    @Test
+    public void testErrorIsRethrown() {
+        final List<String> executed = new CopyOnWriteArrayList<>();
+        final DependencyGraphExecutor graph = new DependencyGraphExecutor(executor)
+                .addStep("a", () -> {
+                    throw new IllegalStateException("boom");
+                })
+                .addStep("b", () -> executed.add("b"), "a")
+                .addStep("c", () -> executed.add("c"));
+        try {
+            graph.execute();
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals(ex.getMessage(), "boom");
+        }
+        Assert.assertEquals(executed, List.of("c"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownDependency() {
+        new DependencyGraphExecutor(executor)
+                .addStep("a", () -> true, "b");
+    }
+}
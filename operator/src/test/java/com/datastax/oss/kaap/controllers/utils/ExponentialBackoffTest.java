@@ -0,0 +1,43 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ExponentialBackoffTest {
+
+    @Test
+    public void testBackoff() {
+        final ExponentialBackoff backoff = new ExponentialBackoff(1000, 10000);
+        assertBetween(backoff.nextDelayMs("a"), 500, 1000);
+        assertBetween(backoff.nextDelayMs("a"), 1000, 2000);
+        assertBetween(backoff.nextDelayMs("a"), 2000, 4000);
+        assertBetween(backoff.nextDelayMs("a"), 4000, 8000);
+        for (int i = 0; i < 100; i++) {
+            assertBetween(backoff.nextDelayMs("a"), 5000, 10000);
+        }
+        // keys are independent
+        assertBetween(backoff.nextDelayMs("b"), 500, 1000);
+
+        backoff.reset("a");
+        assertBetween(backoff.nextDelayMs("a"), 500, 1000);
+    }
+
+    private static void assertBetween(long value, long min, long max) {
+        Assert.assertTrue(value >= min && value <= max, value + " not in [" + min + ", " + max + "]");
+    }
+}
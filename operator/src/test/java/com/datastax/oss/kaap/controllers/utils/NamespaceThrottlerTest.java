@@ -0,0 +1,76 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.controllers.utils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NamespaceThrottlerTest {
+
+    @Test
+    public void testConcurrencyPerNamespace() {
+        final NamespaceThrottler throttler = new NamespaceThrottler(2, 0, System::nanoTime);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), NamespaceThrottler.CONCURRENCY_RETRY_DELAY_MS);
+        // other namespaces are not affected
+        Assert.assertEquals(throttler.tryAcquire("ns2"), 0);
+
+        throttler.release("ns1");
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+    }
+
+    @Test
+    public void testRatePerNamespace() {
+        final AtomicLong now = new AtomicLong();
+        final NamespaceThrottler throttler = new NamespaceThrottler(0, 2, now::get);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 500);
+        Assert.assertEquals(throttler.tryAcquire("ns2"), 0);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 250);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(250));
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+
+        // the bucket doesn't grow past the burst
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 500);
+    }
+
+    @Test
+    public void testRemove() {
+        final NamespaceThrottler throttler = new NamespaceThrottler(0, 1, System::nanoTime);
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        Assert.assertTrue(throttler.tryAcquire("ns1") > 0);
+
+        throttler.remove("ns1");
+        Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+    }
+
+    @Test
+    public void testUnlimited() {
+        final NamespaceThrottler throttler = new NamespaceThrottler(0, 0, System::nanoTime);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(throttler.tryAcquire("ns1"), 0);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.controllers.ControllerTestUtil;
 import com.datastax.oss.kaap.controllers.KubeTestUtil;
 import com.datastax.oss.kaap.crds.BaseComponentStatus;
+import com.datastax.oss.kaap.crds.CRDConstants;
 import com.datastax.oss.kaap.crds.GlobalSpec;
 import com.datastax.oss.kaap.crds.zookeeper.ZooKeeper;
 import com.datastax.oss.kaap.crds.zookeeper.ZooKeeperFullSpec;
@@ -51,6 +52,7 @@ import io.javaoperatorsdk.operator.api.reconciler.UpdateControl;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.SneakyThrows;
 import lombok.extern.jbosslog.JBossLog;
 import org.testng.Assert;
@@ -756,6 +758,98 @@ public class ZooKeeperControllerTest {
         Assert.assertTrue(lastApplied.getZookeeper().getEnv().isEmpty());
     }
 
+    @Test
+    public void testCompactLastApplied() throws Exception {
+        String spec = """
+                global:
+                    name: pul
+                    image: apachepulsar/pulsar:global
+                    lastAppliedMode: Compact
+                """;
+        MockKubernetesClient client = new MockKubernetesClient(NAMESPACE);
+        final UpdateControl<ZooKeeper> zooKeeperUpdateControl = invokeController(spec, client);
+        Assert.assertNotNull(client.getCreatedResource(StatefulSet.class));
+        final ZooKeeper zkCr = zooKeeperUpdateControl.getResource();
+        final Map<String, Object> lastApplied = SerializationUtil.readJson(zkCr.getStatus().getLastApplied(),
+                Map.class);
+        Assert.assertEquals(((Map<String, Object>) ((Map<String, Object>) lastApplied.get("fingerprints"))
+                .get("common")).keySet(), Set.of("global", "zookeeper"));
+
+        client = new MockKubernetesClient(NAMESPACE, new MockResourcesResolver() {
+            @Override
+            public StatefulSet statefulSetWithName(String name) {
+                return newStatefulSetBuilder(name, true).build();
+            }
+        });
+        invokeController(zkCr, client);
+        Assert.assertNull(client.getCreatedResource(StatefulSet.class));
+        Assert.assertNotNull(client.getCreatedResource(Job.class));
+
+        zkCr.getSpec().getZookeeper().setReplicas(5);
+        client = new MockKubernetesClient(NAMESPACE);
+        invokeController(zkCr, client);
+        Assert.assertEquals(client.getCreatedResource(StatefulSet.class)
+                .getResource().getSpec().getReplicas(), 5);
+    }
+
+    @Test
+    public void testStatusUpdatedOnlyIfChanged() throws Exception {
+        String spec = """
+                global:
+                    name: pul
+                    image: apachepulsar/pulsar:global
+                """;
+        final UpdateControl<ZooKeeper> first = invokeController(spec, new MockKubernetesClient(NAMESPACE));
+        KubeTestUtil.assertUpdateControlInitializing(first);
+        final ZooKeeper zkCr = first.getResource();
+        final BaseComponentStatus status = SerializationUtil.deepCloneObject(zkCr.getStatus());
+
+        final UpdateControl<ZooKeeper> second = new ControllerTestUtil<ZooKeeperFullSpec, ZooKeeper>(NAMESPACE,
+                CLUSTER_NAME).invokeController(new MockKubernetesClient(NAMESPACE), zkCr, ZooKeeperController.class);
+        Assert.assertFalse(second.isUpdateStatus());
+        Assert.assertEquals(second.getScheduleDelay().get().longValue(), 5000L);
+        Assert.assertEquals(zkCr.getStatus(), status);
+
+        zkCr.getSpec().getZookeeper().setReplicas(5);
+        final UpdateControl<ZooKeeper> third = new ControllerTestUtil<ZooKeeperFullSpec, ZooKeeper>(NAMESPACE,
+                CLUSTER_NAME).invokeController(new MockKubernetesClient(NAMESPACE), zkCr, ZooKeeperController.class);
+        KubeTestUtil.assertUpdateControlInitializing(third);
+        Assert.assertNotEquals(third.getResource().getStatus().getLastApplied(), status.getLastApplied());
+        // the ready condition didn't transition
+        Assert.assertEquals(KubeTestUtil.getReadyCondition(third.getResource().getStatus()).getLastTransitionTime(),
+                KubeTestUtil.getReadyCondition(status).getLastTransitionTime());
+    }
+
+    @Test
+    public void testValidationCachedPerGeneration() throws Exception {
+        final MockKubernetesClient client = new MockKubernetesClient(NAMESPACE);
+        final ZooKeeperController controller = new ZooKeeperController(client.getClient());
+        final ControllerTestUtil<ZooKeeperFullSpec, ZooKeeper> util =
+                new ControllerTestUtil<>(NAMESPACE, CLUSTER_NAME, input -> controller);
+        final ZooKeeper zkCr = util.createCustomResource(ZooKeeper.class, ZooKeeperFullSpec.class, """
+                global:
+                    image: apachepulsar/pulsar:global
+                zookeeper: {}
+                """);
+        zkCr.getMetadata().setUid("uid");
+        zkCr.getMetadata().setGeneration(1L);
+
+        UpdateControl<ZooKeeper> result = util.invokeController(client, zkCr, ZooKeeperController.class);
+        Assert.assertEquals(KubeTestUtil.getReadyCondition(result.getResource().getStatus()).getReason(),
+                CRDConstants.CONDITIONS_TYPE_READY_REASON_INVALID_SPEC);
+
+        // the spec can't change without a new generation, the cached result is used
+        zkCr.getSpec().getGlobal().setName("pul");
+        result = util.invokeController(client, zkCr, ZooKeeperController.class);
+        Assert.assertFalse(result.isUpdateStatus());
+        Assert.assertEquals(KubeTestUtil.getReadyCondition(zkCr.getStatus()).getReason(),
+                CRDConstants.CONDITIONS_TYPE_READY_REASON_INVALID_SPEC);
+
+        zkCr.getMetadata().setGeneration(2L);
+        result = util.invokeController(client, zkCr, ZooKeeperController.class);
+        KubeTestUtil.assertUpdateControlInitializing(result);
+    }
+
     @Test
     public void testInitContainers() throws Exception {
         String spec = """
@@ -0,0 +1,113 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.crds;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+
+public final class ClusterSpecFixtures {
+
+    private static final String CLUSTER_SPEC = """
+            global:
+                name: pulsar
+                image: apachepulsar/pulsar:2.10.2
+                auth:
+                    enabled: true
+                tls:
+                    enabled: true
+                    broker:
+                        enabled: true
+                    proxy:
+                        enabled: true
+                racks:
+                    rack1:
+                        host:
+                            enabled: true
+                        zone:
+                            enabled: true
+                    rack2:
+                        host:
+                            enabled: true
+                    rack3:
+                        zone:
+                            enabled: true
+                resourceSets:
+                    set1:
+                        rack: rack1
+                    set2:
+                        rack: rack2
+                    set3:
+                        rack: rack3
+                    set4: {}
+            zookeeper:
+                replicas: 3
+                config:
+                    serverCnxnFactory: org.apache.zookeeper.server.NettyServerCnxnFactory
+                    maxClientCnxns: 60
+            bookkeeper:
+                replicas: 3
+                config:
+                    journalMaxGroupWaitMSec: 1
+                    dbStorage_writeCacheMaxSizeMb: 256
+                    dbStorage_readAheadCacheMaxSizeMb: 256
+                sets:
+                    set1: {}
+                    set2: {}
+                    set3:
+                        replicas: 5
+                    set4:
+                        replicas: 2
+            broker:
+                replicas: 3
+                config:
+                    managedLedgerDefaultEnsembleSize: 2
+                    managedLedgerDefaultWriteQuorum: 2
+                    managedLedgerDefaultAckQuorum: 2
+                    loadBalancerLoadSheddingStrategy: org.apache.pulsar.broker.loadbalance.impl.ThresholdShedder
+                    loadBalancerBrokerOverloadedThresholdPercentage: 80
+                    brokerDeleteInactiveTopicsEnabled: false
+                    allowAutoTopicCreationType: non-partitioned
+                    defaultNumberOfNamespaceBundles: 16
+                sets:
+                    set1: {}
+                    set2: {}
+                    set3: {}
+            proxy:
+                replicas: 2
+                sets:
+                    set1: {}
+                    set2: {}
+            functionsWorker:
+                replicas: 2
+            autorecovery:
+                replicas: 1
+            bastion:
+                replicas: 1
+            """;
+
+    private ClusterSpecFixtures() {
+    }
+
+    /**
+     * A cluster spec with TLS, racks and multiple sets for each component, with all the defaults applied.
+     */
+    public static PulsarClusterSpec clusterSpec() {
+        final PulsarClusterSpec spec = SerializationUtil.readYaml(CLUSTER_SPEC, PulsarClusterSpec.class);
+        spec.getGlobal().applyDefaults(null);
+        spec.applyDefaults(spec.getGlobal());
+        return spec;
+    }
+}
@@ -18,6 +18,12 @@ package com.datastax.oss.kaap.crds;
 import com.datastax.oss.kaap.common.SerializationUtil;
 import com.datastax.oss.kaap.crds.broker.BrokerFullSpec;
 import com.datastax.oss.kaap.crds.broker.BrokerSetSpec;
+import com.datastax.oss.kaap.crds.broker.BrokerSpec;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.datastax.oss.kaap.crds.configs.ProbesConfig;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -57,4 +63,112 @@ public class ConfigUtilTest {
                         """);
     }
 
+
+    @Test
+    public void testEquivalenceOnResourceSets() {
+        final PulsarClusterSpec spec = ClusterSpecFixtures.clusterSpec();
+        assertEquivalent(new BrokerSetSpec(), spec.getBroker());
+        assertEquivalent(new BrokerSpec(), spec.getBroker());
+        for (Object set : spec.getBroker().getSets().values()) {
+            assertEquivalent(set, spec.getBroker());
+        }
+        for (Object set : spec.getProxy().getSets().values()) {
+            assertEquivalent(set, spec.getProxy());
+        }
+        for (Object set : spec.getBookkeeper().getSets().values()) {
+            assertEquivalent(set, spec.getBookkeeper());
+        }
+    }
+
+    @Test
+    public void testEquivalenceOnNestedConfigs() {
+        final ProbesConfig defaultProbes = ProbesConfig.builder()
+                .readiness(ProbesConfig.ProbeConfig.builder()
+                        .enabled(true)
+                        .initialDelaySeconds(10)
+                        .periodSeconds(30)
+                        .build())
+                .liveness(ProbesConfig.ProbeConfig.builder()
+                        .enabled(true)
+                        .timeoutSeconds(5)
+                        .build())
+                .build();
+        assertEquivalent(null, defaultProbes);
+        assertEquivalent(new ProbesConfig(), defaultProbes);
+        assertEquivalent(ProbesConfig.builder()
+                .readiness(ProbesConfig.ProbeConfig.builder().enabled(false).build())
+                .build(), defaultProbes);
+        assertEquivalent(ProbesConfig.builder()
+                .readiness(ProbesConfig.ProbeConfig.builder().periodSeconds(1).build())
+                .liveness(ProbesConfig.ProbeConfig.builder().timeoutSeconds(1).build())
+                .build(), defaultProbes);
+
+        final String brokerSpec = """
+                broker:
+                    replicas: 3
+                    config:
+                        a: b
+                    podAnnotations:
+                        ann1: value1
+                    tolerations:
+                      - key: key1
+                        value: value1
+                    resources:
+                        requests:
+                            cpu: 1
+                """;
+        final BrokerSpec defaults = SerializationUtil.readYaml(brokerSpec, BrokerFullSpec.class).getBroker();
+        final BrokerSetSpec set = SerializationUtil.readYaml("""
+                config:
+                    c: d
+                podAnnotations:
+                    ann2: value2
+                tolerations: []
+                resources:
+                    limits:
+                        cpu: 2
+                """, BrokerSetSpec.class);
+        assertEquivalent(set, defaults);
+        final BrokerSetSpec result = ConfigUtil.applyDefaultsWithReflection(set, () -> defaults);
+        Assert.assertEquals(result.getReplicas(), 3);
+        Assert.assertEquals(result.getConfig(), Map.of("a", "b", "c", "d"));
+        Assert.assertEquals(result.getPodAnnotations(), Map.of("ann1", "value1", "ann2", "value2"));
+        Assert.assertEquals(result.getTolerations().size(), 1);
+        Assert.assertNotNull(result.getResources().getRequests().get("cpu"));
+        Assert.assertNotNull(result.getResources().getLimits().get("cpu"));
+    }
+
+    @Test
+    public void testNulls() {
+        Assert.assertNull(ConfigUtil.applyDefaultsWithReflection(null, () -> null));
+        final ProbesConfig probes = ProbesConfig.builder().build();
+        Assert.assertSame(ConfigUtil.applyDefaultsWithReflection(probes, () -> null), probes);
+        Assert.assertEquals(probes, new ProbesConfig());
+    }
+
+    @Test
+    public void testDefaultObjectMaterializedOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final BrokerSpec defaults = ClusterSpecFixtures.clusterSpec().getBroker();
+        final Supplier<BrokerSetSpec> supplier = () -> {
+            calls.incrementAndGet();
+            return defaults;
+        };
+        ConfigUtil.applyDefaultsWithReflection(new BrokerSetSpec(), supplier);
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    private static <T> void assertEquivalent(T object, T defaults) {
+        final Object expected = LegacyConfigUtil.applyDefaultsWithReflection(clone(object), () -> clone(defaults));
+        final Object actual = ConfigUtil.applyDefaultsWithReflection(clone(object), () -> clone(defaults));
+        Assert.assertEquals(SerializationUtil.writeAsJson(actual), SerializationUtil.writeAsJson(expected));
+        Assert.assertEquals(actual, expected);
+        if (object != null) {
+            Assert.assertEquals(actual.getClass(), object.getClass());
+        }
+    }
+
+    private static <T> T clone(T object) {
+        return object == null ? null : (T) SerializationUtil.deepCloneObject(object);
+    }
 }
\ No newline at end of file
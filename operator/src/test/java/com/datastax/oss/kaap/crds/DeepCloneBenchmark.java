@@ -0,0 +1,97 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.crds;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link SerializationUtil#deepCloneObject} with the previous JSON string round trip and with a
+ * valueToTree/treeToValue round trip, on a full cluster spec and on its global spec.
+ * Run with "-prof gc" to compare the allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeepCloneBenchmark {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+    private PulsarClusterSpec spec;
+    private GlobalSpec global;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DeepCloneBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spec = ClusterSpecFixtures.clusterSpec();
+        global = spec.getGlobal();
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public PulsarClusterSpec jsonStringClusterSpec() {
+        // previous implementation, kept as baseline
+        return mapper.readValue(mapper.writeValueAsString(spec), PulsarClusterSpec.class);
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public PulsarClusterSpec jsonTreeClusterSpec() {
+        return mapper.treeToValue(mapper.valueToTree(spec), PulsarClusterSpec.class);
+    }
+
+    @Benchmark
+    public PulsarClusterSpec tokenBufferClusterSpec() {
+        return SerializationUtil.deepCloneObject(spec);
+    }
+
+    @Benchmark
+    @SneakyThrows
+    public GlobalSpec jsonStringGlobalSpec() {
+        return mapper.readValue(mapper.writeValueAsString(global), GlobalSpec.class);
+    }
+
+    @Benchmark
+    public GlobalSpec tokenBufferGlobalSpec() {
+        return SerializationUtil.deepCloneObject(global);
+    }
+}
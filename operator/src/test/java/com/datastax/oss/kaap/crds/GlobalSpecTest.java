@@ -78,6 +78,30 @@ public class GlobalSpecTest {
         Assert.assertFalse(globalSpec.getPersistence());
     }
 
+    @Test
+    public void testApplyModeDefault() {
+        GlobalSpec globalSpec = new GlobalSpec();
+        globalSpec.applyDefaults(null);
+        Assert.assertEquals(globalSpec.getApplyMode(), "Patch");
+
+        globalSpec = new GlobalSpec();
+        globalSpec.setApplyMode("ServerSideApply");
+        globalSpec.applyDefaults(null);
+        Assert.assertEquals(globalSpec.getApplyMode(), "ServerSideApply");
+    }
+
+    @Test
+    public void testLastAppliedModeDefault() {
+        GlobalSpec globalSpec = new GlobalSpec();
+        globalSpec.applyDefaults(null);
+        Assert.assertEquals(globalSpec.getLastAppliedMode(), "Full");
+
+        globalSpec = new GlobalSpec();
+        globalSpec.setLastAppliedMode("Compact");
+        globalSpec.applyDefaults(null);
+        Assert.assertEquals(globalSpec.getLastAppliedMode(), "Compact");
+    }
+
     @Test
     public void testRestartOnConfigMapChangeDefault() {
         GlobalSpec globalSpec = new GlobalSpec();
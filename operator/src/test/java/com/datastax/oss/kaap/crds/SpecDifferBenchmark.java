@@ -0,0 +1,101 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.crds;
+
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.common.json.JSONAssertComparator;
+import com.datastax.oss.kaap.common.json.JSONComparator;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares {@link SpecDiffer} with the previous string based {@link JSONAssertComparator} on a full cluster spec,
+ * both for the common case (no changes, last applied spec stored as JSON) and when one field changed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SpecDifferBenchmark {
+
+    private PulsarClusterSpec spec;
+    private PulsarClusterSpec changedSpec;
+    private String lastAppliedJson;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SpecDifferBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        spec = ClusterSpecFixtures.clusterSpec();
+        lastAppliedJson = SerializationUtil.writeAsJson(spec);
+        changedSpec = SerializationUtil.deepCloneObject(spec);
+        changedSpec.getBroker().getConfig().put("managedLedgerDefaultAckQuorum", 1);
+    }
+
+    @Benchmark
+    public boolean jsonAssertEquals() {
+        // previous implementation, kept as baseline
+        return new JSONAssertComparator().compare(lastAppliedJson, SerializationUtil.writeAsJson(spec)).areEquals();
+    }
+
+    @Benchmark
+    public boolean treeEquals() {
+        return SpecDiffer.generateDiff(lastAppliedJson, spec).areEquals();
+    }
+
+    @Benchmark
+    public List<JSONComparator.FieldComparisonDiff> jsonAssertOneChange() {
+        return new JSONAssertComparator().compare(lastAppliedJson, SerializationUtil.writeAsJson(changedSpec))
+                .diffs();
+    }
+
+    @Benchmark
+    public List<JSONComparator.FieldComparisonDiff> treeOneChange() {
+        return SpecDiffer.generateDiff(lastAppliedJson, changedSpec).diffs();
+    }
+
+    @Benchmark
+    public boolean jsonAssertObjects() {
+        return new JSONAssertComparator().compare(SerializationUtil.writeAsJson(spec),
+                SerializationUtil.writeAsJson(changedSpec)).areEquals();
+    }
+
+    @Benchmark
+    public boolean treeObjects() {
+        return SpecDiffer.generateDiff(spec, changedSpec).areEquals();
+    }
+}
@@ -15,9 +15,15 @@
  */
 package com.datastax.oss.kaap.crds;
 
+import com.datastax.oss.kaap.common.SerializationUtil;
+import com.datastax.oss.kaap.common.json.JSONAssertComparator;
 import com.datastax.oss.kaap.common.json.JSONComparator;
+import com.datastax.oss.kaap.common.json.JSONTreeComparator;
+import com.datastax.oss.kaap.crds.cluster.PulsarClusterSpec;
 import com.datastax.oss.kaap.crds.configs.RackConfig;
+import java.util.List;
 import java.util.Map;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class SpecDifferTest {
@@ -40,6 +46,58 @@ public class SpecDifferTest {
         assertDiffs(null, Map.of());
     }
 
+    @Test
+    public void testTreeComparatorDiffs() {
+        final JSONComparator.Result result = new JSONTreeComparator().compare(
+                "{\"a\": 1, \"b\": {\"c\": \"x\", \"d\": [1, 2]}, \"e\": null, \"f\": {\"g.h\": true}}",
+                "{\"b\": {\"c\": \"y\", \"d\": [1, 2, 3]}, \"a\": 1.0, \"f\": {}, \"i\": [\"z\"]}");
+        Assert.assertFalse(result.areEquals());
+        Assert.assertEquals(result.diffs(), List.of(
+                new JSONComparator.FieldComparisonDiff("b.c", "x", "y"),
+                new JSONComparator.FieldComparisonDiff("b.d", "[1,2]", "[1,2,3]"),
+                new JSONComparator.FieldComparisonDiff("e", "null", null),
+                new JSONComparator.FieldComparisonDiff("f.\"g.h\"", "true", null),
+                new JSONComparator.FieldComparisonDiff("i", null, "[\"z\"]")
+        ));
+        Assert.assertTrue(new JSONTreeComparator().compare("[{\"a\": [1, {}]}]", "[{\"a\": [1.0, {}]}]")
+                .areEquals());
+        Assert.assertFalse(new JSONTreeComparator().compare("[1, 2]", "[2, 1]").areEquals());
+    }
+
+    @Test
+    public void testTreeComparatorMatchesJSONAssert() {
+        final PulsarClusterSpec spec = ClusterSpecFixtures.clusterSpec();
+        assertSameResult(spec, spec);
+
+        PulsarClusterSpec changed = SerializationUtil.deepCloneObject(spec);
+        changed.getBroker().getConfig().put("managedLedgerDefaultAckQuorum", 1);
+        assertSameResult(spec, changed);
+
+        changed = SerializationUtil.deepCloneObject(spec);
+        changed.getBookkeeper().getSets().remove("set4");
+        assertSameResult(spec, changed);
+
+        changed = SerializationUtil.deepCloneObject(spec);
+        changed.getGlobal().setImage("apachepulsar/pulsar:2.11.0");
+        assertSameResult(spec, changed);
+
+        changed = SerializationUtil.deepCloneObject(spec);
+        changed.getProxy().setReplicas(null);
+        assertSameResult(spec, changed);
+    }
+
+    private static void assertSameResult(Object spec1, Object spec2) {
+        final String json1 = SerializationUtil.writeAsJson(spec1);
+        final String json2 = SerializationUtil.writeAsJson(spec2);
+        final JSONComparator.Result expected = new JSONAssertComparator().compare(json1, json2);
+        final JSONComparator.Result fromStrings = new JSONTreeComparator().compare(json1, json2);
+        final JSONComparator.Result fromObjects = SpecDiffer.generateDiff(spec1, spec2);
+        Assert.assertEquals(fromStrings.areEquals(), expected.areEquals());
+        Assert.assertEquals(fromObjects.areEquals(), expected.areEquals());
+        Assert.assertEquals(fromStrings.diffs().size(), expected.diffs().size());
+        Assert.assertEquals(fromObjects.diffs(), fromStrings.diffs());
+    }
+
     private static void assertNoDiffs(Object spec1, Object spec2) {
         final JSONComparator.Result result = SpecDiffer.generateDiff(spec1, spec2);
         if (!result.areEquals()) {
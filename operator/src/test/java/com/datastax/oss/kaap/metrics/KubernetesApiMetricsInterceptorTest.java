@@ -0,0 +1,48 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.metrics;
+
+import java.net.URI;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class KubernetesApiMetricsInterceptorTest {
+
+    @Test
+    public void testParse() {
+        assertCall("GET", "/api/v1/namespaces/ns/pods", "list", "pods");
+        assertCall("GET", "/api/v1/namespaces/ns/pods/pod-0", "get", "pods");
+        assertCall("GET", "/api/v1/namespaces/ns/pods?labelSelector=app%3Dpulsar", "list", "pods");
+        assertCall("GET", "/apis/apps/v1/namespaces/ns/statefulsets?watch=true&resourceVersion=1", "watch",
+                "statefulsets");
+        assertCall("PATCH", "/apis/apps/v1/namespaces/ns/statefulsets/pul-broker", "patch", "statefulsets");
+        assertCall("PUT", "/apis/kaap.oss.datastax.com/v1alpha1/namespaces/ns/brokers/pul/status", "update",
+                "brokers");
+        assertCall("POST", "/apis/batch/v1/namespaces/ns/jobs", "create", "jobs");
+        assertCall("DELETE", "/api/v1/namespaces/ns/services/pul-broker", "delete", "services");
+        assertCall("DELETE", "/api/v1/namespaces/ns/configmaps", "deletecollection", "configmaps");
+        assertCall("GET", "/apis/storage.k8s.io/v1/storageclasses/ssd", "get", "storageclasses");
+        assertCall("GET", "/api/v1/namespaces/ns", "get", "namespaces");
+        assertCall("GET", "/api/v1/namespaces", "list", "namespaces");
+        assertCall("GET", "/apis/apps/v1", "get", "discovery");
+        assertCall("GET", "/version", "get", "other");
+    }
+
+    private static void assertCall(String method, String uri, String verb, String resource) {
+        Assert.assertEquals(KubernetesApiMetricsInterceptor.parse(method, URI.create("https://k8s" + uri)),
+                new KubernetesApiMetricsInterceptor.ApiCall(verb, resource), uri);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.metrics;
+
+import com.datastax.oss.kaap.controllers.ControllerTestUtil;
+import com.datastax.oss.kaap.controllers.zookeeper.ZooKeeperController;
+import com.datastax.oss.kaap.crds.SpecDiffer;
+import com.datastax.oss.kaap.crds.zookeeper.ZooKeeper;
+import com.datastax.oss.kaap.crds.zookeeper.ZooKeeperFullSpec;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class OperatorMetricsTest {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        Metrics.removeRegistry(registry);
+        registry.close();
+    }
+
+    @Test
+    public void testReconcileMetrics() {
+        new ControllerTestUtil<ZooKeeperFullSpec, ZooKeeper>("ns", "pul")
+                .invokeController("""
+                                global:
+                                    name: pul
+                                    image: apachepulsar/pulsar:global
+                                """,
+                        ZooKeeper.class,
+                        ZooKeeperFullSpec.class,
+                        ZooKeeperController.class);
+
+        final Timer reconcile = registry.find(OperatorMetrics.RECONCILE)
+                .tags("controller", "ZooKeeper", "namespace", "ns", "outcome", "success")
+                .timer();
+        Assert.assertNotNull(reconcile);
+        Assert.assertNull(reconcile.getId().getTag("name"));
+        Assert.assertEquals(reconcile.count(), 1);
+        Assert.assertTrue(reconcile.totalTime(TimeUnit.NANOSECONDS) > 0);
+
+        for (String phase : new String[]{OperatorMetrics.PHASE_VALIDATE, OperatorMetrics.PHASE_DIFF,
+                OperatorMetrics.PHASE_PATCH}) {
+            final Timer timer = registry.find(OperatorMetrics.RECONCILE_PHASE)
+                    .tags("controller", "ZooKeeper", "phase", phase)
+                    .timer();
+            Assert.assertNotNull(timer, phase);
+            Assert.assertEquals(timer.count(), 1, phase);
+        }
+        Assert.assertEquals(registry.find(OperatorMetrics.RECONCILE_RESCHEDULES)
+                .tags("controller", "ZooKeeper", "reason", "requeue")
+                .counter()
+                .count(), 1.0);
+    }
+
+    @Test
+    public void testSpecDiff() {
+        SpecDiffer.generateDiff(Map.of("a", "b"), Map.of("a", "b"));
+        SpecDiffer.generateDiff(Map.of("a", "b"), "{\"a\": \"c\"}");
+        SpecDiffer.generateDiff((Object) null, null);
+        Assert.assertEquals(registry.find(OperatorMetrics.SPEC_DIFF).tags("result", "equal").timer().count(), 1);
+        Assert.assertEquals(registry.find(OperatorMetrics.SPEC_DIFF).tags("result", "different").timer().count(),
+                1);
+    }
+
+    @Test
+    public void testExecutorQueueSize() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        try {
+            OperatorMetrics.monitorExecutorQueue("test", executor);
+            executor.schedule(() -> {
+            }, 1, TimeUnit.HOURS);
+            executor.schedule(() -> {
+            }, 1, TimeUnit.HOURS);
+            Assert.assertEquals(registry.find(OperatorMetrics.EXECUTOR_QUEUE_SIZE)
+                    .tags("executor", "test").gauge().value(), 2.0);
+
+            OperatorMetrics.unmonitorExecutorQueue("test");
+            Assert.assertNull(registry.find(OperatorMetrics.EXECUTOR_QUEUE_SIZE)
+                    .tags("executor", "test").gauge());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAutoscalerEvaluation() {
+        OperatorMetrics.recordAutoscalerEvaluation("broker", "ns", "set1", "Stable", 3, Map.of(
+                "pod-0", Map.of("cpu", 0.5),
+                "pod-1", Map.of("cpu", 0.7)));
+        OperatorMetrics.recordAutoscalerEvaluation("broker", "ns", "set1", "ScaleDown", 2, Map.of(
+                "pod-0", Map.of("cpu", 0.2)));
+
+        Assert.assertEquals(registry.find(OperatorMetrics.AUTOSCALER_EVALUATIONS)
+                .tags("component", "broker", "namespace", "ns", "set", "set1", "decision", "Stable")
+                .counter()
+                .count(), 1.0);
+        Assert.assertEquals(registry.find(OperatorMetrics.AUTOSCALER_EVALUATIONS)
+                .tags("component", "broker", "namespace", "ns", "set", "set1", "decision", "ScaleDown")
+                .counter()
+                .count(), 1.0);
+        Assert.assertEquals(registry.find(OperatorMetrics.AUTOSCALER_REPLICAS)
+                .tags("component", "broker", "namespace", "ns", "set", "set1")
+                .gauge()
+                .value(), 2.0);
+        Assert.assertEquals(registry.find(OperatorMetrics.AUTOSCALER_POD_METRIC)
+                .tags("set", "set1", "pod", "pod-0", "metric", "cpu")
+                .gauge()
+                .value(), 0.2);
+        // the pod is not reported anymore
+        Assert.assertNull(registry.find(OperatorMetrics.AUTOSCALER_POD_METRIC)
+                .tags("set", "set1", "pod", "pod-1")
+                .gauge());
+    }
+
+    @Test
+    public void testRemoveAutoscalerMetrics() {
+        OperatorMetrics.recordAutoscalerEvaluation("broker", "ns", "set1", "Stable", 3, Map.of(
+                "pod-0", Map.of("cpu", 0.5)));
+        OperatorMetrics.recordAutoscalerEvaluation("broker", "ns", "set2", "Stable", 3, Map.of(
+                "pod-0", Map.of("cpu", 0.5)));
+        OperatorMetrics.recordAutoscalerEvaluation("bookkeeper", "ns", "set1", "Stable", 3, Map.of(
+                "pod-0", Map.of("diskUsage", 0.5)));
+
+        OperatorMetrics.removeAutoscalerMetrics("broker", "ns", "set1");
+        Assert.assertNull(registry.find(OperatorMetrics.AUTOSCALER_REPLICAS)
+                .tags("component", "broker", "set", "set1").gauge());
+        Assert.assertNull(registry.find(OperatorMetrics.AUTOSCALER_POD_METRIC)
+                .tags("component", "broker", "set", "set1").gauge());
+        Assert.assertNull(registry.find(OperatorMetrics.AUTOSCALER_EVALUATIONS)
+                .tags("component", "broker", "set", "set1").counter());
+        Assert.assertNotNull(registry.find(OperatorMetrics.AUTOSCALER_REPLICAS)
+                .tags("component", "broker", "set", "set2").gauge());
+
+        OperatorMetrics.removeAutoscalerMetrics("broker", "ns", null);
+        Assert.assertTrue(registry.find(OperatorMetrics.AUTOSCALER_REPLICAS)
+                .tags("component", "broker").gauges().isEmpty());
+        Assert.assertTrue(registry.find(OperatorMetrics.AUTOSCALER_POD_METRIC)
+                .tags("component", "broker").gauges().isEmpty());
+        Assert.assertEquals(registry.find(OperatorMetrics.AUTOSCALER_POD_METRIC)
+                .tags("component", "bookkeeper", "pod", "pod-0")
+                .gauge()
+                .value(), 0.5);
+
+        // recorded again after the removal
+        OperatorMetrics.recordAutoscalerEvaluation("broker", "ns", "set1", "Stable", 4, Map.of());
+        Assert.assertEquals(registry.find(OperatorMetrics.AUTOSCALER_REPLICAS)
+                .tags("component", "broker", "set", "set1")
+                .gauge()
+                .value(), 4.0);
+        OperatorMetrics.removeAutoscalerMetrics("bookkeeper", "ns", null);
+        OperatorMetrics.removeAutoscalerMetrics("broker", "ns", null);
+    }
+}
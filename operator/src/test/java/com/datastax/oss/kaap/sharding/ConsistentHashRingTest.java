@@ -0,0 +1,84 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.sharding;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ConsistentHashRingTest {
+
+    private static final int SHARDS = 1024;
+
+    @Test
+    public void testEmpty() {
+        Assert.assertTrue(new ConsistentHashRing(List.of()).isEmpty());
+        Assert.assertNull(new ConsistentHashRing(List.of()).ownerOf(0));
+    }
+
+    @Test
+    public void testSameOwnerRegardlessOfMembersOrder() {
+        final ConsistentHashRing ring1 = new ConsistentHashRing(List.of("kaap-0", "kaap-1", "kaap-2"));
+        final ConsistentHashRing ring2 = new ConsistentHashRing(List.of("kaap-2", "kaap-0", "kaap-1"));
+        for (int i = 0; i < SHARDS; i++) {
+            Assert.assertEquals(ring1.ownerOf(i), ring2.ownerOf(i));
+        }
+    }
+
+    @Test
+    public void testBalance() {
+        final List<String> members = List.of("kaap-0", "kaap-1", "kaap-2", "kaap-3");
+        final ConsistentHashRing ring = new ConsistentHashRing(members);
+        final Map<String, Long> counts = IntStream.range(0, SHARDS)
+                .mapToObj(ring::ownerOf)
+                .collect(Collectors.groupingBy(m -> m, Collectors.counting()));
+        Assert.assertEquals(counts.keySet(), Set.copyOf(members));
+        for (Long count : counts.values()) {
+            Assert.assertTrue(count > SHARDS / members.size() / 2, "unbalanced ring: " + counts);
+            Assert.assertTrue(count < SHARDS / members.size() * 2, "unbalanced ring: " + counts);
+        }
+    }
+
+    @Test
+    public void testMemberJoinMovesOnlyItsShards() {
+        final ConsistentHashRing before = new ConsistentHashRing(List.of("kaap-0", "kaap-1", "kaap-2"));
+        final ConsistentHashRing after = new ConsistentHashRing(List.of("kaap-0", "kaap-1", "kaap-2", "kaap-3"));
+        final Map<String, Integer> moved = new HashMap<>();
+        for (int i = 0; i < SHARDS; i++) {
+            if (!before.ownerOf(i).equals(after.ownerOf(i))) {
+                Assert.assertEquals(after.ownerOf(i), "kaap-3");
+                moved.merge(before.ownerOf(i), 1, Integer::sum);
+            }
+        }
+        final int movedCount = moved.values().stream().mapToInt(Integer::intValue).sum();
+        Assert.assertTrue(movedCount > 0);
+        Assert.assertTrue(movedCount < SHARDS / 2, "too many shards moved: " + movedCount);
+    }
+
+    @Test
+    public void testShardOf() {
+        for (int i = 0; i < 100; i++) {
+            final int shard = ConsistentHashRing.shardOf("ns/cluster-" + i, 16);
+            Assert.assertTrue(shard >= 0 && shard < 16);
+            Assert.assertEquals(ConsistentHashRing.shardOf("ns/cluster-" + i, 16), shard);
+        }
+    }
+}
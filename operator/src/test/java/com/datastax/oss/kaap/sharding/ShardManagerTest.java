@@ -0,0 +1,264 @@
+/*
+ * Copyright DataStax, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.datastax.oss.kaap.sharding;
+
+import com.datastax.oss.kaap.crds.bookkeeper.BookKeeper;
+import com.datastax.oss.kaap.crds.cluster.PulsarCluster;
+import io.fabric8.kubernetes.api.model.ObjectMetaBuilder;
+import io.fabric8.kubernetes.api.model.OwnerReferenceBuilder;
+import io.fabric8.kubernetes.api.model.coordination.v1.Lease;
+import io.fabric8.kubernetes.client.KubernetesClient;
+import io.fabric8.kubernetes.client.server.mock.KubernetesServer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class ShardManagerTest {
+
+    private static final int SHARDS = 16;
+    private static final Set<Integer> ALL_SHARDS =
+            IntStream.range(0, SHARDS).boxed().collect(Collectors.toSet());
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2023-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private static class SkewedClock extends Clock {
+        private final Clock clock;
+        private final Duration skew;
+
+        SkewedClock(Clock clock, Duration skew) {
+            this.clock = clock;
+            this.skew = skew;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return clock.instant().plus(skew);
+        }
+    }
+
+    private KubernetesServer server;
+    private KubernetesClient client;
+    private MutableClock clock;
+
+    @BeforeMethod
+    public void before() {
+        server = new KubernetesServer(false, true);
+        server.before();
+        client = server.getClient();
+        clock = new MutableClock();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void after() {
+        server.after();
+    }
+
+    private ShardManager newShardManager(String identity) {
+        return new ShardManager(client, true, SHARDS, Duration.ofSeconds(30), Duration.ofSeconds(10),
+                identity, clock);
+    }
+
+    @Test
+    public void testDisabled() {
+        final ShardManager shardManager = new ShardManager(client, false, SHARDS, Duration.ofSeconds(30),
+                Duration.ofSeconds(10), "kaap-0", clock);
+        Assert.assertTrue(shardManager.owns(newCluster("ns", "pulsar")));
+        shardManager.close();
+        Assert.assertTrue(client.leases().list().getItems().isEmpty());
+    }
+
+    @Test
+    public void testClusterKey() {
+        final PulsarCluster cluster = newCluster("ns", "pulsar");
+        final BookKeeper bookKeeper = new BookKeeper();
+        bookKeeper.setMetadata(new ObjectMetaBuilder()
+                .withName("pulsar-bookkeeper")
+                .withNamespace("ns")
+                .withOwnerReferences(new OwnerReferenceBuilder()
+                        .withKind("PulsarCluster")
+                        .withName("pulsar")
+                        .build())
+                .build());
+        Assert.assertEquals(ShardManager.clusterKey(cluster), "ns/pulsar");
+        Assert.assertEquals(ShardManager.clusterKey(bookKeeper), "ns/pulsar");
+        final ShardManager shardManager = newShardManager("kaap-0");
+        Assert.assertEquals(shardManager.shardOf(bookKeeper), shardManager.shardOf(cluster));
+    }
+
+    @Test
+    public void testSingleReplicaOwnsAllShards() {
+        final ShardManager shardManager = newShardManager("kaap-0");
+        final List<Set<Integer>> gainedEvents = new ArrayList<>();
+        shardManager.addListener((gained, lost) -> gainedEvents.add(gained));
+        Assert.assertFalse(shardManager.owns(newCluster("ns", "pulsar")));
+
+        shardManager.sync();
+        Assert.assertEquals(shardManager.getOwnedShards(), ALL_SHARDS);
+        Assert.assertTrue(shardManager.owns(newCluster("ns", "pulsar")));
+        Assert.assertEquals(gainedEvents, List.of(ALL_SHARDS));
+        Assert.assertEquals(client.leases().withLabel(ShardManager.LABEL_SHARDING).list().getItems().size(),
+                SHARDS + 1);
+
+        clock.advance(Duration.ofSeconds(10));
+        shardManager.sync();
+        Assert.assertEquals(shardManager.getOwnedShards(), ALL_SHARDS);
+        Assert.assertEquals(gainedEvents.size(), 1);
+        final Lease lease = client.leases().withName(ShardManager.SHARD_LEASE_PREFIX + 0).get();
+        Assert.assertEquals(lease.getSpec().getHolderIdentity(), "kaap-0");
+        Assert.assertEquals(lease.getSpec().getRenewTime().toInstant(), clock.instant());
+    }
+
+    @Test
+    public void testRebalanceOnJoinAndLeave() {
+        final ShardManager replica0 = newShardManager("kaap-0");
+        final ShardManager replica1 = newShardManager("kaap-1");
+        final Set<Integer> lostByReplica0 = new HashSet<>();
+        replica0.addListener((gained, lost) -> lostByReplica0.addAll(lost));
+
+        replica0.sync();
+        // the shards are still held by the first replica
+        replica1.sync();
+        Assert.assertEquals(replica0.getOwnedShards(), ALL_SHARDS);
+        Assert.assertTrue(replica1.getOwnedShards().isEmpty());
+
+        // the first replica sees the new member and releases its shards
+        replica0.sync();
+        replica1.sync();
+        final Set<Integer> owned0 = replica0.getOwnedShards();
+        final Set<Integer> owned1 = replica1.getOwnedShards();
+        Assert.assertFalse(owned0.isEmpty());
+        Assert.assertFalse(owned1.isEmpty());
+        Assert.assertTrue(owned0.stream().noneMatch(owned1::contains));
+        final Set<Integer> all = new HashSet<>(owned0);
+        all.addAll(owned1);
+        Assert.assertEquals(all, ALL_SHARDS);
+        Assert.assertEquals(lostByReplica0, owned1);
+
+        // graceful leave, the shards are taken over without waiting for the leases to expire
+        replica1.close();
+        replica0.sync();
+        Assert.assertEquals(replica0.getOwnedShards(), ALL_SHARDS);
+    }
+
+    @Test
+    public void testTakeOverExpiredLeases() {
+        final ShardManager replica0 = newShardManager("kaap-0");
+        final ShardManager replica1 = newShardManager("kaap-1");
+        replica0.sync();
+        replica1.sync();
+        replica0.sync();
+        replica1.sync();
+        final Set<Integer> owned1 = replica1.getOwnedShards();
+        Assert.assertFalse(owned1.isEmpty());
+
+        // the second replica stops renewing its leases
+        clock.advance(Duration.ofSeconds(20));
+        replica0.sync();
+        Assert.assertTrue(replica0.getOwnedShards().stream().noneMatch(owned1::contains));
+
+        clock.advance(Duration.ofSeconds(11));
+        Assert.assertTrue(replica1.getOwnedShards().isEmpty());
+        replica0.sync();
+        Assert.assertEquals(replica0.getOwnedShards(), ALL_SHARDS);
+        final Lease lease = client.leases()
+                .withName(ShardManager.SHARD_LEASE_PREFIX + owned1.iterator().next()).get();
+        Assert.assertEquals(lease.getSpec().getHolderIdentity(), "kaap-0");
+        // kaap-0 -> kaap-1 -> kaap-0
+        Assert.assertEquals(lease.getSpec().getLeaseTransitions(), 2);
+    }
+
+    @Test
+    public void testClockSkewWithinRenewInterval() {
+        // the clock of the first replica is ahead, it sees the leases of the second replica expire earlier
+        final ShardManager replica0 = new ShardManager(client, true, SHARDS, Duration.ofSeconds(30),
+                Duration.ofSeconds(10), "kaap-0", new SkewedClock(clock, Duration.ofSeconds(8)));
+        final ShardManager replica1 = newShardManager("kaap-1");
+        replica0.sync();
+        replica1.sync();
+        replica0.sync();
+        replica1.sync();
+        Assert.assertFalse(replica1.getOwnedShards().isEmpty());
+
+        // the second replica stops renewing its leases, it must give up its shards before they are taken over
+        for (int i = 0; i < 40; i++) {
+            clock.advance(Duration.ofSeconds(1));
+            replica0.sync();
+            final Set<Integer> owned1 = replica1.getOwnedShards();
+            Assert.assertTrue(replica0.getOwnedShards().stream().noneMatch(owned1::contains),
+                    "shards owned by both replicas after " + (i + 1) + "s");
+        }
+        Assert.assertEquals(replica0.getOwnedShards(), ALL_SHARDS);
+        Assert.assertTrue(replica1.getOwnedShards().isEmpty());
+    }
+
+    @Test
+    public void testRenewIntervalLowerThanLeaseDuration() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ShardManager(client, true, SHARDS,
+                Duration.ofSeconds(10), Duration.ofSeconds(10), "kaap-0", clock));
+    }
+
+    private static PulsarCluster newCluster(String namespace, String name) {
+        final PulsarCluster cluster = new PulsarCluster();
+        cluster.setMetadata(new ObjectMetaBuilder()
+                .withName(name)
+                .withNamespace(namespace)
+                .build());
+        return cluster;
+    }
+}